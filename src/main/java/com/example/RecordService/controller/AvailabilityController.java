@@ -2,7 +2,11 @@ package com.example.RecordService.controller;
 
 import com.example.RecordService.model.dto.AvailabilityRequest;
 import com.example.RecordService.model.dto.AvailabilityResponse;
+import com.example.RecordService.model.dto.AvailabilityRuleRequest;
+import com.example.RecordService.model.dto.AvailabilityRuleResponse;
+import com.example.RecordService.model.dto.BulkAvailabilityRequest;
 import com.example.RecordService.model.dto.CheckAvailabilityRequest;
+import com.example.RecordService.service.AvailabilityRuleService;
 import com.example.RecordService.service.AvailabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -10,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +27,9 @@ public class AvailabilityController {
     @Autowired
     private AvailabilityService availabilityService;
     
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+    
     /**
      * Create or update availability for an item
      */
@@ -36,6 +44,97 @@ public class AvailabilityController {
         }
     }
     
+    /**
+     * Create or update availability for several items over a date range (at most 20000 item dates)
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> bulkUpsertAvailability(@RequestBody BulkAvailabilityRequest request) {
+        if (request.getBusinessId() == null || request.getItems() == null || request.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Business ID and items are required"));
+        }
+        if (request.getItems().stream().anyMatch(item -> item == null || item.getItemId() == null || item.getItemType() == null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Every item needs an item ID and item type"));
+        }
+        if (request.getStartDate() == null || request.getEndDate() == null || request.getEndDate().isBefore(request.getStartDate())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A valid start and end date are required"));
+        }
+        if (request.getAvailableQuantity() == null || request.getAvailableQuantity() < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Available quantity must be zero or more"));
+        }
+        long days = ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate()) + 1;
+        if (days * request.getItems().size() > AvailabilityService.MAX_BULK_AVAILABILITY_CELLS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + AvailabilityService.MAX_BULK_AVAILABILITY_CELLS + " item dates can be set at once"));
+        }
+        try {
+            return ResponseEntity.ok(availabilityService.bulkUpsertAvailability(request));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to create/update availability: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Create or replace the recurring availability rule of an item
+     */
+    @PostMapping("/rules")
+    public ResponseEntity<?> saveAvailabilityRule(@RequestBody AvailabilityRuleRequest request) {
+        if (request.getItemId() == null || request.getItemType() == null || request.getBusinessId() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Item ID, item type and business ID are required"));
+        }
+        if (request.getDaysOfWeek() == null || request.getDaysOfWeek().isEmpty() || request.getDaysOfWeek().contains(null)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At least one day of the week is required"));
+        }
+        if (request.getStartDate() == null
+                || (request.getEndDate() != null && request.getEndDate().isBefore(request.getStartDate()))) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A valid start date is required, on or before the end date"));
+        }
+        if (request.getDefaultQuantity() == null || request.getDefaultQuantity() < 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Default quantity must be zero or more"));
+        }
+        try {
+            return ResponseEntity.ok(availabilityRuleService.saveRule(request));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to save availability rule: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Get the recurring availability rule of an item
+     */
+    @GetMapping("/rules/item/{itemId}/type/{itemType}")
+    public ResponseEntity<?> getAvailabilityRule(@PathVariable String itemId, @PathVariable String itemType) {
+        try {
+            Optional<AvailabilityRuleResponse> rule = availabilityRuleService.getRule(itemId, itemType);
+            if (rule.isPresent()) {
+                return ResponseEntity.ok(rule.get());
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "No availability rule found for this item"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get availability rule: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Delete the recurring availability rule of an item; dates already booked keep their availability
+     */
+    @DeleteMapping("/rules/item/{itemId}/type/{itemType}")
+    public ResponseEntity<?> deleteAvailabilityRule(@PathVariable String itemId, @PathVariable String itemType) {
+        try {
+            if (!availabilityRuleService.deleteRule(itemId, itemType)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "No availability rule found for this item"));
+            }
+            return ResponseEntity.ok(Map.of("message", "Availability rule deleted successfully"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to delete availability rule: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get availability for an item on a specific date
      */
@@ -95,6 +194,40 @@ public class AvailabilityController {
         }
     }
     
+    /**
+     * Find items of any business available on a date, optionally of one item type (theme, inventory, plate),
+     * theme/inventory category and business
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchAvailableOnDate(
+            @RequestParam String date,
+            @RequestParam(required = false) String itemType,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String businessId,
+            @RequestParam(defaultValue = "1") int minQuantity,
+            @RequestParam(defaultValue = "100") int limit) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Date must be YYYY-MM-DD"));
+        }
+        if (minQuantity < 1) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Minimum quantity must be at least 1"));
+        }
+        if (limit < 1 || limit > AvailabilityService.MAX_SEARCH_RESULTS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Limit must be between 1 and " + AvailabilityService.MAX_SEARCH_RESULTS));
+        }
+        try {
+            return ResponseEntity.ok(availabilityService.searchAvailableOnDate(
+                    day, itemType != null ? itemType.toLowerCase() : null, category, businessId, minQuantity, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to search availability: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get all availabilities for a business
      */
@@ -109,6 +242,35 @@ public class AvailabilityController {
         }
     }
     
+    /**
+     * Get the availability calendar of a business: one item x date matrix of available quantity,
+     * booked quantity and price override (at most 366 days)
+     */
+    @GetMapping("/business/{businessId}/calendar")
+    public ResponseEntity<?> getBusinessCalendar(
+            @PathVariable String businessId,
+            @RequestParam String startDate,
+            @RequestParam String endDate) {
+        LocalDate start;
+        LocalDate end;
+        try {
+            start = LocalDate.parse(startDate);
+            end = LocalDate.parse(endDate);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Dates must be yyyy-MM-dd"));
+        }
+        if (end.isBefore(start) || !start.plusDays(AvailabilityService.MAX_CALENDAR_DAYS).isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Range must be between 1 and " + AvailabilityService.MAX_CALENDAR_DAYS + " days"));
+        }
+        try {
+            return ResponseEntity.ok(availabilityService.getBusinessCalendar(businessId, start, end));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get availability calendar: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Check if an item is available on a specific date
      */
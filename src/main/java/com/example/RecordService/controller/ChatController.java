@@ -2,6 +2,7 @@ package com.example.RecordService.controller;
 
 import com.example.RecordService.model.dto.ChatMessageResponse;
 import com.example.RecordService.model.dto.ChatResponse;
+import com.example.RecordService.model.dto.MarkReadRequest;
 import com.example.RecordService.model.dto.SendMessageRequest;
 import com.example.RecordService.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -106,12 +107,25 @@ public class ChatController {
     }
     
     @PostMapping("/{chatId}/read")
-    public ResponseEntity<String> markMessagesAsRead(
+    public ResponseEntity<?> markMessagesAsRead(
             @PathVariable Long chatId,
-            @RequestParam String phoneNumber) {
+            @RequestParam String phoneNumber,
+            @RequestBody(required = false) MarkReadRequest request) {
         
-        chatService.markMessagesAsRead(chatId, phoneNumber);
-        return ResponseEntity.ok("Messages marked as read");
+        // Without a body every unread message is marked; otherwise the given IDs or those sent up to a time
+        String error = request != null ? request.validate() : null;
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        int count;
+        if (request != null && request.getIds() != null) {
+            count = chatService.markMessagesAsRead(chatId, phoneNumber, request.getIds());
+        } else if (request != null && request.getBefore() != null) {
+            count = chatService.markMessagesAsReadBefore(chatId, phoneNumber, request.getBefore());
+        } else {
+            count = chatService.markMessagesAsRead(chatId, phoneNumber);
+        }
+        return ResponseEntity.ok(Map.of("markedCount", count));
     }
     
     @GetMapping("/{chatId}/unread-count")
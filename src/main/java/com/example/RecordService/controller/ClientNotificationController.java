@@ -1,6 +1,7 @@
 package com.example.RecordService.controller;
 
 import com.example.RecordService.model.dto.ClientNotificationResponse;
+import com.example.RecordService.model.dto.MarkReadRequest;
 import com.example.RecordService.service.ClientNotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -8,6 +9,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/client-notifications")
@@ -84,6 +86,35 @@ public class ClientNotificationController {
         }
     }
 
+    /**
+     * Mark some notifications of a client as read in one update: the given IDs, those created up to a time,
+     * or all unread ones when the body sets neither
+     * @param clientPhone the client's phone number
+     * @param request the IDs or time
+     * @return the number of notifications marked
+     */
+    @PutMapping("/client/{clientPhone}/mark-read")
+    public ResponseEntity<?> markNotificationsAsRead(@PathVariable String clientPhone, @RequestBody MarkReadRequest request) {
+        String error = request.validate();
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        try {
+            int count;
+            if (request.getIds() != null) {
+                count = clientNotificationService.markNotificationsAsRead(clientPhone, request.getIds());
+            } else if (request.getBefore() != null) {
+                count = clientNotificationService.markNotificationsAsReadBefore(clientPhone, request.getBefore());
+            } else {
+                count = clientNotificationService.markAllNotificationsAsRead(clientPhone);
+            }
+            return ResponseEntity.ok(Map.of("markedCount", count));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to mark notifications as read: " + e.getMessage()));
+        }
+    }
+
     /**
      * Delete a specific notification
      * @param notificationId the ID of the notification to delete
@@ -1,13 +1,18 @@
 package com.example.RecordService.controller;
 
+import com.example.RecordService.model.dto.MarkReadRequest;
 import com.example.RecordService.model.dto.NotificationResponse;
+import com.example.RecordService.service.NotificationHub;
 import com.example.RecordService.service.NotificationService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -17,6 +22,31 @@ public class NotificationController {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private NotificationHub notificationHub;
+    
+    /**
+     * Stream a user's new vendor notifications, client notifications, chat messages and unread count changes
+     * as Server-Sent Events, replacing polling of the list and count endpoints
+     * @param phoneNumber the user's phone number
+     * @param lastEventId the ID of the last event received, sent by the browser when it reconnects
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream/{phoneNumber}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@PathVariable String phoneNumber,
+                             @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long resumeFrom = null;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeFrom = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                // Unknown position; the hub asks the client to resync
+                resumeFrom = 0L;
+            }
+        }
+        return notificationHub.subscribe(phoneNumber, resumeFrom);
+    }
+    
     /**
      * Get all notifications for a vendor
      * @param vendorPhone the vendor's phone number
@@ -101,6 +131,35 @@ public class NotificationController {
         }
     }
     
+    /**
+     * Mark some notifications of a vendor as read in one update: the given IDs, those created up to a time,
+     * or all unread ones when the body sets neither
+     * @param vendorPhone the vendor's phone number
+     * @param request the IDs or time
+     * @return ResponseEntity with the number of notifications marked
+     */
+    @PutMapping("/vendor/{vendorPhone}/read")
+    public ResponseEntity<?> markAsRead(@PathVariable String vendorPhone, @RequestBody MarkReadRequest request) {
+        String error = request.validate();
+        if (error != null) {
+            return ResponseEntity.badRequest().body(Map.of("error", error));
+        }
+        try {
+            int count;
+            if (request.getIds() != null) {
+                count = notificationService.markAsRead(vendorPhone, request.getIds());
+            } else if (request.getBefore() != null) {
+                count = notificationService.markAsReadBefore(vendorPhone, request.getBefore());
+            } else {
+                count = notificationService.markAllAsRead(vendorPhone);
+            }
+            return ResponseEntity.ok(Map.of("markedCount", count));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to mark notifications as read: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Delete notification
      * @param notificationId the notification ID
@@ -1,14 +1,30 @@
 package com.example.RecordService.controller;
 
 import com.example.RecordService.entity.Order;
+import com.example.RecordService.model.dto.BulkStatusUpdateRequest;
+import com.example.RecordService.model.dto.OrderPage;
 import com.example.RecordService.model.dto.OrderRequest;
 import com.example.RecordService.model.dto.OrderResponse;
+import com.example.RecordService.service.AuthorizationService;
+import com.example.RecordService.service.OrderExportService;
+import com.example.RecordService.service.OrderIdempotencyService;
 import com.example.RecordService.service.OrderService;
+import com.example.RecordService.service.OrderStatisticsService;
+import com.example.RecordService.service.OrderTransitionService;
+import com.example.RecordService.service.ReservationExpiryService;
+import com.example.RecordService.service.SalesRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,16 +34,41 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class OrderController {
     
+    private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+    
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private AuthorizationService authorizationService;
+    
+    @Autowired
+    private OrderExportService orderExportService;
+    
+    @Autowired
+    private OrderStatisticsService orderStatisticsService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private OrderIdempotencyService orderIdempotencyService;
+    
+    @Autowired
+    private ReservationExpiryService reservationExpiryService;
+    
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+    
     /**
      * Create a new order
      * @param orderRequest the order request
+     * @param idempotencyKey optional client-generated key; a retry with the same key returns the original order
      * @return ResponseEntity with the created order
      */
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest) {
+    public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest,
+                                         @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             System.out.println("=== ORDER CREATION REQUEST ===");
             System.out.println("User ID: " + orderRequest.getUserId());
@@ -66,7 +107,9 @@ public class OrderController {
                 }
             }
             
-            OrderResponse orderResponse = orderService.createOrder(orderRequest);
+            OrderResponse orderResponse = idempotencyKey != null
+                    ? orderIdempotencyService.createOrder(orderRequest, idempotencyKey)
+                    : orderService.createOrder(orderRequest);
             System.out.println("=== ORDER CREATED SUCCESSFULLY ===");
             return ResponseEntity.status(HttpStatus.CREATED).body(orderResponse);
             
@@ -103,15 +146,25 @@ public class OrderController {
     }
     
     /**
-     * Get all orders for a user
+     * Get all orders for a user.
+     * Pass cursor and/or limit to get a keyset-paginated OrderPage instead of the full list.
      * @param userId the user ID
-     * @return ResponseEntity with list of orders
+     * @param cursor nextCursor from the previous page (optional)
+     * @param limit page size (optional)
+     * @return ResponseEntity with list or page of orders
      */
     @GetMapping("/user/{userId}")
-    public ResponseEntity<?> getOrdersByUserId(@PathVariable String userId) {
+    public ResponseEntity<?> getOrdersByUserId(@PathVariable String userId,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(orderService.getOrdersByUserIdPage(userId, cursor, limit));
+            }
             List<OrderResponse> orders = orderService.getOrdersByUserId(userId);
             return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to get orders: " + e.getMessage());
@@ -119,15 +172,25 @@ public class OrderController {
     }
     
     /**
-     * Get all orders for authenticated vendor (only their business orders)
-     * @return ResponseEntity with list of vendor's orders
+     * Get all orders, one keyset page at a time (super admin only)
+     * @param adminPhone the requesting user's phone number
+     * @param cursor nextCursor from the previous page (optional)
+     * @param limit page size (optional, defaults to 50, max 200)
+     * @return ResponseEntity with a page of orders
      */
     @GetMapping
-    public ResponseEntity<?> getVendorOrders() {
+    public ResponseEntity<?> getAllOrders(@RequestHeader(value = "X-Vendor-Phone", required = false) String adminPhone,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer limit) {
         try {
-            // This endpoint should be secured and only return orders for the authenticated vendor's businesses
-            // For now, return empty list to prevent security issue
-            return ResponseEntity.ok("This endpoint needs proper authentication and authorization");
+            if (!authorizationService.isSuperAdmin(adminPhone)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Only super admins can list all orders."));
+            }
+            OrderPage page = orderService.getAllOrdersPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to get orders: " + e.getMessage());
@@ -135,18 +198,65 @@ public class OrderController {
     }
     
     /**
-     * Get orders by status
+     * Export all orders placed between two dates (inclusive) with their items (super admin only).
+     * Rows are streamed from the database as they are read, so exports of any size use constant memory.
+     * @param adminPhone the requesting user's phone number
+     * @param from first order date (yyyy-MM-dd)
+     * @param to last order date (yyyy-MM-dd)
+     * @param format "ndjson" (one order per line, default) or "csv" (one line per order item)
+     * @return ResponseEntity streaming the export
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportOrders(@RequestHeader(value = "X-Vendor-Phone", required = false) String adminPhone,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "ndjson") String format) {
+        if (!authorizationService.isSuperAdmin(adminPhone)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only super admins can export orders."));
+        }
+        if (!orderExportService.isSupportedFormat(format)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unsupported format: " + format + ". Use ndjson or csv."));
+        }
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "'to' must not be before 'from'"));
+        }
+        
+        boolean csv = "csv".equalsIgnoreCase(format);
+        String fileName = "orders-" + from + "-to-" + to + (csv ? ".csv" : ".ndjson");
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(from, to, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv; charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+    
+    /**
+     * Get orders by status.
+     * Pass cursor and/or limit to get a keyset-paginated OrderPage instead of the full list.
      * @param status the order status
-     * @return ResponseEntity with list of orders
+     * @param cursor nextCursor from the previous page (optional)
+     * @param limit page size (optional)
+     * @return ResponseEntity with list or page of orders
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status) {
+    public ResponseEntity<?> getOrdersByStatus(@PathVariable String status,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer limit) {
+        Order.OrderStatus orderStatus;
         try {
-            Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
+            orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Invalid status: " + status);
+        }
+        try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(orderService.getOrdersByStatusPage(orderStatus, cursor, limit));
+            }
             List<OrderResponse> orders = orderService.getOrdersByStatus(orderStatus);
             return ResponseEntity.ok(orders);
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().body("Invalid status: " + status);
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to get orders: " + e.getMessage());
@@ -154,15 +264,25 @@ public class OrderController {
     }
     
     /**
-     * Get orders by business ID
+     * Get orders by business ID.
+     * Pass cursor and/or limit to get a keyset-paginated OrderPage instead of the full list.
      * @param businessId the business ID
-     * @return ResponseEntity with list of orders
+     * @param cursor nextCursor from the previous page (optional)
+     * @param limit page size (optional)
+     * @return ResponseEntity with list or page of orders
      */
     @GetMapping("/business/{businessId}")
-    public ResponseEntity<?> getOrdersByBusinessId(@PathVariable String businessId) {
+    public ResponseEntity<?> getOrdersByBusinessId(@PathVariable String businessId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
         try {
+            if (cursor != null || limit != null) {
+                return ResponseEntity.ok(orderService.getOrdersByBusinessIdPage(businessId, cursor, limit));
+            }
             List<OrderResponse> orders = orderService.getOrdersByBusinessId(businessId);
             return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Failed to get orders: " + e.getMessage());
@@ -173,14 +293,16 @@ public class OrderController {
      * Update order status
      * @param orderId the order ID
      * @param status the new status
+     * @param actorPhone the phone number of the user making the change, recorded in the transition log
      * @return ResponseEntity with the updated order
      */
     @PutMapping("/{orderId}/status")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Long orderId, 
-                                               @RequestParam String status) {
+                                               @RequestParam String status,
+                                               @RequestHeader(value = "X-Vendor-Phone", required = false) String actorPhone) {
         try {
             Order.OrderStatus orderStatus = Order.OrderStatus.valueOf(status.toUpperCase());
-            Optional<OrderResponse> updatedOrder = orderService.updateOrderStatus(orderId, orderStatus);
+            Optional<OrderResponse> updatedOrder = orderService.updateOrderStatus(orderId, orderStatus, actorPhone);
             return updatedOrder.map(ResponseEntity::ok)
                     .orElse(ResponseEntity.notFound().build());
         } catch (IllegalArgumentException e) {
@@ -211,6 +333,37 @@ public class OrderController {
         }
     }
     
+    /**
+     * Move several orders to the same status in one transaction
+     * @param request the order IDs (at most 500) and the new status
+     * @param actorPhone the phone number of the user making the change, recorded in the transition log
+     * @return ResponseEntity with a result per order
+     */
+    @PutMapping("/bulk/status")
+    public ResponseEntity<?> bulkUpdateOrderStatus(@RequestBody BulkStatusUpdateRequest request,
+                                                   @RequestHeader(value = "X-Vendor-Phone", required = false) String actorPhone) {
+        if (request.getOrderIds() == null || request.getOrderIds().isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Order IDs are required"));
+        }
+        if (request.getOrderIds().size() > OrderService.MAX_BULK_STATUS_ORDERS) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "At most " + OrderService.MAX_BULK_STATUS_ORDERS + " orders can be updated at once"));
+        }
+        Order.OrderStatus orderStatus;
+        try {
+            orderStatus = Order.OrderStatus.valueOf(String.valueOf(request.getStatus()).toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status: " + request.getStatus()));
+        }
+        try {
+            return ResponseEntity.ok(orderService.bulkUpdateOrderStatus(request.getOrderIds(), orderStatus, actorPhone));
+        } catch (Exception e) {
+            logger.error("Bulk order status update to {} failed", orderStatus, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to update orders: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Delete order
      * @param orderId the order ID
@@ -245,4 +398,152 @@ public class OrderController {
                     .body("Failed to get statistics: " + e.getMessage());
         }
     }
+    
+    /**
+     * Get order counts by status for a business
+     * @param businessId the business ID
+     * @return ResponseEntity with the business's order counts
+     */
+    @GetMapping("/statistics/business/{businessId}")
+    public ResponseEntity<?> getBusinessOrderStatistics(@PathVariable String businessId) {
+        try {
+            return ResponseEntity.ok(orderStatisticsService.getBusinessStatistics(businessId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get order counts by status for each order day in a range (at most one year)
+     * @param from first day (yyyy-MM-dd)
+     * @param to last day (yyyy-MM-dd)
+     * @return ResponseEntity with order counts keyed by day
+     */
+    @GetMapping("/statistics/daily")
+    public ResponseEntity<?> getDailyOrderStatistics(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || from.plusYears(1).isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range must be between 1 day and 1 year"));
+        }
+        try {
+            return ResponseEntity.ok(orderStatisticsService.getDailyStatistics(from, to));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get a business's daily revenue, items sold and order counts for a range (at most one year)
+     * @param businessId the business ID
+     * @param from first day (yyyy-MM-dd)
+     * @param to last day (yyyy-MM-dd)
+     * @return ResponseEntity with one entry per day with sales
+     */
+    @GetMapping("/statistics/business/{businessId}/sales")
+    public ResponseEntity<?> getBusinessDailySales(@PathVariable String businessId,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from) || from.plusYears(1).isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range must be between 1 day and 1 year"));
+        }
+        try {
+            return ResponseEntity.ok(salesRollupService.getDailySales(businessId, from, to));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get a business's best selling items by revenue for a range (at most one year)
+     * @param businessId the business ID
+     * @param from first day (yyyy-MM-dd)
+     * @param to last day (yyyy-MM-dd)
+     * @param limit number of items (default 10, at most 100)
+     * @return ResponseEntity with the top items
+     */
+    @GetMapping("/statistics/business/{businessId}/top-items")
+    public ResponseEntity<?> getBusinessTopItems(@PathVariable String businessId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(defaultValue = "10") int limit) {
+        if (to.isBefore(from) || from.plusYears(1).isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range must be between 1 day and 1 year"));
+        }
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Limit must be between 1 and 100"));
+        }
+        try {
+            return ResponseEntity.ok(salesRollupService.getTopItems(businessId, from, to, limit));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get p50/p95/p99 latencies of a business's orders between two statuses for a range (at most one year),
+     * e.g. confirm latency (PENDING to CONFIRMED) or preparation time (CONFIRMED to READY)
+     * @param businessId the business ID
+     * @param from first day (yyyy-MM-dd) on which orders reached the target status
+     * @param to last day (yyyy-MM-dd)
+     * @param fromStatus the status the latency is measured from (default PENDING)
+     * @param toStatus the status the latency is measured to (default CONFIRMED)
+     * @return ResponseEntity with the order count and latency percentiles in seconds
+     */
+    @GetMapping("/statistics/business/{businessId}/latency")
+    public ResponseEntity<?> getBusinessStatusLatency(@PathVariable String businessId,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      @RequestParam(defaultValue = "PENDING") String fromStatus,
+                                                      @RequestParam(defaultValue = "CONFIRMED") String toStatus) {
+        if (to.isBefore(from) || from.plusYears(1).isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Range must be between 1 day and 1 year"));
+        }
+        Order.OrderStatus start;
+        Order.OrderStatus end;
+        try {
+            start = Order.OrderStatus.valueOf(fromStatus.toUpperCase());
+            end = Order.OrderStatus.valueOf(toStatus.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid status: " + e.getMessage()));
+        }
+        try {
+            return ResponseEntity.ok(orderTransitionService.getLatencyPercentiles(businessId, start, end, from, to));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get statistics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the status transitions of an order
+     * @param orderId the order ID
+     * @return ResponseEntity with the transitions in the order they happened
+     */
+    @GetMapping("/{orderId}/transitions")
+    public ResponseEntity<?> getOrderTransitions(@PathVariable Long orderId) {
+        try {
+            return ResponseEntity.ok(orderTransitionService.getTransitions(orderId));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Failed to get order transitions: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get stock held by PENDING orders and stock reclaimed by reservation expiry (super admin only)
+     * @param adminPhone the requesting user's phone number
+     * @return ResponseEntity with held orders/units and expired orders/reclaimed units since startup
+     */
+    @GetMapping("/reservations/stats")
+    public ResponseEntity<?> getReservationStats(@RequestHeader(value = "X-Vendor-Phone", required = false) String adminPhone) {
+        if (!authorizationService.isSuperAdmin(adminPhone)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Only super admins can view reservation statistics."));
+        }
+        return ResponseEntity.ok(reservationExpiryService.getReservationStats());
+    }
 }
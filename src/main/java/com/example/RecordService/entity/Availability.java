@@ -6,6 +6,9 @@ import java.time.LocalDate;
 @Entity
 @Table(name = "availabilities", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"item_id", "item_type", "availability_date"})
+}, indexes = {
+    @Index(name = "idx_availabilities_business_date", columnList = "business_id, availability_date"),
+    @Index(name = "idx_availabilities_date_type", columnList = "availability_date, item_type, business_id")
 })
 public class Availability {
     
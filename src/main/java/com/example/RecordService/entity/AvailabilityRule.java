@@ -0,0 +1,147 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Recurring availability of an item: a default quantity on the chosen weekdays between a start date and an
+ * optional end date. Evaluated when a date is read, so an item open every weekday needs one rule instead of
+ * one Availability row per date. A concrete Availability row for a date always takes precedence over the rule
+ * (that is how a single date is closed or given another quantity), and one is written from the rule the first
+ * time a booking takes quantity on that date.
+ */
+@Entity
+@Table(name = "availability_rules", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"item_id", "item_type"})
+}, indexes = {
+    @Index(name = "idx_availability_rules_business", columnList = "business_id")
+})
+public class AvailabilityRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long ruleId;
+
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Column(name = "item_type", nullable = false)
+    private String itemType; // "theme", "inventory", "plate"
+
+    @Column(name = "business_id", nullable = false)
+    private String businessId;
+
+    @Column(name = "days_of_week", nullable = false)
+    private Integer daysOfWeek; // Bit (DayOfWeek.getValue() - 1) set for each open weekday
+
+    @Column(name = "default_quantity", nullable = false)
+    private Integer defaultQuantity;
+
+    @Column(name = "price_override")
+    private Double priceOverride;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date")
+    private LocalDate endDate; // Null for open-ended rules
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AvailabilityRule() {}
+
+    public AvailabilityRule(String itemId, String itemType, String businessId, Integer daysOfWeek,
+                            Integer defaultQuantity, LocalDate startDate, LocalDate endDate) {
+        this.itemId = itemId;
+        this.itemType = itemType;
+        this.businessId = businessId;
+        this.daysOfWeek = daysOfWeek;
+        this.defaultQuantity = defaultQuantity;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    // Getters and Setters
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(Long ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public Integer getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(Integer daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public Integer getDefaultQuantity() {
+        return defaultQuantity;
+    }
+
+    public void setDefaultQuantity(Integer defaultQuantity) {
+        this.defaultQuantity = defaultQuantity;
+    }
+
+    public Double getPriceOverride() {
+        return priceOverride;
+    }
+
+    public void setPriceOverride(Double priceOverride) {
+        this.priceOverride = priceOverride;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Ledger of booked quantity per item and booking date: the sum of the quantities of order lines
+ * for that date whose order is confirmed and not yet delivered (CONFIRMED, PREPARING, READY, SHIPPED).
+ * Lets an availability check read the booked quantity by primary key instead of summing order lines.
+ */
+@Entity
+@Table(name = "booked_quantities")
+@IdClass(BookedQuantity.BookedKey.class)
+public class BookedQuantity {
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Id
+    @Column(name = "item_type", nullable = false)
+    private String itemType; // lower case
+
+    @Id
+    @Column(name = "booking_date", nullable = false)
+    private LocalDate bookingDate;
+
+    @Column(name = "booked_quantity", nullable = false)
+    private long bookedQuantity;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BookedQuantity() {}
+
+    // Getters and Setters
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public LocalDate getBookingDate() {
+        return bookingDate;
+    }
+
+    public void setBookingDate(LocalDate bookingDate) {
+        this.bookingDate = bookingDate;
+    }
+
+    public long getBookedQuantity() {
+        return bookedQuantity;
+    }
+
+    public void setBookedQuantity(long bookedQuantity) {
+        this.bookedQuantity = bookedQuantity;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Composite primary key
+    public static class BookedKey implements Serializable {
+        private String itemId;
+        private String itemType;
+        private LocalDate bookingDate;
+
+        public BookedKey() {}
+
+        public BookedKey(String itemId, String itemType, LocalDate bookingDate) {
+            this.itemId = itemId;
+            this.itemType = itemType;
+            this.bookingDate = bookingDate;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+
+        public String getItemType() {
+            return itemType;
+        }
+
+        public LocalDate getBookingDate() {
+            return bookingDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof BookedKey)) return false;
+            BookedKey that = (BookedKey) o;
+            return Objects.equals(itemId, that.itemId) && Objects.equals(itemType, that.itemType)
+                    && Objects.equals(bookingDate, that.bookingDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemId, itemType, bookingDate);
+        }
+    }
+}
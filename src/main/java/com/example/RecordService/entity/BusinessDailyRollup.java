@@ -0,0 +1,126 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Sales totals of one business for one order day.
+ * Counts orders once they are confirmed (CONFIRMED through DELIVERED); cancelling a counted order subtracts it again.
+ */
+@Entity
+@Table(name = "business_daily_rollups")
+@IdClass(BusinessDailyRollup.RollupKey.class)
+public class BusinessDailyRollup {
+
+    @Id
+    @Column(name = "business_id", nullable = false)
+    private String businessId;
+
+    @Id
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "items_sold", nullable = false)
+    private long itemsSold;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Column(name = "cancelled_orders", nullable = false)
+    private long cancelledOrders;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BusinessDailyRollup() {}
+
+    // Getters and Setters
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public void setItemsSold(long itemsSold) {
+        this.itemsSold = itemsSold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getCancelledOrders() {
+        return cancelledOrders;
+    }
+
+    public void setCancelledOrders(long cancelledOrders) {
+        this.cancelledOrders = cancelledOrders;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Composite primary key
+    public static class RollupKey implements Serializable {
+        private String businessId;
+        private LocalDate rollupDate;
+
+        public RollupKey() {}
+
+        public RollupKey(String businessId, LocalDate rollupDate) {
+            this.businessId = businessId;
+            this.rollupDate = rollupDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey that = (RollupKey) o;
+            return Objects.equals(businessId, that.businessId) && Objects.equals(rollupDate, that.rollupDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(businessId, rollupDate);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Sales of one item of a business for one order day (same counting rules as BusinessDailyRollup)
+ */
+@Entity
+@Table(name = "business_item_daily_rollups")
+@IdClass(BusinessItemDailyRollup.RollupKey.class)
+public class BusinessItemDailyRollup {
+
+    @Id
+    @Column(name = "business_id", nullable = false)
+    private String businessId;
+
+    @Id
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Id
+    @Column(name = "item_type", nullable = false)
+    private String itemType;
+
+    @Column(name = "item_name")
+    private String itemName;
+
+    @Column(name = "quantity", nullable = false)
+    private long quantity;
+
+    @Column(name = "revenue", nullable = false)
+    private double revenue;
+
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public BusinessItemDailyRollup() {}
+
+    // Getters and Setters
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public LocalDate getRollupDate() {
+        return rollupDate;
+    }
+
+    public void setRollupDate(LocalDate rollupDate) {
+        this.rollupDate = rollupDate;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Composite primary key
+    public static class RollupKey implements Serializable {
+        private String businessId;
+        private LocalDate rollupDate;
+        private String itemId;
+        private String itemType;
+
+        public RollupKey() {}
+
+        public RollupKey(String businessId, LocalDate rollupDate, String itemId, String itemType) {
+            this.businessId = businessId;
+            this.rollupDate = rollupDate;
+            this.itemId = itemId;
+            this.itemType = itemType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof RollupKey)) return false;
+            RollupKey that = (RollupKey) o;
+            return Objects.equals(businessId, that.businessId) && Objects.equals(rollupDate, that.rollupDate)
+                    && Objects.equals(itemId, that.itemId) && Objects.equals(itemType, that.itemType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(businessId, rollupDate, itemId, itemType);
+        }
+    }
+}
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 public class ClientNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "client_notifications_seq")
+    @SequenceGenerator(name = "client_notifications_seq", sequenceName = "client_notifications_seq", allocationSize = 50)
     private Long notificationId;
 
     @Column(name = "client_phone", nullable = false)
@@ -0,0 +1,107 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Index of items a client has received: one row per client and item, counting the client's DELIVERED
+ * orders that contain it. Used to check rating eligibility without loading the client's orders.
+ */
+@Entity
+@Table(name = "client_purchases")
+@IdClass(ClientPurchase.PurchaseKey.class)
+public class ClientPurchase {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Id
+    @Column(name = "item_id", nullable = false)
+    private String itemId;
+
+    @Id
+    @Column(name = "item_type", nullable = false)
+    private String itemType; // lower case
+
+    @Column(name = "delivered_orders", nullable = false)
+    private long deliveredOrders;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ClientPurchase() {}
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public long getDeliveredOrders() {
+        return deliveredOrders;
+    }
+
+    public void setDeliveredOrders(long deliveredOrders) {
+        this.deliveredOrders = deliveredOrders;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Composite primary key
+    public static class PurchaseKey implements Serializable {
+        private String userId;
+        private String itemId;
+        private String itemType;
+
+        public PurchaseKey() {}
+
+        public PurchaseKey(String userId, String itemId, String itemType) {
+            this.userId = userId;
+            this.itemId = itemId;
+            this.itemType = itemType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PurchaseKey)) return false;
+            PurchaseKey that = (PurchaseKey) o;
+            return Objects.equals(userId, that.userId) && Objects.equals(itemId, that.itemId)
+                    && Objects.equals(itemType, that.itemType);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, itemId, itemType);
+        }
+    }
+}
@@ -5,11 +5,18 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_order_date_id", columnList = "order_date DESC, order_id DESC"),
+    @Index(name = "idx_orders_user_order_date_id", columnList = "user_id, order_date DESC, order_id DESC"),
+    @Index(name = "idx_orders_status_order_date_id", columnList = "status, order_date DESC, order_id DESC"),
+    @Index(name = "idx_orders_reservation_expires_at", columnList = "reservation_expires_at")
+})
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence instead of IDENTITY so Hibernate can batch order/order item inserts
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long orderId;
     
     @Column(name = "user_id", nullable = false)
@@ -49,6 +56,10 @@ public class Order {
     @Column(name = "order_date", nullable = false)
     private LocalDateTime orderDate;
     
+    // When a PENDING order's stock reservation lapses; null once the order leaves PENDING
+    @Column(name = "reservation_expires_at")
+    private LocalDateTime reservationExpiresAt;
+    
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<OrderItem> orderItems;
     
@@ -184,6 +195,14 @@ public class Order {
         this.orderDate = orderDate;
     }
     
+    public LocalDateTime getReservationExpiresAt() {
+        return reservationExpiresAt;
+    }
+    
+    public void setReservationExpiresAt(LocalDateTime reservationExpiresAt) {
+        this.reservationExpiresAt = reservationExpiresAt;
+    }
+    
     public List<OrderItem> getOrderItems() {
         return orderItems;
     }
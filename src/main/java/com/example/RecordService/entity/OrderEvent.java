@@ -0,0 +1,177 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable outbox row for an order lifecycle event.
+ * Written in the same transaction as the order change, so an event exists if and only if
+ * the change committed; workers process it after commit and retry until it is DONE.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+    @Index(name = "idx_order_events_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_order_events_order_id", columnList = "order_id")
+})
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_seq")
+    @SequenceGenerator(name = "order_events_seq", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long eventId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private EventType eventType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private Order.OrderStatus previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "new_status")
+    private Order.OrderStatus newStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private EventStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt; // When the event is next due (or when a PROCESSING lease expires)
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Constructors
+    public OrderEvent() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.status = EventStatus.PENDING;
+        this.attempts = 0;
+    }
+
+    public OrderEvent(Long orderId, EventType eventType, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        this();
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    // Getters and Setters
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(Long eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public EventType getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Order.OrderStatus previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public Order.OrderStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public void setNewStatus(Order.OrderStatus newStatus) {
+        this.newStatus = newStatus;
+    }
+
+    public EventStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(EventStatus status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    // Enum for Event Type
+    public enum EventType {
+        ORDER_CREATED,
+        STATUS_CHANGED,
+        ORDER_DELETED,   // In-process only (OrderLifecycleEvent); never stored in the outbox
+        MAIL             // Customer mail queued by an ORDER_CREATED (previous status null) or STATUS_CHANGED event
+    }
+
+    // Enum for Event Status
+    public enum EventStatus {
+        PENDING,     // Waiting to be processed (new or scheduled for retry)
+        PROCESSING,  // Claimed by a worker
+        DONE,        // Processed successfully
+        FAILED       // Gave up after the maximum number of attempts
+    }
+}
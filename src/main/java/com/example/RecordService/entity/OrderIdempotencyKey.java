@@ -0,0 +1,65 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key sent with an order submission, and the order it created.
+ * The row is inserted in the order's transaction before any work, so a retry with the same key,
+ * even on another node, finds the original order instead of placing a second one.
+ */
+@Entity
+@Table(name = "order_idempotency_keys", indexes = {
+    @Index(name = "idx_order_idempotency_keys_created_at", columnList = "created_at")
+})
+public class OrderIdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OrderIdempotencyKey() {}
+
+    // Getters and Setters
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.RecordService.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Append-only record of an order moving from one status to another, for latency analytics.
+ * Written in the same transaction (and JDBC batch) as the status change. An order spanning several
+ * businesses gets one row per business, so per-vendor queries need no join to order items.
+ */
+@Entity
+@Table(name = "order_status_transitions", indexes = {
+    @Index(name = "idx_order_status_transitions_business_to_changed", columnList = "business_id, to_status, changed_at"),
+    @Index(name = "idx_order_status_transitions_order_to", columnList = "order_id, to_status")
+})
+public class OrderStatusTransition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_transitions_seq")
+    @SequenceGenerator(name = "order_status_transitions_seq", sequenceName = "order_status_transitions_seq", allocationSize = 50)
+    private Long transitionId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "business_id")
+    private String businessId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "from_status")
+    private Order.OrderStatus fromStatus; // Null when the order was created
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "to_status", nullable = false)
+    private Order.OrderStatus toStatus;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    @Column(name = "actor")
+    private String actor; // Who made the change: a phone number, the client's user ID, or "system:<job>"
+
+    // Constructors
+    public OrderStatusTransition() {}
+
+    public OrderStatusTransition(Long orderId, String businessId, Order.OrderStatus fromStatus,
+                                 Order.OrderStatus toStatus, LocalDateTime changedAt, String actor) {
+        this.orderId = orderId;
+        this.businessId = businessId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changedAt = changedAt;
+        this.actor = actor;
+    }
+
+    // Getters and Setters
+    public Long getTransitionId() {
+        return transitionId;
+    }
+
+    public void setTransitionId(Long transitionId) {
+        this.transitionId = transitionId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public Order.OrderStatus getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(Order.OrderStatus fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public Order.OrderStatus getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(Order.OrderStatus toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+}
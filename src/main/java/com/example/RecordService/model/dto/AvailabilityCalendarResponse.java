@@ -0,0 +1,93 @@
+package com.example.RecordService.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Item x date availability matrix of a business, in columnar form.
+ * Row i describes item (itemIds[i], itemTypes[i]); column j describes dates[j].
+ * available, booked and priceOverride hold one row per item with one value per date;
+ * a null cell means the item has no availability entry for that date.
+ */
+public class AvailabilityCalendarResponse {
+
+    private String businessId;
+    private List<LocalDate> dates;
+    private List<String> itemIds;
+    private List<String> itemTypes;
+    private List<List<Integer>> available;
+    private List<List<Integer>> booked;
+    private List<List<Double>> priceOverride;
+
+    // Constructors
+    public AvailabilityCalendarResponse() {}
+
+    public AvailabilityCalendarResponse(String businessId, List<LocalDate> dates, List<String> itemIds, List<String> itemTypes,
+                                        List<List<Integer>> available, List<List<Integer>> booked,
+                                        List<List<Double>> priceOverride) {
+        this.businessId = businessId;
+        this.dates = dates;
+        this.itemIds = itemIds;
+        this.itemTypes = itemTypes;
+        this.available = available;
+        this.booked = booked;
+        this.priceOverride = priceOverride;
+    }
+
+    // Getters and Setters
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public List<LocalDate> getDates() {
+        return dates;
+    }
+
+    public void setDates(List<LocalDate> dates) {
+        this.dates = dates;
+    }
+
+    public List<String> getItemIds() {
+        return itemIds;
+    }
+
+    public void setItemIds(List<String> itemIds) {
+        this.itemIds = itemIds;
+    }
+
+    public List<String> getItemTypes() {
+        return itemTypes;
+    }
+
+    public void setItemTypes(List<String> itemTypes) {
+        this.itemTypes = itemTypes;
+    }
+
+    public List<List<Integer>> getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(List<List<Integer>> available) {
+        this.available = available;
+    }
+
+    public List<List<Integer>> getBooked() {
+        return booked;
+    }
+
+    public void setBooked(List<List<Integer>> booked) {
+        this.booked = booked;
+    }
+
+    public List<List<Double>> getPriceOverride() {
+        return priceOverride;
+    }
+
+    public void setPriceOverride(List<List<Double>> priceOverride) {
+        this.priceOverride = priceOverride;
+    }
+}
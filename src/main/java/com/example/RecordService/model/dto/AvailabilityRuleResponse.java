@@ -0,0 +1,93 @@
+package com.example.RecordService.model.dto;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+public class AvailabilityRuleResponse {
+    private Long ruleId;
+    private String itemId;
+    private String itemType; // "theme", "inventory", "plate"
+    private String businessId;
+    private List<DayOfWeek> daysOfWeek;
+    private Integer defaultQuantity;
+    private Double priceOverride;
+    private LocalDate startDate;
+    private LocalDate endDate; // Null for open-ended rules
+
+    // Constructors
+    public AvailabilityRuleResponse() {}
+
+    // Getters and Setters
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public void setRuleId(Long ruleId) {
+        this.ruleId = ruleId;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public List<DayOfWeek> getDaysOfWeek() {
+        return daysOfWeek;
+    }
+
+    public void setDaysOfWeek(List<DayOfWeek> daysOfWeek) {
+        this.daysOfWeek = daysOfWeek;
+    }
+
+    public Integer getDefaultQuantity() {
+        return defaultQuantity;
+    }
+
+    public void setDefaultQuantity(Integer defaultQuantity) {
+        this.defaultQuantity = defaultQuantity;
+    }
+
+    public Double getPriceOverride() {
+        return priceOverride;
+    }
+
+    public void setPriceOverride(Double priceOverride) {
+        this.priceOverride = priceOverride;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.RecordService.model.dto;
+
+/**
+ * An item with unbooked quantity on the searched date
+ */
+public class AvailableItemResponse {
+
+    private String itemId;
+    private String itemType;
+    private String businessId;
+    private String itemName;
+    private int availableQuantity;
+    private Double priceOverride;
+
+    // Constructors
+    public AvailableItemResponse() {}
+
+    public AvailableItemResponse(String itemId, String itemType, String businessId, String itemName, int availableQuantity, Double priceOverride) {
+        this.itemId = itemId;
+        this.itemType = itemType;
+        this.businessId = businessId;
+        this.itemName = itemName;
+        this.availableQuantity = availableQuantity;
+        this.priceOverride = priceOverride;
+    }
+
+    // Getters and Setters
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public int getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(int availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    public Double getPriceOverride() {
+        return priceOverride;
+    }
+
+    public void setPriceOverride(Double priceOverride) {
+        this.priceOverride = priceOverride;
+    }
+}
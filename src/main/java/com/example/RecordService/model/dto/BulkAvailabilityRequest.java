@@ -0,0 +1,109 @@
+package com.example.RecordService.model.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Availability for several items of a business over a date range: every (item, date) pair in the range
+ * gets the same quantity, availability flag and (if given) price override.
+ */
+public class BulkAvailabilityRequest {
+    private String businessId;
+    private List<Item> items;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Integer availableQuantity;
+    private Boolean isAvailable;
+    private Double priceOverride; // Left unchanged on existing dates when null
+
+    // Constructors
+    public BulkAvailabilityRequest() {}
+
+    // Getters and Setters
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Integer getAvailableQuantity() {
+        return availableQuantity;
+    }
+
+    public void setAvailableQuantity(Integer availableQuantity) {
+        this.availableQuantity = availableQuantity;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+
+    public Double getPriceOverride() {
+        return priceOverride;
+    }
+
+    public void setPriceOverride(Double priceOverride) {
+        this.priceOverride = priceOverride;
+    }
+
+    /**
+     * An item the availability applies to
+     */
+    public static class Item {
+        private String itemId;
+        private String itemType; // "theme", "inventory", "plate"
+
+        public Item() {}
+
+        public Item(String itemId, String itemType) {
+            this.itemId = itemId;
+            this.itemType = itemType;
+        }
+
+        public String getItemId() {
+            return itemId;
+        }
+
+        public void setItemId(String itemId) {
+            this.itemId = itemId;
+        }
+
+        public String getItemType() {
+            return itemType;
+        }
+
+        public void setItemType(String itemType) {
+            this.itemType = itemType;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.RecordService.model.dto;
+
+/**
+ * Outcome of a bulk availability upsert
+ */
+public class BulkAvailabilityResponse {
+
+    private int created;
+    private int updated;
+    private int notifiedSubscribers;
+
+    // Constructors
+    public BulkAvailabilityResponse() {}
+
+    public BulkAvailabilityResponse(int created, int updated, int notifiedSubscribers) {
+        this.created = created;
+        this.updated = updated;
+        this.notifiedSubscribers = notifiedSubscribers;
+    }
+
+    // Getters and Setters
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getNotifiedSubscribers() {
+        return notifiedSubscribers;
+    }
+
+    public void setNotifiedSubscribers(int notifiedSubscribers) {
+        this.notifiedSubscribers = notifiedSubscribers;
+    }
+}
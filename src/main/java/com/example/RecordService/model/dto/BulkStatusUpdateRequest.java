@@ -0,0 +1,37 @@
+package com.example.RecordService.model.dto;
+
+import java.util.List;
+
+/**
+ * Request to move several orders to the same status
+ */
+public class BulkStatusUpdateRequest {
+
+    private List<Long> orderIds;
+    private String status;
+
+    // Constructors
+    public BulkStatusUpdateRequest() {}
+
+    public BulkStatusUpdateRequest(List<Long> orderIds, String status) {
+        this.orderIds = orderIds;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.RecordService.model.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk status update, with one result per requested order
+ */
+public class BulkStatusUpdateResponse {
+
+    private String status;
+    private int updated;
+    private int failed;
+    private List<OrderResult> results;
+
+    // Constructors
+    public BulkStatusUpdateResponse() {}
+
+    public BulkStatusUpdateResponse(String status, List<OrderResult> results) {
+        this.status = status;
+        this.results = results;
+        this.updated = (int) results.stream().filter(OrderResult::isSuccess).count();
+        this.failed = results.size() - updated;
+    }
+
+    // Getters and Setters
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(int updated) {
+        this.updated = updated;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<OrderResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<OrderResult> results) {
+        this.results = results;
+    }
+
+    /**
+     * Result for one order
+     */
+    public static class OrderResult {
+        private Long orderId;
+        private boolean success;
+        private String previousStatus;
+        private String error;
+
+        public OrderResult() {}
+
+        public OrderResult(Long orderId, boolean success, String previousStatus, String error) {
+            this.orderId = orderId;
+            this.success = success;
+            this.previousStatus = previousStatus;
+            this.error = error;
+        }
+
+        public static OrderResult success(Long orderId, String previousStatus) {
+            return new OrderResult(orderId, true, previousStatus, null);
+        }
+
+        public static OrderResult failure(Long orderId, String error) {
+            return new OrderResult(orderId, false, null, error);
+        }
+
+        public Long getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(Long orderId) {
+            this.orderId = orderId;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+
+        public void setSuccess(boolean success) {
+            this.success = success;
+        }
+
+        public String getPreviousStatus() {
+            return previousStatus;
+        }
+
+        public void setPreviousStatus(String previousStatus) {
+            this.previousStatus = previousStatus;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.RecordService.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Sales totals of a business for one order day
+ */
+public class DailySalesResponse {
+
+    private LocalDate date;
+    private long orderCount;
+    private long itemsSold;
+    private double revenue;
+    private long cancelledOrders;
+
+    // Constructors
+    public DailySalesResponse() {}
+
+    public DailySalesResponse(LocalDate date, long orderCount, long itemsSold, double revenue, long cancelledOrders) {
+        this.date = date;
+        this.orderCount = orderCount;
+        this.itemsSold = itemsSold;
+        this.revenue = revenue;
+        this.cancelledOrders = cancelledOrders;
+    }
+
+    // Getters and Setters
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public long getItemsSold() {
+        return itemsSold;
+    }
+
+    public void setItemsSold(long itemsSold) {
+        this.itemsSold = itemsSold;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getCancelledOrders() {
+        return cancelledOrders;
+    }
+
+    public void setCancelledOrders(long cancelledOrders) {
+        this.cancelledOrders = cancelledOrders;
+    }
+}
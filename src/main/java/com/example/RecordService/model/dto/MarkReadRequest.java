@@ -0,0 +1,58 @@
+package com.example.RecordService.model.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request to mark several notifications or messages as read: the given IDs, or everything created
+ * at or before a time, or (with neither set) everything unread
+ */
+public class MarkReadRequest {
+
+    // Upper bound on IDs per request, so one statement stays within parameter limits
+    public static final int MAX_IDS = 1000;
+
+    private List<Long> ids;
+    private LocalDateTime before;
+
+    // Constructors
+    public MarkReadRequest() {}
+
+    public MarkReadRequest(List<Long> ids, LocalDateTime before) {
+        this.ids = ids;
+        this.before = before;
+    }
+
+    /**
+     * @return the validation error, or null if the request is valid
+     */
+    public String validate() {
+        if (ids != null && before != null) {
+            return "Give either ids or before, not both";
+        }
+        if (ids != null && ids.isEmpty()) {
+            return "IDs must not be empty";
+        }
+        if (ids != null && ids.size() > MAX_IDS) {
+            return "At most " + MAX_IDS + " IDs can be marked at once";
+        }
+        return null;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public LocalDateTime getBefore() {
+        return before;
+    }
+
+    public void setBefore(LocalDateTime before) {
+        this.before = before;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.RecordService.model.dto;
+
+import java.util.List;
+
+/**
+ * One page of orders from a keyset-paginated listing.
+ * nextCursor is passed back as the cursor parameter to fetch the following page; it is null on the last page.
+ */
+public class OrderPage {
+
+    private List<OrderResponse> orders;
+    private String nextCursor;
+
+    // Constructors
+    public OrderPage() {}
+
+    public OrderPage(List<OrderResponse> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<OrderResponse> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderResponse> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
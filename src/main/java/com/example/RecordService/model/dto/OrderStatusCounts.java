@@ -0,0 +1,37 @@
+package com.example.RecordService.model.dto;
+
+import java.util.Map;
+
+/**
+ * Order counts broken down by status, for one business, one day or all orders
+ */
+public class OrderStatusCounts {
+
+    private long total;
+    private Map<String, Long> byStatus;
+
+    // Constructors
+    public OrderStatusCounts() {}
+
+    public OrderStatusCounts(long total, Map<String, Long> byStatus) {
+        this.total = total;
+        this.byStatus = byStatus;
+    }
+
+    // Getters and Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<String, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+}
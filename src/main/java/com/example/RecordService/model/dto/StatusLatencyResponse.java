@@ -0,0 +1,118 @@
+package com.example.RecordService.model.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Latency percentiles of a business's orders between two statuses, in seconds
+ */
+public class StatusLatencyResponse {
+
+    private String businessId;
+    private String fromStatus;
+    private String toStatus;
+    private LocalDate from;
+    private LocalDate to;
+    private long orderCount;
+    private Double p50Seconds;
+    private Double p95Seconds;
+    private Double p99Seconds;
+    private Double maxSeconds;
+
+    // Constructors
+    public StatusLatencyResponse() {}
+
+    public StatusLatencyResponse(String businessId, String fromStatus, String toStatus, LocalDate from, LocalDate to,
+                                 long orderCount, Double p50Seconds, Double p95Seconds, Double p99Seconds, Double maxSeconds) {
+        this.businessId = businessId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.from = from;
+        this.to = to;
+        this.orderCount = orderCount;
+        this.p50Seconds = p50Seconds;
+        this.p95Seconds = p95Seconds;
+        this.p99Seconds = p99Seconds;
+        this.maxSeconds = maxSeconds;
+    }
+
+    // Getters and Setters
+    public String getBusinessId() {
+        return businessId;
+    }
+
+    public void setBusinessId(String businessId) {
+        this.businessId = businessId;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(String fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(String toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public Double getP50Seconds() {
+        return p50Seconds;
+    }
+
+    public void setP50Seconds(Double p50Seconds) {
+        this.p50Seconds = p50Seconds;
+    }
+
+    public Double getP95Seconds() {
+        return p95Seconds;
+    }
+
+    public void setP95Seconds(Double p95Seconds) {
+        this.p95Seconds = p95Seconds;
+    }
+
+    public Double getP99Seconds() {
+        return p99Seconds;
+    }
+
+    public void setP99Seconds(Double p99Seconds) {
+        this.p99Seconds = p99Seconds;
+    }
+
+    public Double getMaxSeconds() {
+        return maxSeconds;
+    }
+
+    public void setMaxSeconds(Double maxSeconds) {
+        this.maxSeconds = maxSeconds;
+    }
+}
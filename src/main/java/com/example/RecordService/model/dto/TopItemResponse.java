@@ -0,0 +1,75 @@
+package com.example.RecordService.model.dto;
+
+/**
+ * Sales of one item of a business over a date range
+ */
+public class TopItemResponse {
+
+    private String itemId;
+    private String itemType;
+    private String itemName;
+    private long quantity;
+    private double revenue;
+    private long orderCount;
+
+    // Constructors
+    public TopItemResponse() {}
+
+    public TopItemResponse(String itemId, String itemType, String itemName, long quantity, double revenue, long orderCount) {
+        this.itemId = itemId;
+        this.itemType = itemType;
+        this.itemName = itemName;
+        this.quantity = quantity;
+        this.revenue = revenue;
+        this.orderCount = orderCount;
+    }
+
+    // Getters and Setters
+    public String getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(String itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getItemType() {
+        return itemType;
+    }
+
+    public void setItemType(String itemType) {
+        this.itemType = itemType;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public void setItemName(String itemName) {
+        this.itemName = itemName;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(long orderCount) {
+        this.orderCount = orderCount;
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.RecordService.repository;
 
 import com.example.RecordService.entity.Availability;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,9 +33,62 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate);
     
+    // Find availabilities of several items within a date range
+    @Query("SELECT a FROM Availability a WHERE a.itemId IN :itemIds " +
+           "AND a.availabilityDate BETWEEN :startDate AND :endDate")
+    List<Availability> findByItemIdsAndDateRange(
+        @Param("itemIds") java.util.Collection<String> itemIds,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+    
+    // Find availabilities of several items on a set of dates
+    @Query("SELECT a FROM Availability a WHERE a.itemId IN :itemIds AND a.availabilityDate IN :dates")
+    List<Availability> findByItemIdsAndDates(
+        @Param("itemIds") java.util.Collection<String> itemIds,
+        @Param("dates") java.util.Collection<LocalDate> dates);
+    
     // Find all availabilities for a business
     List<Availability> findByBusinessIdOrderByAvailabilityDateAsc(String businessId);
     
+    // Find all availabilities of a business within a date range, grouped by item
+    @Query("SELECT a FROM Availability a WHERE a.businessId = :businessId " +
+           "AND a.availabilityDate BETWEEN :startDate AND :endDate " +
+           "ORDER BY a.itemType ASC, a.itemId ASC, a.availabilityDate ASC")
+    List<Availability> findByBusinessIdAndDateRange(
+        @Param("businessId") String businessId,
+        @Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate);
+    
+    // Find items of any business with at least minQuantity unbooked on a date, optionally of one type and business.
+    // Rows are [Availability, booked quantity]
+    @Query("SELECT a, COALESCE(b.bookedQuantity, 0) FROM Availability a LEFT JOIN BookedQuantity b " +
+           "ON b.itemId = a.itemId AND b.itemType = LOWER(a.itemType) AND b.bookingDate = a.availabilityDate " +
+           "WHERE a.availabilityDate = :date AND a.isAvailable = true " +
+           "AND (:itemType IS NULL OR a.itemType = :itemType) AND (:businessId IS NULL OR a.businessId = :businessId) " +
+           "AND a.availableQuantity - COALESCE(b.bookedQuantity, 0) >= :minQuantity " +
+           "ORDER BY a.businessId ASC, a.itemType ASC, a.itemId ASC")
+    List<Object[]> searchAvailableOnDate(
+        @Param("date") LocalDate date,
+        @Param("itemType") String itemType,
+        @Param("businessId") String businessId,
+        @Param("minQuantity") long minQuantity,
+        Pageable pageable);
+    
+    // Same search restricted to some items of one type (used for the category filter)
+    @Query("SELECT a, COALESCE(b.bookedQuantity, 0) FROM Availability a LEFT JOIN BookedQuantity b " +
+           "ON b.itemId = a.itemId AND b.itemType = LOWER(a.itemType) AND b.bookingDate = a.availabilityDate " +
+           "WHERE a.availabilityDate = :date AND a.isAvailable = true " +
+           "AND a.itemType = :itemType AND a.itemId IN :itemIds AND (:businessId IS NULL OR a.businessId = :businessId) " +
+           "AND a.availableQuantity - COALESCE(b.bookedQuantity, 0) >= :minQuantity " +
+           "ORDER BY a.businessId ASC, a.itemType ASC, a.itemId ASC")
+    List<Object[]> searchAvailableOnDateForItems(
+        @Param("date") LocalDate date,
+        @Param("itemType") String itemType,
+        @Param("itemIds") Collection<String> itemIds,
+        @Param("businessId") String businessId,
+        @Param("minQuantity") long minQuantity,
+        Pageable pageable);
+    
     // Find available items for a specific date
     @Query("SELECT a FROM Availability a WHERE a.businessId = :businessId " +
            "AND a.availabilityDate = :date AND a.isAvailable = true AND a.availableQuantity > 0")
@@ -49,6 +105,28 @@ public interface AvailabilityRepository extends JpaRepository<Availability, Long
         @Param("date") LocalDate date,
         @Param("quantity") Integer quantity);
     
+    // Atomically decrement available quantity only if enough units are left (check-and-decrement in one statement)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.availableQuantity = a.availableQuantity - :quantity, " +
+           "a.isAvailable = CASE WHEN a.availableQuantity - :quantity > 0 THEN true ELSE false END " +
+           "WHERE a.itemId = :itemId AND a.itemType = :itemType AND a.availabilityDate = :date " +
+           "AND a.isAvailable = true AND a.availableQuantity >= :quantity")
+    int decrementIfAvailable(
+        @Param("itemId") String itemId,
+        @Param("itemType") String itemType,
+        @Param("date") LocalDate date,
+        @Param("quantity") Integer quantity);
+    
+    // Atomically increment available quantity and mark the date as available again
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Availability a SET a.availableQuantity = a.availableQuantity + :quantity, a.isAvailable = true " +
+           "WHERE a.itemId = :itemId AND a.itemType = :itemType AND a.availabilityDate = :date")
+    int increment(
+        @Param("itemId") String itemId,
+        @Param("itemType") String itemType,
+        @Param("date") LocalDate date,
+        @Param("quantity") Integer quantity);
+    
     // Delete all availabilities for an item
     void deleteByItemIdAndItemType(String itemId, String itemType);
 }
@@ -0,0 +1,43 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.AvailabilityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AvailabilityRuleRepository extends JpaRepository<AvailabilityRule, Long> {
+
+    // Find the rule of an item
+    Optional<AvailabilityRule> findByItemIdAndItemType(String itemId, String itemType);
+
+    // Find the rules of several items
+    List<AvailabilityRule> findByItemIdIn(Collection<String> itemIds);
+
+    // Find all rules of a business
+    List<AvailabilityRule> findByBusinessId(String businessId);
+
+    // Find rules in force on a date (weekdays not checked) for items without a concrete row that day,
+    // optionally of one type and business
+    @Query("SELECT r FROM AvailabilityRule r WHERE r.startDate <= :date AND (r.endDate IS NULL OR r.endDate >= :date) " +
+           "AND r.defaultQuantity >= :minQuantity " +
+           "AND (:itemType IS NULL OR r.itemType = :itemType) AND (:businessId IS NULL OR r.businessId = :businessId) " +
+           "AND NOT EXISTS (SELECT a.availabilityId FROM Availability a " +
+           "WHERE a.itemId = r.itemId AND a.itemType = r.itemType AND a.availabilityDate = :date)")
+    List<AvailabilityRule> findInForceWithoutRow(@Param("date") LocalDate date,
+                                                 @Param("itemType") String itemType,
+                                                 @Param("businessId") String businessId,
+                                                 @Param("minQuantity") int minQuantity);
+
+    // Delete the rule of an item
+    @Modifying
+    @Query("DELETE FROM AvailabilityRule r WHERE r.itemId = :itemId AND r.itemType = :itemType")
+    int deleteByItemIdAndItemType(@Param("itemId") String itemId, @Param("itemType") String itemType);
+}
@@ -0,0 +1,110 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.BookedQuantity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookedQuantityRepository extends JpaRepository<BookedQuantity, BookedQuantity.BookedKey> {
+
+    /**
+     * Add to the booked quantity of an item on a date, creating the row if needed
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booked_quantities (item_id, item_type, booking_date, booked_quantity, updated_at) " +
+                   "VALUES (:itemId, :itemType, :bookingDate, :delta, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (item_id, item_type, booking_date) DO UPDATE SET " +
+                   "booked_quantity = booked_quantities.booked_quantity + EXCLUDED.booked_quantity, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsert(@Param("itemId") String itemId, @Param("itemType") String itemType,
+               @Param("bookingDate") LocalDate bookingDate, @Param("delta") long delta);
+
+    /**
+     * Find the ledger rows of several items on a set of booking dates
+     * @param itemIds the item IDs
+     * @param bookingDates the booking dates
+     * @return ledger rows of any of the items on any of the dates
+     */
+    @Query("SELECT b FROM BookedQuantity b WHERE b.itemId IN :itemIds AND b.bookingDate IN :bookingDates")
+    List<BookedQuantity> findByItemIdsAndBookingDates(@Param("itemIds") Collection<String> itemIds,
+                                                      @Param("bookingDates") Collection<LocalDate> bookingDates);
+
+    /**
+     * Find the booked quantities of a business's items in a date range, for dates the business has availability for
+     * @param businessId the business ID
+     * @param startDate first booking date (inclusive)
+     * @param endDate last booking date (inclusive)
+     * @return ledger rows
+     */
+    @Query("SELECT b FROM BookedQuantity b, Availability a " +
+           "WHERE a.businessId = :businessId AND a.availabilityDate BETWEEN :startDate AND :endDate " +
+           "AND b.itemId = a.itemId AND b.itemType = LOWER(a.itemType) AND b.bookingDate = a.availabilityDate " +
+           "AND b.bookedQuantity > 0")
+    List<BookedQuantity> findForBusinessInRange(@Param("businessId") String businessId,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Compare the ledger with the booked quantities recomputed from order lines, for booking dates from a day on
+     * @param from first booking date to compare
+     * @return rows of [itemId, itemType, bookingDate, ledger quantity, recomputed quantity] that differ
+     */
+    @Query(value = "SELECT COALESCE(b.item_id, a.item_id), COALESCE(b.item_type, a.item_type), " +
+                   "COALESCE(b.booking_date, a.booking_date), COALESCE(b.booked_quantity, 0), COALESCE(a.quantity, 0) " +
+                   "FROM (SELECT item_id, item_type, booking_date, booked_quantity FROM booked_quantities " +
+                   "      WHERE booking_date >= :from) b " +
+                   "FULL OUTER JOIN (SELECT oi.item_id, LOWER(oi.item_type) AS item_type, oi.booking_date, " +
+                   "                        SUM(oi.quantity) AS quantity " +
+                   "                 FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+                   "                 WHERE o.status IN ('CONFIRMED', 'PREPARING', 'READY', 'SHIPPED') " +
+                   "                   AND oi.booking_date >= :from " +
+                   "                 GROUP BY oi.item_id, LOWER(oi.item_type), oi.booking_date) a " +
+                   "ON a.item_id = b.item_id AND a.item_type = b.item_type AND a.booking_date = b.booking_date " +
+                   "WHERE COALESCE(b.booked_quantity, 0) <> COALESCE(a.quantity, 0)",
+           nativeQuery = true)
+    List<Object[]> findDrift(@Param("from") LocalDate from);
+
+    /**
+     * Read the booked quantity of an item on a date and lock its ledger row until the transaction ends
+     * @return the ledger quantity, or empty if there is no row
+     */
+    @Query(value = "SELECT booked_quantity FROM booked_quantities " +
+                   "WHERE item_id = :itemId AND item_type = :itemType AND booking_date = :bookingDate FOR UPDATE",
+           nativeQuery = true)
+    Optional<Long> findBookedQuantityForUpdate(@Param("itemId") String itemId, @Param("itemType") String itemType,
+                                               @Param("bookingDate") LocalDate bookingDate);
+
+    /**
+     * Recompute the booked quantity of an item on a date from the order lines
+     * @return total quantity of confirmed, not yet delivered order lines
+     */
+    @Query(value = "SELECT COALESCE(SUM(oi.quantity), 0) FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+                   "WHERE oi.item_id = :itemId AND LOWER(oi.item_type) = :itemType AND oi.booking_date = :bookingDate " +
+                   "AND o.status IN ('CONFIRMED', 'PREPARING', 'READY', 'SHIPPED')",
+           nativeQuery = true)
+    long sumBookedOrderQuantity(@Param("itemId") String itemId, @Param("itemType") String itemType,
+                                @Param("bookingDate") LocalDate bookingDate);
+
+    /**
+     * Rebuild the ledger from order lines in one set-based statement (used when the table is empty)
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO booked_quantities (item_id, item_type, booking_date, booked_quantity, updated_at) " +
+                   "SELECT oi.item_id, LOWER(oi.item_type), oi.booking_date, SUM(oi.quantity), CURRENT_TIMESTAMP " +
+                   "FROM orders o JOIN order_items oi ON oi.order_id = o.order_id " +
+                   "WHERE o.status IN ('CONFIRMED', 'PREPARING', 'READY', 'SHIPPED') AND oi.booking_date IS NOT NULL " +
+                   "GROUP BY oi.item_id, LOWER(oi.item_type), oi.booking_date",
+           nativeQuery = true)
+    int backfill();
+}
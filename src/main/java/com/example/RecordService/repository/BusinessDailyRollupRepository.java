@@ -0,0 +1,66 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.BusinessDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BusinessDailyRollupRepository extends JpaRepository<BusinessDailyRollup, BusinessDailyRollup.RollupKey> {
+
+    /**
+     * Read the daily rollups of a business in a date range (one primary key range scan)
+     * @param businessId the business ID
+     * @param from first day
+     * @param to last day
+     * @return rollups in date order
+     */
+    List<BusinessDailyRollup> findByBusinessIdAndRollupDateBetweenOrderByRollupDateAsc(
+        String businessId, LocalDate from, LocalDate to);
+
+    /**
+     * Add deltas to a business/day row, creating it if needed, in one atomic statement
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO business_daily_rollups " +
+                   "(business_id, rollup_date, order_count, items_sold, revenue, cancelled_orders, updated_at) " +
+                   "VALUES (:businessId, :rollupDate, :orderCount, :itemsSold, :revenue, :cancelledOrders, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (business_id, rollup_date) DO UPDATE SET " +
+                   "order_count = business_daily_rollups.order_count + EXCLUDED.order_count, " +
+                   "items_sold = business_daily_rollups.items_sold + EXCLUDED.items_sold, " +
+                   "revenue = business_daily_rollups.revenue + EXCLUDED.revenue, " +
+                   "cancelled_orders = business_daily_rollups.cancelled_orders + EXCLUDED.cancelled_orders, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsert(@Param("businessId") String businessId, @Param("rollupDate") LocalDate rollupDate,
+               @Param("orderCount") long orderCount, @Param("itemsSold") long itemsSold,
+               @Param("revenue") double revenue, @Param("cancelledOrders") long cancelledOrders);
+
+    /**
+     * Rebuild all business/day rows from active and archived orders in one set-based statement (used when the table is empty)
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO business_daily_rollups " +
+                   "(business_id, rollup_date, order_count, items_sold, revenue, cancelled_orders, updated_at) " +
+                   "SELECT oi.business_id, CAST(o.order_date AS DATE), " +
+                   "COUNT(DISTINCT CASE WHEN o.status IN ('CONFIRMED','PREPARING','READY','SHIPPED','DELIVERED') THEN o.order_id END), " +
+                   "COALESCE(SUM(CASE WHEN o.status IN ('CONFIRMED','PREPARING','READY','SHIPPED','DELIVERED') THEN oi.quantity END), 0), " +
+                   "COALESCE(SUM(CASE WHEN o.status IN ('CONFIRMED','PREPARING','READY','SHIPPED','DELIVERED') THEN oi.item_price * oi.quantity END), 0), " +
+                   "COUNT(DISTINCT CASE WHEN o.status = 'CANCELLED' THEN o.order_id END), " +
+                   "CURRENT_TIMESTAMP " +
+                   "FROM (SELECT order_id, user_id, status, order_date FROM orders UNION ALL " +
+                   "SELECT order_id, user_id, status, order_date FROM orders_archive) o " +
+                   "JOIN (SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items UNION ALL " +
+                   "SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items_archive) oi " +
+                   "ON oi.order_id = o.order_id " +
+                   "GROUP BY oi.business_id, CAST(o.order_date AS DATE)",
+           nativeQuery = true)
+    int backfill();
+}
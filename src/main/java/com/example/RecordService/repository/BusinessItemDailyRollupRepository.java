@@ -0,0 +1,72 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.BusinessItemDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BusinessItemDailyRollupRepository
+        extends JpaRepository<BusinessItemDailyRollup, BusinessItemDailyRollup.RollupKey> {
+
+    /**
+     * Best selling items of a business in a date range, by revenue
+     * @param businessId the business ID
+     * @param from first day
+     * @param to last day
+     * @param pageable number of items
+     * @return rows of [itemId, itemType, itemName, quantity, revenue, orderCount]
+     */
+    @Query("SELECT r.itemId, r.itemType, MAX(r.itemName), SUM(r.quantity), SUM(r.revenue), SUM(r.orderCount) " +
+           "FROM BusinessItemDailyRollup r " +
+           "WHERE r.businessId = :businessId AND r.rollupDate BETWEEN :from AND :to " +
+           "GROUP BY r.itemId, r.itemType " +
+           "HAVING SUM(r.quantity) > 0 " +
+           "ORDER BY SUM(r.revenue) DESC, SUM(r.quantity) DESC")
+    List<Object[]> findTopItems(@Param("businessId") String businessId, @Param("from") LocalDate from,
+                                @Param("to") LocalDate to, Pageable pageable);
+
+    /**
+     * Add deltas to a business/day/item row, creating it if needed, in one atomic statement
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO business_item_daily_rollups " +
+                   "(business_id, rollup_date, item_id, item_type, item_name, quantity, revenue, order_count, updated_at) " +
+                   "VALUES (:businessId, :rollupDate, :itemId, :itemType, :itemName, :quantity, :revenue, :orderCount, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (business_id, rollup_date, item_id, item_type) DO UPDATE SET " +
+                   "item_name = EXCLUDED.item_name, " +
+                   "quantity = business_item_daily_rollups.quantity + EXCLUDED.quantity, " +
+                   "revenue = business_item_daily_rollups.revenue + EXCLUDED.revenue, " +
+                   "order_count = business_item_daily_rollups.order_count + EXCLUDED.order_count, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsert(@Param("businessId") String businessId, @Param("rollupDate") LocalDate rollupDate,
+               @Param("itemId") String itemId, @Param("itemType") String itemType, @Param("itemName") String itemName,
+               @Param("quantity") long quantity, @Param("revenue") double revenue, @Param("orderCount") long orderCount);
+
+    /**
+     * Rebuild all business/day/item rows from confirmed active and archived orders in one set-based statement
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO business_item_daily_rollups " +
+                   "(business_id, rollup_date, item_id, item_type, item_name, quantity, revenue, order_count, updated_at) " +
+                   "SELECT oi.business_id, CAST(o.order_date AS DATE), oi.item_id, LOWER(oi.item_type), MAX(oi.item_name), " +
+                   "SUM(oi.quantity), SUM(oi.item_price * oi.quantity), COUNT(DISTINCT o.order_id), CURRENT_TIMESTAMP " +
+                   "FROM (SELECT order_id, user_id, status, order_date FROM orders UNION ALL " +
+                   "SELECT order_id, user_id, status, order_date FROM orders_archive) o " +
+                   "JOIN (SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items UNION ALL " +
+                   "SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items_archive) oi " +
+                   "ON oi.order_id = o.order_id " +
+                   "WHERE o.status IN ('CONFIRMED','PREPARING','READY','SHIPPED','DELIVERED') " +
+                   "GROUP BY oi.business_id, CAST(o.order_date AS DATE), oi.item_id, LOWER(oi.item_type)",
+           nativeQuery = true)
+    int backfill();
+}
@@ -1,11 +1,14 @@
 package com.example.RecordService.repository;
 
 import com.example.RecordService.model.Business;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BusinessRepository {
     Business save(Business business);
     Business findByBusinessId(String businessId);
+    Map<String, Business> findByBusinessIds(Collection<String> businessIds);
     Business findByPhoneNumber(String phoneNumber);
     List<Business> findAll();
     List<Business> findByCategory(String category);
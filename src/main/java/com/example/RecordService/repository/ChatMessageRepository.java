@@ -2,11 +2,13 @@ package com.example.RecordService.repository;
 
 import com.example.RecordService.entity.ChatMessage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,6 +23,41 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long>
     @Query("SELECT COUNT(cm) FROM ChatMessage cm WHERE cm.chat.chatId = :chatId AND cm.isRead = false AND cm.senderPhone != :phoneNumber")
     Long countUnreadMessages(@Param("chatId") Long chatId, @Param("phoneNumber") String phoneNumber);
     
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChatMessage cm SET cm.isRead = true, cm.readAt = :readAt WHERE cm.chat.chatId = :chatId " +
+           "AND cm.isRead = false AND cm.senderPhone != :phoneNumber")
+    int markAsRead(@Param("chatId") Long chatId, @Param("phoneNumber") String phoneNumber, @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChatMessage cm SET cm.isRead = true, cm.readAt = :readAt WHERE cm.chat.chatId = :chatId " +
+           "AND cm.messageId IN :messageIds AND cm.isRead = false AND cm.senderPhone != :phoneNumber")
+    int markAsReadByIds(@Param("chatId") Long chatId, @Param("phoneNumber") String phoneNumber,
+                        @Param("messageIds") Collection<Long> messageIds, @Param("readAt") LocalDateTime readAt);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ChatMessage cm SET cm.isRead = true, cm.readAt = :readAt WHERE cm.chat.chatId = :chatId " +
+           "AND cm.createdAt <= :before AND cm.isRead = false AND cm.senderPhone != :phoneNumber")
+    int markAsReadBefore(@Param("chatId") Long chatId, @Param("phoneNumber") String phoneNumber,
+                         @Param("before") LocalDateTime before, @Param("readAt") LocalDateTime readAt);
+    
+    @Query("SELECT COUNT(cm) FROM ChatMessage cm JOIN cm.chat c WHERE c.isActive = true AND cm.isRead = false " +
+           "AND cm.senderPhone != :phoneNumber AND (c.clientPhone = :phoneNumber OR c.vendorPhone = :phoneNumber)")
+    long countUnreadMessagesForRecipient(@Param("phoneNumber") String phoneNumber);
+    
+    /**
+     * @return rows of [client phone, count] of unread messages sent to clients by vendors, over active chats
+     */
+    @Query("SELECT c.clientPhone, COUNT(cm) FROM ChatMessage cm JOIN cm.chat c WHERE c.isActive = true AND cm.isRead = false " +
+           "AND cm.senderPhone != c.clientPhone GROUP BY c.clientPhone")
+    List<Object[]> countUnreadGroupByClientPhone();
+    
+    /**
+     * @return rows of [vendor phone, count] of unread messages sent to vendors by clients, over active chats
+     */
+    @Query("SELECT c.vendorPhone, COUNT(cm) FROM ChatMessage cm JOIN cm.chat c WHERE c.isActive = true AND cm.isRead = false " +
+           "AND cm.senderPhone != c.vendorPhone GROUP BY c.vendorPhone")
+    List<Object[]> countUnreadGroupByVendorPhone();
+    
     @Query("SELECT cm FROM ChatMessage cm WHERE cm.chat.chatId = :chatId AND cm.createdAt > :since ORDER BY cm.createdAt ASC")
     List<ChatMessage> findMessagesSince(@Param("chatId") Long chatId, @Param("since") LocalDateTime since);
     
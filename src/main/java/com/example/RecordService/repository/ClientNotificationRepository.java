@@ -7,7 +7,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ClientNotificationRepository extends JpaRepository<ClientNotification, Long> {
@@ -16,10 +19,27 @@ public interface ClientNotificationRepository extends JpaRepository<ClientNotifi
 
     long countByClientPhoneAndIsReadFalse(String clientPhone);
 
-    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("SELECT n.clientPhone, COUNT(n) FROM ClientNotification n WHERE n.isRead = false GROUP BY n.clientPhone")
+    List<Object[]> countUnreadGroupByClientPhone();
+
+    @Modifying(flushAutomatically = true)
     @Query("UPDATE ClientNotification n SET n.isRead = true WHERE n.clientPhone = :clientPhone AND n.isRead = false")
-    void markAllAsReadByClientPhone(@Param("clientPhone") String clientPhone);
+    int markAllAsReadByClientPhone(@Param("clientPhone") String clientPhone);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ClientNotification n SET n.isRead = true WHERE n.clientPhone = :clientPhone " +
+           "AND n.notificationId IN :notificationIds AND n.isRead = false")
+    int markAsReadByClientPhoneAndIds(@Param("clientPhone") String clientPhone,
+                                      @Param("notificationIds") Collection<Long> notificationIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ClientNotification n SET n.isRead = true WHERE n.clientPhone = :clientPhone " +
+           "AND n.createdAt <= :before AND n.isRead = false")
+    int markAsReadByClientPhoneBefore(@Param("clientPhone") String clientPhone, @Param("before") LocalDateTime before);
     
+    @Query("SELECT n.clientPhone FROM ClientNotification n WHERE n.notificationId = :notificationId AND n.isRead = false")
+    Optional<String> findUnreadClientPhone(@Param("notificationId") Long notificationId);
+
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query(value = "UPDATE client_notifications SET is_read = true WHERE notification_id = :notificationId", nativeQuery = true)
     int markNotificationAsReadById(@Param("notificationId") Long notificationId);
@@ -32,5 +52,5 @@ public interface ClientNotificationRepository extends JpaRepository<ClientNotifi
      * @return list of recent notifications
      */
     @Query("SELECT n FROM ClientNotification n WHERE n.clientPhone = :clientPhone AND n.createdAt >= :startDate ORDER BY n.createdAt DESC")
-    List<ClientNotification> findRecentNotificationsByClient(@Param("clientPhone") String clientPhone, @Param("startDate") java.time.LocalDateTime startDate);
+    List<ClientNotification> findRecentNotificationsByClient(@Param("clientPhone") String clientPhone, @Param("startDate") LocalDateTime startDate);
 }
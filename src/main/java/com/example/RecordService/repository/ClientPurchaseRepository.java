@@ -0,0 +1,54 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.ClientPurchase;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ClientPurchaseRepository extends JpaRepository<ClientPurchase, ClientPurchase.PurchaseKey> {
+
+    /**
+     * Check whether a client has a DELIVERED order containing an item (primary key lookup)
+     * @param userId the client's user ID
+     * @param itemId the item ID
+     * @param itemType the item type, lower case
+     * @return true if the item was delivered to the client
+     */
+    @Query("SELECT COUNT(p) > 0 FROM ClientPurchase p " +
+           "WHERE p.userId = :userId AND p.itemId = :itemId AND p.itemType = :itemType AND p.deliveredOrders > 0")
+    boolean hasPurchased(@Param("userId") String userId, @Param("itemId") String itemId, @Param("itemType") String itemType);
+
+    /**
+     * Add to the delivered order count of a client's item, creating the row if needed
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO client_purchases (user_id, item_id, item_type, delivered_orders, updated_at) " +
+                   "VALUES (:userId, :itemId, :itemType, :delta, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT (user_id, item_id, item_type) DO UPDATE SET " +
+                   "delivered_orders = client_purchases.delivered_orders + EXCLUDED.delivered_orders, " +
+                   "updated_at = CURRENT_TIMESTAMP",
+           nativeQuery = true)
+    int upsert(@Param("userId") String userId, @Param("itemId") String itemId,
+               @Param("itemType") String itemType, @Param("delta") long delta);
+
+    /**
+     * Rebuild the index from active and archived DELIVERED orders in one set-based statement (used when the table is empty)
+     * @return number of rows written
+     */
+    @Modifying
+    @Query(value = "INSERT INTO client_purchases (user_id, item_id, item_type, delivered_orders, updated_at) " +
+                   "SELECT o.user_id, oi.item_id, LOWER(oi.item_type), COUNT(DISTINCT o.order_id), CURRENT_TIMESTAMP " +
+                   "FROM (SELECT order_id, user_id, status, order_date FROM orders UNION ALL " +
+                   "SELECT order_id, user_id, status, order_date FROM orders_archive) o " +
+                   "JOIN (SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items UNION ALL " +
+                   "SELECT order_id, business_id, item_id, item_type, item_name, item_price, quantity FROM order_items_archive) oi " +
+                   "ON oi.order_id = o.order_id " +
+                   "WHERE o.status = 'DELIVERED' " +
+                   "GROUP BY o.user_id, oi.item_id, LOWER(oi.item_type)",
+           nativeQuery = true)
+    int backfill();
+}
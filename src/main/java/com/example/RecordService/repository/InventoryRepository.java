@@ -11,6 +11,8 @@ public interface InventoryRepository {
     List<Inventory> findByCategory(String category);
     boolean existsByInventoryId(String inventoryId);
     Inventory update(Inventory inventory);
+    boolean decrementQuantityIfAvailable(String inventoryId, int quantity);
+    Integer incrementQuantity(String inventoryId, int quantity);
     boolean delete(String inventoryId);
     long count();
 }
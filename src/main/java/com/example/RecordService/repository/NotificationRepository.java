@@ -2,11 +2,15 @@ package com.example.RecordService.repository;
 
 import com.example.RecordService.entity.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
@@ -46,6 +50,58 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     long countByVendorPhoneAndStatus(String vendorPhone, Notification.NotificationStatus status);
     
+    /**
+     * Count notifications with a status per vendor
+     * @param status the notification status
+     * @return rows of [vendor phone, count]
+     */
+    @Query("SELECT n.vendorPhone, COUNT(n) FROM Notification n WHERE n.status = :status GROUP BY n.vendorPhone")
+    List<Object[]> countByStatusGroupByVendorPhone(@Param("status") Notification.NotificationStatus status);
+    
+    /**
+     * Find the vendor of a notification that is still unread
+     * @param notificationId the notification ID
+     * @return the vendor's phone number, or empty if the notification is read or missing
+     */
+    @Query("SELECT n.vendorPhone FROM Notification n WHERE n.notificationId = :notificationId AND n.status = UNREAD")
+    Optional<String> findUnreadVendorPhone(@Param("notificationId") Long notificationId);
+    
+    /**
+     * Mark all unread notifications of a vendor as read in one statement
+     * @param vendorPhone the vendor's phone number
+     * @param readAt the read time to record
+     * @return number of notifications marked as read
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = READ, n.readAt = :readAt WHERE n.vendorPhone = :vendorPhone AND n.status = UNREAD")
+    int markAllAsRead(@Param("vendorPhone") String vendorPhone, @Param("readAt") LocalDateTime readAt);
+    
+    /**
+     * Mark the given unread notifications of a vendor as read in one statement
+     * @param vendorPhone the vendor's phone number
+     * @param notificationIds the notification IDs (IDs of other vendors are ignored)
+     * @param readAt the read time to record
+     * @return number of notifications marked as read
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = READ, n.readAt = :readAt WHERE n.vendorPhone = :vendorPhone " +
+           "AND n.notificationId IN :notificationIds AND n.status = UNREAD")
+    int markAsRead(@Param("vendorPhone") String vendorPhone, @Param("notificationIds") Collection<Long> notificationIds,
+                   @Param("readAt") LocalDateTime readAt);
+    
+    /**
+     * Mark the unread notifications of a vendor created up to a time as read in one statement
+     * @param vendorPhone the vendor's phone number
+     * @param before notifications created at or before this time are marked
+     * @param readAt the read time to record
+     * @return number of notifications marked as read
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.status = READ, n.readAt = :readAt WHERE n.vendorPhone = :vendorPhone " +
+           "AND n.createdAt <= :before AND n.status = UNREAD")
+    int markAsReadBefore(@Param("vendorPhone") String vendorPhone, @Param("before") LocalDateTime before,
+                         @Param("readAt") LocalDateTime readAt);
+    
     /**
      * Find notifications by type and vendor
      * @param vendorPhone the vendor's phone number
@@ -0,0 +1,64 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.OrderEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    /**
+     * Find events that are due: pending events whose retry time has come, and processing events
+     * whose lease expired because the worker that claimed them died
+     * @param now the current time
+     * @param pageable maximum number of events to return
+     * @return event IDs, oldest due first
+     */
+    @Query("SELECT e.eventId FROM OrderEvent e WHERE e.status IN ('PENDING', 'PROCESSING') " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC")
+    List<Long> findDueEventIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Claim a due event for processing and count the attempt. Only one worker can win the claim for a given event.
+     * @param eventId the event ID
+     * @param now the current time
+     * @param leaseUntil when the claim expires if the worker never finishes
+     * @return 1 if the event was claimed, 0 if it is not due or already claimed
+     */
+    @Modifying
+    @Query("UPDATE OrderEvent e SET e.status = 'PROCESSING', e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil " +
+           "WHERE e.eventId = :eventId AND e.status IN ('PENDING', 'PROCESSING') AND e.nextAttemptAt <= :now")
+    int claim(@Param("eventId") Long eventId, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    /**
+     * Forget processed events past the retention period
+     * @param cutoff events processed before this time are deleted
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.status = 'DONE' AND e.processedAt < :cutoff")
+    int deleteDoneBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Forget events that gave up, once they are old enough to have been looked into
+     * @param cutoff failed events created before this time are deleted
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderEvent e WHERE e.status = 'FAILED' AND e.createdAt < :cutoff")
+    int deleteFailedCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Count events in a given state
+     * @param status the event status
+     * @return count of events
+     */
+    long countByStatus(OrderEvent.EventStatus status);
+}
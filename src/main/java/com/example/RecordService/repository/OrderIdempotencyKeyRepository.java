@@ -0,0 +1,46 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.OrderIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface OrderIdempotencyKeyRepository extends JpaRepository<OrderIdempotencyKey, String> {
+
+    /**
+     * Claim a key for a new order. If another transaction holds the key, the database makes
+     * this wait until it commits (key taken) or rolls back (key free again).
+     * @param idempotencyKey the key
+     * @param userId the user submitting the order
+     * @param createdAt the current time
+     * @return 1 if the key was claimed, 0 if it was already used
+     */
+    @Modifying
+    @Query(value = "INSERT INTO order_idempotency_keys (idempotency_key, user_id, created_at) " +
+                   "VALUES (:idempotencyKey, :userId, :createdAt) ON CONFLICT (idempotency_key) DO NOTHING",
+           nativeQuery = true)
+    int claim(@Param("idempotencyKey") String idempotencyKey, @Param("userId") String userId,
+              @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Record the order created under a claimed key
+     * @return number of rows updated
+     */
+    @Modifying
+    @Query("UPDATE OrderIdempotencyKey k SET k.orderId = :orderId WHERE k.idempotencyKey = :idempotencyKey")
+    int attachOrder(@Param("idempotencyKey") String idempotencyKey, @Param("orderId") Long orderId);
+
+    /**
+     * Forget keys older than the retention period
+     * @param cutoff keys created before this time are deleted
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OrderIdempotencyKey k WHERE k.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
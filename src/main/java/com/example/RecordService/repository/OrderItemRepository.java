@@ -0,0 +1,22 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.OrderItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+    
+    /**
+     * Find the items of several orders in one query
+     * @param orderIds the order IDs
+     * @return items ordered by order ID and item ID
+     */
+    @Query("SELECT oi FROM OrderItem oi WHERE oi.order.orderId IN :orderIds ORDER BY oi.order.orderId, oi.orderItemId")
+    List<OrderItem> findByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
@@ -1,11 +1,17 @@
 package com.example.RecordService.repository;
 
 import com.example.RecordService.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,7 +37,8 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * @param businessId the business ID
      * @return list of orders containing items from the business
      */
-    @Query("SELECT DISTINCT o FROM Order o JOIN o.orderItems oi WHERE oi.businessId = :businessId ORDER BY o.orderDate DESC")
+    @Query("SELECT o FROM Order o WHERE EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o AND oi.businessId = :businessId) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
     List<Order> findByBusinessId(@Param("businessId") String businessId);
     
     /**
@@ -51,6 +58,29 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     long countByStatus(Order.OrderStatus status);
     
+    /**
+     * Count orders per status in one pass
+     * @return rows of [status, count]
+     */
+    @Query("SELECT o.status, COUNT(o) FROM Order o GROUP BY o.status")
+    List<Object[]> countGroupByStatus();
+    
+    /**
+     * Count orders per order day and status
+     * @return rows of [LocalDate day, status, count]
+     */
+    @Query("SELECT CAST(o.orderDate AS LocalDate), o.status, COUNT(o) FROM Order o " +
+           "GROUP BY CAST(o.orderDate AS LocalDate), o.status")
+    List<Object[]> countGroupByDayAndStatus();
+    
+    /**
+     * Count orders per business and status (an order counts once for each business it contains)
+     * @return rows of [businessId, status, count]
+     */
+    @Query("SELECT oi.businessId, o.status, COUNT(DISTINCT o.orderId) FROM Order o JOIN o.orderItems oi " +
+           "GROUP BY oi.businessId, o.status")
+    List<Object[]> countGroupByBusinessAndStatus();
+    
     /**
      * Find orders by customer email
      * @param customerEmail the customer email
@@ -79,4 +109,153 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
         @Param("itemId") String itemId,
         @Param("itemType") String itemType,
         @Param("bookingDate") java.time.LocalDate bookingDate);
+    
+    /**
+     * Load orders with their items in one query, in ID order
+     * @param orderIds the order IDs
+     * @return the orders that exist
+     */
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findWithItemsByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Load orders and lock their rows until the transaction ends, in ID order so concurrent callers
+     * lock in the same order (items are fetched separately, as an outer join cannot be locked)
+     * @param orderIds the order IDs
+     * @return the orders that exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId IN :orderIds ORDER BY o.orderId")
+    List<Order> findByOrderIdsForUpdate(@Param("orderIds") Collection<Long> orderIds);
+    
+    /**
+     * Load an order and lock its row until the transaction ends, so a status change cannot
+     * race the reservation expiry job or another status change
+     * @param orderId the order ID
+     * @return the order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.orderId = :orderId")
+    Optional<Order> findByIdForUpdate(@Param("orderId") Long orderId);
+    
+    /**
+     * PENDING orders whose reservation has lapsed, oldest first (range scan on the expiry index)
+     * @param now the current time
+     * @param pageable batch size
+     * @return order IDs
+     */
+    @Query("SELECT o.orderId FROM Order o WHERE o.status = 'PENDING' AND o.reservationExpiresAt <= :now " +
+           "ORDER BY o.reservationExpiresAt")
+    List<Long> findExpiredReservationIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    /**
+     * Cancel orders whose reservation has lapsed, if they are still PENDING.
+     * The condition is re-checked under the row lock, so an order confirmed in the meantime is left alone.
+     * reservationExpiresAt is kept so the caller can tell these orders apart from other cancelled ones.
+     * @param orderIds candidate order IDs
+     * @param now the current time
+     * @return number of orders cancelled
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = 'CANCELLED' " +
+           "WHERE o.orderId IN :orderIds AND o.status = 'PENDING' AND o.reservationExpiresAt <= :now")
+    int cancelExpiredReservations(@Param("orderIds") Collection<Long> orderIds, @Param("now") LocalDateTime now);
+    
+    /**
+     * Stock currently held by PENDING orders
+     * @return one row of [order count, item quantity]
+     */
+    @Query("SELECT COUNT(DISTINCT o.orderId), COALESCE(SUM(oi.quantity), 0) FROM Order o JOIN o.orderItems oi " +
+           "WHERE o.status = 'PENDING'")
+    List<Object[]> sumPendingReservations();
+    
+    // Keyset pagination: pages are ordered by (orderDate DESC, orderId DESC) and each page after the
+    // first starts strictly below the last row of the previous page, so page cost does not grow with depth
+    
+    /**
+     * First page of all orders
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findFirstPage(Pageable pageable);
+    
+    /**
+     * Page of all orders after a cursor
+     * @param orderDate order date of the last row of the previous page
+     * @param orderId order ID of the last row of the previous page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE (o.orderDate, o.orderId) < (:orderDate, :orderId) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findPageAfter(@Param("orderDate") LocalDateTime orderDate, @Param("orderId") Long orderId,
+                              Pageable pageable);
+    
+    /**
+     * First page of orders for a user
+     * @param userId the user ID
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findFirstPageByUserId(@Param("userId") String userId, Pageable pageable);
+    
+    /**
+     * Page of orders for a user after a cursor
+     * @param userId the user ID
+     * @param orderDate order date of the last row of the previous page
+     * @param orderId order ID of the last row of the previous page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.userId = :userId AND (o.orderDate, o.orderId) < (:orderDate, :orderId) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findPageByUserIdAfter(@Param("userId") String userId, @Param("orderDate") LocalDateTime orderDate,
+                                      @Param("orderId") Long orderId, Pageable pageable);
+    
+    /**
+     * First page of orders with a status
+     * @param status the order status
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findFirstPageByStatus(@Param("status") Order.OrderStatus status, Pageable pageable);
+    
+    /**
+     * Page of orders with a status after a cursor
+     * @param status the order status
+     * @param orderDate order date of the last row of the previous page
+     * @param orderId order ID of the last row of the previous page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND (o.orderDate, o.orderId) < (:orderDate, :orderId) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findPageByStatusAfter(@Param("status") Order.OrderStatus status, @Param("orderDate") LocalDateTime orderDate,
+                                      @Param("orderId") Long orderId, Pageable pageable);
+    
+    /**
+     * First page of orders containing items from a business
+     * @param businessId the business ID
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o AND oi.businessId = :businessId) " +
+           "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findFirstPageByBusinessId(@Param("businessId") String businessId, Pageable pageable);
+    
+    /**
+     * Page of orders containing items from a business after a cursor
+     * @param businessId the business ID
+     * @param orderDate order date of the last row of the previous page
+     * @param orderId order ID of the last row of the previous page
+     * @param pageable page size
+     * @return orders, newest first
+     */
+    @Query("SELECT o FROM Order o WHERE EXISTS (SELECT 1 FROM OrderItem oi WHERE oi.order = o AND oi.businessId = :businessId) " +
+           "AND (o.orderDate, o.orderId) < (:orderDate, :orderId) ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<Order> findPageByBusinessIdAfter(@Param("businessId") String businessId, @Param("orderDate") LocalDateTime orderDate,
+                                          @Param("orderId") Long orderId, Pageable pageable);
 }
@@ -0,0 +1,51 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.OrderStatusTransition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OrderStatusTransitionRepository extends JpaRepository<OrderStatusTransition, Long> {
+
+    /**
+     * Find the transitions of an order
+     * @param orderId the order ID
+     * @return transitions in the order they happened
+     */
+    List<OrderStatusTransition> findByOrderIdOrderByChangedAtAscTransitionIdAsc(Long orderId);
+
+    /**
+     * Latency percentiles between two statuses for one business, computed in the database.
+     * Takes the business's orders that reached toStatus in the window through the (business_id, to_status, changed_at)
+     * index, and for each the earliest earlier arrival at fromStatus through the (order_id, to_status) index.
+     * @param businessId the business ID
+     * @param fromStatus the status the latency is measured from
+     * @param toStatus the status the latency is measured to
+     * @param since start of the window (inclusive), on the toStatus transition
+     * @param until end of the window (exclusive)
+     * @return one row of [count, p50, p95, p99, max], latencies in seconds (null when count is 0)
+     */
+    @Query(value = "SELECT COUNT(*), " +
+           "PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY l.seconds), " +
+           "PERCENTILE_CONT(0.95) WITHIN GROUP (ORDER BY l.seconds), " +
+           "PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY l.seconds), " +
+           "MAX(l.seconds) " +
+           "FROM (SELECT EXTRACT(EPOCH FROM t.changed_at) - EXTRACT(EPOCH FROM MIN(f.changed_at)) AS seconds " +
+           "      FROM order_status_transitions t " +
+           "      JOIN order_status_transitions f ON f.order_id = t.order_id AND f.to_status = :fromStatus " +
+           "           AND f.business_id = t.business_id AND f.changed_at <= t.changed_at " +
+           "      WHERE t.business_id = :businessId AND t.to_status = :toStatus " +
+           "        AND t.changed_at >= :since AND t.changed_at < :until " +
+           "      GROUP BY t.transition_id, t.changed_at) l",
+           nativeQuery = true)
+    List<Object[]> findLatencyPercentiles(@Param("businessId") String businessId,
+                                          @Param("fromStatus") String fromStatus,
+                                          @Param("toStatus") String toStatus,
+                                          @Param("since") LocalDateTime since,
+                                          @Param("until") LocalDateTime until);
+}
@@ -2,6 +2,9 @@ package com.example.RecordService.repository;
 
 import com.example.RecordService.entity.Plate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +13,25 @@ import java.util.List;
 public interface PlateRepository extends JpaRepository<Plate, String> {
     List<Plate> findByBusinessId(String businessId);
     long countByBusinessId(String businessId);
+    
+    /**
+     * Atomically decrement plate stock only if enough units are left (check-and-decrement in one statement)
+     * @return number of rows updated (0 if the plate is missing or stock is insufficient)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Plate p SET p.quantity = p.quantity - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.plateId = :plateId AND p.quantity >= :quantity")
+    int decrementQuantityIfAvailable(@Param("plateId") String plateId, @Param("quantity") int quantity);
+    
+    /**
+     * Atomically increment plate stock
+     * @return number of rows updated (0 if the plate is missing)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Plate p SET p.quantity = p.quantity + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.plateId = :plateId")
+    int incrementQuantity(@Param("plateId") String plateId, @Param("quantity") int quantity);
+    
+    @Query("SELECT p.quantity FROM Plate p WHERE p.plateId = :plateId")
+    Integer findQuantityByPlateId(@Param("plateId") String plateId);
 }
@@ -25,6 +25,9 @@ public interface StockNotificationRepository extends JpaRepository<StockNotifica
     // Find all non-notified subscriptions for an item
     List<StockNotification> findByItemIdAndItemTypeAndNotifiedFalse(String itemId, String itemType);
     
+    // Find all non-notified subscriptions for several items
+    List<StockNotification> findByItemIdInAndNotifiedFalse(java.util.Collection<String> itemIds);
+    
     // Find all non-notified subscriptions for an item and specific date
     List<StockNotification> findByItemIdAndItemTypeAndRequestedDateAndNotifiedFalse(String itemId, String itemType, String requestedDate);
     
@@ -12,6 +12,8 @@ public interface ThemeRepository {
     List<Theme> findByActive(boolean active);
     boolean existsByThemeId(String themeId);
     Theme update(Theme theme);
+    boolean decrementQuantityIfAvailable(String themeId, int quantity);
+    Integer incrementQuantity(String themeId, int quantity);
     boolean delete(String themeId);
     long count();
 }
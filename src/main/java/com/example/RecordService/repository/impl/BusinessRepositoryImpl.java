@@ -5,6 +5,8 @@ import com.example.RecordService.repository.BusinessRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,6 +32,18 @@ public class BusinessRepositoryImpl implements BusinessRepository {
         return businesses.get(businessId);
     }
     
+    @Override
+    public Map<String, Business> findByBusinessIds(Collection<String> businessIds) {
+        Map<String, Business> found = new LinkedHashMap<>();
+        for (String businessId : businessIds) {
+            Business business = businesses.get(businessId);
+            if (business != null) {
+                found.put(businessId, business);
+            }
+        }
+        return found;
+    }
+    
     @Override
     public Business findByPhoneNumber(String phoneNumber) {
         return businesses.values().stream()
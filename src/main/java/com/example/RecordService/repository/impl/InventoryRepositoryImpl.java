@@ -4,6 +4,7 @@ import com.example.RecordService.entity.Inventory;
 import com.example.RecordService.repository.InventoryRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,42 @@ public class InventoryRepositoryImpl implements InventoryRepository {
         return inventory;
     }
     
+    /**
+     * Atomically check and decrement the stock of an inventory item.
+     * The check and the write happen inside a single compute on the item's map entry,
+     * so two concurrent reservations can never both take the last unit.
+     * @return true if the quantity was decremented, false if the item is missing or has insufficient stock
+     */
+    @Override
+    public boolean decrementQuantityIfAvailable(String inventoryId, int quantity) {
+        boolean[] reserved = {false};
+        inventories.computeIfPresent(inventoryId, (id, inventory) -> {
+            if (inventory.getQuantity() >= quantity) {
+                inventory.setQuantity(inventory.getQuantity() - quantity);
+                inventory.setUpdatedAt(LocalDateTime.now());
+                reserved[0] = true;
+            }
+            return inventory;
+        });
+        return reserved[0];
+    }
+    
+    /**
+     * Atomically increment the stock of an inventory item.
+     * @return the quantity before the increment, or null if the item does not exist
+     */
+    @Override
+    public Integer incrementQuantity(String inventoryId, int quantity) {
+        Integer[] previous = {null};
+        inventories.computeIfPresent(inventoryId, (id, inventory) -> {
+            previous[0] = inventory.getQuantity();
+            inventory.setQuantity(inventory.getQuantity() + quantity);
+            inventory.setUpdatedAt(LocalDateTime.now());
+            return inventory;
+        });
+        return previous[0];
+    }
+    
     @Override
     public boolean delete(String inventoryId) {
         Inventory removed = inventories.remove(inventoryId);
@@ -4,6 +4,7 @@ import com.example.RecordService.model.Theme;
 import com.example.RecordService.repository.ThemeRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -67,6 +68,42 @@ public class ThemeRepositoryImpl implements ThemeRepository {
         return theme;
     }
     
+    /**
+     * Atomically check and decrement the stock of a theme.
+     * The check and the write happen inside a single compute on the theme's map entry,
+     * so two concurrent reservations can never both take the last unit.
+     * @return true if the quantity was decremented, false if the theme is missing or has insufficient stock
+     */
+    @Override
+    public boolean decrementQuantityIfAvailable(String themeId, int quantity) {
+        boolean[] reserved = {false};
+        themes.computeIfPresent(themeId, (id, theme) -> {
+            if (theme.getQuantity() >= quantity) {
+                theme.setQuantity(theme.getQuantity() - quantity);
+                theme.setUpdatedAt(LocalDateTime.now());
+                reserved[0] = true;
+            }
+            return theme;
+        });
+        return reserved[0];
+    }
+    
+    /**
+     * Atomically increment the stock of a theme.
+     * @return the quantity before the increment, or null if the theme does not exist
+     */
+    @Override
+    public Integer incrementQuantity(String themeId, int quantity) {
+        Integer[] previous = {null};
+        themes.computeIfPresent(themeId, (id, theme) -> {
+            previous[0] = theme.getQuantity();
+            theme.setQuantity(theme.getQuantity() + quantity);
+            theme.setUpdatedAt(LocalDateTime.now());
+            return theme;
+        });
+        return previous[0];
+    }
+    
     @Override
     public boolean delete(String themeId) {
         Theme removed = themes.remove(themeId);
@@ -0,0 +1,227 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-process cache of availability rows by (itemId, itemType, date), least recently used evicted first.
+ * Only reads go through it: stock is always taken with the conditional UPDATE in AvailabilityRepository, so a
+ * stale entry can at worst let an order through validation that the reservation then rejects, never oversell.
+ * Every write invalidates its key when it happens and again when its transaction completes; a read only caches
+ * what it loaded if its key (or another key of the same stripe) was not invalidated meanwhile and its own
+ * transaction has not written the key, so neither a racing read nor uncommitted data can put an outdated row back. Entries also expire after ttl-seconds, which
+ * bounds how long changes made on other nodes can go unseen.
+ */
+@Component
+public class AvailabilityCache {
+
+    private static final String DIRTY_KEYS_RESOURCE = AvailabilityCache.class.getName() + ".dirtyKeys";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${availability.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${availability.cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    // Invalidation stamps, striped by key so writes to one row do not stop other rows from being cached
+    private static final int STRIPES = 1024;
+
+    // Incremented on every invalidation of a key of the stripe; a load only caches its result if this did not move
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private Map<String, Entry> entries;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        });
+        hits = Counter.builder("availability.cache.hits")
+            .description("Availability reads served from the cache")
+            .register(meterRegistry);
+        misses = Counter.builder("availability.cache.misses")
+            .description("Availability reads loaded from the database")
+            .register(meterRegistry);
+        Gauge.builder("availability.cache.size", entries, Map::size)
+            .description("Availability rows cached")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Get an availability row, loading it on a miss
+     * @param itemId the item ID
+     * @param itemType the item type
+     * @param date the availability date
+     * @param loader reads the row from the database
+     * @return a read-only copy of the row, or empty if there is none
+     */
+    public Optional<Availability> get(String itemId, String itemType, LocalDate date,
+                                      Supplier<Optional<Availability>> loader) {
+        String key = key(itemId, itemType, date);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > System.nanoTime()) {
+            hits.increment();
+            return Optional.ofNullable(copy(entry.availability));
+        }
+        misses.increment();
+        int stripe = stripe(key);
+        long stamp = invalidations.get(stripe);
+        Optional<Availability> loaded = loader.get();
+        if (invalidations.get(stripe) == stamp && !writtenInCurrentTransaction(key)) {
+            entries.put(key, new Entry(copy(loaded.orElse(null)), System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidate a row that is being written. The current value is dropped now and again once the
+     * writing transaction completes (commit or rollback).
+     */
+    public void invalidate(String itemId, String itemType, LocalDate date) {
+        String key = key(itemId, itemType, date);
+        evict(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            dirtyKeys().add(key);
+        }
+    }
+
+    /**
+     * Invalidate a row that is being written and cache its new value once the writing transaction commits,
+     * unless another write to the row (or its stripe) happened in between
+     * @param availability the row as written
+     */
+    public void writeThrough(Availability availability) {
+        String key = key(availability.getItemId(), availability.getItemType(), availability.getAvailabilityDate());
+        invalidate(availability.getItemId(), availability.getItemType(), availability.getAvailabilityDate());
+        int stripe = stripe(key);
+        long stamp = invalidations.get(stripe);
+        Availability written = copy(availability);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<String> dirty = dirtyKeys();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Runs before the after-completion eviction; the stamp only moved if another write happened
+                    if (invalidations.get(stripe) == stamp) {
+                        dirty.remove(key);
+                        entries.put(key, new Entry(written, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidate every cached date of an item. Its dates hash to any stripe, so this moves all of them;
+     * it only runs when an item is deleted.
+     */
+    public void invalidateItem(String itemId, String itemType) {
+        String prefix = itemType + "\u0000" + itemId + "\u0000";
+        evictItem(prefix);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictItem(prefix);
+                }
+            });
+        }
+    }
+
+    private void evictItem(String prefix) {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            invalidations.incrementAndGet(stripe);
+        }
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+
+    private void evict(String key) {
+        invalidations.incrementAndGet(stripe(key));
+        entries.remove(key);
+    }
+
+    private static int stripe(String key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    private boolean writtenInCurrentTransaction(String key) {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+            && TransactionSynchronizationManager.hasResource(DIRTY_KEYS_RESOURCE)
+            && dirtyKeys().contains(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> dirtyKeys() {
+        Set<String> keys = (Set<String>) TransactionSynchronizationManager.getResource(DIRTY_KEYS_RESOURCE);
+        if (keys == null) {
+            Set<String> created = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(DIRTY_KEYS_RESOURCE, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DIRTY_KEYS_RESOURCE);
+                    for (String key : created) {
+                        evict(key);
+                    }
+                }
+            });
+            keys = created;
+        }
+        return keys;
+    }
+
+    private static String key(String itemId, String itemType, LocalDate date) {
+        return itemType + "\u0000" + itemId + "\u0000" + date;
+    }
+
+    private static Availability copy(Availability source) {
+        if (source == null) {
+            return null;
+        }
+        Availability copy = new Availability(source.getItemId(), source.getItemType(), source.getBusinessId(),
+            source.getAvailabilityDate(), source.getAvailableQuantity());
+        copy.setAvailabilityId(source.getAvailabilityId());
+        copy.setIsAvailable(source.getIsAvailable());
+        copy.setPriceOverride(source.getPriceOverride());
+        return copy;
+    }
+
+    private static class Entry {
+        final Availability availability; // null caches the absence of a row
+        final long expiresAt;
+
+        Entry(Availability availability, long expiresAt) {
+            this.availability = availability;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
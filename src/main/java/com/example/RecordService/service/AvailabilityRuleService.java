@@ -0,0 +1,244 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import com.example.RecordService.entity.AvailabilityRule;
+import com.example.RecordService.model.dto.AvailabilityRuleRequest;
+import com.example.RecordService.model.dto.AvailabilityRuleResponse;
+import com.example.RecordService.repository.AvailabilityRuleRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Recurring availability rules (see AvailabilityRule). Rules are evaluated in memory when a date or a range
+ * is read; the only row a rule ever writes is the concrete availability of a date a booking takes quantity on,
+ * so conditional decrements keep working on real rows.
+ */
+@Service
+@Transactional
+public class AvailabilityRuleService {
+
+    // Open-ended listings (all availabilities of an item or a business) show rule dates up to this far ahead
+    public static final int RULE_HORIZON_DAYS = 365;
+
+    // A concurrent booking or a vendor edit may have written the row first; theirs wins
+    private static final String MATERIALIZE_SQL =
+        "INSERT INTO availabilities (item_id, item_type, business_id, availability_date, available_quantity, " +
+        "is_available, price_override) VALUES (?, ?, ?, ?, ?, TRUE, ?) " +
+        "ON CONFLICT (item_id, item_type, availability_date) DO NOTHING";
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Autowired
+    private AvailabilityCache availabilityCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Create or replace the rule of an item
+     * @param request the rule
+     * @return the saved rule
+     */
+    public AvailabilityRuleResponse saveRule(AvailabilityRuleRequest request) {
+        AvailabilityRule rule = availabilityRuleRepository
+            .findByItemIdAndItemType(request.getItemId(), request.getItemType())
+            .orElseGet(AvailabilityRule::new);
+        rule.setItemId(request.getItemId());
+        rule.setItemType(request.getItemType());
+        rule.setBusinessId(request.getBusinessId());
+        rule.setDaysOfWeek(toMask(request.getDaysOfWeek()));
+        rule.setDefaultQuantity(request.getDefaultQuantity());
+        rule.setPriceOverride(request.getPriceOverride());
+        rule.setStartDate(request.getStartDate());
+        rule.setEndDate(request.getEndDate());
+        rule.setUpdatedAt(LocalDateTime.now());
+        AvailabilityRule saved = availabilityRuleRepository.save(rule);
+        availabilityCache.invalidateItem(saved.getItemId(), saved.getItemType());
+        return convertToResponse(saved);
+    }
+
+    /**
+     * Get the rule of an item
+     */
+    @Transactional(readOnly = true)
+    public Optional<AvailabilityRuleResponse> getRule(String itemId, String itemType) {
+        return availabilityRuleRepository.findByItemIdAndItemType(itemId, itemType).map(this::convertToResponse);
+    }
+
+    /**
+     * Delete the rule of an item; concrete rows already written from it stay
+     * @return true if the item had a rule
+     */
+    public boolean deleteRule(String itemId, String itemType) {
+        availabilityCache.invalidateItem(itemId, itemType);
+        return availabilityRuleRepository.deleteByItemIdAndItemType(itemId, itemType) > 0;
+    }
+
+    /**
+     * Evaluate an item's rule for a date
+     * @return the availability the rule gives the date (not persisted), or empty if no rule covers it
+     */
+    @Transactional(readOnly = true)
+    public Optional<Availability> resolve(String itemId, String itemType, LocalDate date) {
+        return availabilityRuleRepository.findByItemIdAndItemType(itemId, itemType)
+            .filter(rule -> covers(rule, date))
+            .map(rule -> ruleRow(rule, date));
+    }
+
+    /**
+     * Get the rule of an item, for evaluating a range
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> getRulesForItem(String itemId, String itemType) {
+        return availabilityRuleRepository.findByItemIdAndItemType(itemId, itemType).map(List::of).orElse(List.of());
+    }
+
+    /**
+     * Get the rules of several items with one query
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> getRulesForItems(Collection<String> itemIds) {
+        return itemIds.isEmpty() ? List.of() : availabilityRuleRepository.findByItemIdIn(itemIds);
+    }
+
+    /**
+     * Get the rules of a business
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> getRulesForBusiness(String businessId) {
+        return availabilityRuleRepository.findByBusinessId(businessId);
+    }
+
+    /**
+     * Get the rules that give a date at least a quantity, for items without a concrete row that day
+     * (such a date has no bookings: the first booking writes the row)
+     * @param date the date
+     * @param itemType only rules of this item type, or null
+     * @param businessId only rules of this business, or null
+     * @param minQuantity the minimum default quantity
+     * @return rules covering the date
+     */
+    @Transactional(readOnly = true)
+    public List<AvailabilityRule> getRulesOpenOn(LocalDate date, String itemType, String businessId, int minQuantity) {
+        List<AvailabilityRule> rules = new ArrayList<>();
+        for (AvailabilityRule rule : availabilityRuleRepository.findInForceWithoutRow(date, itemType, businessId, minQuantity)) {
+            if (covers(rule, date)) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Add the dates rules give in a range to the concrete rows of that range.
+     * A date that has a concrete row keeps it.
+     * @param rows concrete availability rows
+     * @param rules the rules to evaluate
+     * @param from first date (inclusive)
+     * @param to last date (inclusive)
+     * @return the rows followed by the rule dates, unsorted
+     */
+    public static List<Availability> withRuleDates(List<Availability> rows, Collection<AvailabilityRule> rules,
+                                                   LocalDate from, LocalDate to) {
+        if (rules.isEmpty()) {
+            return rows;
+        }
+        Set<String> concrete = new HashSet<>();
+        for (Availability row : rows) {
+            concrete.add(key(row.getItemType(), row.getItemId(), row.getAvailabilityDate()));
+        }
+        List<Availability> result = new ArrayList<>(rows);
+        for (AvailabilityRule rule : rules) {
+            LocalDate first = rule.getStartDate().isAfter(from) ? rule.getStartDate() : from;
+            LocalDate last = rule.getEndDate() != null && rule.getEndDate().isBefore(to) ? rule.getEndDate() : to;
+            for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                if (covers(rule, date) && !concrete.contains(key(rule.getItemType(), rule.getItemId(), date))) {
+                    result.add(ruleRow(rule, date));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Write the concrete row of a date from the item's rule, so a booking can take quantity from it.
+     * Does nothing if the row exists already.
+     * @return true if a rule covers the date (the row now exists)
+     */
+    public boolean materialize(String itemId, String itemType, LocalDate date) {
+        Optional<AvailabilityRule> rule = availabilityRuleRepository.findByItemIdAndItemType(itemId, itemType)
+            .filter(candidate -> covers(candidate, date));
+        if (rule.isEmpty()) {
+            return false;
+        }
+        jdbcTemplate.update(MATERIALIZE_SQL, itemId, itemType, rule.get().getBusinessId(), Date.valueOf(date),
+            rule.get().getDefaultQuantity(), rule.get().getPriceOverride());
+        return true;
+    }
+
+    /**
+     * Check whether a rule makes its item available on a date
+     */
+    static boolean covers(AvailabilityRule rule, LocalDate date) {
+        return !date.isBefore(rule.getStartDate())
+            && (rule.getEndDate() == null || !date.isAfter(rule.getEndDate()))
+            && (rule.getDaysOfWeek() & (1 << (date.getDayOfWeek().getValue() - 1))) != 0;
+    }
+
+    static int toMask(Collection<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    static List<DayOfWeek> fromMask(int mask) {
+        List<DayOfWeek> days = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((mask & (1 << (day.getValue() - 1))) != 0) {
+                days.add(day);
+            }
+        }
+        return days;
+    }
+
+    private static Availability ruleRow(AvailabilityRule rule, LocalDate date) {
+        Availability availability = new Availability(rule.getItemId(), rule.getItemType(), rule.getBusinessId(),
+            date, rule.getDefaultQuantity());
+        availability.setPriceOverride(rule.getPriceOverride());
+        return availability;
+    }
+
+    private static String key(String itemType, String itemId, LocalDate date) {
+        return itemType + "\u0000" + itemId + "\u0000" + date;
+    }
+
+    private AvailabilityRuleResponse convertToResponse(AvailabilityRule rule) {
+        AvailabilityRuleResponse response = new AvailabilityRuleResponse();
+        response.setRuleId(rule.getRuleId());
+        response.setItemId(rule.getItemId());
+        response.setItemType(rule.getItemType());
+        response.setBusinessId(rule.getBusinessId());
+        response.setDaysOfWeek(fromMask(rule.getDaysOfWeek()));
+        response.setDefaultQuantity(rule.getDefaultQuantity());
+        response.setPriceOverride(rule.getPriceOverride());
+        response.setStartDate(rule.getStartDate());
+        response.setEndDate(rule.getEndDate());
+        return response;
+    }
+}
@@ -1,18 +1,41 @@
 package com.example.RecordService.service;
 
 import com.example.RecordService.entity.Availability;
+import com.example.RecordService.entity.AvailabilityRule;
+import com.example.RecordService.entity.BookedQuantity;
+import com.example.RecordService.model.dto.AvailabilityCalendarResponse;
 import com.example.RecordService.model.dto.AvailabilityRequest;
 import com.example.RecordService.model.dto.AvailabilityResponse;
+import com.example.RecordService.model.dto.AvailableItemResponse;
+import com.example.RecordService.model.dto.BulkAvailabilityRequest;
+import com.example.RecordService.model.dto.BulkAvailabilityResponse;
 import com.example.RecordService.model.dto.CheckAvailabilityRequest;
 import com.example.RecordService.repository.AvailabilityRepository;
-import com.example.RecordService.repository.OrderRepository;
 import com.example.RecordService.service.StockNotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -20,15 +43,48 @@ import java.util.stream.Collectors;
 @Transactional
 public class AvailabilityService {
     
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityService.class);
+    
+    public static final int MAX_CALENDAR_DAYS = 366;
+    public static final int MAX_BULK_AVAILABILITY_CELLS = 20000;
+    public static final int MAX_SEARCH_RESULTS = 500;
+    private static final int UPSERT_BATCH_SIZE = 500;
+    
+    private static final Comparator<Availability> BY_DATE = Comparator.comparing(Availability::getAvailabilityDate);
+    
+    // Same order as findByBusinessIdAndDateRange
+    private static final Comparator<Availability> BY_ITEM_AND_DATE = Comparator
+        .comparing(Availability::getItemType)
+        .thenComparing(Availability::getItemId)
+        .thenComparing(Availability::getAvailabilityDate);
+    
+    // Insert-or-update against the (item_id, item_type, availability_date) unique constraint;
+    // like createOrUpdateAvailability, a null price override leaves an existing one in place
+    private static final String UPSERT_SQL =
+        "INSERT INTO availabilities (item_id, item_type, business_id, availability_date, available_quantity, " +
+        "is_available, price_override) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+        "ON CONFLICT (item_id, item_type, availability_date) DO UPDATE SET " +
+        "available_quantity = EXCLUDED.available_quantity, is_available = EXCLUDED.is_available, " +
+        "price_override = COALESCE(EXCLUDED.price_override, availabilities.price_override)";
+    
     @Autowired
     private AvailabilityRepository availabilityRepository;
     
     @Autowired
-    private OrderRepository orderRepository;
+    private BookedQuantityService bookedQuantityService;
     
     @Autowired
     private StockNotificationService stockNotificationService;
     
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private AvailabilityCache availabilityCache;
+    
+    @Autowired
+    private AvailabilityRuleService availabilityRuleService;
+    
     @Autowired
     private com.example.RecordService.service.PlateService plateService;
     
@@ -68,6 +124,7 @@ public class AvailabilityService {
         }
         
         Availability saved = availabilityRepository.save(availability);
+        availabilityCache.writeThrough(saved);
         
         // Notify subscribers when availability is added for a date that was previously unavailable
         // This handles the case where vendors add date-wise availability for plates/themes/inventory
@@ -123,6 +180,104 @@ public class AvailabilityService {
         return convertToResponse(saved);
     }
     
+    /**
+     * Set the availability of several items over a date range.
+     * Reads the current state of all cells with one query, writes them as batched upserts, and
+     * notifies the subscribers of every (item, date) that became available in one pass once the upsert
+     * has committed, so a failed notification can never roll the availability back.
+     */
+    public BulkAvailabilityResponse bulkUpsertAvailability(BulkAvailabilityRequest request) {
+        Map<String, BulkAvailabilityRequest.Item> items = new LinkedHashMap<>();
+        for (BulkAvailabilityRequest.Item item : request.getItems()) {
+            items.putIfAbsent(item.getItemType() + "\u0000" + item.getItemId(), item);
+        }
+        List<String> itemIds = items.values().stream()
+            .map(BulkAvailabilityRequest.Item::getItemId)
+            .distinct()
+            .collect(Collectors.toList());
+        
+        Map<String, Availability> existing = new HashMap<>();
+        for (Availability availability : availabilityRepository.findByItemIdsAndDateRange(
+                itemIds, request.getStartDate(), request.getEndDate())) {
+            existing.put(calendarCell(availability.getItemType(), availability.getItemId(), availability.getAvailabilityDate()),
+                availability);
+        }
+        
+        int quantity = request.getAvailableQuantity();
+        boolean isAvailable = request.getIsAvailable() != null ? request.getIsAvailable() : true;
+        boolean nowAvailable = isAvailable && quantity > 0;
+        int created = 0;
+        List<Object[]> rows = new ArrayList<>();
+        Map<String, SortedSet<String>> newlyAvailable = new LinkedHashMap<>();
+        for (Map.Entry<String, BulkAvailabilityRequest.Item> entry : items.entrySet()) {
+            BulkAvailabilityRequest.Item item = entry.getValue();
+            for (LocalDate date = request.getStartDate(); !date.isAfter(request.getEndDate()); date = date.plusDays(1)) {
+                Availability previous = existing.get(calendarCell(item.getItemType(), item.getItemId(), date));
+                if (previous == null) {
+                    created++;
+                }
+                // Same rule as createOrUpdateAvailability: notify when a date that was unavailable becomes available
+                if (nowAvailable && (previous == null || !previous.getIsAvailable() || previous.getAvailableQuantity() == 0)) {
+                    newlyAvailable.computeIfAbsent(entry.getKey(), key -> new TreeSet<>()).add(date.toString());
+                }
+                rows.add(new Object[]{item.getItemId(), item.getItemType(), request.getBusinessId(),
+                    java.sql.Date.valueOf(date), quantity, isAvailable, request.getPriceOverride()});
+            }
+        }
+        
+        for (BulkAvailabilityRequest.Item item : items.values()) {
+            availabilityCache.invalidateItem(item.getItemId(), item.getItemType());
+        }
+        for (int from = 0; from < rows.size(); from += UPSERT_BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows.subList(from, Math.min(from + UPSERT_BATCH_SIZE, rows.size())));
+        }
+        
+        logger.info("Bulk availability for business {}: {} dates written ({} new)", request.getBusinessId(),
+            rows.size(), created);
+        BulkAvailabilityResponse response = new BulkAvailabilityResponse(created, rows.size() - created, 0);
+        if (!newlyAvailable.isEmpty()) {
+            List<StockNotificationService.AvailableItem> availableItems = new ArrayList<>();
+            for (Map.Entry<String, SortedSet<String>> entry : newlyAvailable.entrySet()) {
+                BulkAvailabilityRequest.Item item = items.get(entry.getKey());
+                String itemName = getItemName(item.getItemId(), item.getItemType());
+                if (itemName != null) {
+                    availableItems.add(new StockNotificationService.AvailableItem(item.getItemId(),
+                        item.getItemType().toUpperCase(), itemName, entry.getValue()));
+                }
+            }
+            notifyAfterCommit(availableItems, response);
+        }
+        return response;
+    }
+    
+    /**
+     * Notify subscribers once the current transaction commits (immediately when there is none).
+     * The notifications run in their own transaction; the count is filled into the response before it is returned.
+     */
+    private void notifyAfterCommit(List<StockNotificationService.AvailableItem> availableItems,
+                                   BulkAvailabilityResponse response) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifySubscribers(availableItems, response);
+                }
+            });
+        } else {
+            notifySubscribers(availableItems, response);
+        }
+    }
+    
+    private void notifySubscribers(List<StockNotificationService.AvailableItem> availableItems,
+                                   BulkAvailabilityResponse response) {
+        try {
+            response.setNotifiedSubscribers(stockNotificationService.notifySubscribers(availableItems));
+        } catch (RuntimeException e) {
+            // Subscriptions stay unnotified and are picked up by the next availability change
+            logger.error("Failed to notify subscribers after bulk availability update", e);
+        }
+    }
+    
     /**
      * Check if item has stock (for general stock-based notifications)
      */
@@ -171,52 +326,129 @@ public class AvailabilityService {
      * Get availability for an item on a specific date
      */
     public Optional<AvailabilityResponse> getAvailability(String itemId, String itemType, LocalDate date) {
-        return availabilityRepository.findByItemIdAndItemTypeAndAvailabilityDate(itemId, itemType, date)
-            .map(this::convertToResponse);
+        return findCached(itemId, itemType, date).map(this::convertToResponse);
     }
     
     /**
-     * Get all availabilities for an item
+     * Read an item's availability on a date through the cache (see AvailabilityCache): its concrete row, or else
+     * what its recurring rule gives the date. Write paths read the repository directly.
+     */
+    private Optional<Availability> findCached(String itemId, String itemType, LocalDate date) {
+        return availabilityCache.get(itemId, itemType, date,
+            () -> availabilityRepository.findByItemIdAndItemTypeAndAvailabilityDate(itemId, itemType, date)
+                .or(() -> availabilityRuleService.resolve(itemId, itemType, date)));
+    }
+    
+    /**
+     * Get all availabilities for an item, including the dates its rule gives over the next year
      */
     public List<AvailabilityResponse> getAvailabilitiesForItem(String itemId, String itemType) {
-        return availabilityRepository.findByItemIdAndItemTypeOrderByAvailabilityDateAsc(itemId, itemType)
+        LocalDate today = LocalDate.now();
+        return AvailabilityRuleService.withRuleDates(
+                availabilityRepository.findByItemIdAndItemTypeOrderByAvailabilityDateAsc(itemId, itemType),
+                availabilityRuleService.getRulesForItem(itemId, itemType),
+                today, today.plusDays(AvailabilityRuleService.RULE_HORIZON_DAYS))
             .stream()
+            .sorted(BY_DATE)
             .map(this::convertToResponse)
             .collect(Collectors.toList());
     }
     
     /**
-     * Get availabilities for an item within a date range
+     * Get availabilities for an item within a date range, including the dates its rule gives
      */
     public List<AvailabilityResponse> getAvailabilitiesForItemInRange(
             String itemId, String itemType, LocalDate startDate, LocalDate endDate) {
-        return availabilityRepository.findByItemIdAndItemTypeAndDateRange(itemId, itemType, startDate, endDate)
+        return AvailabilityRuleService.withRuleDates(
+                availabilityRepository.findByItemIdAndItemTypeAndDateRange(itemId, itemType, startDate, endDate),
+                availabilityRuleService.getRulesForItem(itemId, itemType), startDate, endDate)
             .stream()
+            .sorted(BY_DATE)
             .map(this::convertToResponse)
             .collect(Collectors.toList());
     }
     
     /**
-     * Get all availabilities for a business
+     * Get all availabilities for a business, including the dates its rules give over the next year
      */
     public List<AvailabilityResponse> getAvailabilitiesForBusiness(String businessId) {
-        return availabilityRepository.findByBusinessIdOrderByAvailabilityDateAsc(businessId)
+        LocalDate today = LocalDate.now();
+        return AvailabilityRuleService.withRuleDates(
+                availabilityRepository.findByBusinessIdOrderByAvailabilityDateAsc(businessId),
+                availabilityRuleService.getRulesForBusiness(businessId),
+                today, today.plusDays(AvailabilityRuleService.RULE_HORIZON_DAYS))
             .stream()
+            .sorted(BY_DATE)
             .map(this::convertToResponse)
             .collect(Collectors.toList());
     }
     
+    /**
+     * Get the availability calendar of a business: available quantity, booked quantity and price override
+     * of every item with availability in the range, for every date. Built from three queries (availability
+     * rows, the business's rules, booked quantity ledger rows) whatever the number of items and dates.
+     */
+    public AvailabilityCalendarResponse getBusinessCalendar(String businessId, LocalDate startDate, LocalDate endDate) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            dates.add(date);
+        }
+        
+        Map<String, Integer> bookedByCell = new HashMap<>();
+        for (BookedQuantity booked : bookedQuantityService.getBookedQuantitiesForBusiness(businessId, startDate, endDate)) {
+            bookedByCell.put(calendarCell(booked.getItemType(), booked.getItemId(), booked.getBookingDate()),
+                (int) booked.getBookedQuantity());
+        }
+        
+        List<String> itemIds = new ArrayList<>();
+        List<String> itemTypes = new ArrayList<>();
+        List<List<Integer>> available = new ArrayList<>();
+        List<List<Integer>> bookedRows = new ArrayList<>();
+        List<List<Double>> priceOverrides = new ArrayList<>();
+        String currentItem = null;
+        List<Availability> rows = availabilityRepository.findByBusinessIdAndDateRange(businessId, startDate, endDate);
+        List<AvailabilityRule> rules = availabilityRuleService.getRulesForBusiness(businessId);
+        if (!rules.isEmpty()) {
+            rows = AvailabilityRuleService.withRuleDates(rows, rules, startDate, endDate);
+            rows.sort(BY_ITEM_AND_DATE);
+        }
+        for (Availability availability : rows) {
+            // Rows come grouped by item, so a new item starts a new matrix row
+            String item = availability.getItemType() + "\u0000" + availability.getItemId();
+            if (!item.equals(currentItem)) {
+                currentItem = item;
+                itemIds.add(availability.getItemId());
+                itemTypes.add(availability.getItemType());
+                available.add(new ArrayList<>(Collections.nCopies(dates.size(), null)));
+                bookedRows.add(new ArrayList<>(Collections.nCopies(dates.size(), null)));
+                priceOverrides.add(new ArrayList<>(Collections.nCopies(dates.size(), null)));
+            }
+            int column = (int) ChronoUnit.DAYS.between(startDate, availability.getAvailabilityDate());
+            int row = itemIds.size() - 1;
+            int booked = bookedByCell.getOrDefault(calendarCell(availability.getItemType().toLowerCase(),
+                availability.getItemId(), availability.getAvailabilityDate()), 0);
+            // Same figure as getAvailableQuantity
+            available.get(row).set(column, availability.getIsAvailable()
+                ? Math.max(0, availability.getAvailableQuantity() - booked) : 0);
+            bookedRows.get(row).set(column, booked);
+            priceOverrides.get(row).set(column, availability.getPriceOverride());
+        }
+        
+        return new AvailabilityCalendarResponse(businessId, dates, itemIds, itemTypes, available, bookedRows, priceOverrides);
+    }
+    
+    private static String calendarCell(String itemType, String itemId, LocalDate date) {
+        return itemType + "\u0000" + itemId + "\u0000" + date;
+    }
+    
     /**
      * Check if an item is available on a specific date with sufficient quantity
      */
     public boolean checkAvailability(CheckAvailabilityRequest request) {
-        Optional<Availability> availability = availabilityRepository.checkAvailability(
-            request.getItemId(),
-            request.getItemType(),
-            request.getDate(),
-            request.getQuantity() != null ? request.getQuantity() : 1
-        );
-        return availability.isPresent();
+        int quantity = request.getQuantity() != null ? request.getQuantity() : 1;
+        return findCached(request.getItemId(), request.getItemType(), request.getDate())
+            .filter(availability -> availability.getIsAvailable() && availability.getAvailableQuantity() >= quantity)
+            .isPresent();
     }
     
     /**
@@ -224,20 +456,14 @@ public class AvailabilityService {
      * This calculates: (Availability Quantity) - (Already Booked Quantity from Confirmed Orders)
      */
     public Integer getAvailableQuantity(String itemId, String itemType, LocalDate date) {
-        Optional<Availability> availability = availabilityRepository.findByItemIdAndItemTypeAndAvailabilityDate(
-            itemId, itemType, date);
+        Optional<Availability> availability = findCached(itemId, itemType, date);
         
         if (!availability.isPresent() || !availability.get().getIsAvailable()) {
             return 0;
         }
         
-        // Get total booked quantity from confirmed orders
-        Integer bookedQuantity = orderRepository.countBookedQuantityForItemAndDate(
-            itemId, itemType.toLowerCase(), date);
-        
-        if (bookedQuantity == null) {
-            bookedQuantity = 0;
-        }
+        // Get total booked quantity from confirmed orders (one ledger row, see BookedQuantityService)
+        int bookedQuantity = bookedQuantityService.getBookedQuantity(itemId, itemType, date);
         
         // Calculate available quantity: availability - booked
         int availableQuantity = availability.get().getAvailableQuantity() - bookedQuantity;
@@ -247,40 +473,163 @@ public class AvailabilityService {
     }
     
     /**
-     * Delete availability for an item on a specific date
+     * Get the available quantities of several items on their dates with three queries
+     * (availability rows, rules and booked quantities), for validating a whole cart at once.
+     * Same figure as getAvailableQuantity for each key.
+     * @param keys the item, type (lower case) and date of each quantity
+     * @return available quantity per key; 0 where the item has no availability on the date
+     */
+    public Map<BookedQuantity.BookedKey, Integer> getAvailableQuantities(Collection<BookedQuantity.BookedKey> keys) {
+        Map<BookedQuantity.BookedKey, Integer> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        Set<String> itemIds = new HashSet<>();
+        Set<LocalDate> dates = new HashSet<>();
+        for (BookedQuantity.BookedKey key : keys) {
+            itemIds.add(key.getItemId());
+            dates.add(key.getBookingDate());
+            result.put(key, 0);
+        }
+        Map<BookedQuantity.BookedKey, Integer> booked = bookedQuantityService.getBookedQuantities(keys);
+        List<Availability> rows = availabilityRepository.findByItemIdsAndDates(itemIds, dates);
+        List<AvailabilityRule> rules = availabilityRuleService.getRulesForItems(itemIds);
+        if (!rules.isEmpty()) {
+            LocalDate first = Collections.min(dates);
+            LocalDate last = Collections.max(dates);
+            rows = AvailabilityRuleService.withRuleDates(rows, rules, first, last);
+        }
+        for (Availability availability : rows) {
+            BookedQuantity.BookedKey key = new BookedQuantity.BookedKey(
+                availability.getItemId(), availability.getItemType(), availability.getAvailabilityDate());
+            if (result.containsKey(key) && availability.getIsAvailable()) {
+                result.put(key, Math.max(0, availability.getAvailableQuantity() - booked.getOrDefault(key, 0)));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Find items of any business with unbooked quantity on a date. One indexed query over the date's
+     * availability rows (with their booked quantities) and one over the rules in force that day.
+     * A category (themeCategory, inventoryCategory) is resolved to item IDs from the theme and inventory
+     * stores first and then runs the same two queries per type; plates have no category.
+     * @param date the date
+     * @param itemType only items of this type ("theme", "inventory", "plate"), or null
+     * @param category only themes and inventory of this category, or null
+     * @param businessId only items of this business, or null
+     * @param minQuantity the minimum unbooked quantity
+     * @param limit the maximum number of items
+     * @return items by business, type and ID
+     */
+    public List<AvailableItemResponse> searchAvailableOnDate(LocalDate date, String itemType, String category,
+                                                             String businessId, int minQuantity, int limit) {
+        List<AvailableItemResponse> items = new ArrayList<>();
+        if (category == null) {
+            addAvailableItems(items, availabilityRepository.searchAvailableOnDate(date, itemType, businessId, minQuantity,
+                PageRequest.of(0, limit)), availabilityRuleService.getRulesOpenOn(date, itemType, businessId, minQuantity), null);
+        } else {
+            Map<String, Set<String>> itemIdsByType = new LinkedHashMap<>();
+            if (itemType == null || "theme".equals(itemType)) {
+                itemIdsByType.put("theme", themeService.getThemesByCategory(category).stream()
+                    .map(com.example.RecordService.model.Theme::getThemeId).collect(Collectors.toSet()));
+            }
+            if (itemType == null || "inventory".equals(itemType)) {
+                itemIdsByType.put("inventory", inventoryService.getInventoriesByCategory(category).stream()
+                    .map(com.example.RecordService.entity.Inventory::getInventoryId).collect(Collectors.toSet()));
+            }
+            for (Map.Entry<String, Set<String>> entry : itemIdsByType.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    continue;
+                }
+                addAvailableItems(items, availabilityRepository.searchAvailableOnDateForItems(date, entry.getKey(),
+                    entry.getValue(), businessId, minQuantity, PageRequest.of(0, limit)),
+                    availabilityRuleService.getRulesOpenOn(date, entry.getKey(), businessId, minQuantity), entry.getValue());
+            }
+        }
+        items.sort(Comparator.comparing(AvailableItemResponse::getBusinessId)
+            .thenComparing(AvailableItemResponse::getItemType)
+            .thenComparing(AvailableItemResponse::getItemId));
+        if (items.size() > limit) {
+            items = new ArrayList<>(items.subList(0, limit));
+        }
+        
+        // Names: plates with one query, themes and inventory from their in-memory stores
+        Set<String> plateIds = new HashSet<>();
+        for (AvailableItemResponse item : items) {
+            if ("plate".equalsIgnoreCase(item.getItemType())) {
+                plateIds.add(item.getItemId());
+            }
+        }
+        Map<String, com.example.RecordService.entity.Plate> plates = plateService.getPlatesByIds(plateIds);
+        for (AvailableItemResponse item : items) {
+            if ("plate".equalsIgnoreCase(item.getItemType())) {
+                com.example.RecordService.entity.Plate plate = plates.get(item.getItemId());
+                item.setItemName(plate != null ? plate.getDishName() : null);
+            } else {
+                item.setItemName(getItemName(item.getItemId(), item.getItemType()));
+            }
+        }
+        return items;
+    }
+    
+    private static void addAvailableItems(List<AvailableItemResponse> items, List<Object[]> rows,
+                                          List<AvailabilityRule> rules, Set<String> itemIds) {
+        for (Object[] row : rows) {
+            Availability availability = (Availability) row[0];
+            items.add(new AvailableItemResponse(availability.getItemId(), availability.getItemType(),
+                availability.getBusinessId(), null,
+                availability.getAvailableQuantity() - ((Number) row[1]).intValue(), availability.getPriceOverride()));
+        }
+        for (AvailabilityRule rule : rules) {
+            if (itemIds == null || itemIds.contains(rule.getItemId())) {
+                items.add(new AvailableItemResponse(rule.getItemId(), rule.getItemType(), rule.getBusinessId(), null,
+                    rule.getDefaultQuantity(), rule.getPriceOverride()));
+            }
+        }
+    }
+    
+    /**
+     * Delete availability for an item on a specific date (a date covered by the item's rule falls back to the rule)
      */
     public void deleteAvailability(String itemId, String itemType, LocalDate date) {
+        availabilityCache.invalidate(itemId, itemType, date);
         Optional<Availability> availability = availabilityRepository.findByItemIdAndItemTypeAndAvailabilityDate(
             itemId, itemType, date);
         availability.ifPresent(availabilityRepository::delete);
     }
     
     /**
-     * Delete all availabilities for an item
+     * Delete all availabilities for an item, and its rule
      */
     public void deleteAllAvailabilitiesForItem(String itemId, String itemType) {
+        availabilityCache.invalidateItem(itemId, itemType);
         availabilityRepository.deleteByItemIdAndItemType(itemId, itemType);
+        availabilityRuleService.deleteRule(itemId, itemType);
     }
     
     /**
-     * Decrement available quantity when an item is booked
+     * Decrement available quantity when an item is booked.
+     * The check and the decrement run as one conditional UPDATE, so concurrent bookings
+     * can never take the same unit twice. A date only covered by the item's rule gets its concrete row first.
+     * @return true if the quantity was reserved, false if the date is unavailable or has insufficient quantity
      */
-    public void decrementAvailability(String itemId, String itemType, LocalDate date, Integer quantity) {
-        Optional<Availability> availabilityOpt = availabilityRepository.findByItemIdAndItemTypeAndAvailabilityDate(
-            itemId, itemType, date);
-        
-        if (availabilityOpt.isPresent()) {
-            Availability availability = availabilityOpt.get();
-            int newQuantity = availability.getAvailableQuantity() - quantity;
-            if (newQuantity < 0) {
-                newQuantity = 0;
-            }
-            availability.setAvailableQuantity(newQuantity);
-            if (newQuantity == 0) {
-                availability.setIsAvailable(false);
-            }
-            availabilityRepository.save(availability);
+    public boolean decrementAvailability(String itemId, String itemType, LocalDate date, Integer quantity) {
+        availabilityCache.invalidate(itemId, itemType, date);
+        if (availabilityRepository.decrementIfAvailable(itemId, itemType, date, quantity) > 0) {
+            return true;
         }
+        return availabilityRuleService.materialize(itemId, itemType, date)
+            && availabilityRepository.decrementIfAvailable(itemId, itemType, date, quantity) > 0;
+    }
+    
+    /**
+     * Give back quantity taken by decrementAvailability without notifying subscribers
+     * (used to undo a reservation that never became visible to clients)
+     */
+    public void releaseAvailability(String itemId, String itemType, LocalDate date, Integer quantity) {
+        availabilityCache.invalidate(itemId, itemType, date);
+        availabilityRepository.increment(itemId, itemType, date, quantity);
     }
     
     /**
@@ -292,18 +641,13 @@ public class AvailabilityService {
         
         if (availabilityOpt.isPresent()) {
             Availability availability = availabilityOpt.get();
-            int previousQuantity = availability.getAvailableQuantity();
-            boolean wasUnavailable = !availability.getIsAvailable() || previousQuantity == 0;
+            boolean wasUnavailable = !availability.getIsAvailable() || availability.getAvailableQuantity() == 0;
             
-            int newQuantity = availability.getAvailableQuantity() + quantity;
-            availability.setAvailableQuantity(newQuantity);
-            if (newQuantity > 0) {
-                availability.setIsAvailable(true);
-            }
-            availabilityRepository.save(availability);
+            availabilityCache.invalidate(itemId, itemType, date);
+            availabilityRepository.increment(itemId, itemType, date, quantity);
             
             // Notify subscribers if item was unavailable and now has availability
-            if (wasUnavailable && newQuantity > 0 && availability.getIsAvailable()) {
+            if (wasUnavailable && quantity > 0) {
                 try {
                     String itemName = getItemName(itemId, itemType);
                     if (itemName != null) {
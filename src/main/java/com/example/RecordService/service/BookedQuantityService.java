@@ -0,0 +1,273 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.BookedQuantity;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.BookedQuantityRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Booked quantity per item and booking date (see BookedQuantity), kept up to date as orders change status.
+ * Every change applies the difference between the old and the new status as an atomic upsert in the
+ * order's own transaction. A scheduled job recomputes the ledger for upcoming booking dates from the
+ * order lines without locking, then re-checks each row that looks drifted under its row lock, corrects
+ * it and reports it.
+ */
+@Service
+@Transactional
+public class BookedQuantityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookedQuantityService.class);
+
+    private static final Set<Order.OrderStatus> BOOKED_STATUSES = EnumSet.of(
+        Order.OrderStatus.CONFIRMED,
+        Order.OrderStatus.PREPARING,
+        Order.OrderStatus.READY,
+        Order.OrderStatus.SHIPPED
+    );
+
+    // Drifted rows logged individually per reconcile run; the rest are only counted
+    private static final int MAX_LOGGED_DRIFTS = 20;
+
+    @Autowired
+    private BookedQuantityRepository bookedQuantityRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderIndexBackfill orderIndexBackfill;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter driftedRows;
+
+    @PostConstruct
+    public void registerMetrics() {
+        driftedRows = Counter.builder("availability.booked.drift")
+            .description("Booked quantity ledger rows corrected by reconciliation")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Fill the ledger from existing orders the first time the application starts with it empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        orderIndexBackfill.backfillIfEmpty("booked_quantities", () -> bookedQuantityRepository.count() == 0,
+            () -> bookedQuantityRepository.backfill() + " rows");
+    }
+
+    /**
+     * Recompute the ledger for booking dates from today on and correct the rows that drifted
+     */
+    @Scheduled(fixedDelayString = "${order.booked-ledger.reconcile-interval-ms:3600000}",
+               initialDelayString = "${order.booked-ledger.reconcile-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcile() {
+        try {
+            int drifted = repairDrift(LocalDate.now());
+            if (drifted > 0) {
+                driftedRows.increment(drifted);
+                logger.warn("Booked quantity ledger had drifted on {} rows; corrected from orders", drifted);
+            }
+        } catch (Exception e) {
+            logger.error("Booked quantity reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Correct every ledger row from a booking date on that differs from the order lines. The comparison
+     * runs without locks, so it may catch status changes in flight; each candidate row is compared again
+     * in its own short transaction before it is corrected.
+     * @param from first booking date to compare
+     * @return number of rows corrected
+     */
+    int repairDrift(LocalDate from) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int corrected = 0;
+        for (Object[] row : bookedQuantityRepository.findDrift(from)) {
+            String itemId = (String) row[0];
+            String itemType = (String) row[1];
+            LocalDate bookingDate = toLocalDate(row[2]);
+            boolean log = corrected < MAX_LOGGED_DRIFTS;
+            Boolean drifted = transactionTemplate.execute(status -> correctDrift(itemId, itemType, bookingDate, log));
+            if (Boolean.TRUE.equals(drifted)) {
+                corrected++;
+            }
+        }
+        return corrected;
+    }
+
+    /**
+     * Compare one ledger row with its order lines and add the difference if they still differ
+     * @return true if the row was corrected
+     */
+    private boolean correctDrift(String itemId, String itemType, LocalDate bookingDate, boolean log) {
+        // A status change upserts this row in the order's transaction, so once the row is locked every
+        // change to its order lines is either committed and visible or still waiting for the lock
+        long ledger = bookedQuantityRepository.findBookedQuantityForUpdate(itemId, itemType, bookingDate).orElse(0L);
+        long actual = bookedQuantityRepository.sumBookedOrderQuantity(itemId, itemType, bookingDate);
+        if (ledger == actual) {
+            return false;
+        }
+        if (log) {
+            logger.warn("Booked quantity drift for {} {} on {}: ledger {}, orders {}",
+                itemType, itemId, bookingDate, ledger, actual);
+        }
+        // A delta rather than an overwrite, so it adds up with a change that creates the row concurrently
+        bookedQuantityRepository.upsert(itemId, itemType, bookingDate, actual - ledger);
+        return true;
+    }
+
+    /**
+     * Get the quantity of an item booked on a date (primary key lookup)
+     * @param itemId the item ID
+     * @param itemType the item type (any case)
+     * @param bookingDate the booking date
+     * @return booked quantity of confirmed, not yet delivered orders
+     */
+    @Transactional(readOnly = true)
+    public int getBookedQuantity(String itemId, String itemType, LocalDate bookingDate) {
+        return bookedQuantityRepository.findById(new BookedQuantity.BookedKey(itemId, itemType.toLowerCase(), bookingDate))
+            .map(booked -> (int) Math.max(0, booked.getBookedQuantity()))
+            .orElse(0);
+    }
+
+    /**
+     * Get the booked quantities of several items on several dates with one query
+     * @param keys the item, type (lower case) and booking date of each quantity
+     * @return booked quantity per key; keys without a ledger row are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<BookedQuantity.BookedKey, Integer> getBookedQuantities(Collection<BookedQuantity.BookedKey> keys) {
+        Map<BookedQuantity.BookedKey, Integer> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        Set<String> itemIds = new HashSet<>();
+        Set<LocalDate> bookingDates = new HashSet<>();
+        for (BookedQuantity.BookedKey key : keys) {
+            itemIds.add(key.getItemId());
+            bookingDates.add(key.getBookingDate());
+        }
+        // The IN lists cover every item/date combination; keep only the requested ones
+        for (BookedQuantity booked : bookedQuantityRepository.findByItemIdsAndBookingDates(itemIds, bookingDates)) {
+            BookedQuantity.BookedKey key = new BookedQuantity.BookedKey(
+                booked.getItemId(), booked.getItemType(), booked.getBookingDate());
+            if (keys.contains(key)) {
+                result.put(key, (int) Math.max(0, booked.getBookedQuantity()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the booked quantities of a business's items in a date range with one query
+     * @param businessId the business ID
+     * @param startDate first booking date (inclusive)
+     * @param endDate last booking date (inclusive)
+     * @return non-zero ledger rows for dates the business has availability for
+     */
+    @Transactional(readOnly = true)
+    public List<BookedQuantity> getBookedQuantitiesForBusiness(String businessId, LocalDate startDate, LocalDate endDate) {
+        return bookedQuantityRepository.findForBusinessInRange(businessId, startDate, endDate);
+    }
+
+    /**
+     * Apply an order's move from one status to another to the ledger
+     * @param order the order, with its items
+     * @param previousStatus the status before the change, or null for a new order
+     * @param newStatus the status after the change, or null for a deleted order
+     */
+    public void apply(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        Batch batch = new Batch();
+        batch.add(order, previousStatus, newStatus);
+        apply(batch);
+    }
+
+    /**
+     * Write the changes collected in a batch, one upsert per item and booking date
+     * @param batch the collected order changes
+     */
+    public void apply(Batch batch) {
+        for (BookedDelta delta : batch.deltas.values()) {
+            if (delta.delta != 0) {
+                bookedQuantityRepository.upsert(delta.itemId, delta.itemType, delta.bookingDate, delta.delta);
+            }
+        }
+    }
+
+    private static int booked(Order.OrderStatus status) {
+        return status != null && BOOKED_STATUSES.contains(status) ? 1 : 0;
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate() : (LocalDate) value;
+    }
+
+    /**
+     * Ledger changes of several orders, merged per item and booking date so that a bulk update writes each row once
+     */
+    public static class Batch {
+        private final DeltaBatch<BookedDelta> deltas = new DeltaBatch<>();
+
+        /**
+         * Add an order's move from one status to another
+         * @param order the order, with its items
+         * @param previousStatus the status before the change, or null for a new order
+         * @param newStatus the status after the change, or null for a deleted order
+         */
+        public void add(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+            int direction = booked(newStatus) - booked(previousStatus);
+            if (direction == 0 || order.getOrderItems() == null) {
+                return;
+            }
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getBookingDate() == null || item.getQuantity() == null) {
+                    continue;
+                }
+                String itemType = item.getItemType() != null ? item.getItemType().toLowerCase() : "";
+                String key = item.getBookingDate() + "\u0000" + itemType + "\u0000" + item.getItemId();
+                deltas.get(key, k -> new BookedDelta(item.getItemId(), itemType, item.getBookingDate()))
+                    .delta += (long) direction * item.getQuantity();
+            }
+        }
+    }
+
+    private static class BookedDelta {
+        final String itemId;
+        final String itemType;
+        final LocalDate bookingDate;
+        long delta;
+
+        BookedDelta(String itemId, String itemType, LocalDate bookingDate) {
+            this.itemId = itemId;
+            this.itemType = itemType;
+            this.bookingDate = bookingDate;
+        }
+    }
+}
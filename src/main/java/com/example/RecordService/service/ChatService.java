@@ -14,6 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -31,6 +32,12 @@ public class ChatService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private NotificationHub notificationHub;
+    
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+    
     public ChatResponse createOrGetChat(String clientPhone, String vendorPhone, String businessId, String businessName, Long orderId, String callerPhone) {
         Optional<Chat> existingChat = chatRepository.findActiveChat(clientPhone, vendorPhone, businessId);
         
@@ -132,7 +139,11 @@ public class ChatService {
         chat.setUpdatedAt(LocalDateTime.now());
         chatRepository.save(chat);
         
-        return convertToChatMessageResponse(savedMessage);
+        ChatMessageResponse response = convertToChatMessageResponse(savedMessage);
+        String recipientPhone = isVendor ? chat.getClientPhone() : chat.getVendorPhone();
+        notificationHub.publish(recipientPhone, NotificationHub.CHAT_MESSAGE, response);
+        unreadCounterService.add(UnreadCounterService.Kind.CHAT, recipientPhone, 1);
+        return response;
     }
     
     public List<ChatMessageResponse> getMessages(Long chatId, String phoneNumber) {
@@ -150,15 +161,24 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
     
-    public void markMessagesAsRead(Long chatId, String phoneNumber) {
-        List<ChatMessage> unreadMessages = chatMessageRepository.findUnreadMessages(chatId, phoneNumber);
-        
-        for (ChatMessage message : unreadMessages) {
-            message.setIsRead(true);
-            message.setReadAt(LocalDateTime.now());
+    public int markMessagesAsRead(Long chatId, String phoneNumber) {
+        return markedAsRead(phoneNumber, chatMessageRepository.markAsRead(chatId, phoneNumber, LocalDateTime.now()));
+    }
+    
+    public int markMessagesAsRead(Long chatId, String phoneNumber, Collection<Long> messageIds) {
+        if (messageIds.isEmpty()) {
+            return 0;
         }
-        
-        chatMessageRepository.saveAll(unreadMessages);
+        return markedAsRead(phoneNumber, chatMessageRepository.markAsReadByIds(chatId, phoneNumber, messageIds, LocalDateTime.now()));
+    }
+    
+    public int markMessagesAsReadBefore(Long chatId, String phoneNumber, LocalDateTime before) {
+        return markedAsRead(phoneNumber, chatMessageRepository.markAsReadBefore(chatId, phoneNumber, before, LocalDateTime.now()));
+    }
+    
+    private int markedAsRead(String phoneNumber, int marked) {
+        unreadCounterService.add(UnreadCounterService.Kind.CHAT, phoneNumber, -marked);
+        return marked;
     }
     
     public Long getUnreadCount(Long chatId, String phoneNumber) {
@@ -166,14 +186,7 @@ public class ChatService {
     }
     
     public Long getTotalUnreadCount(String phoneNumber) {
-        List<Chat> chats = chatRepository.findChatsByPhoneNumber(phoneNumber);
-        long totalUnread = 0;
-        
-        for (Chat chat : chats) {
-            totalUnread += chatMessageRepository.countUnreadMessages(chat.getChatId(), phoneNumber);
-        }
-        
-        return totalUnread;
+        return unreadCounterService.get(UnreadCounterService.Kind.CHAT, phoneNumber);
     }
     
     public boolean canVendorSendMessage(Long chatId, String vendorPhone) {
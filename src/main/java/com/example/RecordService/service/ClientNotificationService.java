@@ -5,15 +5,15 @@ import com.example.RecordService.entity.Order;
 import com.example.RecordService.model.dto.ClientNotificationResponse;
 import com.example.RecordService.model.dto.ClientNotificationWithCountResponse;
 import com.example.RecordService.repository.ClientNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
-import org.springframework.jdbc.core.JdbcTemplate;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -23,51 +23,49 @@ import java.util.stream.Collectors;
 @Transactional
 public class ClientNotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ClientNotificationService.class);
+
     @Autowired
     private ClientNotificationRepository clientNotificationRepository;
-    
-    @PersistenceContext
-    private EntityManager entityManager;
-    
+
+    @Autowired
+    private NotificationHub notificationHub;
+
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private UnreadCounterService unreadCounterService;
 
     /**
      * Create a new order notification for the client
      * @param order the created order
      */
     public void createOrderNotification(Order order) {
-        try {
-            // Create notification message
-            String itemSummary = getOrderItemSummary(order);
-            String message = String.format(
-                "Your %s order has been placed successfully for ₹%.2f. Delivery scheduled for %s",
-                itemSummary,
-                order.getTotalAmount(),
-                order.getDeliveryDate()
-            );
-
-            // Create notification
-            ClientNotification notification = new ClientNotification(
-                order.getUserId(),
-                order.getOrderItems().get(0).getBusinessId(), // Use first business ID
-                order.getOrderItems().get(0).getBusinessName(), // Use first business name
-                order.getOrderId(),
-                order.getCustomerName(),
-                order.getCustomerEmail(),
-                order.getCustomerPhone(),
-                order.getTotalAmount(),
-                order.getDeliveryDate(),
-                order.getDeliveryAddress(),
-                ClientNotification.NotificationType.ORDER_CONFIRMED,
-                message
-            );
-
-            clientNotificationRepository.save(notification);
-        } catch (Exception e) {
-            // Log error but don't fail order creation
-            System.err.println("Error creating client order notification: " + e.getMessage());
-        }
+        // Create notification message
+        String itemSummary = getOrderItemSummary(order);
+        String message = String.format(
+            "Your %s order has been placed successfully for ₹%.2f. Delivery scheduled for %s",
+            itemSummary,
+            order.getTotalAmount(),
+            order.getDeliveryDate()
+        );
+
+        // Create notification
+        ClientNotification notification = new ClientNotification(
+            order.getUserId(),
+            order.getOrderItems().get(0).getBusinessId(), // Use first business ID
+            order.getOrderItems().get(0).getBusinessName(), // Use first business name
+            order.getOrderId(),
+            order.getCustomerName(),
+            order.getCustomerEmail(),
+            order.getCustomerPhone(),
+            order.getTotalAmount(),
+            order.getDeliveryDate(),
+            order.getDeliveryAddress(),
+            ClientNotification.NotificationType.ORDER_CONFIRMED,
+            message
+        );
+
+        clientNotificationRepository.save(notification);
+        publishCreated(notification);
     }
 
     /**
@@ -76,28 +74,25 @@ public class ClientNotificationService {
      * @param notificationType the type of notification
      */
     public void createOrderUpdateNotification(Order order, ClientNotification.NotificationType notificationType) {
-        try {
-            String message = createOrderUpdateMessage(order, notificationType);
-
-            ClientNotification notification = new ClientNotification(
-                order.getUserId(),
-                order.getOrderItems().get(0).getBusinessId(),
-                order.getOrderItems().get(0).getBusinessName(),
-                order.getOrderId(),
-                order.getCustomerName(),
-                order.getCustomerEmail(),
-                order.getCustomerPhone(),
-                order.getTotalAmount(),
-                order.getDeliveryDate(),
-                order.getDeliveryAddress(),
-                notificationType,
-                message
-            );
-
-            clientNotificationRepository.save(notification);
-        } catch (Exception e) {
-            System.err.println("Error creating client order update notification: " + e.getMessage());
-        }
+        String message = createOrderUpdateMessage(order, notificationType);
+
+        ClientNotification notification = new ClientNotification(
+            order.getUserId(),
+            order.getOrderItems().get(0).getBusinessId(),
+            order.getOrderItems().get(0).getBusinessName(),
+            order.getOrderId(),
+            order.getCustomerName(),
+            order.getCustomerEmail(),
+            order.getCustomerPhone(),
+            order.getTotalAmount(),
+            order.getDeliveryDate(),
+            order.getDeliveryAddress(),
+            notificationType,
+            message
+        );
+
+        clientNotificationRepository.save(notification);
+        publishCreated(notification);
     }
 
     /**
@@ -133,7 +128,7 @@ public class ClientNotificationService {
      * @return unread notification count
      */
     public long getUnreadNotificationCount(String clientPhone) {
-        return clientNotificationRepository.countByClientPhoneAndIsReadFalse(clientPhone);
+        return unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, clientPhone);
     }
 
     /**
@@ -144,71 +139,16 @@ public class ClientNotificationService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public boolean markNotificationAsRead(Long notificationId) {
         try {
-            System.out.println("=== MARK AS READ START for notification " + notificationId + " ===");
-            
-            // First check current state with JDBC (bypass JPA cache)
-            String checkSql = "SELECT is_read FROM client_notifications WHERE notification_id = ?";
-            Boolean currentIsRead = null;
-            try {
-                currentIsRead = jdbcTemplate.queryForObject(checkSql, Boolean.class, notificationId);
-                System.out.println("Current database state (from JDBC): isRead = " + currentIsRead);
-            } catch (Exception e) {
-                System.err.println("ERROR checking notification state: " + e.getMessage());
-                return false;
-            }
-            
-            if (currentIsRead == null) {
-                System.err.println("Notification " + notificationId + " not found in database");
-                return false;
-            }
-            
-            // Always update, even if already read (idempotent operation)
-            // This ensures the database is definitely updated
-            String sql = "UPDATE client_notifications SET is_read = true WHERE notification_id = ?";
-            int updated = jdbcTemplate.update(sql, notificationId);
-            System.out.println("JDBC UPDATE executed. Rows affected: " + updated);
-            
-            if (updated > 0) {
-                // Force commit by clearing entity manager
-                entityManager.clear();
-                
-                // Immediately verify with a fresh JDBC query (bypass all caches)
-                // Use a new connection to ensure we see committed data
-                String verifySql = "SELECT is_read FROM client_notifications WHERE notification_id = ?";
-                Boolean verifiedIsRead = jdbcTemplate.queryForObject(verifySql, Boolean.class, notificationId);
-                System.out.println("Immediate verification (JDBC): isRead = " + verifiedIsRead);
-                
-                // Also check with a second query to ensure consistency
-                try {
-                    Thread.sleep(100);
-                    Boolean secondCheck = jdbcTemplate.queryForObject(verifySql, Boolean.class, notificationId);
-                    System.out.println("Second verification (JDBC after 100ms): isRead = " + secondCheck);
-                    
-                    if (!Boolean.TRUE.equals(secondCheck)) {
-                        System.err.println("⚠️ WARNING: Second check shows notification is NOT read! Possible transaction rollback.");
-                    }
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                }
-                
-                if (Boolean.TRUE.equals(verifiedIsRead)) {
-                    System.out.println("✅ SUCCESS: Notification " + notificationId + " confirmed as read in database");
-                    System.out.println("=== MARK AS READ END (SUCCESS) ===");
-                    return true;
-                } else {
-                    System.err.println("❌ ERROR: Verification failed - notification " + notificationId + " is still unread after update!");
-                    System.out.println("=== MARK AS READ END (VERIFICATION FAILED) ===");
-                    return false;
-                }
-            } else {
-                System.err.println("❌ ERROR: JDBC UPDATE returned 0 rows affected for notification " + notificationId);
-                System.out.println("=== MARK AS READ END (UPDATE FAILED) ===");
-                return false;
+            // The update only counts the notification if it was still unread, so concurrent calls decrement once
+            Optional<String> clientPhone = clientNotificationRepository.findUnreadClientPhone(notificationId);
+            if (clientPhone.isPresent()) {
+                markNotificationsAsRead(clientPhone.get(), List.of(notificationId));
+                return true;
             }
+            // Already read counts as success; only a missing notification fails
+            return clientNotificationRepository.existsById(notificationId);
         } catch (Exception e) {
-            System.err.println("❌ EXCEPTION while marking notification " + notificationId + " as read: " + e.getMessage());
-            e.printStackTrace();
-            System.out.println("=== MARK AS READ END (EXCEPTION) ===");
+            logger.error("Error marking client notification {} as read", notificationId, e);
             return false;
         }
     }
@@ -216,12 +156,39 @@ public class ClientNotificationService {
     /**
      * Mark all notifications for a client as read
      * @param clientPhone the client's phone number
+     * @return number of notifications marked as read
      */
     @Transactional
-    public void markAllNotificationsAsRead(String clientPhone) {
-        clientNotificationRepository.markAllAsReadByClientPhone(clientPhone);
-        // Explicitly flush to ensure the changes are persisted immediately
-        entityManager.flush();
+    public int markAllNotificationsAsRead(String clientPhone) {
+        return markedAsRead(clientPhone, clientNotificationRepository.markAllAsReadByClientPhone(clientPhone));
+    }
+
+    /**
+     * Mark some notifications of a client as read
+     * @param clientPhone the client's phone number
+     * @param notificationIds the notification IDs (read ones and other clients' are skipped)
+     * @return number of notifications marked as read
+     */
+    public int markNotificationsAsRead(String clientPhone, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        return markedAsRead(clientPhone, clientNotificationRepository.markAsReadByClientPhoneAndIds(clientPhone, notificationIds));
+    }
+
+    /**
+     * Mark the notifications of a client created up to a time as read
+     * @param clientPhone the client's phone number
+     * @param before notifications created at or before this time are marked
+     * @return number of notifications marked as read
+     */
+    public int markNotificationsAsReadBefore(String clientPhone, LocalDateTime before) {
+        return markedAsRead(clientPhone, clientNotificationRepository.markAsReadByClientPhoneBefore(clientPhone, before));
+    }
+
+    private int markedAsRead(String clientPhone, int marked) {
+        unreadCounterService.add(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, clientPhone, -marked);
+        return marked;
     }
 
     /**
@@ -230,8 +197,12 @@ public class ClientNotificationService {
      * @return true if deleted, false otherwise
      */
     public boolean deleteNotification(Long notificationId) {
-        if (clientNotificationRepository.existsById(notificationId)) {
-            clientNotificationRepository.deleteById(notificationId);
+        Optional<ClientNotification> notification = clientNotificationRepository.findById(notificationId);
+        if (notification.isPresent()) {
+            clientNotificationRepository.delete(notification.get());
+            if (!notification.get().isRead()) {
+                unreadCounterService.add(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, notification.get().getClientPhone(), -1);
+            }
             return true;
         }
         return false;
@@ -306,6 +277,19 @@ public class ClientNotificationService {
      */
     public void saveNotification(ClientNotification notification) {
         clientNotificationRepository.save(notification);
+        publishCreated(notification);
+    }
+
+    /**
+     * Push a new notification and the unread count change to the client's open streams
+     * @param notification the saved notification
+     */
+    private void publishCreated(ClientNotification notification) {
+        notificationHub.publish(notification.getClientPhone(), NotificationHub.CLIENT_NOTIFICATION,
+            new ClientNotificationResponse(notification));
+        if (!notification.isRead()) {
+            unreadCounterService.add(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, notification.getClientPhone(), 1);
+        }
     }
 
     /**
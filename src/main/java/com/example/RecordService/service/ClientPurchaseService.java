@@ -0,0 +1,124 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.ClientPurchaseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Index of the items each client has received, for rating eligibility.
+ * An order adds its items when it moves to DELIVERED and takes them away again if it leaves DELIVERED
+ * or is deleted, in the order's own transaction.
+ */
+@Service
+@Transactional
+public class ClientPurchaseService {
+
+    @Autowired
+    private ClientPurchaseRepository clientPurchaseRepository;
+
+    @Autowired
+    private OrderIndexBackfill orderIndexBackfill;
+
+    /**
+     * Fill the index from existing orders the first time the application starts with it empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        orderIndexBackfill.backfillIfEmpty("client_purchases", () -> clientPurchaseRepository.count() == 0,
+            () -> clientPurchaseRepository.backfill() + " rows");
+    }
+
+    /**
+     * Check whether a client has received an item
+     * @param userId the client's user ID
+     * @param itemId the item ID
+     * @param itemType the item type (any case)
+     * @return true if a DELIVERED order of the client contains the item
+     */
+    @Transactional(readOnly = true)
+    public boolean hasPurchased(String userId, String itemId, String itemType) {
+        if (userId == null || itemId == null || itemType == null) {
+            return false;
+        }
+        return clientPurchaseRepository.hasPurchased(userId, itemId, itemType.toLowerCase());
+    }
+
+    /**
+     * Apply an order's move from one status to another to the index
+     * @param order the order, with its items
+     * @param previousStatus the status before the change, or null for a new order
+     * @param newStatus the status after the change, or null for a deleted order
+     */
+    public void apply(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        Batch batch = new Batch();
+        batch.add(order, previousStatus, newStatus);
+        apply(batch);
+    }
+
+    /**
+     * Write the changes collected in a batch, one upsert per client item
+     * @param batch the collected order changes
+     */
+    public void apply(Batch batch) {
+        for (PurchaseDelta delta : batch.deltas.values()) {
+            if (delta.delta != 0) {
+                clientPurchaseRepository.upsert(delta.userId, delta.itemId, delta.itemType, delta.delta);
+            }
+        }
+    }
+
+    private static int delivered(Order.OrderStatus status) {
+        return status == Order.OrderStatus.DELIVERED ? 1 : 0;
+    }
+
+    /**
+     * Index changes of several orders, merged per client item so that a bulk update writes each row once
+     */
+    public static class Batch {
+        private final DeltaBatch<PurchaseDelta> deltas = new DeltaBatch<>();
+
+        /**
+         * Add an order's move from one status to another
+         * @param order the order, with its items
+         * @param previousStatus the status before the change, or null for a new order
+         * @param newStatus the status after the change, or null for a deleted order
+         */
+        public void add(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+            int delta = delivered(newStatus) - delivered(previousStatus);
+            if (delta == 0 || order.getOrderItems() == null) {
+                return;
+            }
+            // An item listed on several lines of one order counts once
+            Set<String> seen = new HashSet<>();
+            for (OrderItem item : order.getOrderItems()) {
+                String itemType = item.getItemType() != null ? item.getItemType().toLowerCase() : "";
+                String key = order.getUserId() + "\u0000" + itemType + "\u0000" + item.getItemId();
+                if (seen.add(key)) {
+                    deltas.get(key, k -> new PurchaseDelta(order.getUserId(), item.getItemId(), itemType))
+                        .delta += delta;
+                }
+            }
+        }
+    }
+
+    private static class PurchaseDelta {
+        final String userId;
+        final String itemId;
+        final String itemType;
+        long delta;
+
+        PurchaseDelta(String userId, String itemId, String itemType) {
+            this.userId = userId;
+            this.itemId = itemId;
+            this.itemType = itemType;
+        }
+    }
+}
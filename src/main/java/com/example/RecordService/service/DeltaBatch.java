@@ -0,0 +1,34 @@
+package com.example.RecordService.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Changes to a table derived from orders, merged per row so that a bulk update writes each row once.
+ * Rows are returned in key order, so concurrent transactions touching the same rows upsert (and lock)
+ * them in the same order.
+ * @param <D> the accumulated change of one row
+ */
+class DeltaBatch<D> {
+
+    private final Map<String, D> deltas = new TreeMap<>();
+
+    /**
+     * Get the change of a row, starting a new one on first use
+     * @param key the row key; keys sort in lock order
+     * @param create creates the empty change for the key
+     * @return the change to accumulate into
+     */
+    D get(String key, Function<String, D> create) {
+        return deltas.computeIfAbsent(key, create);
+    }
+
+    /**
+     * @return the changes in key order
+     */
+    Collection<D> values() {
+        return deltas.values();
+    }
+}
@@ -34,6 +34,10 @@ public class InventoryService {
         return inventoryRepository.findByBusinessId(businessId);
     }
 
+    public List<Inventory> getInventoriesByCategory(String category) {
+        return inventoryRepository.findByCategory(category);
+    }
+
     public Inventory updateInventory(Inventory inventory) {
         // Get existing inventory to check if stock changed from 0 to >0
         Inventory existingInventory = inventoryRepository.findByInventoryId(inventory.getInventoryId());
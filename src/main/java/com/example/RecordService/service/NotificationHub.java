@@ -0,0 +1,345 @@
+package com.example.RecordService.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes notification events to users over Server-Sent Events, so clients need not poll.
+ * Services publish per phone number: new vendor and client notifications, chat messages and unread count
+ * deltas. Events are sent once the publishing transaction commits. Every event gets an increasing ID and
+ * the last replay-size events of each user are kept, so a reconnecting client sending Last-Event-ID gets
+ * what it missed; if those events are no longer kept (or were published on another node) it gets a
+ * "resync" event and reloads through the REST endpoints. Each connection has a bounded send queue drained
+ * by a small sender pool; a consumer too slow to keep up is disconnected instead of growing the queue.
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationHub.class);
+
+    public static final String NOTIFICATION = "notification";
+    public static final String CLIENT_NOTIFICATION = "client-notification";
+    public static final String CHAT_MESSAGE = "chat-message";
+    public static final String UNREAD = "unread";
+    public static final String RESYNC = "resync";
+
+    // Counters carried by unread events
+    public static final String VENDOR_NOTIFICATIONS = "notifications";
+    public static final String CLIENT_NOTIFICATIONS = "client-notifications";
+    public static final String CHAT = "chat";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${notifications.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${notifications.stream.replay-size:100}")
+    private int replaySize;
+
+    @Value("${notifications.stream.max-users:10000}")
+    private int maxUsers;
+
+    @Value("${notifications.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.stream.sender-threads:4}")
+    private int senderThreads;
+
+    // Starts at the boot time in microseconds so IDs keep increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    // Users with recent events or open connections, least recently used dropped first
+    private Map<String, Channel> channels;
+    private ExecutorService sender;
+    private Counter dropped;
+
+    @PostConstruct
+    public void init() {
+        channels = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Channel> eldest) {
+                return size() > maxUsers && eldest.getValue().connections.isEmpty();
+            }
+        });
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("notifications.stream.connections", connectionCount, AtomicInteger::get)
+            .description("Open notification streams")
+            .register(meterRegistry);
+        dropped = Counter.builder("notifications.stream.dropped")
+            .description("Notification streams closed because the client fell behind")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Channel> open;
+        synchronized (channels) {
+            open = new ArrayList<>(channels.values());
+        }
+        for (Channel channel : open) {
+            for (Connection connection : channel.connections) {
+                connection.close();
+            }
+        }
+        sender.shutdownNow();
+    }
+
+    /**
+     * Open a stream for a user
+     * @param phoneNumber the user's phone number
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(String phoneNumber, Long lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Connection connection = new Connection(emitter);
+        Channel channel = channel(phoneNumber);
+        Connection evicted = null;
+        synchronized (channel) {
+            if (lastEventId != null) {
+                if (lastEventId >= channel.evictedUpTo) {
+                    for (Event event : channel.replay) {
+                        if (event.id > lastEventId) {
+                            connection.queue.offer(event);
+                        }
+                    }
+                } else {
+                    connection.queue.offer(new Event(sequence.incrementAndGet(), RESYNC,
+                        Map.of("reason", "missed events are no longer available")));
+                }
+            }
+            channel.connections.add(connection);
+            if (channel.connections.size() > maxConnectionsPerUser) {
+                evicted = channel.connections.remove(0);
+            }
+        }
+        connectionCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(phoneNumber, connection));
+        emitter.onTimeout(() -> remove(phoneNumber, connection));
+        emitter.onError(error -> remove(phoneNumber, connection));
+        if (evicted != null) {
+            evicted.close();
+        }
+        schedule(connection);
+        return emitter;
+    }
+
+    /**
+     * Publish an event to a user's open streams once the current transaction commits
+     * (immediately when there is none; nothing is sent if it rolls back)
+     * @param phoneNumber the user's phone number
+     * @param name the event name
+     * @param data the payload, sent as JSON
+     */
+    public void publish(String phoneNumber, String name, Object data) {
+        if (phoneNumber == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(phoneNumber, name, data);
+                }
+            });
+        } else {
+            send(phoneNumber, name, data);
+        }
+    }
+
+    /**
+     * Publish a change of one of a user's unread counts
+     * @param phoneNumber the user's phone number
+     * @param counter VENDOR_NOTIFICATIONS, CLIENT_NOTIFICATIONS or CHAT
+     * @param delta the change (negative when items were read or deleted)
+     */
+    public void publishUnread(String phoneNumber, String counter, long delta) {
+        if (delta != 0) {
+            publish(phoneNumber, UNREAD, Map.of("counter", counter, "delta", delta));
+        }
+    }
+
+    /**
+     * Keep idle streams open through proxies and notice clients that went away
+     */
+    @Scheduled(fixedDelayString = "${notifications.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        List<Channel> open;
+        synchronized (channels) {
+            open = new ArrayList<>(channels.values());
+        }
+        for (Channel channel : open) {
+            for (Connection connection : channel.connections) {
+                // A full queue already has data on its way; no heartbeat needed
+                if (connection.queue.offer(Event.HEARTBEAT)) {
+                    schedule(connection);
+                }
+            }
+        }
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private void send(String phoneNumber, String name, Object data) {
+        Channel channel = channel(phoneNumber);
+        List<Connection> full = new ArrayList<>();
+        List<Connection> targets;
+        synchronized (channel) {
+            // IDs are taken under the channel lock so each user sees them in increasing order
+            Event event = new Event(sequence.incrementAndGet(), name, data);
+            channel.replay.addLast(event);
+            while (channel.replay.size() > replaySize) {
+                channel.evictedUpTo = channel.replay.removeFirst().id;
+            }
+            targets = new ArrayList<>(channel.connections);
+            for (Connection connection : targets) {
+                if (!connection.queue.offer(event)) {
+                    full.add(connection);
+                }
+            }
+        }
+        for (Connection connection : full) {
+            // The client reconnects with Last-Event-ID and catches up from the replay buffer (or resyncs)
+            dropped.increment();
+            logger.info("Closing notification stream of {}: more than {} events pending", phoneNumber, bufferSize);
+            connection.close();
+        }
+        for (Connection connection : targets) {
+            if (!full.contains(connection)) {
+                schedule(connection);
+            }
+        }
+    }
+
+    private void schedule(Connection connection) {
+        if (!connection.queue.isEmpty() && connection.draining.compareAndSet(false, true)) {
+            try {
+                sender.execute(() -> drain(connection));
+            } catch (Exception e) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Event event;
+            while ((event = connection.queue.poll()) != null) {
+                if (event == Event.HEARTBEAT) {
+                    connection.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    connection.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(event.id))
+                        .name(event.name)
+                        .data(event.data));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the completion callback removes the connection
+            connection.close();
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have arrived between the last poll and releasing the flag
+        schedule(connection);
+    }
+
+    private Channel channel(String phoneNumber) {
+        synchronized (channels) {
+            return channels.computeIfAbsent(phoneNumber, key -> new Channel(sequence.get()));
+        }
+    }
+
+    private void remove(String phoneNumber, Connection connection) {
+        Channel channel = channels.get(phoneNumber);
+        if (channel != null && channel.connections.remove(connection)) {
+            connectionCount.decrementAndGet();
+        }
+        connection.queue.clear();
+    }
+
+    private static class Channel {
+        final Deque<Event> replay = new ArrayDeque<>();
+        final List<Connection> connections = new CopyOnWriteArrayList<>();
+        // Events up to this ID are not in the replay buffer
+        long evictedUpTo;
+
+        Channel(long evictedUpTo) {
+            this.evictedUpTo = evictedUpTo;
+        }
+    }
+
+    private class Connection {
+        final SseEmitter emitter;
+        final BlockingQueue<Event> queue = new ArrayBlockingQueue<>(bufferSize);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void close() {
+            queue.clear();
+            try {
+                emitter.complete();
+            } catch (Exception e) {
+                // Already completed
+            }
+        }
+    }
+
+    private static class Event {
+        static final Event HEARTBEAT = new Event(0, null, null);
+
+        final long id;
+        final String name;
+        final Object data;
+
+        Event(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
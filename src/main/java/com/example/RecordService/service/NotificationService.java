@@ -2,6 +2,7 @@ package com.example.RecordService.service;
 
 import com.example.RecordService.entity.Notification;
 import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
 import com.example.RecordService.model.dto.NotificationResponse;
 import com.example.RecordService.model.Business;
 import com.example.RecordService.repository.NotificationRepository;
@@ -10,14 +11,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Propagation;
-import org.springframework.jdbc.core.JdbcTemplate;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,62 +33,25 @@ public class NotificationService {
     @Autowired
     private BusinessRepository businessRepository;
     
-    @PersistenceContext
-    private EntityManager entityManager;
+    @Autowired
+    private NotificationHub notificationHub;
     
     @Autowired
-    private JdbcTemplate jdbcTemplate;
+    private UnreadCounterService unreadCounterService;
     
     /**
      * Create a new order notification for vendors
      * @param order the order that was created
      */
     public void createOrderNotification(Order order) {
-        try {
-            // Get all unique business IDs from the order items
-            List<String> businessIds = order.getOrderItems().stream()
-                    .map(item -> item.getBusinessId())
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            // Create notifications for each business
-            for (String businessId : businessIds) {
-                // Get business details
-                Business business = businessRepository.findByBusinessId(businessId);
-                if (business != null) {
-                    // Create notification message
-                    String itemSummary = getOrderItemSummary(order);
-                    String message = String.format(
-                        "New %s order from %s for ₹%.2f. Delivery: %s",
-                        itemSummary,
-                        order.getCustomerName(),
-                        order.getTotalAmount(),
-                        order.getDeliveryDate()
-                    );
-                    
-                    // Create notification
-                    Notification notification = new Notification(
-                        business.getPhoneNumber(),
-                        businessId,
-                        business.getBusinessName(),
-                        order.getOrderId(),
-                        order.getCustomerName(),
-                        order.getCustomerEmail(),
-                        order.getCustomerPhone(),
-                        order.getTotalAmount(),
-                        order.getDeliveryDate(),
-                        order.getDeliveryAddress(),
-                        Notification.NotificationType.NEW_ORDER,
-                        message
-                    );
-                    
-                    notificationRepository.save(notification);
-                }
-            }
-        } catch (Exception e) {
-            // Log error but don't fail order creation
-            System.err.println("Error creating order notification: " + e.getMessage());
-        }
+        String message = String.format(
+            "New %s order from %s for ₹%.2f. Delivery: %s",
+            getOrderItemSummary(order),
+            order.getCustomerName(),
+            order.getTotalAmount(),
+            order.getDeliveryDate()
+        );
+        notifyVendors(order, Notification.NotificationType.NEW_ORDER, message);
     }
     
     /**
@@ -94,39 +60,45 @@ public class NotificationService {
      * @param notificationType the type of notification
      */
     public void createOrderUpdateNotification(Order order, Notification.NotificationType notificationType) {
-        try {
-            // Get all unique business IDs from the order items
-            List<String> businessIds = order.getOrderItems().stream()
-                    .map(item -> item.getBusinessId())
-                    .distinct()
-                    .collect(Collectors.toList());
-            
-            // Create notifications for each business
-            for (String businessId : businessIds) {
-                Business business = businessRepository.findByBusinessId(businessId);
-                if (business != null) {
-                    String message = createOrderUpdateMessage(order, notificationType);
-                    
-                    Notification notification = new Notification(
-                        business.getPhoneNumber(),
-                        businessId,
-                        business.getBusinessName(),
-                        order.getOrderId(),
-                        order.getCustomerName(),
-                        order.getCustomerEmail(),
-                        order.getCustomerPhone(),
-                        order.getTotalAmount(),
-                        order.getDeliveryDate(),
-                        order.getDeliveryAddress(),
-                        notificationType,
-                        message
-                    );
-                    
-                    notificationRepository.save(notification);
-                }
-            }
-        } catch (Exception e) {
-            System.err.println("Error creating order update notification: " + e.getMessage());
+        notifyVendors(order, notificationType, createOrderUpdateMessage(order, notificationType));
+    }
+    
+    /**
+     * Write the same notification to every business in an order. The message is built once by the caller
+     * and the notifications are written as one JDBC batch.
+     * @param order the order
+     * @param notificationType the type of notification
+     * @param message the message, shared by all vendors
+     */
+    private void notifyVendors(Order order, Notification.NotificationType notificationType, String message) {
+        Set<String> businessIds = order.getOrderItems().stream()
+                .map(OrderItem::getBusinessId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        
+        List<Notification> notifications = new ArrayList<>();
+        for (Map.Entry<String, Business> entry : businessRepository.findByBusinessIds(businessIds).entrySet()) {
+            Business business = entry.getValue();
+            notifications.add(new Notification(
+                business.getPhoneNumber(),
+                entry.getKey(),
+                business.getBusinessName(),
+                order.getOrderId(),
+                order.getCustomerName(),
+                order.getCustomerEmail(),
+                order.getCustomerPhone(),
+                order.getTotalAmount(),
+                order.getDeliveryDate(),
+                order.getDeliveryAddress(),
+                notificationType,
+                message
+            ));
+        }
+        notificationRepository.saveAll(notifications);
+        for (Notification notification : notifications) {
+            notificationHub.publish(notification.getVendorPhone(), NotificationHub.NOTIFICATION,
+                new NotificationResponse(notification));
+            unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, notification.getVendorPhone(), 1);
         }
     }
     
@@ -163,16 +135,13 @@ public class NotificationService {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public boolean markAsRead(Long notificationId) {
         try {
-            // Use JDBC for direct database update to bypass JPA caching issues
-            String sql = "UPDATE notifications SET status = 'READ', read_at = ? WHERE notification_id = ?";
-            int updated = jdbcTemplate.update(sql, LocalDateTime.now(), notificationId);
-            
-            if (updated > 0) {
-                // Clear entity manager cache to ensure fresh data on next fetch
-                entityManager.clear();
+            Optional<String> vendorPhone = notificationRepository.findUnreadVendorPhone(notificationId);
+            if (vendorPhone.isPresent()) {
+                markAsRead(vendorPhone.get(), List.of(notificationId));
                 return true;
             }
-            return false;
+            // Already read counts as success; only a missing notification fails
+            return notificationRepository.existsById(notificationId);
         } catch (Exception e) {
             System.err.println("Error marking notification as read: " + e.getMessage());
             return false;
@@ -185,16 +154,35 @@ public class NotificationService {
      * @return number of notifications marked as read
      */
     public int markAllAsRead(String vendorPhone) {
-        List<Notification> unreadNotifications = notificationRepository.findByVendorPhoneAndStatusOrderByCreatedAtDesc(
-                vendorPhone, Notification.NotificationStatus.UNREAD);
-        
-        for (Notification notification : unreadNotifications) {
-            notification.setStatus(Notification.NotificationStatus.READ);
-            notification.setReadAt(LocalDateTime.now());
+        return markedAsRead(vendorPhone, notificationRepository.markAllAsRead(vendorPhone, LocalDateTime.now()));
+    }
+    
+    /**
+     * Mark some notifications of a vendor as read
+     * @param vendorPhone the vendor's phone number
+     * @param notificationIds the notification IDs (read ones and other vendors' are skipped)
+     * @return number of notifications marked as read
+     */
+    public int markAsRead(String vendorPhone, Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
         }
-        
-        notificationRepository.saveAll(unreadNotifications);
-        return unreadNotifications.size();
+        return markedAsRead(vendorPhone, notificationRepository.markAsRead(vendorPhone, notificationIds, LocalDateTime.now()));
+    }
+    
+    /**
+     * Mark the notifications of a vendor created up to a time as read
+     * @param vendorPhone the vendor's phone number
+     * @param before notifications created at or before this time are marked
+     * @return number of notifications marked as read
+     */
+    public int markAsReadBefore(String vendorPhone, LocalDateTime before) {
+        return markedAsRead(vendorPhone, notificationRepository.markAsReadBefore(vendorPhone, before, LocalDateTime.now()));
+    }
+    
+    private int markedAsRead(String vendorPhone, int marked) {
+        unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, vendorPhone, -marked);
+        return marked;
     }
     
     /**
@@ -203,8 +191,7 @@ public class NotificationService {
      * @return count of unread notifications
      */
     public long getUnreadNotificationCount(String vendorPhone) {
-        return notificationRepository.countByVendorPhoneAndStatus(
-                vendorPhone, Notification.NotificationStatus.UNREAD);
+        return unreadCounterService.get(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, vendorPhone);
     }
     
     /**
@@ -213,8 +200,12 @@ public class NotificationService {
      * @return true if successful, false otherwise
      */
     public boolean deleteNotification(Long notificationId) {
-        if (notificationRepository.existsById(notificationId)) {
-            notificationRepository.deleteById(notificationId);
+        Optional<Notification> notification = notificationRepository.findById(notificationId);
+        if (notification.isPresent()) {
+            notificationRepository.delete(notification.get());
+            if (notification.get().getStatus() == Notification.NotificationStatus.UNREAD) {
+                unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, notification.get().getVendorPhone(), -1);
+            }
             return true;
         }
         return false;
@@ -289,7 +280,7 @@ public class NotificationService {
             return "order";
         }
 
-        List<com.example.RecordService.entity.OrderItem> items = order.getOrderItems().stream()
+        List<OrderItem> items = order.getOrderItems().stream()
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
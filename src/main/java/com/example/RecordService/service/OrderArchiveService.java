@@ -0,0 +1,443 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Moves terminal orders (DELIVERED, CANCELLED) older than order.archive.after-days, with their items,
+ * from orders/order_items to orders_archive/order_items_archive, so queries on active orders only
+ * touch recent rows. Each batch is one short transaction that skips rows locked by other work.
+ * Archived orders stay reachable by ID, are appended to the order listings and are still counted by the
+ * order statistics.
+ * The archive tables come from their migration; archiving only runs while they cover every column
+ * of orders/order_items, so a column added to the entities is never dropped on the way to the archive.
+ */
+@Service
+public class OrderArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    // Upper bound on batches per run so one run cannot hold the scheduler thread indefinitely
+    private static final int MAX_BATCHES_PER_RUN = 100;
+
+    // Orders per IN list when loading archived items
+    private static final int ITEM_FETCH_CHUNK_SIZE = 1000;
+
+    private static final String ORDER_COLUMNS =
+        "order_id, user_id, customer_name, customer_email, customer_phone, delivery_address, " +
+        "delivery_latitude, delivery_longitude, delivery_date, special_notes, total_amount, status, " +
+        "order_date, reservation_expires_at";
+
+    private static final String ORDER_ITEM_COLUMNS =
+        "order_item_id, order_id, item_id, item_name, item_price, quantity, item_type, business_id, " +
+        "business_name, image_url, booking_date, selected_dishes";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${order.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${order.archive.after-days:180}")
+    private int afterDays;
+
+    @Value("${order.archive.batch-size:500}")
+    private int batchSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    // Create the archive tables and their indexes; the migrations are the only definition of their schema
+    private static final String[] ARCHIVE_SCHEMA_SCRIPTS = {
+        "db/migration/V12__create_order_archive.sql",
+        "db/migration/V18__order_archive_listing_indexes.sql"
+    };
+
+    // Null until checked; archiving stays off while the archive does not cover every active column
+    private volatile Boolean schemaInSync;
+
+    // Order date of the newest archived order, or null when the archive is empty
+    private volatile LocalDateTime newestArchivedOrderDate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        createArchiveTables();
+        refreshNewestArchivedOrderDate();
+    }
+
+    /**
+     * Create the archive tables and indexes if they are missing by running their migration scripts
+     */
+    private void createArchiveTables() {
+        try {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            for (String script : ARCHIVE_SCHEMA_SCRIPTS) {
+                populator.addScript(new ClassPathResource(script));
+            }
+            DatabasePopulatorUtils.execute(populator, jdbcTemplate.getDataSource());
+        } catch (Exception e) {
+            logger.warn("Could not create order archive tables: {}", e.getMessage());
+        }
+    }
+
+    private void refreshNewestArchivedOrderDate() {
+        try {
+            Timestamp newest = jdbcTemplate.queryForObject("SELECT MAX(order_date) FROM orders_archive", Timestamp.class);
+            newestArchivedOrderDate = newest != null ? newest.toLocalDateTime() : null;
+        } catch (Exception e) {
+            logger.warn("Could not read the newest archived order date: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Check whether the archive may hold orders placed at or after a time, so listings only query
+     * the archive once they reach old enough orders. Every node archives orders placed before the
+     * current cutoff; the newest archived order date covers orders archived under an earlier setting.
+     * @param orderDate the order date
+     * @return true if archived orders placed at or after orderDate may exist
+     */
+    public boolean mayHoldOrdersFrom(LocalDateTime orderDate) {
+        LocalDateTime newest = newestArchivedOrderDate;
+        return orderDate.isBefore(LocalDate.now().minusDays(afterDays).atStartOfDay())
+            || (newest != null && !orderDate.isAfter(newest));
+    }
+
+    /**
+     * Compare the live orders/order_items columns with the columns the archive copies and with the archive tables
+     * @return one message per mismatch; empty when archiving would keep every column
+     */
+    public List<String> findSchemaMismatches() {
+        List<String> mismatches = new ArrayList<>();
+        compareColumns("orders", "orders_archive", ORDER_COLUMNS, mismatches);
+        compareColumns("order_items", "order_items_archive", ORDER_ITEM_COLUMNS, mismatches);
+        return mismatches;
+    }
+
+    private void compareColumns(String table, String archiveTable, String copiedColumns, List<String> mismatches) {
+        Set<String> copied = new LinkedHashSet<>(Arrays.asList(copiedColumns.split(",\\s*")));
+        Set<String> active = columnsOf(table);
+        Set<String> archived = columnsOf(archiveTable);
+        for (String column : active) {
+            if (!copied.contains(column)) {
+                mismatches.add(table + "." + column + " is not copied to " + archiveTable);
+            }
+        }
+        for (String column : copied) {
+            if (!archived.contains(column)) {
+                mismatches.add(archiveTable + " has no column " + column);
+            }
+        }
+    }
+
+    private Set<String> columnsOf(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            Set<String> columns = new LinkedHashSet<>();
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(metaData.getColumnName(i).toLowerCase(Locale.ROOT));
+            }
+            return columns;
+        });
+    }
+
+    /**
+     * Check once (after Hibernate has updated the active tables) that archiving keeps every column
+     */
+    private boolean isSchemaInSync() {
+        if (schemaInSync == null) {
+            List<String> mismatches;
+            try {
+                mismatches = findSchemaMismatches();
+            } catch (Exception e) {
+                logger.warn("Could not compare order archive columns: {}", e.getMessage());
+                return false;
+            }
+            if (!mismatches.isEmpty()) {
+                logger.error("Order archiving disabled until a migration brings the archive tables in line " +
+                    "and the archive column lists are updated: {}", mismatches);
+            }
+            schemaInSync = mismatches.isEmpty();
+        }
+        return schemaInSync;
+    }
+
+    /**
+     * Archive old terminal orders in batches
+     */
+    @Scheduled(fixedDelayString = "${order.archive.interval-ms:3600000}",
+               initialDelayString = "${order.archive.interval-ms:3600000}")
+    public void archiveOldOrders() {
+        if (!enabled || !isSchemaInSync()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDate.now().minusDays(afterDays).atStartOfDay();
+        int total = 0;
+        try {
+            for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+                Integer archived = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                total += archived != null ? archived : 0;
+                if (archived == null || archived < batchSize) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // The failed batch was rolled back; the next run retries it
+            logger.error("Order archival failed: {}", e.getMessage());
+        }
+        if (total > 0) {
+            refreshNewestArchivedOrderDate();
+            logger.info("Archived {} orders placed before {}", total, cutoff.toLocalDate());
+        }
+    }
+
+    /**
+     * Move one batch of terminal orders placed before the cutoff to the archive tables
+     * @param cutoff orders placed before this time are archived
+     * @return number of orders archived
+     */
+    int archiveBatch(LocalDateTime cutoff) {
+        List<Long> orderIds = jdbcTemplate.queryForList(
+            "SELECT order_id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND order_date < ? " +
+            "ORDER BY order_date, order_id LIMIT ? FOR UPDATE SKIP LOCKED",
+            Long.class, Timestamp.valueOf(cutoff), batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(orderIds.size(), "?"));
+        Object[] ids = orderIds.toArray();
+
+        // Rows left in the archive by an earlier interrupted batch are skipped
+        jdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ") SELECT " + ORDER_COLUMNS +
+            " FROM orders o WHERE order_id IN (" + placeholders + ") AND NOT EXISTS " +
+            "(SELECT 1 FROM orders_archive a WHERE a.order_id = o.order_id)", ids);
+        jdbcTemplate.update("INSERT INTO order_items_archive (" + ORDER_ITEM_COLUMNS + ") SELECT " + ORDER_ITEM_COLUMNS +
+            " FROM order_items oi WHERE order_id IN (" + placeholders + ") AND NOT EXISTS " +
+            "(SELECT 1 FROM order_items_archive a WHERE a.order_item_id = oi.order_item_id)", ids);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + placeholders + ")", ids);
+        jdbcTemplate.update("DELETE FROM orders WHERE order_id IN (" + placeholders + ")", ids);
+        return orderIds.size();
+    }
+
+    /**
+     * Load an archived order with its items
+     * @param orderId the order ID
+     * @return the order (detached, read-only), or empty if it is not archived
+     */
+    public Optional<Order> findArchivedOrder(Long orderId) {
+        List<Order> orders;
+        try {
+            orders = jdbcTemplate.query("SELECT " + ORDER_COLUMNS + " FROM orders_archive WHERE order_id = ?",
+                (rs, rowNum) -> mapOrder(rs), orderId);
+        } catch (Exception e) {
+            logger.warn("Could not read archived order {}: {}", orderId, e.getMessage());
+            return Optional.empty();
+        }
+        if (orders.isEmpty()) {
+            return Optional.empty();
+        }
+        Order order = orders.get(0);
+        order.setOrderItems(new ArrayList<>(jdbcTemplate.query(
+            "SELECT " + ORDER_ITEM_COLUMNS + " FROM order_items_archive WHERE order_id = ? ORDER BY order_item_id",
+            (rs, rowNum) -> mapOrderItem(rs, order), orderId)));
+        return Optional.of(order);
+    }
+
+    /**
+     * Load archived orders, newest first, with their items
+     * @param beforeDate with beforeId, only orders after this keyset position are returned; null for no bound
+     * @param beforeId the order ID of the keyset position
+     * @param limit maximum number of orders, or null for all
+     * @return the orders (detached, read-only)
+     */
+    public List<Order> findArchivedOrders(LocalDateTime beforeDate, Long beforeId, Integer limit) {
+        return findArchivedOrders(null, null, beforeDate, beforeId, limit);
+    }
+
+    /**
+     * Load a user's archived orders, newest first, with their items
+     * @param userId the user ID
+     * @see #findArchivedOrders(LocalDateTime, Long, Integer)
+     */
+    public List<Order> findArchivedOrdersByUserId(String userId, LocalDateTime beforeDate, Long beforeId, Integer limit) {
+        return findArchivedOrders("o.user_id = ?", userId, beforeDate, beforeId, limit);
+    }
+
+    /**
+     * Load archived orders with a status, newest first, with their items
+     * @param status the order status
+     * @see #findArchivedOrders(LocalDateTime, Long, Integer)
+     */
+    public List<Order> findArchivedOrdersByStatus(Order.OrderStatus status, LocalDateTime beforeDate, Long beforeId,
+                                                  Integer limit) {
+        return findArchivedOrders("o.status = ?", status.name(), beforeDate, beforeId, limit);
+    }
+
+    /**
+     * Load archived orders containing items from a business, newest first, with all their items
+     * @param businessId the business ID
+     * @see #findArchivedOrders(LocalDateTime, Long, Integer)
+     */
+    public List<Order> findArchivedOrdersByBusinessId(String businessId, LocalDateTime beforeDate, Long beforeId,
+                                                      Integer limit) {
+        return findArchivedOrders("o.order_id IN (SELECT order_id FROM order_items_archive WHERE business_id = ?)",
+            businessId, beforeDate, beforeId, limit);
+    }
+
+    private List<Order> findArchivedOrders(String condition, Object value, LocalDateTime beforeDate, Long beforeId,
+                                           Integer limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (condition != null) {
+            conditions.add(condition);
+            args.add(value);
+        }
+        if (beforeDate != null) {
+            conditions.add("(o.order_date < ? OR (o.order_date = ? AND o.order_id < ?))");
+            args.add(Timestamp.valueOf(beforeDate));
+            args.add(Timestamp.valueOf(beforeDate));
+            args.add(beforeId);
+        }
+        StringBuilder sql = new StringBuilder("SELECT " + ORDER_COLUMNS + " FROM orders_archive o");
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY o.order_date DESC, o.order_id DESC");
+        if (limit != null) {
+            sql.append(" LIMIT ?");
+            args.add(limit);
+        }
+
+        Map<Long, Order> orders = new LinkedHashMap<>();
+        try {
+            for (Order order : jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapOrder(rs), args.toArray())) {
+                order.setOrderItems(new ArrayList<>());
+                orders.put(order.getOrderId(), order);
+            }
+            // Items of all orders with one query per chunk, like the active listings
+            List<Long> orderIds = new ArrayList<>(orders.keySet());
+            for (int from = 0; from < orderIds.size(); from += ITEM_FETCH_CHUNK_SIZE) {
+                List<Long> chunk = orderIds.subList(from, Math.min(from + ITEM_FETCH_CHUNK_SIZE, orderIds.size()));
+                jdbcTemplate.query("SELECT " + ORDER_ITEM_COLUMNS + " FROM order_items_archive WHERE order_id IN (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ") ORDER BY order_id, order_item_id",
+                    rs -> {
+                        Order order = orders.get(rs.getLong("order_id"));
+                        order.getOrderItems().add(mapOrderItem(rs, order));
+                    }, chunk.toArray());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not read archived orders: {}", e.getMessage());
+            return List.of();
+        }
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * @return rows of [status, count] over archived orders
+     */
+    public List<Object[]> countGroupByStatus() {
+        return queryCounts("SELECT status, COUNT(*) FROM orders_archive GROUP BY status", false);
+    }
+
+    /**
+     * @return rows of [order day, status, count] over archived orders
+     */
+    public List<Object[]> countGroupByDayAndStatus() {
+        return queryCounts("SELECT CAST(order_date AS DATE), status, COUNT(*) FROM orders_archive " +
+            "GROUP BY CAST(order_date AS DATE), status", true);
+    }
+
+    /**
+     * @return rows of [business ID, status, count] over archived orders
+     */
+    public List<Object[]> countGroupByBusinessAndStatus() {
+        return queryCounts("SELECT oi.business_id, o.status, COUNT(DISTINCT o.order_id) " +
+            "FROM orders_archive o JOIN order_items_archive oi ON oi.order_id = o.order_id " +
+            "GROUP BY oi.business_id, o.status", true);
+    }
+
+    private List<Object[]> queryCounts(String sql, boolean keyed) {
+        try {
+            return jdbcTemplate.query(sql, (rs, rowNum) -> keyed
+                ? new Object[]{keyValue(rs.getObject(1)), Order.OrderStatus.valueOf(rs.getString(2)), rs.getLong(3)}
+                : new Object[]{Order.OrderStatus.valueOf(rs.getString(1)), rs.getLong(2)});
+        } catch (Exception e) {
+            logger.warn("Could not count archived orders: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static Object keyValue(Object value) {
+        return value instanceof java.sql.Date ? ((java.sql.Date) value).toLocalDate() : value;
+    }
+
+    private static Order mapOrder(ResultSet rs) throws SQLException {
+        Order order = new Order();
+        order.setOrderId(rs.getLong("order_id"));
+        order.setUserId(rs.getString("user_id"));
+        order.setCustomerName(rs.getString("customer_name"));
+        order.setCustomerEmail(rs.getString("customer_email"));
+        order.setCustomerPhone(rs.getString("customer_phone"));
+        order.setDeliveryAddress(rs.getString("delivery_address"));
+        order.setDeliveryLatitude(rs.getObject("delivery_latitude", Double.class));
+        order.setDeliveryLongitude(rs.getObject("delivery_longitude", Double.class));
+        order.setDeliveryDate(rs.getString("delivery_date"));
+        order.setSpecialNotes(rs.getString("special_notes"));
+        order.setTotalAmount(rs.getDouble("total_amount"));
+        order.setStatus(Order.OrderStatus.valueOf(rs.getString("status")));
+        order.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
+        Timestamp expiresAt = rs.getTimestamp("reservation_expires_at");
+        order.setReservationExpiresAt(expiresAt != null ? expiresAt.toLocalDateTime() : null);
+        return order;
+    }
+
+    private static OrderItem mapOrderItem(ResultSet rs, Order order) throws SQLException {
+        OrderItem item = new OrderItem();
+        item.setOrderItemId(rs.getLong("order_item_id"));
+        item.setOrder(order);
+        item.setItemId(rs.getString("item_id"));
+        item.setItemName(rs.getString("item_name"));
+        item.setItemPrice(rs.getDouble("item_price"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setItemType(rs.getString("item_type"));
+        item.setBusinessId(rs.getString("business_id"));
+        item.setBusinessName(rs.getString("business_name"));
+        item.setImageUrl(rs.getString("image_url"));
+        java.sql.Date bookingDate = rs.getDate("booking_date");
+        item.setBookingDate(bookingDate != null ? bookingDate.toLocalDate() : null);
+        item.setSelectedDishes(rs.getString("selected_dishes"));
+        return item;
+    }
+}
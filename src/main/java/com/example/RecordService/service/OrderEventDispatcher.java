@@ -0,0 +1,170 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.repository.OrderEventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Feeds committed order events to a bounded worker pool.
+ * Events are handed to the pool right after the order transaction commits. When the queue is full
+ * the event is simply left in the outbox and the poller submits it once workers catch up, so a burst
+ * of orders never blocks checkout. The poller also recovers events left behind by a crash or a
+ * failed attempt. Processed and failed events are deleted once past their retention period.
+ */
+@Component
+public class OrderEventDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    @Autowired
+    private OrderEventHandler orderEventHandler;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Value("${order.events.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${order.events.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${order.events.retention-days:7}")
+    private long retentionDays;
+
+    @Value("${order.events.failed-retention-days:30}")
+    private long failedRetentionDays;
+
+    private ThreadPoolExecutor executor;
+
+    // Events queued or running on this node, so the poller does not submit them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+            workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "order-events-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Hand a newly committed event to the workers
+     * @param event the lifecycle event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderEvent(OrderLifecycleEvent event) {
+        if (event.getEventId() == null) {
+            return;
+        }
+        submit(event.getEventId());
+    }
+
+    /**
+     * Submit due events from the outbox, never more than the queue has room for
+     */
+    @Scheduled(fixedDelayString = "${order.events.poll-interval-ms:5000}")
+    public void pollDueEvents() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        List<Long> dueEventIds = orderEventRepository.findDueEventIds(LocalDateTime.now(), PageRequest.of(0, capacity));
+        for (Long eventId : dueEventIds) {
+            if (!submit(eventId)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Delete DONE events past the retention period and FAILED events past their longer one
+     */
+    @Scheduled(fixedDelayString = "${order.events.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpiredEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        int done = orderEventRepository.deleteDoneBefore(now.minusDays(retentionDays));
+        int failed = orderEventRepository.deleteFailedCreatedBefore(now.minusDays(failedRetentionDays));
+        if (done > 0 || failed > 0) {
+            logger.info("Deleted {} processed and {} failed order events past retention", done, failed);
+        }
+    }
+
+    /**
+     * @return pending work on this node (queued plus running)
+     */
+    public int getBacklog() {
+        return inFlight.size();
+    }
+
+    private boolean submit(Long eventId) {
+        if (!inFlight.add(eventId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> process(eventId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Queue full: the row stays PENDING and the poller will pick it up later
+            inFlight.remove(eventId);
+            logger.warn("Order event queue full, deferring event {} to the outbox poller", eventId);
+            return false;
+        }
+    }
+
+    private void process(Long eventId) {
+        try {
+            if (!orderEventHandler.claim(eventId)) {
+                return;
+            }
+            try {
+                Long followUpId = orderEventHandler.handle(eventId);
+                if (followUpId != null) {
+                    // Committed with this event; if the queue is full the poller picks it up
+                    submit(followUpId);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to process order event {}: {}", eventId, e.getMessage());
+                orderEventHandler.markFailed(eventId, e);
+            }
+        } catch (Exception e) {
+            // Claim or bookkeeping failed; the lease expires and the poller retries
+            logger.error("Order event {} could not be processed: {}", eventId, e.getMessage());
+        } finally {
+            inFlight.remove(eventId);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.ClientNotification;
+import com.example.RecordService.entity.Notification;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.repository.OrderEventRepository;
+import com.example.RecordService.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Applies the side effects of an order event: vendor and client notifications, stock alerts and mail.
+ * Each step runs in its own transaction. The side effects and the DONE marker commit together, so a
+ * failed attempt leaves nothing behind and is simply retried with exponential backoff.
+ * Mail is not sent with the notifications: the event queues a MAIL event in the outbox instead, which
+ * is sent and retried on its own, so a mail server outage never holds back or repeats notifications.
+ */
+@Service
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class OrderEventHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderEventHandler.class);
+
+    private static final long LEASE_MINUTES = 5;
+    private static final long BASE_BACKOFF_SECONDS = 5;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ClientNotificationService clientNotificationService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired(required = false)
+    private JavaMailSender mailSender;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.events.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${order.events.mail.enabled:false}")
+    private boolean mailEnabled;
+
+    /**
+     * Claim an event so no other worker processes it at the same time
+     * @param eventId the event ID
+     * @return true if this worker owns the event now
+     */
+    public boolean claim(Long eventId) {
+        LocalDateTime now = LocalDateTime.now();
+        return orderEventRepository.claim(eventId, now, now.plusMinutes(LEASE_MINUTES)) == 1;
+    }
+
+    /**
+     * Apply the side effects of a claimed event and mark it done
+     * @param eventId the event ID
+     * @return the ID of a follow-up event queued by this one (its mail), or null
+     */
+    public Long handle(Long eventId) {
+        OrderEvent event = orderEventRepository.findById(eventId)
+                .orElseThrow(() -> new IllegalStateException("Order event " + eventId + " not found"));
+
+        Long followUpId = null;
+        Optional<Order> orderOpt = orderRepository.findById(event.getOrderId());
+        if (orderOpt.isEmpty()) {
+            // Order was deleted before the event ran; nothing left to notify about
+            logger.info("Skipping order event {}: order {} no longer exists", eventId, event.getOrderId());
+        } else {
+            Order order = snapshotAt(orderOpt.get(), event.getNewStatus());
+            if (event.getEventType() == OrderEvent.EventType.MAIL) {
+                sendMail(order, event.getPreviousStatus(), event.getNewStatus());
+            } else {
+                if (event.getEventType() == OrderEvent.EventType.ORDER_CREATED) {
+                    handleOrderCreated(order);
+                } else {
+                    handleStatusChanged(order, event.getNewStatus());
+                }
+                followUpId = queueMail(order, event);
+            }
+        }
+
+        event.setStatus(OrderEvent.EventStatus.DONE);
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLastError(null);
+        orderEventRepository.save(event);
+        return followUpId;
+    }
+
+    /**
+     * Record a failed attempt and schedule the next one, or give up after the maximum number of attempts
+     * @param eventId the event ID
+     * @param error the failure
+     */
+    public void markFailed(Long eventId, Exception error) {
+        orderEventRepository.findById(eventId).ifPresent(event -> {
+            String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+            event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+            if (event.getAttempts() >= maxAttempts) {
+                event.setStatus(OrderEvent.EventStatus.FAILED);
+                logger.error("Order event {} failed after {} attempts: {}", eventId, event.getAttempts(), message);
+            } else {
+                event.setStatus(OrderEvent.EventStatus.PENDING);
+                event.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds(event.getAttempts())));
+            }
+            orderEventRepository.save(event);
+        });
+    }
+
+    /**
+     * Delay before the next attempt: 5s, 10s, 20s, ... capped at one hour
+     */
+    static long backoffSeconds(int attempts) {
+        int exponent = Math.max(0, Math.min(attempts - 1, 20));
+        return Math.min(BASE_BACKOFF_SECONDS << exponent, MAX_BACKOFF_SECONDS);
+    }
+
+    private void handleOrderCreated(Order order) {
+        notificationService.createOrderNotification(order);
+        clientNotificationService.createOrderNotification(order);
+    }
+
+    private void handleStatusChanged(Order order, Order.OrderStatus status) {
+        notificationService.createOrderUpdateNotification(order, getNotificationTypeForStatus(status));
+        clientNotificationService.createOrderUpdateNotification(order, getClientNotificationTypeForStatus(status));
+
+        // Stock was already given back synchronously on cancellation; tell waiting clients it is back
+        if (status == Order.OrderStatus.CANCELLED) {
+            stockReservationService.notifyRestocked(order.getOrderItems());
+        }
+
+        if (status == Order.OrderStatus.DELIVERED) {
+            logger.info("Order {} has been delivered. Client can now rate the items.", order.getOrderId());
+        }
+    }
+
+    /**
+     * Detach the order so the notifications describe the status at the time of the event,
+     * even if the order has moved on since
+     */
+    private Order snapshotAt(Order order, Order.OrderStatus status) {
+        Hibernate.initialize(order.getOrderItems());
+        entityManager.detach(order);
+        if (status != null) {
+            order.setStatus(status);
+        }
+        return order;
+    }
+
+    /**
+     * Queue the customer mail for an event; it commits with the event's notifications
+     * @return the mail event ID, or null if no mail is sent
+     */
+    private Long queueMail(Order order, OrderEvent event) {
+        if (!canMail(order)) {
+            return null;
+        }
+        return orderEventRepository.save(new OrderEvent(event.getOrderId(), OrderEvent.EventType.MAIL,
+            event.getEventType() == OrderEvent.EventType.ORDER_CREATED ? null : event.getPreviousStatus(),
+            event.getNewStatus())).getEventId();
+    }
+
+    private boolean canMail(Order order) {
+        return mailEnabled && mailSender != null && order.getCustomerEmail() != null && !order.getCustomerEmail().isBlank();
+    }
+
+    private void sendMail(Order order, Order.OrderStatus previousStatus, Order.OrderStatus status) {
+        if (!canMail(order)) {
+            return;
+        }
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(order.getCustomerEmail());
+        if (previousStatus == null) {
+            message.setSubject("Order #" + order.getOrderId() + " placed");
+            message.setText(String.format("Hi %s, your order #%d for ₹%.2f has been placed. Delivery scheduled for %s.",
+                order.getCustomerName(), order.getOrderId(), order.getTotalAmount(), order.getDeliveryDate()));
+        } else {
+            message.setSubject("Order #" + order.getOrderId() + " is " + status.toString().toLowerCase());
+            message.setText(String.format("Hi %s, the status of your order #%d is now %s.",
+                order.getCustomerName(), order.getOrderId(), status));
+        }
+        // Let failures propagate so the mail event is retried
+        mailSender.send(message);
+    }
+
+    /**
+     * Get notification type based on order status
+     * @param status the order status
+     * @return notification type
+     */
+    private Notification.NotificationType getNotificationTypeForStatus(Order.OrderStatus status) {
+        switch (status) {
+            case CANCELLED:
+                return Notification.NotificationType.ORDER_CANCELLED;
+            case DELIVERED:
+                return Notification.NotificationType.ORDER_DELIVERED;
+            default:
+                return Notification.NotificationType.ORDER_UPDATED;
+        }
+    }
+
+    /**
+     * Get client notification type based on order status
+     * @param status the order status
+     * @return the client notification type
+     */
+    private ClientNotification.NotificationType getClientNotificationTypeForStatus(Order.OrderStatus status) {
+        switch (status) {
+            case CONFIRMED:
+                return ClientNotification.NotificationType.ORDER_CONFIRMED;
+            case PREPARING:
+                return ClientNotification.NotificationType.ORDER_PREPARING;
+            case READY:
+                return ClientNotification.NotificationType.ORDER_READY;
+            case SHIPPED:
+                return ClientNotification.NotificationType.ORDER_SHIPPED;
+            case DELIVERED:
+                return ClientNotification.NotificationType.ORDER_DELIVERED;
+            case CANCELLED:
+                return ClientNotification.NotificationType.ORDER_CANCELLED;
+            default:
+                return ClientNotification.NotificationType.ORDER_CONFIRMED;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.OrderEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Records order lifecycle events in the outbox table as part of the caller's transaction
+ * and announces them to in-process listeners, which run after commit.
+ * Workers pick outbox rows up after commit (see OrderEventDispatcher).
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OrderEventPublisher {
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Record that an order was created
+     * @param order the saved order
+     */
+    public void orderCreated(Order order) {
+        publish(order, new OrderEvent(order.getOrderId(), OrderEvent.EventType.ORDER_CREATED, null, order.getStatus()));
+    }
+
+    /**
+     * Record that an order moved to a new status
+     * @param order the saved order
+     * @param previousStatus the status before the change
+     */
+    public void statusChanged(Order order, Order.OrderStatus previousStatus) {
+        publish(order, new OrderEvent(order.getOrderId(), OrderEvent.EventType.STATUS_CHANGED, previousStatus, order.getStatus()));
+    }
+
+    /**
+     * Announce that an order is being deleted. Only in-process listeners (counters) see this;
+     * there is nothing left for the outbox workers to notify about.
+     * @param order the order, with its items, before deletion
+     */
+    public void orderDeleted(Order order) {
+        applicationEventPublisher.publishEvent(new OrderLifecycleEvent(null, order.getOrderId(),
+            OrderEvent.EventType.ORDER_DELETED, order.getStatus(), null, order.getOrderDate(), businessIds(order)));
+    }
+
+    private void publish(Order order, OrderEvent event) {
+        OrderEvent saved = orderEventRepository.save(event);
+        applicationEventPublisher.publishEvent(new OrderLifecycleEvent(saved.getEventId(), saved.getOrderId(),
+            saved.getEventType(), saved.getPreviousStatus(), saved.getNewStatus(), order.getOrderDate(), businessIds(order)));
+    }
+
+    private List<String> businessIds(Order order) {
+        if (order.getOrderItems() == null) {
+            return List.of();
+        }
+        return order.getOrderItems().stream()
+                .map(OrderItem::getBusinessId)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+}
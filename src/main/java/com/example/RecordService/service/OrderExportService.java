@@ -0,0 +1,277 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.model.dto.OrderItemResponse;
+import com.example.RecordService.model.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Streams orders and their items straight from a forward-only JDBC cursor to the response.
+ * Only the order currently being written is held in memory, so heap use does not depend on
+ * how many orders are exported.
+ */
+@Service
+public class OrderExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderExportService.class);
+
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String EXPORT_COLUMNS =
+        "SELECT o.order_id, o.user_id, o.customer_name, o.customer_email, o.customer_phone, " +
+        "o.delivery_address, o.delivery_latitude, o.delivery_longitude, o.delivery_date, o.special_notes, " +
+        "o.total_amount, o.status, o.order_date, " +
+        "oi.order_item_id, oi.item_id, oi.item_name, oi.item_price, oi.quantity, oi.item_type, " +
+        "oi.business_id, oi.business_name, oi.image_url, oi.booking_date, oi.selected_dishes ";
+
+    // Archived orders (see OrderArchiveService) are the older ones, so they are streamed first and the
+    // active ones after them; each query is its own ordered cursor, so neither has to sort both tables first
+    private static final String[] EXPORT_SQL = {
+        EXPORT_COLUMNS +
+        "FROM orders_archive o LEFT JOIN order_items_archive oi ON oi.order_id = o.order_id " +
+        "WHERE o.order_date >= ? AND o.order_date < ? " +
+        "ORDER BY o.order_date, o.order_id, oi.order_item_id",
+        EXPORT_COLUMNS +
+        "FROM orders o LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+        "WHERE o.order_date >= ? AND o.order_date < ? " +
+        "ORDER BY o.order_date, o.order_id, oi.order_item_id"
+    };
+
+    private static final String CSV_HEADER =
+        "order_id,order_date,status,user_id,customer_name,customer_email,customer_phone,delivery_address," +
+        "delivery_date,total_amount,order_item_id,item_id,item_name,item_type,business_id,business_name," +
+        "quantity,item_price,booking_date\n";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate streamingJdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    public void init() {
+        // Dedicated template so the fetch size only applies to exports. PostgreSQL only streams
+        // with a fetch size inside a transaction, hence the read-only transaction around the query.
+        streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingJdbcTemplate.setFetchSize(FETCH_SIZE);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Check whether a format is supported
+     * @param format the requested format
+     * @return true for "ndjson" and "csv"
+     */
+    public boolean isSupportedFormat(String format) {
+        return "ndjson".equalsIgnoreCase(format) || "csv".equalsIgnoreCase(format);
+    }
+
+    /**
+     * Write all orders placed between two dates (inclusive) to the output stream.
+     * NDJSON writes one order per line with its items; CSV writes one line per order item.
+     * Archived orders come first, then active ones, each in order date order.
+     * @param from first order date
+     * @param to last order date
+     * @param format "ndjson" or "csv"
+     * @param outputStream the response stream
+     * @throws IOException if the client goes away; the cursor is closed and the export stops
+     */
+    public void exportOrders(LocalDate from, LocalDate to, String format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        RowWriter rowWriter = csv ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        try {
+            if (csv) {
+                writer.write(CSV_HEADER);
+            }
+            Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+            Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+            readOnlyTransaction.executeWithoutResult(status -> {
+                for (String sql : EXPORT_SQL) {
+                    streamingJdbcTemplate.query(sql, rowWriter, start, end);
+                }
+            });
+            rowWriter.finish();
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            // Thrown from inside the row callback: the query was abandoned and its cursor closed
+            logger.warn("Order export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private abstract static class RowWriter implements RowCallbackHandler {
+        protected final Writer writer;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            try {
+                write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        abstract void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException {
+        }
+    }
+
+    /**
+     * Groups the joined rows of one order and writes it as a single JSON line once the next order starts
+     */
+    private class NdjsonRowWriter extends RowWriter {
+        private OrderResponse current;
+
+        NdjsonRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException, IOException {
+            long orderId = rs.getLong("order_id");
+            if (current == null || current.getOrderId() != orderId) {
+                finish();
+                current = readOrder(rs);
+            }
+            if (rs.getObject("order_item_id") != null) {
+                current.getOrderItems().add(readItem(rs));
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            if (current != null) {
+                writer.write(objectMapper.writeValueAsString(current));
+                writer.write('\n');
+                current = null;
+            }
+        }
+    }
+
+    private static class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void write(ResultSet rs) throws SQLException, IOException {
+            StringBuilder line = new StringBuilder(256);
+            line.append(rs.getLong("order_id")).append(',')
+                .append(rs.getTimestamp("order_date").toLocalDateTime()).append(',')
+                .append(rs.getString("status")).append(',')
+                .append(csv(rs.getString("user_id"))).append(',')
+                .append(csv(rs.getString("customer_name"))).append(',')
+                .append(csv(rs.getString("customer_email"))).append(',')
+                .append(csv(rs.getString("customer_phone"))).append(',')
+                .append(csv(rs.getString("delivery_address"))).append(',')
+                .append(csv(rs.getString("delivery_date"))).append(',')
+                .append(rs.getDouble("total_amount")).append(',')
+                .append(nullable(rs.getObject("order_item_id"))).append(',')
+                .append(csv(rs.getString("item_id"))).append(',')
+                .append(csv(rs.getString("item_name"))).append(',')
+                .append(csv(rs.getString("item_type"))).append(',')
+                .append(csv(rs.getString("business_id"))).append(',')
+                .append(csv(rs.getString("business_name"))).append(',')
+                .append(nullable(rs.getObject("quantity"))).append(',')
+                .append(nullable(rs.getObject("item_price"))).append(',')
+                .append(nullable(rs.getDate("booking_date")))
+                .append('\n');
+            writer.write(line.toString());
+        }
+
+        private static String nullable(Object value) {
+            return value == null ? "" : value.toString();
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+            return value;
+        }
+    }
+
+    private static OrderResponse readOrder(ResultSet rs) throws SQLException {
+        OrderResponse order = new OrderResponse();
+        order.setOrderId(rs.getLong("order_id"));
+        order.setUserId(rs.getString("user_id"));
+        order.setCustomerName(rs.getString("customer_name"));
+        order.setCustomerEmail(rs.getString("customer_email"));
+        order.setCustomerPhone(rs.getString("customer_phone"));
+        order.setDeliveryAddress(rs.getString("delivery_address"));
+        order.setDeliveryLatitude(getDouble(rs, "delivery_latitude"));
+        order.setDeliveryLongitude(getDouble(rs, "delivery_longitude"));
+        order.setDeliveryDate(rs.getString("delivery_date"));
+        order.setSpecialNotes(rs.getString("special_notes"));
+        order.setTotalAmount(rs.getDouble("total_amount"));
+        order.setStatus(Order.OrderStatus.valueOf(rs.getString("status")));
+        order.setOrderDate(rs.getTimestamp("order_date").toLocalDateTime());
+        order.setOrderItems(new ArrayList<>());
+        return order;
+    }
+
+    private static OrderItemResponse readItem(ResultSet rs) throws SQLException {
+        OrderItemResponse item = new OrderItemResponse();
+        item.setOrderItemId(rs.getLong("order_item_id"));
+        item.setItemId(rs.getString("item_id"));
+        item.setItemName(rs.getString("item_name"));
+        item.setItemPrice(rs.getDouble("item_price"));
+        item.setQuantity(rs.getInt("quantity"));
+        item.setItemType(rs.getString("item_type"));
+        item.setBusinessId(rs.getString("business_id"));
+        item.setBusinessName(rs.getString("business_name"));
+        item.setImageUrl(rs.getString("image_url"));
+        item.setTotalPrice(item.getItemPrice() * item.getQuantity());
+        Date bookingDate = rs.getDate("booking_date");
+        item.setBookingDate(bookingDate != null ? bookingDate.toLocalDate() : null);
+        item.setSelectedDishes(rs.getString("selected_dishes"));
+        return item;
+    }
+
+    private static Double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+}
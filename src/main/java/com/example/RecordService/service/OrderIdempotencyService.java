@@ -0,0 +1,174 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.OrderIdempotencyKey;
+import com.example.RecordService.model.dto.OrderRequest;
+import com.example.RecordService.model.dto.OrderResponse;
+import com.example.RecordService.repository.OrderIdempotencyKeyRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs order submissions at most once per Idempotency-Key.
+ * A retried key returns the order created by the first submission instead of creating another one.
+ * Completed keys are looked up in a bounded in-memory cache, then in the order_idempotency_keys table
+ * (shared by all nodes). Requests with the same key arriving while the first one is still running on
+ * this node wait for its result; on other nodes the database key claim makes them wait.
+ */
+@Service
+public class OrderIdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIdempotencyService.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final long WAIT_SECONDS = 60;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @Value("${order.idempotency.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${order.idempotency.cache-size:10000}")
+    private int cacheSize;
+
+    // Submissions running on this node, by key
+    private final Map<String, CompletableFuture<OrderResponse>> inFlight = new ConcurrentHashMap<>();
+
+    // Completed keys, least recently used evicted first
+    private Map<String, CompletedKey> completed;
+
+    @PostConstruct
+    public void init() {
+        completed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletedKey> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Create an order once per key
+     * @param orderRequest the order request
+     * @param idempotencyKey the client's key
+     * @return the order created by the first submission with this key
+     * @throws IllegalArgumentException if the key is invalid or belongs to another user's order
+     */
+    public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        Optional<OrderResponse> previous = findCompleted(idempotencyKey, orderRequest.getUserId());
+        if (previous.isPresent()) {
+            return previous.get();
+        }
+
+        CompletableFuture<OrderResponse> mine = new CompletableFuture<>();
+        CompletableFuture<OrderResponse> running = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (running != null) {
+            return await(running, idempotencyKey);
+        }
+
+        try {
+            OrderResponse response;
+            try {
+                response = orderService.createOrder(orderRequest, idempotencyKey);
+                completed.put(idempotencyKey, new CompletedKey(orderRequest.getUserId(), response.getOrderId()));
+            } catch (RuntimeException e) {
+                // Another node may have committed this key while we waited for the claim
+                Optional<OrderResponse> winner = findCompleted(idempotencyKey, orderRequest.getUserId());
+                if (winner.isEmpty()) {
+                    throw e;
+                }
+                response = winner.get();
+            }
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    /**
+     * Forget keys past the retention period
+     */
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval-ms:3600000}")
+    @Transactional
+    public void deleteExpiredKeys() {
+        int deleted = orderIdempotencyKeyRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(retentionHours));
+        if (deleted > 0) {
+            logger.info("Deleted {} expired order idempotency keys", deleted);
+        }
+    }
+
+    private Optional<OrderResponse> findCompleted(String idempotencyKey, String userId) {
+        CompletedKey key = completed.get(idempotencyKey);
+        if (key == null) {
+            Optional<OrderIdempotencyKey> stored = orderIdempotencyKeyRepository.findById(idempotencyKey);
+            if (stored.isEmpty() || stored.get().getOrderId() == null) {
+                return Optional.empty();
+            }
+            key = new CompletedKey(stored.get().getUserId(), stored.get().getOrderId());
+            completed.put(idempotencyKey, key);
+        }
+        if (!key.userId.equals(userId)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used by another user");
+        }
+        Optional<OrderResponse> order = orderService.getOrderById(key.orderId);
+        if (order.isEmpty()) {
+            throw new IllegalArgumentException("The order created with this Idempotency-Key no longer exists");
+        }
+        return order;
+    }
+
+    private OrderResponse await(CompletableFuture<OrderResponse> running, String idempotencyKey) {
+        try {
+            return running.get(WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Order with Idempotency-Key " + idempotencyKey + " is still being processed");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for order with Idempotency-Key " + idempotencyKey);
+        }
+    }
+
+    private static class CompletedKey {
+        final String userId;
+        final Long orderId;
+
+        CompletedKey(String userId, Long orderId) {
+            this.userId = userId;
+            this.orderId = orderId;
+        }
+    }
+}
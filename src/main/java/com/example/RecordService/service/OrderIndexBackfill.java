@@ -0,0 +1,51 @@
+package com.example.RecordService.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Fills a table derived from orders (sales rollups, client purchases, booked quantities) the first time
+ * the application starts with it empty.
+ * The lock on the derived table makes concurrent starts wait for each other, so only one node fills it;
+ * the share lock on orders holds back status changes, so none is both counted by the backfill and applied
+ * on top of it, and holds back archiving, so no order is counted in both orders and orders_archive or in neither.
+ */
+@Component
+public class OrderIndexBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderIndexBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Backfill a table in its own transaction if it is empty; a failure is logged and startup continues
+     * @param table the derived table, locked for the duration of the backfill
+     * @param isEmpty checks the table once it is locked
+     * @param backfill fills the table and describes what it wrote, for the log
+     */
+    public void backfillIfEmpty(String table, BooleanSupplier isEmpty, Supplier<String> backfill) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + table + " IN EXCLUSIVE MODE");
+                jdbcTemplate.execute("LOCK TABLE orders IN SHARE MODE");
+                if (isEmpty.getAsBoolean()) {
+                    logger.info("Backfilled {}: {}", table, backfill.get());
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Could not backfill {}: {}", table, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * In-process signal that an order was created, changed status or was deleted.
+ * Published inside the order transaction and delivered to listeners after it commits.
+ * eventId points at the outbox row; it is null for deletions, which have no outbox row.
+ */
+public class OrderLifecycleEvent {
+
+    private final Long eventId;
+    private final Long orderId;
+    private final OrderEvent.EventType eventType;
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus newStatus;
+    private final LocalDateTime orderDate;
+    private final List<String> businessIds;
+
+    public OrderLifecycleEvent(Long eventId, Long orderId, OrderEvent.EventType eventType,
+                               Order.OrderStatus previousStatus, Order.OrderStatus newStatus,
+                               LocalDateTime orderDate, List<String> businessIds) {
+        this.eventId = eventId;
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.orderDate = orderDate;
+        this.businessIds = businessIds;
+    }
+
+    public Long getEventId() {
+        return eventId;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public OrderEvent.EventType getEventType() {
+        return eventType;
+    }
+
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Order.OrderStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public List<String> getBusinessIds() {
+        return businessIds;
+    }
+}
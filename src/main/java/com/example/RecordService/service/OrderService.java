@@ -1,39 +1,72 @@
 package com.example.RecordService.service;
 
+import com.example.RecordService.entity.BookedQuantity;
 import com.example.RecordService.entity.Order;
 import com.example.RecordService.entity.OrderItem;
-import com.example.RecordService.entity.Notification;
-import com.example.RecordService.entity.ClientNotification;
 import com.example.RecordService.model.Theme;
 import com.example.RecordService.entity.Inventory;
 import com.example.RecordService.entity.Plate;
 import com.example.RecordService.model.dto.OrderRequest;
 import com.example.RecordService.model.dto.OrderResponse;
 import com.example.RecordService.model.dto.OrderItemResponse;
+import com.example.RecordService.model.dto.BulkStatusUpdateResponse;
+import com.example.RecordService.model.dto.OrderPage;
+import com.example.RecordService.repository.OrderIdempotencyKeyRepository;
+import com.example.RecordService.repository.OrderItemRepository;
 import com.example.RecordService.repository.OrderRepository;
-import com.example.RecordService.service.NotificationService;
-import com.example.RecordService.service.ClientNotificationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class OrderService {
     
-    @Autowired
-    private OrderRepository orderRepository;
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+    private static final int ITEM_FETCH_CHUNK_SIZE = 1000;
+    public static final int MAX_BULK_STATUS_ORDERS = 500;
+    
+    // Only terminal orders are archived, so other statuses never read the archive
+    private static final Set<Order.OrderStatus> ARCHIVED_STATUSES =
+        EnumSet.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.CANCELLED);
+    
+    // Listing order: orderDate DESC, orderId DESC
+    private static final Comparator<Order> NEWEST_FIRST =
+        Comparator.comparing(Order::getOrderDate, Comparator.reverseOrder())
+            .thenComparing(Order::getOrderId, Comparator.reverseOrder());
     
     @Autowired
-    private NotificationService notificationService;
+    private OrderRepository orderRepository;
     
     @Autowired
-    private ClientNotificationService clientNotificationService;
+    private OrderItemRepository orderItemRepository;
     
     @Autowired
     private ThemeService themeService;
@@ -47,6 +80,36 @@ public class OrderService {
     @Autowired
     private AvailabilityService availabilityService;
     
+    @Autowired
+    private StockReservationService stockReservationService;
+    
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+    
+    @Autowired
+    private OrderStatisticsService orderStatisticsService;
+    
+    @Autowired
+    private SalesRollupService salesRollupService;
+    
+    @Autowired
+    private ClientPurchaseService clientPurchaseService;
+    
+    @Autowired
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+    
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+    
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+    
+    @Autowired
+    private BookedQuantityService bookedQuantityService;
+    
+    @Value("${order.reservation.ttl-minutes:2880}")
+    private long reservationTtlMinutes;
+    
     
     /**
      * Create a new order
@@ -54,18 +117,29 @@ public class OrderService {
      * @return the created order response
      */
     public OrderResponse createOrder(OrderRequest orderRequest) {
+        return createOrder(orderRequest, null);
+    }
+    
+    /**
+     * Create a new order under an idempotency key (see OrderIdempotencyService)
+     * @param orderRequest the order request
+     * @param idempotencyKey the client's key, or null
+     * @return the created order response
+     * @throws IllegalStateException if the key was already used; nothing is created
+     */
+    public OrderResponse createOrder(OrderRequest orderRequest, String idempotencyKey) {
+        // Claim the key before doing any work; a concurrent holder on any node makes this wait
+        if (idempotencyKey != null
+                && orderIdempotencyKeyRepository.claim(idempotencyKey, orderRequest.getUserId(), LocalDateTime.now()) == 0) {
+            throw new IllegalStateException("Idempotency key already used: " + idempotencyKey);
+        }
+        
         try {
             System.out.println("OrderService.createOrder - Starting order creation");
             System.out.println("Items to process: " + orderRequest.getItems().size());
             
-            // Validate stock availability and date availability before creating order
-            System.out.println("Validating stock availability...");
-            validateStockAvailability(orderRequest.getItems());
-            System.out.println("Stock validation passed");
-            
-            System.out.println("Validating date availability...");
-            validateDateAvailability(orderRequest.getItems());
-            System.out.println("Date validation passed");
+            // Validate stock availability and date availability of the whole cart before creating order
+            validateCart(orderRequest.getItems());
             
             // Calculate total amount
             Double totalAmount = orderRequest.getItems().stream()
@@ -84,6 +158,8 @@ public class OrderService {
             );
             
             order.setSpecialNotes(orderRequest.getSpecialNotes());
+            // Stock is held from now on; unless the order is confirmed in time, ReservationExpiryService cancels it
+            order.setReservationExpiresAt(order.getOrderDate().plusMinutes(reservationTtlMinutes));
             
             // Set delivery geolocation if provided
             if (orderRequest.getDeliveryLatitude() != null && orderRequest.getDeliveryLongitude() != null) {
@@ -91,9 +167,6 @@ public class OrderService {
                 order.setDeliveryLongitude(orderRequest.getDeliveryLongitude());
             }
             
-            // Save order first to get the ID
-            Order savedOrder = orderRepository.save(order);
-            
             // Create order items
             List<OrderItem> orderItems = orderRequest.getItems().stream()
                     .map(itemRequest -> {
@@ -101,7 +174,7 @@ public class OrderService {
                         if (itemRequest.getBookingDate() != null) {
                             // Use constructor with booking date
                             orderItem = new OrderItem(
-                                savedOrder,
+                                order,
                                 itemRequest.getItemId(),
                                 itemRequest.getItemName(),
                                 itemRequest.getItemPrice(),
@@ -114,7 +187,7 @@ public class OrderService {
                         } else {
                             // Use constructor without booking date
                             orderItem = new OrderItem(
-                                savedOrder,
+                                order,
                                 itemRequest.getItemId(),
                                 itemRequest.getItemName(),
                                 itemRequest.getItemPrice(),
@@ -133,28 +206,25 @@ public class OrderService {
                     })
                     .collect(Collectors.toList());
             
-            // Set order items and save again
-            savedOrder.setOrderItems(orderItems);
-            Order finalOrder = orderRepository.save(savedOrder);
-            
-            // Decrement stock immediately when order is created
-            // This reserves the stock for the order
-            try {
-                System.out.println("Decrementing stock for order " + finalOrder.getOrderId());
-                decrementStockForOrderItems(finalOrder.getOrderItems());
-                System.out.println("Stock decremented successfully for order " + finalOrder.getOrderId());
-            } catch (Exception e) {
-                System.err.println("Failed to decrement stock for order " + finalOrder.getOrderId() + ": " + e.getMessage());
-                e.printStackTrace();
-                // Don't fail the order creation if stock decrement fails - log it for investigation
-                // Stock will be validated again when order is confirmed
-            }
+            // Persist the order and its items in one save; the cascade plus sequence ids
+            // let Hibernate send all item inserts as a single JDBC batch on flush
+            order.setOrderItems(orderItems);
+            Order finalOrder = orderRepository.save(order);
             
-            // Create notification for vendors
-            notificationService.createOrderNotification(finalOrder);
+            // Reserve stock immediately when order is created.
+            // Each line is an atomic check-and-decrement; if any line fails the whole order is rejected
+            // and the transaction rolls back.
+            stockReservationService.reserve(finalOrder.getOrderItems());
             
-            // Create notification for client
-            clientNotificationService.createOrderNotification(finalOrder);
+            // Vendor/client notifications and mail are sent by the order event workers after commit
+            orderEventPublisher.orderCreated(finalOrder);
+            salesRollupService.apply(finalOrder, null, finalOrder.getStatus());
+            if (idempotencyKey != null) {
+                orderIdempotencyKeyRepository.attachOrder(idempotencyKey, finalOrder.getOrderId());
+            }
+            clientPurchaseService.apply(finalOrder, null, finalOrder.getStatus());
+            bookedQuantityService.apply(finalOrder, null, finalOrder.getStatus());
+            orderTransitionService.record(finalOrder, null, finalOrder.getStatus(), finalOrder.getUserId(), finalOrder.getOrderDate());
             
             return convertToOrderResponse(finalOrder);
             
@@ -167,60 +237,140 @@ public class OrderService {
     }
     
     /**
-     * Get order by ID
+     * Get order by ID, looking in the archive if it is not an active order
      * @param orderId the order ID
      * @return the order response
      */
     public Optional<OrderResponse> getOrderById(Long orderId) {
-        return orderRepository.findById(orderId)
+        Optional<OrderResponse> active = orderRepository.findById(orderId)
+                .map(this::convertToOrderResponse);
+        if (active.isPresent()) {
+            return active;
+        }
+        return orderArchiveService.findArchivedOrder(orderId)
                 .map(this::convertToOrderResponse);
     }
     
     /**
-     * Get all orders for a user
+     * Get all orders for a user, including archived ones
      * @param userId the user ID
      * @return list of order responses
      */
     public List<OrderResponse> getOrdersByUserId(String userId) {
         List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId);
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        return withArchivedOrders(convertToOrderResponses(orders),
+            orderArchiveService.findArchivedOrdersByUserId(userId, null, null, null));
     }
     
     /**
-     * Get all orders
+     * Get all orders, including archived ones
      * @return list of all order responses
      */
     public List<OrderResponse> getAllOrders() {
         List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        return withArchivedOrders(convertToOrderResponses(orders),
+            orderArchiveService.findArchivedOrders(null, null, null));
     }
     
     /**
-     * Get orders by status
+     * Get orders by status, including archived ones
      * @param status the order status
      * @return list of order responses
      */
     public List<OrderResponse> getOrdersByStatus(Order.OrderStatus status) {
         List<Order> orders = orderRepository.findByStatusOrderByOrderDateDesc(status);
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        if (!ARCHIVED_STATUSES.contains(status)) {
+            return convertToOrderResponses(orders);
+        }
+        return withArchivedOrders(convertToOrderResponses(orders),
+            orderArchiveService.findArchivedOrdersByStatus(status, null, null, null));
     }
     
     /**
-     * Get orders by business ID
+     * Get orders by business ID, including archived ones
      * @param businessId the business ID
      * @return list of order responses
      */
     public List<OrderResponse> getOrdersByBusinessId(String businessId) {
         List<Order> orders = orderRepository.findByBusinessId(businessId);
-        return orders.stream()
-                .map(this::convertToOrderResponse)
-                .collect(Collectors.toList());
+        return withArchivedOrders(convertToOrderResponses(orders),
+            orderArchiveService.findArchivedOrdersByBusinessId(businessId, null, null, null));
+    }
+    
+    /**
+     * Add archived orders to a list of active ones, newest first
+     */
+    private List<OrderResponse> withArchivedOrders(List<OrderResponse> responses, List<Order> archived) {
+        if (archived.isEmpty()) {
+            return responses;
+        }
+        for (Order order : archived) {
+            responses.add(convertToOrderResponse(order));
+        }
+        responses.sort(Comparator.comparing(OrderResponse::getOrderDate, Comparator.reverseOrder())
+            .thenComparing(OrderResponse::getOrderId, Comparator.reverseOrder()));
+        return responses;
+    }
+    
+    /**
+     * Get one page of all orders, newest first
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit page size (defaults to 50, capped at 200)
+     * @return the page
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getAllOrdersPage(String cursor, Integer limit) {
+        return getOrderPage(cursor, limit,
+            orderRepository::findFirstPage,
+            (after, pageable) -> orderRepository.findPageAfter(after.orderDate, after.orderId, pageable),
+            (after, count) -> orderArchiveService.findArchivedOrders(after.orderDate, after.orderId, count));
+    }
+    
+    /**
+     * Get one page of a user's orders, newest first
+     * @param userId the user ID
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit page size (defaults to 50, capped at 200)
+     * @return the page
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByUserIdPage(String userId, String cursor, Integer limit) {
+        return getOrderPage(cursor, limit,
+            pageable -> orderRepository.findFirstPageByUserId(userId, pageable),
+            (after, pageable) -> orderRepository.findPageByUserIdAfter(userId, after.orderDate, after.orderId, pageable),
+            (after, count) -> orderArchiveService.findArchivedOrdersByUserId(userId, after.orderDate, after.orderId, count));
+    }
+    
+    /**
+     * Get one page of orders with a status, newest first
+     * @param status the order status
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit page size (defaults to 50, capped at 200)
+     * @return the page
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByStatusPage(Order.OrderStatus status, String cursor, Integer limit) {
+        return getOrderPage(cursor, limit,
+            pageable -> orderRepository.findFirstPageByStatus(status, pageable),
+            (after, pageable) -> orderRepository.findPageByStatusAfter(status, after.orderDate, after.orderId, pageable),
+            (after, count) -> ARCHIVED_STATUSES.contains(status)
+                ? orderArchiveService.findArchivedOrdersByStatus(status, after.orderDate, after.orderId, count)
+                : List.of());
+    }
+    
+    /**
+     * Get one page of orders containing items from a business, newest first
+     * @param businessId the business ID
+     * @param cursor the nextCursor of the previous page, or null for the first page
+     * @param limit page size (defaults to 50, capped at 200)
+     * @return the page
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByBusinessIdPage(String businessId, String cursor, Integer limit) {
+        return getOrderPage(cursor, limit,
+            pageable -> orderRepository.findFirstPageByBusinessId(businessId, pageable),
+            (after, pageable) -> orderRepository.findPageByBusinessIdAfter(businessId, after.orderDate, after.orderId, pageable),
+            (after, count) -> orderArchiveService.findArchivedOrdersByBusinessId(businessId, after.orderDate, after.orderId, count));
     }
     
     /**
@@ -231,19 +381,8 @@ public class OrderService {
      * @return true if client has a DELIVERED order containing the item, false otherwise
      */
     public boolean hasClientPurchasedItem(String userId, String itemId, String itemType) {
-        List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId);
-        
-        // Only check DELIVERED orders - clients can only rate after delivery
-        return orders.stream()
-                .filter(order -> order.getStatus() == Order.OrderStatus.DELIVERED)
-                .anyMatch(order -> {
-                    if (order.getOrderItems() == null) {
-                        return false;
-                    }
-                    return order.getOrderItems().stream()
-                            .anyMatch(item -> item.getItemId().equals(itemId) && 
-                                           item.getItemType().equalsIgnoreCase(itemType));
-                });
+        // Only DELIVERED orders count - clients can only rate after delivery
+        return clientPurchaseService.hasPurchased(userId, itemId, itemType);
     }
     
     /**
@@ -253,21 +392,34 @@ public class OrderService {
      * @return the updated order response
      */
     public Optional<OrderResponse> updateOrderStatus(Long orderId, Order.OrderStatus status) {
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        return updateOrderStatus(orderId, status, null);
+    }
+    
+    /**
+     * Update order status, recording who made the change in the transition log
+     * @param orderId the order ID
+     * @param status the new status
+     * @param actor who made the change (e.g. the vendor's phone number), or null if unknown
+     * @return the updated order response
+     */
+    public Optional<OrderResponse> updateOrderStatus(Long orderId, Order.OrderStatus status, String actor) {
+        Optional<Order> orderOpt = orderRepository.findByIdForUpdate(orderId);
         if (orderOpt.isPresent()) {
             Order order = orderOpt.get();
             Order.OrderStatus oldStatus = order.getStatus();
             order.setStatus(status);
+            if (status != Order.OrderStatus.PENDING) {
+                order.setReservationExpiresAt(null);
+            }
             Order updatedOrder = orderRepository.save(order);
             
-            // Create notification for status change
             if (oldStatus != status) {
-                Notification.NotificationType notificationType = getNotificationTypeForStatus(status);
-                notificationService.createOrderUpdateNotification(updatedOrder, notificationType);
-                
-                // Create client notification for status change
-                ClientNotification.NotificationType clientNotificationType = getClientNotificationTypeForStatus(status);
-                clientNotificationService.createOrderUpdateNotification(updatedOrder, clientNotificationType);
+                // Notifications, stock alerts and mail for the change are sent by the order event workers after commit
+                orderEventPublisher.statusChanged(updatedOrder, oldStatus);
+                salesRollupService.apply(updatedOrder, oldStatus, status);
+                clientPurchaseService.apply(updatedOrder, oldStatus, status);
+                bookedQuantityService.apply(updatedOrder, oldStatus, status);
+                orderTransitionService.record(updatedOrder, oldStatus, status, actor, LocalDateTime.now());
                 
                 // If order is confirmed, no need to re-validate - validation was already done at client side
                 // Stock/availability was already decremented when order was created, so no need to decrement again
@@ -275,27 +427,12 @@ public class OrderService {
                     System.out.println("Order " + updatedOrder.getOrderId() + " confirmed - stock/availability was already validated and decremented on creation");
                 }
                 
-                // If order is cancelled, restore stock (stock was decremented on order creation, so restore it)
+                // If order is cancelled, restore stock (stock was decremented on order creation, so restore it).
+                // A failure rolls the cancellation back rather than committing it without the stock.
                 if (status == Order.OrderStatus.CANCELLED) {
-                    try {
-                        System.out.println("Restoring stock for cancelled order " + updatedOrder.getOrderId());
-                        restoreStockForOrderItems(updatedOrder.getOrderItems());
-                        System.out.println("Stock restored successfully for cancelled order " + updatedOrder.getOrderId());
-                    } catch (Exception e) {
-                        System.err.println("Failed to restore stock for cancelled order " + updatedOrder.getOrderId() + ": " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-                
-                // If order is delivered, create rating requests for each item
-                if (status == Order.OrderStatus.DELIVERED) {
-                    try {
-                        createRatingRequestsForDeliveredOrder(updatedOrder);
-                    } catch (Exception e) {
-                        System.err.println("Failed to create rating requests for order " + updatedOrder.getOrderId() + ": " + e.getMessage());
-                    }
+                    logger.info("Restoring stock for cancelled order {}", updatedOrder.getOrderId());
+                    stockReservationService.release(updatedOrder.getOrderItems());
                 }
-                
             }
             
             return Optional.of(convertToOrderResponse(updatedOrder));
@@ -304,54 +441,125 @@ public class OrderService {
     }
     
     /**
-     * Create rating requests for all items in a delivered order
-     * @param order the delivered order
+     * Move several orders to the same status in one transaction.
+     * Orders and items are loaded with one query per chunk, the status updates, outbox and transition log inserts are
+     * flushed as JDBC batches, rollup, purchase index and booked quantity changes are merged into one upsert per row,
+     * and stock of cancelled orders is restored with one update per item.
+     * Vendor and client notifications are inserted by the order event workers after commit.
+     * @param orderIds the order IDs (at most MAX_BULK_STATUS_ORDERS; duplicates are ignored)
+     * @param status the new status
+     * @return one result per order; unknown orders fail, orders already in the status succeed unchanged
      */
-    private void createRatingRequestsForDeliveredOrder(Order order) {
-        // This method will be called when an order is delivered
-        // The actual rating creation will be handled by the frontend when the client submits ratings
-        // We just need to ensure the order is marked as delivered and can be rated
-        System.out.println("Order " + order.getOrderId() + " has been delivered. Client can now rate the items.");
+    public BulkStatusUpdateResponse bulkUpdateOrderStatus(List<Long> orderIds, Order.OrderStatus status) {
+        return bulkUpdateOrderStatus(orderIds, status, null);
     }
     
     /**
-     * Get notification type based on order status
-     * @param status the order status
-     * @return notification type
+     * Move several orders to the same status in one transaction, recording who made the change in the transition log
+     * @param orderIds the order IDs (at most MAX_BULK_STATUS_ORDERS; duplicates are ignored)
+     * @param status the new status
+     * @param actor who made the change, or null if unknown
+     * @return one result per order; unknown orders fail, orders already in the status succeed unchanged
      */
-    private Notification.NotificationType getNotificationTypeForStatus(Order.OrderStatus status) {
-        switch (status) {
-            case CANCELLED:
-                return Notification.NotificationType.ORDER_CANCELLED;
-            case DELIVERED:
-                return Notification.NotificationType.ORDER_DELIVERED;
-            default:
-                return Notification.NotificationType.ORDER_UPDATED;
+    public BulkStatusUpdateResponse bulkUpdateOrderStatus(List<Long> orderIds, Order.OrderStatus status, String actor) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        List<Long> distinctIds = orderIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        
+        Map<Long, Order> ordersById = new HashMap<>();
+        List<Long> sortedIds = new ArrayList<>(distinctIds);
+        Collections.sort(sortedIds);
+        for (int from = 0; from < sortedIds.size(); from += ITEM_FETCH_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + ITEM_FETCH_CHUNK_SIZE, sortedIds.size()));
+            // Lock first, like the single-order path, so the status read here cannot race the expiry job
+            if (orderRepository.findByOrderIdsForUpdate(chunk).isEmpty()) {
+                continue;
+            }
+            for (Order order : orderRepository.findWithItemsByOrderIds(chunk)) {
+                ordersById.put(order.getOrderId(), order);
+            }
         }
+        
+        SalesRollupService.Batch rollups = new SalesRollupService.Batch();
+        ClientPurchaseService.Batch purchases = new ClientPurchaseService.Batch();
+        BookedQuantityService.Batch booked = new BookedQuantityService.Batch();
+        List<OrderItem> released = new ArrayList<>();
+        List<BulkStatusUpdateResponse.OrderResult> results = new ArrayList<>();
+        for (Long orderId : distinctIds) {
+            Order order = ordersById.get(orderId);
+            if (order == null) {
+                results.add(BulkStatusUpdateResponse.OrderResult.failure(orderId, "Order not found"));
+                continue;
+            }
+            Order.OrderStatus oldStatus = order.getStatus();
+            if (oldStatus != status) {
+                // Dirty checking turns these into batched UPDATEs on flush
+                order.setStatus(status);
+                if (status != Order.OrderStatus.PENDING) {
+                    order.setReservationExpiresAt(null);
+                }
+                orderEventPublisher.statusChanged(order, oldStatus);
+                rollups.add(order, oldStatus, status);
+                purchases.add(order, oldStatus, status);
+                booked.add(order, oldStatus, status);
+                orderTransitionService.record(order, oldStatus, status, actor, changedAt);
+                if (status == Order.OrderStatus.CANCELLED && order.getOrderItems() != null) {
+                    released.addAll(order.getOrderItems());
+                }
+            }
+            results.add(BulkStatusUpdateResponse.OrderResult.success(orderId, oldStatus.name()));
+        }
+        
+        salesRollupService.apply(rollups);
+        clientPurchaseService.apply(purchases);
+        bookedQuantityService.apply(booked);
+        if (!released.isEmpty()) {
+            logger.info("Restoring stock for {} lines of cancelled orders", released.size());
+            stockReservationService.release(released);
+        }
+        
+        return new BulkStatusUpdateResponse(status.name(), results);
     }
     
     /**
-     * Get client notification type based on order status
-     * @param status the order status
-     * @return the client notification type
+     * Cancel PENDING orders whose reservation has lapsed and give their stock back.
+     * Orders are claimed with one conditional UPDATE, so an order confirmed concurrently is never cancelled;
+     * the rest goes through the same steps as a vendor cancellation (outbox event, rollups, stock release).
+     * @param now the current time
+     * @param limit maximum number of orders to expire
+     * @return the expired orders and the number of units given back
      */
-    private ClientNotification.NotificationType getClientNotificationTypeForStatus(Order.OrderStatus status) {
-        switch (status) {
-            case CONFIRMED:
-                return ClientNotification.NotificationType.ORDER_CONFIRMED;
-            case PREPARING:
-                return ClientNotification.NotificationType.ORDER_PREPARING;
-            case READY:
-                return ClientNotification.NotificationType.ORDER_READY;
-            case SHIPPED:
-                return ClientNotification.NotificationType.ORDER_SHIPPED;
-            case DELIVERED:
-                return ClientNotification.NotificationType.ORDER_DELIVERED;
-            case CANCELLED:
-                return ClientNotification.NotificationType.ORDER_CANCELLED;
-            default:
-                return ClientNotification.NotificationType.ORDER_CONFIRMED;
+    public ReservationExpiry expireReservations(LocalDateTime now, int limit) {
+        List<Long> dueIds = orderRepository.findExpiredReservationIds(now, PageRequest.of(0, limit));
+        if (dueIds.isEmpty() || orderRepository.cancelExpiredReservations(dueIds, now) == 0) {
+            return new ReservationExpiry(List.of(), 0);
         }
+        
+        SalesRollupService.Batch rollups = new SalesRollupService.Batch();
+        List<OrderItem> released = new ArrayList<>();
+        List<Long> expiredIds = new ArrayList<>();
+        for (Order order : orderRepository.findWithItemsByOrderIds(dueIds)) {
+            // Claimed by the UPDATE above: cancelled but still carrying its expiry
+            if (order.getStatus() != Order.OrderStatus.CANCELLED || order.getReservationExpiresAt() == null) {
+                continue;
+            }
+            order.setReservationExpiresAt(null);
+            orderEventPublisher.statusChanged(order, Order.OrderStatus.PENDING);
+            rollups.add(order, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+            orderTransitionService.record(order, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED,
+                    OrderTransitionService.SYSTEM_ACTOR_PREFIX + "reservation-expiry", now);
+            if (order.getOrderItems() != null) {
+                released.addAll(order.getOrderItems());
+            }
+            expiredIds.add(order.getOrderId());
+        }
+        
+        salesRollupService.apply(rollups);
+        stockReservationService.release(released);
+        long units = released.stream().mapToLong(item -> item.getQuantity() != null ? item.getQuantity() : 0).sum();
+        return new ReservationExpiry(expiredIds, units);
     }
     
     /**
@@ -360,27 +568,105 @@ public class OrderService {
      * @return true if deleted, false if not found
      */
     public boolean deleteOrder(Long orderId) {
-        if (orderRepository.existsById(orderId)) {
-            orderRepository.deleteById(orderId);
+        Optional<Order> orderOpt = orderRepository.findById(orderId);
+        if (orderOpt.isPresent()) {
+            orderEventPublisher.orderDeleted(orderOpt.get());
+            salesRollupService.apply(orderOpt.get(), orderOpt.get().getStatus(), null);
+            clientPurchaseService.apply(orderOpt.get(), orderOpt.get().getStatus(), null);
+            bookedQuantityService.apply(orderOpt.get(), orderOpt.get().getStatus(), null);
+            orderRepository.delete(orderOpt.get());
             return true;
         }
         return false;
     }
     
     /**
-     * Get order statistics
+     * Get order statistics (served from the in-memory counters, see OrderStatisticsService)
      * @return order statistics
      */
     public OrderStatistics getOrderStatistics() {
-        long totalOrders = orderRepository.count();
-        long pendingOrders = orderRepository.countByStatus(Order.OrderStatus.PENDING);
-        long confirmedOrders = orderRepository.countByStatus(Order.OrderStatus.CONFIRMED);
-        long shippedOrders = orderRepository.countByStatus(Order.OrderStatus.SHIPPED);
-        long deliveredOrders = orderRepository.countByStatus(Order.OrderStatus.DELIVERED);
-        long cancelledOrders = orderRepository.countByStatus(Order.OrderStatus.CANCELLED);
+        return orderStatisticsService.getOrderStatistics();
+    }
+    
+    /**
+     * Fetch one keyset page: one query for the orders (one extra row tells us whether another page exists)
+     * and one query for all of their items. Once the page reaches orders old enough to be archived,
+     * the archive is read from the same position and merged in, so listings continue into archived orders.
+     */
+    private OrderPage getOrderPage(String cursor, Integer limit,
+                                   Function<Pageable, List<Order>> firstPage,
+                                   BiFunction<OrderCursor, Pageable, List<Order>> pageAfter,
+                                   BiFunction<OrderCursor, Integer, List<Order>> archivedPageAfter) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+        
+        OrderCursor after = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+        List<Order> orders = after == null
+                ? firstPage.apply(pageable)
+                : pageAfter.apply(after, pageable);
         
-        return new OrderStatistics(totalOrders, pendingOrders, confirmedOrders, 
-                                 shippedOrders, deliveredOrders, cancelledOrders);
+        // Archived orders are all older than the cutoff, so a full page of newer orders cannot contain any
+        List<Order> archived = List.of();
+        if (orders.size() <= pageSize || orderArchiveService.mayHoldOrdersFrom(orders.get(pageSize).getOrderDate())) {
+            archived = archivedPageAfter.apply(after != null ? after : OrderCursor.START, pageSize + 1);
+        }
+        Set<Long> archivedIds = new HashSet<>();
+        if (!archived.isEmpty()) {
+            archived.forEach(order -> archivedIds.add(order.getOrderId()));
+            List<Order> merged = new ArrayList<>(orders);
+            merged.addAll(archived);
+            merged.sort(NEWEST_FIRST);
+            orders = merged.subList(0, Math.min(merged.size(), pageSize + 1));
+        }
+        
+        String nextCursor = null;
+        if (orders.size() > pageSize) {
+            orders = orders.subList(0, pageSize);
+            Order last = orders.get(pageSize - 1);
+            nextCursor = new OrderCursor(last.getOrderDate(), last.getOrderId()).encode();
+        }
+        if (archivedIds.isEmpty()) {
+            return new OrderPage(convertToOrderResponses(orders), nextCursor);
+        }
+        
+        // Archived orders come with their items; load the active ones' items in one query
+        Map<Long, OrderResponse> activeResponses = new HashMap<>();
+        for (OrderResponse response : convertToOrderResponses(orders.stream()
+                .filter(order -> !archivedIds.contains(order.getOrderId()))
+                .collect(Collectors.toList()))) {
+            activeResponses.put(response.getOrderId(), response);
+        }
+        List<OrderResponse> responses = new ArrayList<>();
+        for (Order order : orders) {
+            responses.add(archivedIds.contains(order.getOrderId())
+                    ? convertToOrderResponse(order)
+                    : activeResponses.get(order.getOrderId()));
+        }
+        return new OrderPage(responses, nextCursor);
+    }
+    
+    /**
+     * Convert a list of orders to responses, loading the items of all of them with one query per
+     * 1000 orders instead of initializing each order's lazy item collection (N+1 selects)
+     * @param orders the orders
+     * @return the order responses, in the same order
+     */
+    private List<OrderResponse> convertToOrderResponses(List<Order> orders) {
+        Map<Long, OrderResponse> responses = new LinkedHashMap<>();
+        for (Order order : orders) {
+            OrderResponse response = new OrderResponse(order);
+            response.setOrderItems(new ArrayList<>());
+            responses.put(order.getOrderId(), response);
+        }
+        List<Long> orderIds = new ArrayList<>(responses.keySet());
+        // Chunk the IN list so very large legacy lists stay under the driver's bind parameter limit
+        for (int from = 0; from < orderIds.size(); from += ITEM_FETCH_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + ITEM_FETCH_CHUNK_SIZE, orderIds.size()));
+            for (OrderItem item : orderItemRepository.findByOrderIds(chunk)) {
+                responses.get(item.getOrder().getOrderId()).getOrderItems().add(new OrderItemResponse(item));
+            }
+        }
+        return new ArrayList<>(responses.values());
     }
     
     /**
@@ -401,48 +687,6 @@ public class OrderService {
         return response;
     }
     
-    /**
-     * Validate date availability for order items before creating order
-     * @param items the order items to validate
-     * @throws IllegalArgumentException if item is not available on the requested date
-     */
-    private void validateDateAvailability(List<com.example.RecordService.model.dto.OrderItemRequest> items) {
-        for (com.example.RecordService.model.dto.OrderItemRequest item : items) {
-            if (item.getBookingDate() != null) {
-                try {
-                    System.out.println("Validating date availability for item: " + item.getItemName() + 
-                        ", Date: " + item.getBookingDate() + 
-                        ", Quantity: " + item.getQuantity());
-                    
-                    // Check if item is available on the requested date
-                    Integer availableQuantity = availabilityService.getAvailableQuantity(
-                        item.getItemId(), 
-                        item.getItemType().toLowerCase(), 
-                        item.getBookingDate()
-                    );
-                    
-                    System.out.println("Available quantity for " + item.getItemName() + " on " + 
-                        item.getBookingDate() + ": " + availableQuantity);
-                    
-                    if (availableQuantity == null || availableQuantity < item.getQuantity()) {
-                        throw new IllegalArgumentException(
-                            "Item '" + item.getItemName() + "' is not available on " + item.getBookingDate() + ". " +
-                            "Available quantity: " + (availableQuantity != null ? availableQuantity : 0) + 
-                            ", Requested: " + item.getQuantity()
-                        );
-                    }
-                } catch (IllegalArgumentException e) {
-                    // Re-throw validation errors
-                    throw e;
-                } catch (Exception e) {
-                    System.err.println("Error validating date availability for item " + item.getItemName() + ": " + e.getMessage());
-                    e.printStackTrace();
-                    throw new RuntimeException("Failed to validate date availability: " + e.getMessage(), e);
-                }
-            }
-        }
-    }
-    
     /**
      * Validate date availability for existing order items (used when confirming order)
      * @param orderItems the order items to validate
@@ -503,34 +747,64 @@ public class OrderService {
     }
     
     /**
-     * Validate stock availability for order items before creating order
-     * Note: If an item has a bookingDate, skip general stock validation as date availability is checked separately
+     * Validate stock and date availability of a cart before creating the order.
+     * Lines for the same item (and booking date) are added up and checked together. Plates and date
+     * availability are each read with one query for the whole cart; themes and inventory are in memory.
+     * Note: If an item has a bookingDate, only its date availability is checked, not general stock
      * @param items the order items to validate
-     * @throws IllegalArgumentException if stock is insufficient
+     * @throws IllegalArgumentException if an item is not found or its stock is insufficient
      */
-    private void validateStockAvailability(List<com.example.RecordService.model.dto.OrderItemRequest> items) {
+    private void validateCart(List<com.example.RecordService.model.dto.OrderItemRequest> items) {
+        Map<String, com.example.RecordService.model.dto.OrderItemRequest> firstLine = new LinkedHashMap<>();
+        Map<String, Integer> quantities = new HashMap<>();
+        Set<String> plateIds = new HashSet<>();
+        Set<BookedQuantity.BookedKey> dateKeys = new HashSet<>();
         for (com.example.RecordService.model.dto.OrderItemRequest item : items) {
-            // Skip general stock validation if item has a booking date
-            // Date availability will be validated separately in validateDateAvailability()
+            String itemType = item.getItemType().toUpperCase();
+            String key = itemType + "\u0000" + item.getItemId() + "\u0000" + item.getBookingDate();
+            firstLine.putIfAbsent(key, item);
+            quantities.merge(key, item.getQuantity(), Integer::sum);
             if (item.getBookingDate() != null) {
-                System.out.println("Skipping general stock validation for item " + item.getItemName() + 
-                    " - has booking date: " + item.getBookingDate());
-                continue;
+                dateKeys.add(dateKey(item));
+            } else if ("PLATE".equals(itemType)) {
+                plateIds.add(item.getItemId());
             }
-            
-            String itemType = item.getItemType().toUpperCase();
+        }
+        
+        Map<String, Plate> plates = plateService.getPlatesByIds(plateIds);
+        Map<BookedQuantity.BookedKey, Integer> availableOnDate;
+        try {
+            availableOnDate = availabilityService.getAvailableQuantities(dateKeys);
+        } catch (Exception e) {
+            System.err.println("Error validating date availability: " + e.getMessage());
+            e.printStackTrace();
+            throw new RuntimeException("Failed to validate date availability: " + e.getMessage(), e);
+        }
+        logger.debug("Validating {} distinct items ({} plates, {} dated)", firstLine.size(), plateIds.size(),
+            dateKeys.size());
+        
+        for (Map.Entry<String, com.example.RecordService.model.dto.OrderItemRequest> entry : firstLine.entrySet()) {
+            com.example.RecordService.model.dto.OrderItemRequest item = entry.getValue();
             String itemId = item.getItemId();
-            int requestedQuantity = item.getQuantity();
+            int requestedQuantity = quantities.get(entry.getKey());
             
-            System.out.println("Validating general stock for item: " + item.getItemName() + 
-                ", Type: " + itemType + ", Quantity: " + requestedQuantity);
+            if (item.getBookingDate() != null) {
+                int availableQuantity = availableOnDate.getOrDefault(dateKey(item), 0);
+                if (availableQuantity < requestedQuantity) {
+                    throw new IllegalArgumentException(
+                        "Item '" + item.getItemName() + "' is not available on " + item.getBookingDate() + ". " +
+                        "Available quantity: " + availableQuantity + ", Requested: " + requestedQuantity
+                    );
+                }
+                continue;
+            }
             
+            String itemType = item.getItemType().toUpperCase();
             if ("THEME".equals(itemType)) {
                 Theme theme = themeService.getThemeById(itemId);
                 if (theme == null) {
                     throw new IllegalArgumentException("Theme with ID " + itemId + " not found");
                 }
-                System.out.println("Theme general stock: " + theme.getQuantity());
                 if (theme.getQuantity() < requestedQuantity) {
                     throw new IllegalArgumentException(
                         "Insufficient stock for theme '" + item.getItemName() + "'. " +
@@ -543,7 +817,6 @@ public class OrderService {
                     throw new IllegalArgumentException("Inventory with ID " + itemId + " not found");
                 }
                 Inventory inventory = inventoryOpt.get();
-                System.out.println("Inventory general stock: " + inventory.getQuantity());
                 if (inventory.getQuantity() < requestedQuantity) {
                     throw new IllegalArgumentException(
                         "Insufficient stock for inventory '" + item.getItemName() + "'. " +
@@ -551,12 +824,10 @@ public class OrderService {
                     );
                 }
             } else if ("PLATE".equals(itemType)) {
-                Optional<Plate> plateOpt = plateService.getPlateById(itemId);
-                if (plateOpt.isEmpty()) {
+                Plate plate = plates.get(itemId);
+                if (plate == null) {
                     throw new IllegalArgumentException("Plate with ID " + itemId + " not found");
                 }
-                Plate plate = plateOpt.get();
-                System.out.println("Plate general stock: " + plate.getQuantity());
                 if (plate.getQuantity() < requestedQuantity) {
                     throw new IllegalArgumentException(
                         "Insufficient stock for plate '" + item.getItemName() + "'. " +
@@ -567,144 +838,41 @@ public class OrderService {
         }
     }
     
+    private static BookedQuantity.BookedKey dateKey(com.example.RecordService.model.dto.OrderItemRequest item) {
+        return new BookedQuantity.BookedKey(item.getItemId(), item.getItemType().toLowerCase(), item.getBookingDate());
+    }
+    
     // Stock validation during confirmation removed: stock is enforced at client checkout time
     
     /**
-     * Decrement stock for all items in an order
-     * Note: For items with booking dates, only date availability is decremented, not general stock
-     * @param orderItems the order items
+     * Position in an order listing: the (orderDate, orderId) of the last row returned.
+     * Sent to clients as an opaque URL-safe token.
      */
-    private void decrementStockForOrderItems(List<OrderItem> orderItems) {
-        for (OrderItem item : orderItems) {
-            try {
-                String itemType = item.getItemType().toUpperCase();
-                String itemId = item.getItemId();
-                int quantity = item.getQuantity();
-                
-                // Decrement date availability if booking date is set
-                if (item.getBookingDate() != null) {
-                    System.out.println("Decrementing date availability for item " + item.getItemName() + 
-                        " on date " + item.getBookingDate() + " by quantity " + quantity);
-                    availabilityService.decrementAvailability(
-                        itemId, 
-                        item.getItemType().toLowerCase(), 
-                        item.getBookingDate(), 
-                        quantity
-                    );
-                    // Skip general stock decrement for items with booking dates
-                    continue;
-                }
-                
-                // Decrement general stock only for items without booking dates
-                System.out.println("Decrementing general stock for item " + item.getItemName() + " by quantity " + quantity);
-                
-                if ("THEME".equals(itemType)) {
-                    Theme theme = themeService.getThemeById(itemId);
-                    if (theme != null) {
-                        int currentQuantity = theme.getQuantity();
-                        int newQuantity = Math.max(0, currentQuantity - quantity);
-                        System.out.println("Theme " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        theme.setQuantity(newQuantity);
-                        theme.setUpdatedAt(LocalDateTime.now());
-                        themeService.saveTheme(theme);
-                    }
-                } else if ("INVENTORY".equals(itemType)) {
-                    Optional<Inventory> inventoryOpt = inventoryService.getInventoryById(itemId);
-                    if (inventoryOpt.isPresent()) {
-                        Inventory inventory = inventoryOpt.get();
-                        int currentQuantity = inventory.getQuantity();
-                        int newQuantity = Math.max(0, currentQuantity - quantity);
-                        System.out.println("Inventory " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        inventory.setQuantity(newQuantity);
-                        inventory.setUpdatedAt(LocalDateTime.now());
-                        inventoryService.updateInventory(inventory);
-                    }
-                } else if ("PLATE".equals(itemType)) {
-                    Optional<Plate> plateOpt = plateService.getPlateById(itemId);
-                    if (plateOpt.isPresent()) {
-                        Plate plate = plateOpt.get();
-                        int currentQuantity = plate.getQuantity();
-                        int newQuantity = Math.max(0, currentQuantity - quantity);
-                        System.out.println("Plate " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        plate.setQuantity(newQuantity);
-                        plate.setUpdatedAt(LocalDateTime.now());
-                        plateService.updatePlate(itemId, plate);
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error decrementing stock for item " + item.getItemId() + ": " + e.getMessage());
-                e.printStackTrace();
-            }
+    static class OrderCursor {
+        // Before the newest order; the archive queries read a null position as unbounded
+        static final OrderCursor START = new OrderCursor(null, null);
+        
+        private final LocalDateTime orderDate;
+        private final Long orderId;
+        
+        OrderCursor(LocalDateTime orderDate, Long orderId) {
+            this.orderDate = orderDate;
+            this.orderId = orderId;
         }
-    }
-    
-    /**
-     * Restore stock for all items in a cancelled order
-     * Note: For items with booking dates, only date availability is restored, not general stock
-     * @param orderItems the order items
-     */
-    private void restoreStockForOrderItems(List<OrderItem> orderItems) {
-        for (OrderItem item : orderItems) {
+        
+        String encode() {
+            String raw = orderDate + "|" + orderId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static OrderCursor decode(String token) {
             try {
-                String itemType = item.getItemType().toUpperCase();
-                String itemId = item.getItemId();
-                int quantity = item.getQuantity();
-                
-                // Restore date availability if booking date is set
-                if (item.getBookingDate() != null) {
-                    System.out.println("Restoring date availability for item " + item.getItemName() + 
-                        " on date " + item.getBookingDate() + " by quantity " + quantity);
-                    availabilityService.incrementAvailability(
-                        itemId, 
-                        item.getItemType().toLowerCase(), 
-                        item.getBookingDate(), 
-                        quantity
-                    );
-                    // Skip general stock restoration for items with booking dates
-                    continue;
-                }
-                
-                // Restore general stock only for items without booking dates
-                System.out.println("Restoring general stock for item " + item.getItemName() + " by quantity " + quantity);
-                
-                if ("THEME".equals(itemType)) {
-                    Theme theme = themeService.getThemeById(itemId);
-                    if (theme != null) {
-                        int currentQuantity = theme.getQuantity();
-                        int newQuantity = currentQuantity + quantity;
-                        System.out.println("Theme " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        theme.setQuantity(newQuantity);
-                        theme.setUpdatedAt(LocalDateTime.now());
-                        // Use updateTheme to trigger notifications if stock changes from 0 to >0
-                        themeService.updateTheme(theme);
-                    }
-                } else if ("INVENTORY".equals(itemType)) {
-                    Optional<Inventory> inventoryOpt = inventoryService.getInventoryById(itemId);
-                    if (inventoryOpt.isPresent()) {
-                        Inventory inventory = inventoryOpt.get();
-                        int currentQuantity = inventory.getQuantity();
-                        int newQuantity = currentQuantity + quantity;
-                        System.out.println("Inventory " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        inventory.setQuantity(newQuantity);
-                        inventory.setUpdatedAt(LocalDateTime.now());
-                        // updateInventory will automatically notify subscribers if stock changes from 0 to >0
-                        inventoryService.updateInventory(inventory);
-                    }
-                } else if ("PLATE".equals(itemType)) {
-                    Optional<Plate> plateOpt = plateService.getPlateById(itemId);
-                    if (plateOpt.isPresent()) {
-                        Plate plate = plateOpt.get();
-                        int currentQuantity = plate.getQuantity();
-                        int newQuantity = currentQuantity + quantity;
-                        System.out.println("Plate " + item.getItemName() + " stock: " + currentQuantity + " -> " + newQuantity);
-                        plate.setQuantity(newQuantity);
-                        plate.setUpdatedAt(LocalDateTime.now());
-                        // updatePlate will automatically notify subscribers if stock changes from 0 to >0
-                        plateService.updatePlate(itemId, plate);
-                    }
-                }
-            } catch (Exception e) {
-                System.err.println("Error restoring stock for item " + item.getItemId() + ": " + e.getMessage());
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int separator = raw.lastIndexOf('|');
+                return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                                       Long.parseLong(raw.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
             }
         }
     }
@@ -738,4 +906,20 @@ public class OrderService {
         public long getDeliveredOrders() { return deliveredOrders; }
         public long getCancelledOrders() { return cancelledOrders; }
     }
+    
+    /**
+     * Orders cancelled by a reservation expiry run
+     */
+    public static class ReservationExpiry {
+        private final List<Long> orderIds;
+        private final long releasedUnits;
+        
+        public ReservationExpiry(List<Long> orderIds, long releasedUnits) {
+            this.orderIds = orderIds;
+            this.releasedUnits = releasedUnits;
+        }
+        
+        public List<Long> getOrderIds() { return orderIds; }
+        public long getReleasedUnits() { return releasedUnits; }
+    }
 }
@@ -0,0 +1,242 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.model.dto.OrderStatusCounts;
+import com.example.RecordService.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory order counters by status, overall, per business and per order day.
+ * Counters move when an order transaction commits (create, status change, delete), so reads never
+ * touch the database. A scheduled reconcile recounts from the database and replaces the counters,
+ * which corrects any drift (missed events, changes made outside the service, other nodes).
+ * Archived orders are counted too, so archival does not change the figures.
+ */
+@Service
+public class OrderStatisticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStatisticsService.class);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    // Null until the first load; replaced wholesale on every reconcile
+    private volatile Counters counters;
+
+    /**
+     * Load the counters once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            // Counters will be loaded on first use or by the next scheduled reconcile
+            logger.warn("Could not load order statistics at startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recount all orders from the database and replace the in-memory counters
+     */
+    @Scheduled(fixedDelayString = "${order.stats.reconcile-interval-ms:300000}",
+               initialDelayString = "${order.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Counters fresh = new Counters();
+        // Active and archived orders alike
+        List<Object[]> byStatus = new ArrayList<>(orderRepository.countGroupByStatus());
+        byStatus.addAll(orderArchiveService.countGroupByStatus());
+        List<Object[]> byDay = new ArrayList<>(orderRepository.countGroupByDayAndStatus());
+        byDay.addAll(orderArchiveService.countGroupByDayAndStatus());
+        List<Object[]> byBusiness = new ArrayList<>(orderRepository.countGroupByBusinessAndStatus());
+        byBusiness.addAll(orderArchiveService.countGroupByBusinessAndStatus());
+
+        for (Object[] row : byStatus) {
+            fresh.overall.add((Order.OrderStatus) row[0], (Long) row[1]);
+        }
+        for (Object[] row : byDay) {
+            fresh.byDay.computeIfAbsent((LocalDate) row[0], day -> new StatusCounters())
+                    .add((Order.OrderStatus) row[1], (Long) row[2]);
+        }
+        for (Object[] row : byBusiness) {
+            fresh.byBusiness.computeIfAbsent((String) row[0], businessId -> new StatusCounters())
+                    .add((Order.OrderStatus) row[1], (Long) row[2]);
+        }
+
+        Counters previous = counters;
+        if (previous != null && previous.overall.total() != fresh.overall.total()) {
+            logger.info("Order statistics drift corrected: {} -> {} orders", previous.overall.total(), fresh.overall.total());
+        }
+        counters = fresh;
+    }
+
+    /**
+     * Apply a committed order change to the counters
+     * @param event the lifecycle event
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderEvent(OrderLifecycleEvent event) {
+        Counters current = counters;
+        if (current == null) {
+            // Not loaded yet; the initial load will count this order
+            return;
+        }
+        Order.OrderStatus removed;
+        Order.OrderStatus added;
+        if (event.getEventType() == OrderEvent.EventType.ORDER_CREATED) {
+            removed = null;
+            added = event.getNewStatus();
+        } else if (event.getEventType() == OrderEvent.EventType.ORDER_DELETED) {
+            removed = event.getPreviousStatus();
+            added = null;
+        } else {
+            removed = event.getPreviousStatus();
+            added = event.getNewStatus();
+        }
+
+        current.overall.move(removed, added);
+        if (event.getOrderDate() != null) {
+            current.byDay.computeIfAbsent(event.getOrderDate().toLocalDate(), day -> new StatusCounters())
+                    .move(removed, added);
+        }
+        if (event.getBusinessIds() != null) {
+            for (String businessId : event.getBusinessIds()) {
+                current.byBusiness.computeIfAbsent(businessId, id -> new StatusCounters()).move(removed, added);
+            }
+        }
+    }
+
+    /**
+     * Get counts for all orders
+     * @return order statistics
+     */
+    public OrderService.OrderStatistics getOrderStatistics() {
+        StatusCounters overall = counters().overall;
+        return new OrderService.OrderStatistics(
+            overall.total(),
+            overall.get(Order.OrderStatus.PENDING),
+            overall.get(Order.OrderStatus.CONFIRMED),
+            overall.get(Order.OrderStatus.SHIPPED),
+            overall.get(Order.OrderStatus.DELIVERED),
+            overall.get(Order.OrderStatus.CANCELLED));
+    }
+
+    /**
+     * Get counts by status for orders containing items from a business
+     * @param businessId the business ID
+     * @return status counts (all zero for a business without orders)
+     */
+    public OrderStatusCounts getBusinessStatistics(String businessId) {
+        StatusCounters business = counters().byBusiness.get(businessId);
+        return business != null ? business.toCounts() : new StatusCounters().toCounts();
+    }
+
+    /**
+     * Get counts by status for each order day in a range
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return status counts per day, in date order; days without orders are left out
+     */
+    public Map<LocalDate, OrderStatusCounts> getDailyStatistics(LocalDate from, LocalDate to) {
+        Map<LocalDate, StatusCounters> byDay = counters().byDay;
+        Map<LocalDate, OrderStatusCounts> result = new LinkedHashMap<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            StatusCounters counts = byDay.get(day);
+            if (counts != null && counts.total() > 0) {
+                result.put(day, counts.toCounts());
+            }
+        }
+        return result;
+    }
+
+    private Counters counters() {
+        Counters current = counters;
+        if (current == null) {
+            synchronized (this) {
+                if (counters == null) {
+                    reconcile();
+                }
+                current = counters;
+            }
+        }
+        return current;
+    }
+
+    private static class Counters {
+        final StatusCounters overall = new StatusCounters();
+        final Map<LocalDate, StatusCounters> byDay = new ConcurrentHashMap<>();
+        final Map<String, StatusCounters> byBusiness = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * One LongAdder per status; the total is their sum
+     */
+    private static class StatusCounters {
+        private final Map<Order.OrderStatus, LongAdder> counts = new EnumMap<>(Order.OrderStatus.class);
+
+        StatusCounters() {
+            for (Order.OrderStatus status : Order.OrderStatus.values()) {
+                counts.put(status, new LongAdder());
+            }
+        }
+
+        void add(Order.OrderStatus status, long delta) {
+            counts.get(status).add(delta);
+        }
+
+        void move(Order.OrderStatus from, Order.OrderStatus to) {
+            if (from != null) {
+                counts.get(from).decrement();
+            }
+            if (to != null) {
+                counts.get(to).increment();
+            }
+        }
+
+        long get(Order.OrderStatus status) {
+            return counts.get(status).sum();
+        }
+
+        long total() {
+            long total = 0;
+            for (LongAdder adder : counts.values()) {
+                total += adder.sum();
+            }
+            return total;
+        }
+
+        OrderStatusCounts toCounts() {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            long total = 0;
+            for (Map.Entry<Order.OrderStatus, LongAdder> entry : counts.entrySet()) {
+                long value = entry.getValue().sum();
+                byStatus.put(entry.getKey().name(), value);
+                total += value;
+            }
+            return new OrderStatusCounts(total, byStatus);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.entity.OrderStatusTransition;
+import com.example.RecordService.model.dto.StatusLatencyResponse;
+import com.example.RecordService.repository.OrderStatusTransitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Status transition log of orders, and latency analytics over it.
+ * Rows are persisted in the order's own transaction; with sequence IDs Hibernate sends them as one
+ * JDBC insert batch together with the order updates on flush.
+ */
+@Service
+@Transactional
+public class OrderTransitionService {
+
+    public static final String SYSTEM_ACTOR_PREFIX = "system:";
+
+    @Autowired
+    private OrderStatusTransitionRepository orderStatusTransitionRepository;
+
+    /**
+     * Record an order's move from one status to another, one row per business in the order
+     * @param order the order, with its items
+     * @param fromStatus the status before the change, or null for a new order
+     * @param toStatus the status after the change
+     * @param actor who made the change, or null if unknown
+     * @param changedAt when the change happened
+     */
+    public void record(Order order, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                       String actor, LocalDateTime changedAt) {
+        Set<String> businessIds = new TreeSet<>();
+        if (order.getOrderItems() != null) {
+            for (OrderItem item : order.getOrderItems()) {
+                if (item.getBusinessId() != null) {
+                    businessIds.add(item.getBusinessId());
+                }
+            }
+        }
+        List<OrderStatusTransition> transitions = new ArrayList<>();
+        for (String businessId : businessIds) {
+            transitions.add(new OrderStatusTransition(order.getOrderId(), businessId, fromStatus, toStatus, changedAt, actor));
+        }
+        if (transitions.isEmpty()) {
+            transitions.add(new OrderStatusTransition(order.getOrderId(), null, fromStatus, toStatus, changedAt, actor));
+        }
+        orderStatusTransitionRepository.saveAll(transitions);
+    }
+
+    /**
+     * Get the transitions of an order
+     * @param orderId the order ID
+     * @return transitions in the order they happened (one per business in the order)
+     */
+    @Transactional(readOnly = true)
+    public List<OrderStatusTransition> getTransitions(Long orderId) {
+        return orderStatusTransitionRepository.findByOrderIdOrderByChangedAtAscTransitionIdAsc(orderId);
+    }
+
+    /**
+     * Get p50/p95/p99 latencies of a business's orders between two statuses
+     * @param businessId the business ID
+     * @param fromStatus the status the latency is measured from (e.g. PENDING)
+     * @param toStatus the status the latency is measured to (e.g. CONFIRMED)
+     * @param from first day (inclusive) on which orders reached toStatus
+     * @param to last day (inclusive)
+     * @return the percentiles in seconds; null percentiles when no order qualifies
+     */
+    @Transactional(readOnly = true)
+    public StatusLatencyResponse getLatencyPercentiles(String businessId, Order.OrderStatus fromStatus,
+                                                       Order.OrderStatus toStatus, LocalDate from, LocalDate to) {
+        List<Object[]> rows = orderStatusTransitionRepository.findLatencyPercentiles(businessId, fromStatus.name(),
+            toStatus.name(), from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+        Object[] row = rows.isEmpty() ? new Object[5] : rows.get(0);
+        long count = row[0] != null ? ((Number) row[0]).longValue() : 0;
+        return new StatusLatencyResponse(businessId, fromStatus.name(), toStatus.name(), from, to, count,
+            seconds(row[1]), seconds(row[2]), seconds(row[3]), seconds(row[4]));
+    }
+
+    private static Double seconds(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+}
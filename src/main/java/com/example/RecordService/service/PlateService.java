@@ -5,7 +5,10 @@ import com.example.RecordService.repository.PlateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
         import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -24,6 +27,19 @@ public class PlateService {
         return plateRepository.findById(plateId);
     }
 
+    /**
+     * Load several plates with one query
+     * @param plateIds the plate IDs
+     * @return the plates that exist, by ID
+     */
+    public Map<String, Plate> getPlatesByIds(Collection<String> plateIds) {
+        Map<String, Plate> plates = new HashMap<>();
+        if (!plateIds.isEmpty()) {
+            plateRepository.findAllById(plateIds).forEach(plate -> plates.put(plate.getPlateId(), plate));
+        }
+        return plates;
+    }
+
     public List<Plate> getPlatesByBusinessId(String businessId) {
         System.out.println("🔍 PlateService.getPlatesByBusinessId called with businessId: " + businessId);
         List<Plate> plates = plateRepository.findByBusinessId(businessId);
@@ -0,0 +1,118 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels PENDING orders that were not confirmed within the reservation TTL and gives their stock back.
+ * Each run reads only due orders through the (reservation_expires_at) index, in batches, each batch in its
+ * own transaction. Publishes how much stock PENDING orders hold and how much expiry has reclaimed.
+ */
+@Service
+public class ReservationExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationExpiryService.class);
+
+    // Upper bound on batches per run so one run cannot hold the scheduler thread indefinitely
+    private static final int MAX_BATCHES_PER_RUN = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${order.reservation.expiry-batch-size:200}")
+    private int batchSize;
+
+    private final AtomicLong heldOrders = new AtomicLong();
+    private final AtomicLong heldUnits = new AtomicLong();
+    private Counter expiredOrders;
+    private Counter reclaimedUnits;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("orders.reservations.held.orders", heldOrders, AtomicLong::get)
+            .description("PENDING orders holding stock")
+            .register(meterRegistry);
+        Gauge.builder("orders.reservations.held.units", heldUnits, AtomicLong::get)
+            .description("Units held by PENDING orders")
+            .register(meterRegistry);
+        expiredOrders = Counter.builder("orders.reservations.expired")
+            .description("PENDING orders cancelled because their reservation lapsed")
+            .register(meterRegistry);
+        reclaimedUnits = Counter.builder("orders.reservations.reclaimed.units")
+            .description("Units given back by expired reservations")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Expire due reservations, then refresh the held-stock figures
+     */
+    @Scheduled(fixedDelayString = "${order.reservation.expiry-interval-ms:60000}",
+               initialDelayString = "${order.reservation.expiry-interval-ms:60000}")
+    public void expireDueReservations() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int batch = 0; batch < MAX_BATCHES_PER_RUN; batch++) {
+            OrderService.ReservationExpiry expiry;
+            try {
+                expiry = orderService.expireReservations(now, batchSize);
+            } catch (Exception e) {
+                // Nothing was committed for this batch; the next run retries it
+                logger.error("Reservation expiry failed: {}", e.getMessage());
+                break;
+            }
+            if (!expiry.getOrderIds().isEmpty()) {
+                expiredOrders.increment(expiry.getOrderIds().size());
+                reclaimedUnits.increment(expiry.getReleasedUnits());
+                logger.info("Expired {} pending orders, released {} units", expiry.getOrderIds().size(), expiry.getReleasedUnits());
+            }
+            if (expiry.getOrderIds().size() < batchSize) {
+                break;
+            }
+        }
+        refreshHeld();
+    }
+
+    /**
+     * @return held and reclaimed stock figures
+     */
+    public Map<String, Long> getReservationStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("heldOrders", heldOrders.get());
+        stats.put("heldUnits", heldUnits.get());
+        stats.put("expiredOrders", (long) expiredOrders.count());
+        stats.put("reclaimedUnits", (long) reclaimedUnits.count());
+        return stats;
+    }
+
+    private void refreshHeld() {
+        try {
+            List<Object[]> rows = orderRepository.sumPendingReservations();
+            if (!rows.isEmpty()) {
+                heldOrders.set(((Number) rows.get(0)[0]).longValue());
+                heldUnits.set(((Number) rows.get(0)[1]).longValue());
+            }
+        } catch (Exception e) {
+            logger.warn("Could not refresh held reservation figures: {}", e.getMessage());
+        }
+    }
+}
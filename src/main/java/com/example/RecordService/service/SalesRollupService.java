@@ -0,0 +1,240 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.BusinessDailyRollup;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.dto.DailySalesResponse;
+import com.example.RecordService.model.dto.TopItemResponse;
+import com.example.RecordService.repository.BusinessDailyRollupRepository;
+import com.example.RecordService.repository.BusinessItemDailyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-business sales totals by order day, and per item, kept up to date as orders change status.
+ * An order counts towards orders, items sold and revenue while it is confirmed (CONFIRMED through DELIVERED),
+ * and towards cancelled orders while it is CANCELLED. Every change applies the difference between the old
+ * and the new status as an atomic upsert in the order's own transaction, so the totals commit or roll back
+ * together with the order.
+ */
+@Service
+@Transactional
+public class SalesRollupService {
+
+    private static final Set<Order.OrderStatus> COUNTED_STATUSES = EnumSet.of(
+        Order.OrderStatus.CONFIRMED,
+        Order.OrderStatus.PREPARING,
+        Order.OrderStatus.READY,
+        Order.OrderStatus.SHIPPED,
+        Order.OrderStatus.DELIVERED
+    );
+
+    @Autowired
+    private BusinessDailyRollupRepository businessDailyRollupRepository;
+
+    @Autowired
+    private BusinessItemDailyRollupRepository businessItemDailyRollupRepository;
+
+    @Autowired
+    private OrderIndexBackfill orderIndexBackfill;
+
+    /**
+     * Fill the rollup tables from existing orders the first time the application starts with them empty
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        orderIndexBackfill.backfillIfEmpty("business_daily_rollups", () -> businessDailyRollupRepository.count() == 0, () -> {
+            int days = businessDailyRollupRepository.backfill();
+            int items = businessItemDailyRollupRepository.backfill();
+            return days + " business days, " + items + " item days";
+        });
+    }
+
+    /**
+     * Apply an order's move from one status to another to the rollups
+     * @param order the order, with its items
+     * @param previousStatus the status before the change, or null for a new order
+     * @param newStatus the status after the change, or null for a deleted order
+     */
+    public void apply(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        Batch batch = new Batch();
+        batch.add(order, previousStatus, newStatus);
+        apply(batch);
+    }
+
+    /**
+     * Write the changes collected in a batch, one upsert per business day and per item day
+     * @param batch the collected order changes
+     */
+    public void apply(Batch batch) {
+        for (DayDelta delta : batch.days.values()) {
+            if (delta.orderCount == 0 && delta.itemsSold == 0 && delta.revenue == 0 && delta.cancelledOrders == 0) {
+                continue;
+            }
+            businessDailyRollupRepository.upsert(delta.businessId, delta.day, delta.orderCount,
+                delta.itemsSold, delta.revenue, delta.cancelledOrders);
+        }
+        for (ItemDelta delta : batch.items.values()) {
+            if (delta.quantity == 0 && delta.revenue == 0 && delta.orderCount == 0) {
+                continue;
+            }
+            businessItemDailyRollupRepository.upsert(delta.businessId, delta.day, delta.itemId, delta.itemType,
+                delta.itemName, delta.quantity, delta.revenue, delta.orderCount);
+        }
+    }
+
+    /**
+     * Get the daily sales of a business in a date range
+     * @param businessId the business ID
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @return one entry per day with sales, in date order
+     */
+    @Transactional(readOnly = true)
+    public List<DailySalesResponse> getDailySales(String businessId, LocalDate from, LocalDate to) {
+        List<DailySalesResponse> result = new ArrayList<>();
+        for (BusinessDailyRollup rollup : businessDailyRollupRepository
+                .findByBusinessIdAndRollupDateBetweenOrderByRollupDateAsc(businessId, from, to)) {
+            if (rollup.getOrderCount() == 0 && rollup.getCancelledOrders() == 0) {
+                continue;
+            }
+            result.add(new DailySalesResponse(rollup.getRollupDate(), rollup.getOrderCount(),
+                rollup.getItemsSold(), rollup.getRevenue(), rollup.getCancelledOrders()));
+        }
+        return result;
+    }
+
+    /**
+     * Get the best selling items of a business in a date range
+     * @param businessId the business ID
+     * @param from first day (inclusive)
+     * @param to last day (inclusive)
+     * @param limit number of items
+     * @return items by revenue, highest first
+     */
+    @Transactional(readOnly = true)
+    public List<TopItemResponse> getTopItems(String businessId, LocalDate from, LocalDate to, int limit) {
+        List<TopItemResponse> result = new ArrayList<>();
+        for (Object[] row : businessItemDailyRollupRepository.findTopItems(businessId, from, to, PageRequest.of(0, limit))) {
+            result.add(new TopItemResponse((String) row[0], (String) row[1], (String) row[2],
+                ((Number) row[3]).longValue(), ((Number) row[4]).doubleValue(), ((Number) row[5]).longValue()));
+        }
+        return result;
+    }
+
+    private static int counted(Order.OrderStatus status) {
+        return status != null && COUNTED_STATUSES.contains(status) ? 1 : 0;
+    }
+
+    private static int cancelled(Order.OrderStatus status) {
+        return status == Order.OrderStatus.CANCELLED ? 1 : 0;
+    }
+
+    /**
+     * Rollup changes of several orders, merged per business day and per item day so that a bulk
+     * update writes each row once
+     */
+    public static class Batch {
+        private final DeltaBatch<DayDelta> days = new DeltaBatch<>();
+        private final DeltaBatch<ItemDelta> items = new DeltaBatch<>();
+
+        /**
+         * Add an order's move from one status to another
+         * @param order the order, with its items
+         * @param previousStatus the status before the change, or null for a new order
+         * @param newStatus the status after the change, or null for a deleted order
+         */
+        public void add(Order order, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+            int orderDelta = counted(newStatus) - counted(previousStatus);
+            int cancelledDelta = cancelled(newStatus) - cancelled(previousStatus);
+            if ((orderDelta == 0 && cancelledDelta == 0) || order.getOrderDate() == null
+                    || order.getOrderItems() == null || order.getOrderItems().isEmpty()) {
+                return;
+            }
+            LocalDate day = order.getOrderDate().toLocalDate();
+
+            // An order counts once per business and once per item, however many lines it has
+            Map<String, DayDelta> orderDays = new TreeMap<>();
+            Map<String, ItemDelta> orderItems = new TreeMap<>();
+            for (OrderItem item : order.getOrderItems()) {
+                long quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+                double revenue = (item.getItemPrice() != null ? item.getItemPrice() : 0.0) * quantity;
+                String itemType = item.getItemType() != null ? item.getItemType().toLowerCase() : "";
+
+                DayDelta dayDelta = orderDays.computeIfAbsent(item.getBusinessId() + "\u0000" + day,
+                    key -> new DayDelta(item.getBusinessId(), day));
+                dayDelta.itemsSold += quantity;
+                dayDelta.revenue += revenue;
+                if (orderDelta != 0) {
+                    ItemDelta itemDelta = orderItems.computeIfAbsent(
+                        item.getBusinessId() + "\u0000" + day + "\u0000" + itemType + "\u0000" + item.getItemId(),
+                        key -> new ItemDelta(item.getBusinessId(), day, item.getItemId(), itemType, item.getItemName()));
+                    itemDelta.quantity += quantity;
+                    itemDelta.revenue += revenue;
+                }
+            }
+
+            for (Map.Entry<String, DayDelta> entry : orderDays.entrySet()) {
+                DayDelta delta = entry.getValue();
+                DayDelta total = days.get(entry.getKey(), key -> new DayDelta(delta.businessId, delta.day));
+                total.orderCount += orderDelta;
+                total.itemsSold += orderDelta * delta.itemsSold;
+                total.revenue += orderDelta * delta.revenue;
+                total.cancelledOrders += cancelledDelta;
+            }
+            for (Map.Entry<String, ItemDelta> entry : orderItems.entrySet()) {
+                ItemDelta delta = entry.getValue();
+                ItemDelta total = items.get(entry.getKey(),
+                    key -> new ItemDelta(delta.businessId, delta.day, delta.itemId, delta.itemType, delta.itemName));
+                total.quantity += orderDelta * delta.quantity;
+                total.revenue += orderDelta * delta.revenue;
+                total.orderCount += orderDelta;
+            }
+        }
+    }
+
+    private static class DayDelta {
+        final String businessId;
+        final LocalDate day;
+        long orderCount;
+        long itemsSold;
+        double revenue;
+        long cancelledOrders;
+
+        DayDelta(String businessId, LocalDate day) {
+            this.businessId = businessId;
+            this.day = day;
+        }
+    }
+
+    private static class ItemDelta {
+        final String businessId;
+        final LocalDate day;
+        final String itemId;
+        final String itemType;
+        final String itemName;
+        long quantity;
+        double revenue;
+        long orderCount;
+
+        ItemDelta(String businessId, LocalDate day, String itemId, String itemType, String itemName) {
+            this.businessId = businessId;
+            this.day = day;
+            this.itemId = itemId;
+            this.itemType = itemType;
+            this.itemName = itemName;
+        }
+    }
+}
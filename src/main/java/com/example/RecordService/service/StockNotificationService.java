@@ -3,18 +3,27 @@ package com.example.RecordService.service;
 import com.example.RecordService.entity.StockNotification;
 import com.example.RecordService.entity.ClientNotification;
 import com.example.RecordService.repository.StockNotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedSet;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class StockNotificationService {
     
+    private static final Logger logger = LoggerFactory.getLogger(StockNotificationService.class);
+    
     @Autowired
     private StockNotificationRepository stockNotificationRepository;
     
@@ -188,46 +197,10 @@ public class StockNotificationService {
                     continue;
                 }
                 
-                // Create client notification message with date if available
-                String message;
                 String notificationDate = availabilityDate != null ? availabilityDate : subscription.getRequestedDate();
-                if (notificationDate != null && !notificationDate.isEmpty()) {
-                    message = String.format(
-                        "%s is now available for booking on %s! You can now place an order.",
-                        itemName,
-                        notificationDate
-                    );
-                } else {
-                    message = String.format(
-                        "%s is now back in stock! You can now place an order.",
-                        itemName
-                    );
-                }
-                
                 System.out.println("Creating notification for user " + subscription.getUserId() + 
                     " for item " + itemId + " (" + itemType + ") for date " + notificationDate);
-                
-                ClientNotification notification = new ClientNotification();
-                notification.setClientPhone(subscription.getUserId());
-                notification.setBusinessId(subscription.getBusinessId());
-                notification.setBusinessName(""); // Business name can be fetched if needed
-                notification.setOrderId(null); // No order ID for stock notifications
-                notification.setCustomerName("");
-                notification.setCustomerEmail("");
-                notification.setCustomerPhone(subscription.getUserId());
-                notification.setTotalAmount(0.0);
-                notification.setDeliveryDate(notificationDate != null ? notificationDate : "");
-                notification.setDeliveryAddress("");
-                notification.setNotificationType(ClientNotification.NotificationType.STOCK_AVAILABLE);
-                notification.setMessage(message);
-                
-                clientNotificationService.saveNotification(notification);
-                System.out.println("Successfully saved notification for user " + subscription.getUserId());
-                
-                // Mark as notified
-                subscription.setNotified(true);
-                subscription.setNotifiedAt(LocalDateTime.now());
-                stockNotificationRepository.save(subscription);
+                notifySubscription(subscription, itemName, notificationDate);
                 System.out.println("Marked subscription as notified for user " + subscription.getUserId());
             } catch (Exception e) {
                 System.err.println("Error creating notification for user " + subscription.getUserId() + ": " + e.getMessage());
@@ -238,6 +211,87 @@ public class StockNotificationService {
         System.out.println("Completed notification process for " + itemId + " (" + itemType + ")");
     }
     
+    /**
+     * Notify the subscribers of several items that became available on some dates (bulk availability).
+     * Subscriptions of all items are loaded with one query; each subscription is notified at most once:
+     * a general subscription for the item's earliest new date, a date-specific one if its date is among them.
+     * Runs in its own transaction: a failure rolls back these notifications only, never the caller's writes.
+     * @param items the items with their newly available dates
+     * @return number of notifications created
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int notifySubscribers(List<AvailableItem> items) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        Map<String, AvailableItem> byKey = new HashMap<>();
+        for (AvailableItem item : items) {
+            byKey.put(item.itemType + "\u0000" + item.itemId, item);
+        }
+        List<String> itemIds = items.stream().map(item -> item.itemId).distinct().collect(Collectors.toList());
+        
+        int notified = 0;
+        for (StockNotification subscription : stockNotificationRepository.findByItemIdInAndNotifiedFalse(itemIds)) {
+            AvailableItem item = byKey.get(subscription.getItemType() + "\u0000" + subscription.getItemId());
+            if (item == null || item.dates.isEmpty()) {
+                continue;
+            }
+            String requestedDate = subscription.getRequestedDate();
+            String notificationDate;
+            if (requestedDate == null || requestedDate.isEmpty()) {
+                notificationDate = item.dates.first();
+            } else if (item.dates.contains(requestedDate)) {
+                notificationDate = requestedDate;
+            } else {
+                continue;
+            }
+            notifySubscription(subscription, item.itemName, notificationDate);
+            notified++;
+        }
+        logger.info("Notified {} subscribers of {} items with new availability", notified, items.size());
+        return notified;
+    }
+    
+    /**
+     * Create the client notification for a subscription and mark the subscription notified
+     */
+    private void notifySubscription(StockNotification subscription, String itemName, String notificationDate) {
+        // Create client notification message with date if available
+        String message;
+        if (notificationDate != null && !notificationDate.isEmpty()) {
+            message = String.format(
+                "%s is now available for booking on %s! You can now place an order.",
+                itemName,
+                notificationDate
+            );
+        } else {
+            message = String.format(
+                "%s is now back in stock! You can now place an order.",
+                itemName
+            );
+        }
+        
+        ClientNotification notification = new ClientNotification();
+        notification.setClientPhone(subscription.getUserId());
+        notification.setBusinessId(subscription.getBusinessId());
+        notification.setBusinessName(""); // Business name can be fetched if needed
+        notification.setOrderId(null); // No order ID for stock notifications
+        notification.setCustomerName("");
+        notification.setCustomerEmail("");
+        notification.setCustomerPhone(subscription.getUserId());
+        notification.setTotalAmount(0.0);
+        notification.setDeliveryDate(notificationDate != null ? notificationDate : "");
+        notification.setDeliveryAddress("");
+        notification.setNotificationType(ClientNotification.NotificationType.STOCK_AVAILABLE);
+        notification.setMessage(message);
+        clientNotificationService.saveNotification(notification);
+        
+        // Mark as notified
+        subscription.setNotified(true);
+        subscription.setNotifiedAt(LocalDateTime.now());
+        stockNotificationRepository.save(subscription);
+    }
+    
     /**
      * Notify all subscribed users when an item comes back in stock (overload without date)
      * @param itemId the item ID
@@ -257,5 +311,27 @@ public class StockNotificationService {
     public List<StockNotification> getItemSubscriptions(String itemId, String itemType) {
         return stockNotificationRepository.findByItemIdAndItemType(itemId, itemType);
     }
-}
 
+    /**
+     * An item that became available on some dates
+     */
+    public static class AvailableItem {
+        final String itemId;
+        final String itemType;
+        final String itemName;
+        final SortedSet<String> dates;
+
+        /**
+         * @param itemId the item ID
+         * @param itemType the item type as stored on subscriptions (upper case)
+         * @param itemName the item name shown in the notification
+         * @param dates the newly available dates (yyyy-MM-dd)
+         */
+        public AvailableItem(String itemId, String itemType, String itemName, SortedSet<String> dates) {
+            this.itemId = itemId;
+            this.itemType = itemType;
+            this.itemName = itemName;
+            this.dates = dates;
+        }
+    }
+}
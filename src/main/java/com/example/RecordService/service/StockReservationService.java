@@ -0,0 +1,226 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Inventory;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.Theme;
+import com.example.RecordService.repository.InventoryRepository;
+import com.example.RecordService.repository.PlateRepository;
+import com.example.RecordService.repository.ThemeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reserves and releases stock for order items.
+ * Every item is reserved with a single atomic check-and-decrement (conditional UPDATE for plates and
+ * date availability, per-entry compute for the in-memory theme and inventory stores), so concurrent
+ * checkouts can never oversell. An order is reserved all-or-nothing.
+ * The in-memory stores are not part of the database transaction, so stock taken from them is given
+ * back if the transaction that reserved it rolls back.
+ */
+@Service
+@Transactional
+public class StockReservationService {
+
+    @Autowired
+    private ThemeRepository themeRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private PlateRepository plateRepository;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private StockNotificationService stockNotificationService;
+
+    /**
+     * Reserve stock for all items of an order.
+     * Lines for the same item (and booking date) are added up first, so each item is taken with one update.
+     * Note: For items with booking dates, only date availability is reserved, not general stock
+     * @param orderItems the order items
+     * @throws IllegalArgumentException if any item cannot be reserved; items reserved before it are released
+     */
+    public void reserve(List<OrderItem> orderItems) {
+        List<MergedLine> reserved = new ArrayList<>();
+        for (MergedLine line : merge(orderItems)) {
+            if (!tryReserve(line.item, line.quantity)) {
+                // Undo the items we already took so the whole order is rejected atomically
+                for (MergedLine reservedLine : reserved) {
+                    releaseQuantity(reservedLine.item.getItemId(), reservedLine.item.getItemType(),
+                        reservedLine.item.getBookingDate(), reservedLine.quantity);
+                }
+                throw new IllegalArgumentException(insufficientStockMessage(line.item, line.quantity));
+            }
+            reserved.add(line);
+        }
+        releaseInMemoryOnRollback(reserved);
+    }
+
+    /**
+     * Give back the theme and inventory stock of reserved lines if the current transaction rolls back;
+     * plate and date availability updates are rolled back with it
+     */
+    private void releaseInMemoryOnRollback(List<MergedLine> reserved) {
+        List<MergedLine> inMemory = new ArrayList<>();
+        for (MergedLine line : reserved) {
+            String itemType = line.item.getItemType().toUpperCase();
+            if (line.item.getBookingDate() == null && (itemType.equals("THEME") || itemType.equals("INVENTORY"))) {
+                inMemory.add(line);
+            }
+        }
+        if (inMemory.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    for (MergedLine line : inMemory) {
+                        releaseQuantity(line.item.getItemId(), line.item.getItemType(), null, line.quantity);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Release stock held by the items of one or more cancelled orders.
+     * Lines for the same item (and booking date) are added up first, so each item is restored with one update.
+     * Subscribers are notified separately by the order event workers (see notifyRestocked).
+     * Note: For items with booking dates, only date availability is restored, not general stock
+     * @param orderItems the order items
+     */
+    public void release(List<OrderItem> orderItems) {
+        if (orderItems == null) {
+            return;
+        }
+        for (MergedLine line : merge(orderItems)) {
+            releaseQuantity(line.item.getItemId(), line.item.getItemType(), line.item.getBookingDate(), line.quantity);
+        }
+    }
+
+    /**
+     * Notify stock subscribers of items that are in stock again after an order released them.
+     * Only subscriptions that have not been notified yet receive a notification, so repeating
+     * this for the same order is harmless.
+     * @param orderItems the order items
+     */
+    public void notifyRestocked(List<OrderItem> orderItems) {
+        if (orderItems == null) {
+            return;
+        }
+        for (OrderItem item : orderItems) {
+            String itemId = item.getItemId();
+            String itemType = item.getItemType().toUpperCase();
+            Integer available;
+            if (item.getBookingDate() != null) {
+                available = availabilityService.getAvailableQuantity(
+                    itemId, item.getItemType().toLowerCase(), item.getBookingDate());
+            } else {
+                available = currentQuantity(itemId, itemType);
+            }
+            if (available != null && available > 0 && item.getItemName() != null) {
+                stockNotificationService.notifySubscribers(itemId, itemType, item.getItemName());
+            }
+        }
+    }
+
+    private boolean tryReserve(OrderItem item, int quantity) {
+        String itemId = item.getItemId();
+
+        if (item.getBookingDate() != null) {
+            return availabilityService.decrementAvailability(
+                itemId, item.getItemType().toLowerCase(), item.getBookingDate(), quantity);
+        }
+
+        switch (item.getItemType().toUpperCase()) {
+            case "THEME":
+                return themeRepository.decrementQuantityIfAvailable(itemId, quantity);
+            case "INVENTORY":
+                return inventoryRepository.decrementQuantityIfAvailable(itemId, quantity);
+            case "PLATE":
+                return plateRepository.decrementQuantityIfAvailable(itemId, quantity) > 0;
+            default:
+                // Unknown item types carry no stock
+                return true;
+        }
+    }
+
+    private void releaseQuantity(String itemId, String itemType, LocalDate bookingDate, int quantity) {
+        if (bookingDate != null) {
+            availabilityService.releaseAvailability(itemId, itemType.toLowerCase(), bookingDate, quantity);
+            return;
+        }
+
+        switch (itemType.toUpperCase()) {
+            case "THEME":
+                themeRepository.incrementQuantity(itemId, quantity);
+                break;
+            case "INVENTORY":
+                inventoryRepository.incrementQuantity(itemId, quantity);
+                break;
+            case "PLATE":
+                plateRepository.incrementQuantity(itemId, quantity);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private Integer currentQuantity(String itemId, String itemType) {
+        switch (itemType) {
+            case "THEME":
+                Theme theme = themeRepository.findByThemeId(itemId);
+                return theme != null ? theme.getQuantity() : null;
+            case "INVENTORY":
+                Inventory inventory = inventoryRepository.findByInventoryId(itemId);
+                return inventory != null ? inventory.getQuantity() : null;
+            case "PLATE":
+                return plateRepository.findQuantityByPlateId(itemId);
+            default:
+                return null;
+        }
+    }
+
+    private String insufficientStockMessage(OrderItem item, int quantity) {
+        if (item.getBookingDate() != null) {
+            return "Item '" + item.getItemName() + "' is not available on " + item.getBookingDate() + ". " +
+                   "Requested: " + quantity;
+        }
+        return "Insufficient stock for " + item.getItemType().toLowerCase() + " '" + item.getItemName() + "'. " +
+               "Requested: " + quantity;
+    }
+
+    /**
+     * Add up the lines of the same item and booking date, in order of first appearance
+     */
+    private static List<MergedLine> merge(List<OrderItem> orderItems) {
+        Map<String, MergedLine> lines = new LinkedHashMap<>();
+        for (OrderItem item : orderItems) {
+            String key = item.getItemType().toUpperCase() + "\u0000" + item.getItemId() + "\u0000" + item.getBookingDate();
+            lines.computeIfAbsent(key, k -> new MergedLine(item)).quantity += item.getQuantity();
+        }
+        return new ArrayList<>(lines.values());
+    }
+
+    private static class MergedLine {
+        final OrderItem item;
+        int quantity;
+
+        MergedLine(OrderItem item) {
+            this.item = item;
+        }
+    }
+}
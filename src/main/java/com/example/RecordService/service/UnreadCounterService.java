@@ -0,0 +1,212 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Notification;
+import com.example.RecordService.repository.ChatMessageRepository;
+import com.example.RecordService.repository.ClientNotificationRepository;
+import com.example.RecordService.repository.NotificationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory unread counts per user for vendor notifications, client notifications and chat messages,
+ * so badge reads do not run COUNT queries. A user's count is loaded from the database on first read
+ * and then moved by the services when notifications or messages are created, read or deleted (after the
+ * transaction commits). A scheduled reconcile recounts all loaded users with one grouped query per kind,
+ * which corrects drift (changes racing the first load, changes made on other nodes or outside the services),
+ * and drops users whose count has not been read for idle-ms so the table makes room for active users.
+ */
+@Service
+public class UnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    public enum Kind {
+        VENDOR_NOTIFICATIONS(NotificationHub.VENDOR_NOTIFICATIONS),
+        CLIENT_NOTIFICATIONS(NotificationHub.CLIENT_NOTIFICATIONS),
+        CHAT(NotificationHub.CHAT);
+
+        private final String eventName;
+
+        Kind(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String getEventName() {
+            return eventName;
+        }
+    }
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ClientNotificationRepository clientNotificationRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private NotificationHub notificationHub;
+
+    @Value("${notifications.unread.max-users:100000}")
+    private int maxUsers;
+
+    @Value("${notifications.unread.idle-ms:3600000}")
+    private long idleMs;
+
+    private final Map<Kind, Map<String, Counter>> counters = new EnumMap<>(Kind.class);
+
+    public UnreadCounterService() {
+        for (Kind kind : Kind.values()) {
+            counters.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Get a user's unread count, loading it from the database on first use
+     * @param kind what is counted
+     * @param phoneNumber the user's phone number
+     * @return the unread count
+     */
+    public long get(Kind kind, String phoneNumber) {
+        Map<String, Counter> byPhone = counters.get(kind);
+        Counter counter = byPhone.get(phoneNumber);
+        if (counter == null) {
+            long count = count(kind, phoneNumber);
+            if (byPhone.size() >= maxUsers) {
+                // Full; serve this user from the database until the reconcile drops idle users
+                return count;
+            }
+            Counter loaded = new Counter();
+            loaded.value.add(count);
+            counter = byPhone.putIfAbsent(phoneNumber, loaded);
+            if (counter == null) {
+                return count;
+            }
+        }
+        counter.lastRead = System.currentTimeMillis();
+        return Math.max(0, counter.value.sum());
+    }
+
+    /**
+     * Move a user's unread count once the current transaction commits (immediately when there is none),
+     * and push the change to the user's notification streams
+     * @param kind what is counted
+     * @param phoneNumber the user's phone number
+     * @param delta the change (negative when items were read or deleted)
+     */
+    public void add(Kind kind, String phoneNumber, long delta) {
+        if (phoneNumber == null || delta == 0) {
+            return;
+        }
+        notificationHub.publishUnread(phoneNumber, kind.getEventName(), delta);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(kind, phoneNumber, delta);
+                }
+            });
+        } else {
+            apply(kind, phoneNumber, delta);
+        }
+    }
+
+    /**
+     * Drop users not read for idle-ms, then recount unread items of the remaining users and replace their counts.
+     * Counters are read before the count; one that moves while the count runs is left to the next reconcile,
+     * as the count may or may not include that change.
+     */
+    @Scheduled(fixedDelayString = "${notifications.unread.reconcile-interval-ms:300000}",
+               initialDelayString = "${notifications.unread.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long idleSince = System.currentTimeMillis() - idleMs;
+        for (Kind kind : Kind.values()) {
+            Map<String, Counter> byPhone = counters.get(kind);
+            byPhone.values().removeIf(counter -> counter.lastRead < idleSince);
+            if (byPhone.isEmpty()) {
+                continue;
+            }
+            Map<String, Long> before = new HashMap<>();
+            for (Map.Entry<String, Counter> entry : byPhone.entrySet()) {
+                before.put(entry.getKey(), entry.getValue().value.sum());
+            }
+            Map<String, Long> fresh = countAll(kind);
+            int corrected = 0;
+            for (Map.Entry<String, Long> entry : before.entrySet()) {
+                Counter counter = byPhone.get(entry.getKey());
+                long current = entry.getValue();
+                long count = fresh.getOrDefault(entry.getKey(), 0L);
+                // Only correct counters nothing was applied to since they were read
+                if (counter != null && current != count && counter.value.sum() == current) {
+                    counter.value.add(count - current);
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                logger.info("Unread {} counts corrected for {} users", kind.getEventName(), corrected);
+            }
+        }
+    }
+
+    private void apply(Kind kind, String phoneNumber, long delta) {
+        // Users not loaded yet read the committed count on first use
+        Counter counter = counters.get(kind).get(phoneNumber);
+        if (counter != null) {
+            counter.value.add(delta);
+        }
+    }
+
+    private long count(Kind kind, String phoneNumber) {
+        switch (kind) {
+            case VENDOR_NOTIFICATIONS:
+                return notificationRepository.countByVendorPhoneAndStatus(phoneNumber, Notification.NotificationStatus.UNREAD);
+            case CLIENT_NOTIFICATIONS:
+                return clientNotificationRepository.countByClientPhoneAndIsReadFalse(phoneNumber);
+            default:
+                return chatMessageRepository.countUnreadMessagesForRecipient(phoneNumber);
+        }
+    }
+
+    private Map<String, Long> countAll(Kind kind) {
+        Map<String, Long> counts = new HashMap<>();
+        switch (kind) {
+            case VENDOR_NOTIFICATIONS:
+                addRows(counts, notificationRepository.countByStatusGroupByVendorPhone(Notification.NotificationStatus.UNREAD));
+                break;
+            case CLIENT_NOTIFICATIONS:
+                addRows(counts, clientNotificationRepository.countUnreadGroupByClientPhone());
+                break;
+            default:
+                addRows(counts, chatMessageRepository.countUnreadGroupByClientPhone());
+                addRows(counts, chatMessageRepository.countUnreadGroupByVendorPhone());
+        }
+        return counts;
+    }
+
+    private static void addRows(Map<String, Long> counts, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            counts.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder value = new LongAdder();
+        volatile long lastRead = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,11 @@
+-- Idempotency-Key of each order submission and the order it created. Claimed at the start of the
+-- order transaction, so concurrent retries on any node wait for the first submission.
+CREATE TABLE IF NOT EXISTS order_idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    order_id BIGINT,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- Expired keys are deleted by creation time
+CREATE INDEX IF NOT EXISTS idx_order_idempotency_keys_created_at ON order_idempotency_keys(created_at);
@@ -0,0 +1,10 @@
+-- Stock reservation TTL for PENDING orders. The expiry job reads due orders through the partial index,
+-- so each run touches only PENDING orders that have lapsed.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS reservation_expires_at TIMESTAMP;
+
+-- Existing PENDING orders get the default TTL (order.reservation.ttl-minutes = 48 hours) from their order date
+UPDATE orders SET reservation_expires_at = order_date + INTERVAL '48 hours'
+WHERE status = 'PENDING' AND reservation_expires_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_orders_reservation_expires_at ON orders(reservation_expires_at)
+WHERE status = 'PENDING';
@@ -0,0 +1,36 @@
+-- Archive for terminal orders (DELIVERED, CANCELLED) older than order.archive.after-days.
+-- OrderArchiveService moves them here in batches and also creates these tables on startup if missing.
+-- Columns mirror orders/order_items; a column added there must be added here too.
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id BIGINT PRIMARY KEY,
+    user_id VARCHAR(255) NOT NULL,
+    customer_name VARCHAR(255) NOT NULL,
+    customer_email VARCHAR(255) NOT NULL,
+    customer_phone VARCHAR(255) NOT NULL,
+    delivery_address VARCHAR(255) NOT NULL,
+    delivery_latitude DOUBLE PRECISION,
+    delivery_longitude DOUBLE PRECISION,
+    delivery_date VARCHAR(255) NOT NULL,
+    special_notes VARCHAR(255),
+    total_amount DOUBLE PRECISION NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    order_date TIMESTAMP NOT NULL,
+    reservation_expires_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    order_item_id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    item_id VARCHAR(255) NOT NULL,
+    item_name VARCHAR(255) NOT NULL,
+    item_price DOUBLE PRECISION NOT NULL,
+    quantity INTEGER NOT NULL,
+    item_type VARCHAR(255) NOT NULL,
+    business_id VARCHAR(255) NOT NULL,
+    business_name VARCHAR(255) NOT NULL,
+    image_url VARCHAR(255),
+    booking_date DATE,
+    selected_dishes TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_order_id ON order_items_archive(order_id);
@@ -0,0 +1,20 @@
+-- Append-only log of order status changes, one row per business in the order, for latency analytics.
+-- Written in the same transaction as the status change (see OrderTransitionService).
+CREATE SEQUENCE IF NOT EXISTS order_status_transitions_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_status_transitions (
+    transition_id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    business_id VARCHAR(255),
+    from_status VARCHAR(32),
+    to_status VARCHAR(32) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    actor VARCHAR(255)
+);
+
+-- Latency queries scan a business's arrivals at a status in a time window,
+-- then look up each order's arrival at the starting status
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_business_to_changed
+    ON order_status_transitions(business_id, to_status, changed_at);
+CREATE INDEX IF NOT EXISTS idx_order_status_transitions_order_to
+    ON order_status_transitions(order_id, to_status);
@@ -0,0 +1,14 @@
+-- Booked quantity per item and booking date (confirmed, not yet delivered orders), for availability checks.
+-- Maintained in the order transaction (see BookedQuantityService), filled from existing orders on first start
+-- and reconciled against the order lines on a schedule.
+CREATE TABLE IF NOT EXISTS booked_quantities (
+    item_id VARCHAR(255) NOT NULL,
+    item_type VARCHAR(255) NOT NULL,
+    booking_date DATE NOT NULL,
+    booked_quantity BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (item_id, item_type, booking_date)
+);
+
+-- The reconciliation recomputes upcoming booking dates from order lines
+CREATE INDEX IF NOT EXISTS idx_order_items_booking_date ON order_items(booking_date);
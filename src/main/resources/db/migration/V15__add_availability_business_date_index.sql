@@ -0,0 +1,2 @@
+-- The business availability calendar reads a business's availabilities for a date range in one query
+CREATE INDEX IF NOT EXISTS idx_availabilities_business_date ON availabilities(business_id, availability_date);
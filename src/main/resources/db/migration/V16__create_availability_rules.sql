@@ -0,0 +1,19 @@
+-- Recurring availability per item (weekly pattern, default quantity, date bounds), evaluated when a date is read.
+-- Concrete availabilities rows override a rule for their date and are written from it on the first booking
+-- (see AvailabilityRuleService).
+CREATE TABLE IF NOT EXISTS availability_rules (
+    rule_id BIGSERIAL PRIMARY KEY,
+    item_id VARCHAR(255) NOT NULL,
+    item_type VARCHAR(255) NOT NULL,
+    business_id VARCHAR(255) NOT NULL,
+    days_of_week INTEGER NOT NULL,
+    default_quantity INTEGER NOT NULL,
+    price_override DOUBLE PRECISION,
+    start_date DATE NOT NULL,
+    end_date DATE,
+    updated_at TIMESTAMP,
+    UNIQUE (item_id, item_type)
+);
+
+-- Business listings and the availability calendar read a business's rules
+CREATE INDEX IF NOT EXISTS idx_availability_rules_business ON availability_rules(business_id);
@@ -0,0 +1,3 @@
+-- The cross-business "available on a date" search reads one date's rows, optionally of one item type
+-- and business, without scanning the availabilities table
+CREATE INDEX IF NOT EXISTS idx_availabilities_date_type ON availabilities(availability_date, item_type, business_id);
@@ -0,0 +1,8 @@
+-- Indexes backing the archived part of the order listings, ordered like V7 by (order_date DESC, order_id DESC).
+-- OrderArchiveService also runs this script on startup.
+CREATE INDEX IF NOT EXISTS idx_orders_archive_order_date_id ON orders_archive(order_date DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_user_order_date_id ON orders_archive(user_id, order_date DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_archive_status_order_date_id ON orders_archive(status, order_date DESC, order_id DESC);
+
+-- Business filter on archived orders (IN on business_id + order_id)
+CREATE INDEX IF NOT EXISTS idx_order_items_archive_business_order ON order_items_archive(business_id, order_id);
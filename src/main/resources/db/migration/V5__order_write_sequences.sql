@@ -0,0 +1,16 @@
+-- Switch orders, order items and notifications from IDENTITY to pooled sequences so Hibernate
+-- can batch their inserts (hibernate.jdbc.batch_size). allocationSize on the entities is 50,
+-- so every sequence must increment by 50.
+-- Run this on existing databases before deploying: each sequence is positioned past the current
+-- maximum id so ids handed out by Hibernate never collide with rows created under IDENTITY.
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+SELECT setval('orders_seq', COALESCE((SELECT MAX(order_id) FROM orders), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+SELECT setval('order_items_seq', COALESCE((SELECT MAX(order_item_id) FROM order_items), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS notifications_seq INCREMENT BY 50;
+SELECT setval('notifications_seq', COALESCE((SELECT MAX(notification_id) FROM notifications), 0) + 50, false);
+
+CREATE SEQUENCE IF NOT EXISTS client_notifications_seq INCREMENT BY 50;
+SELECT setval('client_notifications_seq', COALESCE((SELECT MAX(notification_id) FROM client_notifications), 0) + 50, false);
@@ -0,0 +1,21 @@
+-- Outbox for order lifecycle events. Rows are written in the same transaction as the order change
+-- and processed after commit by the order event workers (notifications, stock alerts, mail).
+CREATE SEQUENCE IF NOT EXISTS order_events_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS order_events (
+    event_id BIGINT PRIMARY KEY,
+    order_id BIGINT NOT NULL,
+    event_type VARCHAR(32) NOT NULL,
+    previous_status VARCHAR(32),
+    new_status VARCHAR(32),
+    status VARCHAR(16) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL,
+    next_attempt_at TIMESTAMP NOT NULL,
+    processed_at TIMESTAMP
+);
+
+-- The poller scans for due PENDING/PROCESSING rows
+CREATE INDEX IF NOT EXISTS idx_order_events_status_next_attempt ON order_events(status, next_attempt_at);
+CREATE INDEX IF NOT EXISTS idx_order_events_order_id ON order_events(order_id);
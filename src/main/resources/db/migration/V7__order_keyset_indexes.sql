@@ -0,0 +1,8 @@
+-- Indexes backing the keyset-paginated order listings, ordered by (order_date DESC, order_id DESC)
+CREATE INDEX IF NOT EXISTS idx_orders_order_date_id ON orders(order_date DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_order_date_id ON orders(user_id, order_date DESC, order_id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_status_order_date_id ON orders(status, order_date DESC, order_id DESC);
+
+-- Item lookup for a page of orders, and the business filter (EXISTS on business_id + order_id)
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items(order_id);
+CREATE INDEX IF NOT EXISTS idx_order_items_business_order ON order_items(business_id, order_id);
@@ -0,0 +1,26 @@
+-- Per-business sales totals by order day, and per item. Maintained by upserts in the order
+-- transaction (see SalesRollupService) and filled from existing orders on first start.
+-- The primary keys serve the range reads: business_id = ? AND rollup_date BETWEEN ? AND ?
+CREATE TABLE IF NOT EXISTS business_daily_rollups (
+    business_id VARCHAR(255) NOT NULL,
+    rollup_date DATE NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    items_sold BIGINT NOT NULL DEFAULT 0,
+    revenue DOUBLE PRECISION NOT NULL DEFAULT 0,
+    cancelled_orders BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (business_id, rollup_date)
+);
+
+CREATE TABLE IF NOT EXISTS business_item_daily_rollups (
+    business_id VARCHAR(255) NOT NULL,
+    rollup_date DATE NOT NULL,
+    item_id VARCHAR(255) NOT NULL,
+    item_type VARCHAR(255) NOT NULL,
+    item_name VARCHAR(255),
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue DOUBLE PRECISION NOT NULL DEFAULT 0,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (business_id, rollup_date, item_id, item_type)
+);
@@ -0,0 +1,10 @@
+-- Items each client has received (DELIVERED orders), for rating eligibility checks.
+-- Maintained in the order transaction (see ClientPurchaseService) and filled from existing orders on first start.
+CREATE TABLE IF NOT EXISTS client_purchases (
+    user_id VARCHAR(255) NOT NULL,
+    item_id VARCHAR(255) NOT NULL,
+    item_type VARCHAR(255) NOT NULL,
+    delivered_orders BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (user_id, item_id, item_type)
+);
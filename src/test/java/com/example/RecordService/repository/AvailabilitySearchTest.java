@@ -0,0 +1,91 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Availability;
+import com.example.RecordService.entity.AvailabilityRule;
+import com.example.RecordService.entity.BookedQuantity;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class AvailabilitySearchTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 7);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AvailabilityRepository availabilityRepository;
+
+    @Autowired
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Test
+    void testSearchAvailableOnDate_ShouldSubtractBookingsAndFilterAcrossBusinesses() {
+        entityManager.persist(new Availability("PLATE_1", "plate", "BUSINESS_A", DAY, 10));
+        entityManager.persist(new Availability("THEME_1", "theme", "BUSINESS_B", DAY, 3));
+        entityManager.persist(new Availability("THEME_2", "theme", "BUSINESS_A", DAY, 8));
+        entityManager.persist(new Availability("THEME_2", "theme", "BUSINESS_A", DAY.plusDays(1), 8));
+        Availability closed = new Availability("PLATE_2", "plate", "BUSINESS_B", DAY, 10);
+        closed.setIsAvailable(false);
+        entityManager.persist(closed);
+        BookedQuantity booked = new BookedQuantity();
+        booked.setItemId("THEME_1");
+        booked.setItemType("theme");
+        booked.setBookingDate(DAY);
+        booked.setBookedQuantity(2);
+        entityManager.persist(booked);
+        entityManager.flush();
+
+        assertEquals(List.of("PLATE_1", "THEME_2", "THEME_1"), itemIds(null, null, 1));
+        assertEquals(List.of("PLATE_1", "THEME_2"), itemIds(null, null, 2));
+        assertEquals(List.of("THEME_2", "THEME_1"), itemIds("theme", null, 1));
+        assertEquals(List.of("THEME_1"), itemIds(null, "BUSINESS_B", 1));
+    }
+
+    @Test
+    void testSearchAvailableOnDateForItems_ShouldOnlyReturnTheGivenItemsOfTheType() {
+        entityManager.persist(new Availability("THEME_1", "theme", "BUSINESS_A", DAY, 3));
+        entityManager.persist(new Availability("THEME_2", "theme", "BUSINESS_B", DAY, 3));
+        entityManager.persist(new Availability("THEME_3", "theme", "BUSINESS_A", DAY, 3));
+        entityManager.persist(new Availability("THEME_1", "inventory", "BUSINESS_A", DAY, 3));
+        entityManager.flush();
+
+        List<String> itemIds = availabilityRepository.searchAvailableOnDateForItems(DAY, "theme",
+                        List.of("THEME_1", "THEME_2"), null, 1, PageRequest.of(0, 10))
+                .stream()
+                .map(row -> ((Availability) row[0]).getItemType() + ":" + ((Availability) row[0]).getItemId())
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("theme:THEME_1", "theme:THEME_2"), itemIds);
+    }
+
+    @Test
+    void testFindInForceWithoutRow_ShouldSkipItemsWithAConcreteRow() {
+        availabilityRuleRepository.save(new AvailabilityRule("PLATE_1", "plate", "BUSINESS_A", 0b11111, 10, DAY.minusDays(7), null));
+        availabilityRuleRepository.save(new AvailabilityRule("PLATE_2", "plate", "BUSINESS_A", 0b11111, 10, DAY.minusDays(7), null));
+        availabilityRuleRepository.save(new AvailabilityRule("PLATE_3", "plate", "BUSINESS_A", 0b11111, 10, DAY.plusDays(1), null));
+        availabilityRepository.save(new Availability("PLATE_2", "plate", "BUSINESS_A", DAY, 0));
+        entityManager.flush();
+
+        List<AvailabilityRule> rules = availabilityRuleRepository.findInForceWithoutRow(DAY, "plate", null, 1);
+
+        assertEquals(List.of("PLATE_1"), rules.stream().map(AvailabilityRule::getItemId).collect(Collectors.toList()));
+    }
+
+    private List<String> itemIds(String itemType, String businessId, int minQuantity) {
+        return availabilityRepository.searchAvailableOnDate(DAY, itemType, businessId, minQuantity, PageRequest.of(0, 10))
+                .stream()
+                .map(row -> ((Availability) row[0]).getItemId())
+                .collect(Collectors.toList());
+    }
+}
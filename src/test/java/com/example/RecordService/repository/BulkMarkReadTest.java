@@ -0,0 +1,130 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Chat;
+import com.example.RecordService.entity.ChatMessage;
+import com.example.RecordService.entity.ClientNotification;
+import com.example.RecordService.entity.Notification;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BulkMarkReadTest {
+
+    private static final String VENDOR = "1234567890";
+    private static final String OTHER_VENDOR = "1112223333";
+    private static final String CLIENT = "9876543210";
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private ClientNotificationRepository clientNotificationRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testNotificationBulkUpdates_ShouldMarkOnlyTheVendorsUnreadRowsInOneStatementEach() {
+        Notification old = notification(VENDOR, NOW.minusDays(2));
+        Notification recent = notification(VENDOR, NOW);
+        Notification foreign = notification(OTHER_VENDOR, NOW.minusDays(2));
+        entityManager.flush();
+
+        statistics.clear();
+        assertEquals(0, notificationRepository.markAsRead(VENDOR, List.of(foreign.getNotificationId()), NOW));
+        assertEquals(1, notificationRepository.markAsReadBefore(VENDOR, NOW.minusDays(1), NOW));
+        // Already read rows are not counted again
+        assertEquals(1, notificationRepository.markAsRead(VENDOR,
+                List.of(old.getNotificationId(), recent.getNotificationId()), NOW));
+        assertEquals(3, statistics.getPrepareStatementCount());
+
+        assertEquals(0, notificationRepository.markAllAsRead(VENDOR, NOW));
+        assertEquals(1, notificationRepository.markAllAsRead(OTHER_VENDOR, NOW));
+        assertEquals(0, notificationRepository.countByVendorPhoneAndStatus(VENDOR, Notification.NotificationStatus.UNREAD));
+        assertTrue(notificationRepository.findUnreadVendorPhone(recent.getNotificationId()).isEmpty());
+    }
+
+    @Test
+    void testChatBulkUpdates_ShouldMarkOnlyMessagesSentToTheReader() {
+        Chat chat = new Chat();
+        chat.setClientPhone(CLIENT);
+        chat.setVendorPhone(VENDOR);
+        chat.setBusinessId("BUSINESS_A");
+        chat.setBusinessName("Business A");
+        chat.setIsActive(true);
+        entityManager.persist(chat);
+        ChatMessage fromClient = message(chat, CLIENT);
+        ChatMessage fromVendor = message(chat, VENDOR);
+        message(chat, CLIENT);
+        entityManager.flush();
+
+        assertEquals(0, chatMessageRepository.markAsReadByIds(chat.getChatId(), CLIENT,
+                List.of(fromClient.getMessageId()), NOW));
+        assertEquals(1, chatMessageRepository.markAsReadByIds(chat.getChatId(), VENDOR,
+                List.of(fromClient.getMessageId(), fromVendor.getMessageId()), NOW));
+        assertEquals(1, chatMessageRepository.markAsReadBefore(chat.getChatId(), VENDOR, LocalDateTime.now().plusMinutes(1), NOW));
+        assertEquals(0, chatMessageRepository.countUnreadMessagesForRecipient(VENDOR));
+        assertEquals(1, chatMessageRepository.markAsRead(chat.getChatId(), CLIENT, NOW));
+    }
+
+    @Test
+    void testClientNotificationMarkRead_ShouldOnlyCountAnUnreadNotificationOnce() {
+        ClientNotification notification = new ClientNotification(CLIENT, "BUSINESS_A", "Business A", 1L, "Test Client",
+                "client@example.com", CLIENT, 100.0, "2026-12-01", "123 Main St",
+                ClientNotification.NotificationType.ORDER_CONFIRMED, "Order confirmed");
+        entityManager.persist(notification);
+        entityManager.flush();
+        List<Long> ids = List.of(notification.getNotificationId());
+
+        assertEquals(CLIENT, clientNotificationRepository.findUnreadClientPhone(notification.getNotificationId()).orElseThrow());
+        assertEquals(1, clientNotificationRepository.markAsReadByClientPhoneAndIds(CLIENT, ids));
+        // A second, racing call finds nothing left to mark and does not move the counter
+        assertEquals(0, clientNotificationRepository.markAsReadByClientPhoneAndIds(CLIENT, ids));
+        entityManager.clear();
+        assertTrue(clientNotificationRepository.findUnreadClientPhone(notification.getNotificationId()).isEmpty());
+    }
+
+    private Notification notification(String vendorPhone, LocalDateTime createdAt) {
+        Notification notification = new Notification(vendorPhone, "BUSINESS_A", "Business A", 1L, "Test Client",
+                "client@example.com", CLIENT, 100.0, "2026-12-01", "123 Main St",
+                Notification.NotificationType.NEW_ORDER, "New order");
+        notification.setCreatedAt(createdAt);
+        entityManager.persist(notification);
+        return notification;
+    }
+
+    private ChatMessage message(Chat chat, String senderPhone) {
+        ChatMessage message = new ChatMessage();
+        message.setChat(chat);
+        message.setSenderPhone(senderPhone);
+        message.setSenderType(CLIENT.equals(senderPhone) ? ChatMessage.SenderType.CLIENT : ChatMessage.SenderType.VENDOR);
+        message.setMessage("Hello");
+        message.setIsRead(false);
+        entityManager.persist(message);
+        return message;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Notification;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.Business;
+import com.example.RecordService.service.NotificationHub;
+import com.example.RecordService.service.NotificationService;
+import com.example.RecordService.service.UnreadCounterService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Compares the vendor notification fan-out with the previous per-vendor path (summary and flushed save
+ * per business) for carts spanning 1, 10 and 50 vendors. Round trips are counted with Hibernate statistics.
+ * The gain comes from the batched insert and building the summary once: businesses live in an in-memory map,
+ * so per-vendor lookups were never round trips (and the repository is mocked here either way).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@Import(NotificationService.class)
+class NotificationFanOutBenchmarkTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @MockitoBean
+    private BusinessRepository businessRepository;
+
+    @MockitoBean
+    private NotificationHub notificationHub;
+
+    @MockitoBean
+    private UnreadCounterService unreadCounterService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        when(businessRepository.findByBusinessId(anyString())).thenAnswer(invocation -> business(invocation.getArgument(0)));
+        when(businessRepository.findByBusinessIds(any())).thenAnswer(invocation -> {
+            Map<String, Business> found = new LinkedHashMap<>();
+            for (String businessId : invocation.<Collection<String>>getArgument(0)) {
+                found.put(businessId, business(businessId));
+            }
+            return found;
+        });
+        // Warm up the pooled sequence so the measurements show steady-state round trips
+        notificationService.createOrderNotification(order(50));
+        entityManager.flush();
+    }
+
+    @Test
+    void testFanOut_ShouldWriteAllVendorsInOneBatch() {
+        System.out.println("vendors | per-vendor round trips | fan-out round trips | per-vendor ms | fan-out ms");
+        for (int vendors : new int[]{1, 10, 50}) {
+            Order order = order(vendors);
+
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                perVendor(order);
+            }
+            long perVendorNanos = System.nanoTime() - start;
+            long perVendorStatements = statistics.getPrepareStatementCount() / ROUNDS;
+
+            clearInvocations(businessRepository);
+            statistics.clear();
+            start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                notificationService.createOrderNotification(order);
+                entityManager.flush();
+            }
+            long fanOutNanos = System.nanoTime() - start;
+            long fanOutStatements = statistics.getPrepareStatementCount() / ROUNDS;
+            entityManager.clear();
+
+            System.out.printf("%7d | %22d | %19d | %13.2f | %10.2f%n", vendors, perVendorStatements, fanOutStatements,
+                    perVendorNanos / 1e6 / ROUNDS, fanOutNanos / 1e6 / ROUNDS);
+
+            assertTrue(perVendorStatements >= vendors);
+            // One batched insert, plus at most one pooled sequence refill
+            assertTrue(fanOutStatements <= 2, "fan-out round trips for " + vendors + " vendors: " + fanOutStatements);
+            verify(businessRepository, times(ROUNDS)).findByBusinessIds(any());
+            verify(businessRepository, never()).findByBusinessId(anyString());
+        }
+        assertEquals(ROUNDS * (1 + 10 + 50) * 2 + 50, notificationRepository.count());
+    }
+
+    /**
+     * The previous path: one summary and one flushed save per business
+     */
+    private void perVendor(Order order) {
+        order.getOrderItems().stream().map(OrderItem::getBusinessId).distinct().forEach(businessId -> {
+            Business business = businessRepository.findByBusinessId(businessId);
+            String message = String.format("New %s order from %s for ₹%.2f. Delivery: %s",
+                    order.getOrderItems().get(0).getItemName() + " + " + (order.getOrderItems().size() - 1) + " more items",
+                    order.getCustomerName(), order.getTotalAmount(), order.getDeliveryDate());
+            notificationRepository.save(new Notification(business.getPhoneNumber(), businessId,
+                    business.getBusinessName(), order.getOrderId(), order.getCustomerName(), order.getCustomerEmail(),
+                    order.getCustomerPhone(), order.getTotalAmount(), order.getDeliveryDate(),
+                    order.getDeliveryAddress(), Notification.NotificationType.NEW_ORDER, message));
+            entityManager.flush();
+        });
+    }
+
+    private static Order order(int vendors) {
+        Order order = new Order("9876543210", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 100.0 * vendors);
+        order.setOrderId(1L);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < vendors; i++) {
+            items.add(new OrderItem(order, "PLATE_" + i, "Plate " + i, 100.0, 1, "plate",
+                    "BUSINESS_" + i, "Business " + i));
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+
+    private static Business business(String businessId) {
+        Business business = new Business();
+        business.setBusinessId(businessId);
+        business.setBusinessName("Business " + businessId);
+        business.setPhoneNumber("1234567890");
+        return business;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.service.OrderArchiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(OrderArchiveService.class)
+class OrderArchiveTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Test
+    void testArchiveTables_ShouldCoverEveryOrderColumn() {
+        // Fails when an entity column is added without a migration for the archive tables
+        assertEquals(List.of(), orderArchiveService.findSchemaMismatches());
+    }
+
+    @Test
+    void testArchivedListings_ShouldPageNewestFirstWithItems() {
+        LocalDateTime orderDate = LocalDateTime.of(2025, 1, 5, 10, 0);
+        archiveOrder(41L, "USER_1", orderDate.minusDays(1), "BUSINESS_B");
+        archiveOrder(42L, "USER_1", orderDate, "BUSINESS_A");
+        archiveOrder(43L, "USER_1", orderDate, "BUSINESS_B");
+        archiveOrder(44L, "USER_2", orderDate, "BUSINESS_A");
+
+        List<Order> firstPage = orderArchiveService.findArchivedOrdersByUserId("USER_1", null, null, 2);
+        assertEquals(List.of(43L, 42L), firstPage.stream().map(Order::getOrderId).toList());
+        assertEquals("BUSINESS_B", firstPage.get(0).getOrderItems().get(0).getBusinessId());
+        List<Order> nextPage = orderArchiveService.findArchivedOrdersByUserId("USER_1", orderDate, 42L, 2);
+        assertEquals(List.of(41L), nextPage.stream().map(Order::getOrderId).toList());
+
+        assertEquals(List.of(44L, 42L), orderArchiveService.findArchivedOrdersByBusinessId("BUSINESS_A", null, null, null)
+                .stream().map(Order::getOrderId).toList());
+        assertEquals(4, orderArchiveService.findArchivedOrdersByStatus(Order.OrderStatus.DELIVERED, null, null, null).size());
+        assertEquals(List.of(41L), orderArchiveService.findArchivedOrders(orderDate, 42L, null)
+                .stream().map(Order::getOrderId).toList());
+    }
+
+    @Test
+    void testArchivedOrders_ShouldBeReadableByIdAndCounted() {
+        jdbcTemplate.update("INSERT INTO orders_archive (order_id, user_id, customer_name, customer_email, customer_phone, " +
+                "delivery_address, delivery_date, total_amount, status, order_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                42L, "USER_1", "Test Client", "client@example.com", "9876543210", "123 Main St", "2025-01-10",
+                300.0, "DELIVERED", LocalDateTime.of(2025, 1, 5, 10, 0));
+        jdbcTemplate.update("INSERT INTO order_items_archive (order_item_id, order_id, item_id, item_name, item_price, " +
+                "quantity, item_type, business_id, business_name, booking_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                7L, 42L, "THEME_1", "Theme", 100.0, 3, "theme", "BUSINESS_A", "Business", LocalDate.of(2025, 1, 10));
+
+        Order order = orderArchiveService.findArchivedOrder(42L).orElseThrow();
+        assertEquals(Order.OrderStatus.DELIVERED, order.getStatus());
+        assertEquals(LocalDateTime.of(2025, 1, 5, 10, 0), order.getOrderDate());
+        assertEquals(1, order.getOrderItems().size());
+        OrderItem item = order.getOrderItems().get(0);
+        assertEquals(3, item.getQuantity());
+        assertEquals(LocalDate.of(2025, 1, 10), item.getBookingDate());
+        assertTrue(orderArchiveService.findArchivedOrder(43L).isEmpty());
+
+        List<Object[]> byStatus = orderArchiveService.countGroupByStatus();
+        assertEquals(1, byStatus.size());
+        assertEquals(Order.OrderStatus.DELIVERED, byStatus.get(0)[0]);
+        assertEquals(1L, byStatus.get(0)[1]);
+        assertEquals(LocalDate.of(2025, 1, 5), orderArchiveService.countGroupByDayAndStatus().get(0)[0]);
+        assertEquals("BUSINESS_A", orderArchiveService.countGroupByBusinessAndStatus().get(0)[0]);
+    }
+
+    private void archiveOrder(Long orderId, String userId, LocalDateTime orderDate, String businessId) {
+        jdbcTemplate.update("INSERT INTO orders_archive (order_id, user_id, customer_name, customer_email, customer_phone, " +
+                "delivery_address, delivery_date, total_amount, status, order_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                orderId, userId, "Test Client", "client@example.com", "9876543210", "123 Main St", "2025-01-10",
+                100.0, "DELIVERED", orderDate);
+        jdbcTemplate.update("INSERT INTO order_items_archive (order_item_id, order_id, item_id, item_name, item_price, " +
+                "quantity, item_type, business_id, business_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                orderId * 10, orderId, "THEME_1", "Theme", 100.0, 1, "theme", businessId, "Business");
+    }
+}
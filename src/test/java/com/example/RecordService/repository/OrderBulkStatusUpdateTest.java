@@ -0,0 +1,144 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.dto.BulkStatusUpdateResponse;
+import com.example.RecordService.service.AvailabilityService;
+import com.example.RecordService.service.BookedQuantityService;
+import com.example.RecordService.service.ClientPurchaseService;
+import com.example.RecordService.service.InventoryService;
+import com.example.RecordService.service.OrderArchiveService;
+import com.example.RecordService.service.OrderEventPublisher;
+import com.example.RecordService.service.OrderService;
+import com.example.RecordService.service.OrderStatisticsService;
+import com.example.RecordService.service.OrderTransitionService;
+import com.example.RecordService.service.PlateService;
+import com.example.RecordService.service.SalesRollupService;
+import com.example.RecordService.service.StockReservationService;
+import com.example.RecordService.service.ThemeService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Asserts that a bulk status update locks and loads all orders with one query each and writes them as one JDBC batch.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+@Import(OrderService.class)
+class OrderBulkStatusUpdateTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private ThemeService themeService;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private PlateService plateService;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockitoBean
+    private OrderStatisticsService orderStatisticsService;
+
+    @MockitoBean
+    private SalesRollupService salesRollupService;
+
+    @MockitoBean
+    private ClientPurchaseService clientPurchaseService;
+
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockitoBean
+    private OrderTransitionService orderTransitionService;
+
+    @MockitoBean
+    private BookedQuantityService bookedQuantityService;
+
+    @Test
+    void testBulkCancel_ShouldReportEachOrderAndWriteInOneBatch() {
+        List<Long> orderIds = createOrders(40);
+        orderService.updateOrderStatus(orderIds.get(0), Order.OrderStatus.CANCELLED);
+        entityManager.flush();
+        entityManager.clear();
+        reset(stockReservationService, orderEventPublisher);
+
+        List<Long> requested = new ArrayList<>(orderIds);
+        requested.add(999_999L);
+        requested.add(orderIds.get(1));
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkStatusUpdateResponse response = orderService.bulkUpdateOrderStatus(requested, Order.OrderStatus.CANCELLED);
+        entityManager.flush();
+
+        // One locking select, one select for the items, one batched update
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(41, response.getResults().size());
+        assertEquals(40, response.getUpdated());
+        assertEquals(1, response.getFailed());
+        assertEquals("CANCELLED", response.getResults().get(0).getPreviousStatus());
+        assertEquals("PENDING", response.getResults().get(1).getPreviousStatus());
+        assertFalse(response.getResults().get(40).isSuccess());
+
+        // Already cancelled order is left alone; stock is released once for the other 39
+        verify(orderEventPublisher, times(39)).statusChanged(any(), eq(Order.OrderStatus.PENDING));
+        verify(stockReservationService, times(1)).release(argThat(items -> items.size() == 39));
+        verify(salesRollupService, times(1)).apply(any(SalesRollupService.Batch.class));
+
+        entityManager.clear();
+        assertTrue(orderRepository.findAllById(orderIds).stream()
+                .allMatch(order -> order.getStatus() == Order.OrderStatus.CANCELLED));
+    }
+
+    private List<Long> createOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order("USER_BULK", "Test Client", "client@example.com", "9876543210",
+                    "123 Main St", "2026-12-01", 100.0);
+            order.setOrderItems(new ArrayList<>(List.of(
+                    new OrderItem(order, "THEME_" + i, "Theme " + i, 100.0, 1, "theme", "BUSINESS_BULK", "Business"))));
+            orders.add(order);
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Order order : orderRepository.saveAll(orders)) {
+            ids.add(order.getOrderId());
+        }
+        entityManager.flush();
+        return ids;
+    }
+}
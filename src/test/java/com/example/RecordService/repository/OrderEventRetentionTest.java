@@ -0,0 +1,48 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.OrderEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class OrderEventRetentionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 12, 0);
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Test
+    void testDelete_ShouldOnlyRemoveDoneAndFailedEventsPastTheirCutoff() {
+        OrderEvent oldDone = event(OrderEvent.EventStatus.DONE, NOW.minusDays(10));
+        OrderEvent recentDone = event(OrderEvent.EventStatus.DONE, NOW.minusDays(1));
+        OrderEvent oldFailed = event(OrderEvent.EventStatus.FAILED, NOW.minusDays(40));
+        OrderEvent recentFailed = event(OrderEvent.EventStatus.FAILED, NOW.minusDays(10));
+        OrderEvent oldPending = event(OrderEvent.EventStatus.PENDING, NOW.minusDays(40));
+
+        assertEquals(1, orderEventRepository.deleteDoneBefore(NOW.minusDays(7)));
+        assertEquals(1, orderEventRepository.deleteFailedCreatedBefore(NOW.minusDays(30)));
+
+        assertFalse(orderEventRepository.existsById(oldDone.getEventId()));
+        assertFalse(orderEventRepository.existsById(oldFailed.getEventId()));
+        assertTrue(orderEventRepository.existsById(recentDone.getEventId()));
+        assertTrue(orderEventRepository.existsById(recentFailed.getEventId()));
+        assertTrue(orderEventRepository.existsById(oldPending.getEventId()));
+    }
+
+    private OrderEvent event(OrderEvent.EventStatus status, LocalDateTime at) {
+        OrderEvent event = new OrderEvent(1L, OrderEvent.EventType.STATUS_CHANGED, null, null);
+        event.setStatus(status);
+        event.setCreatedAt(at);
+        event.setNextAttemptAt(at);
+        if (status == OrderEvent.EventStatus.DONE) {
+            event.setProcessedAt(at);
+        }
+        return orderEventRepository.saveAndFlush(event);
+    }
+}
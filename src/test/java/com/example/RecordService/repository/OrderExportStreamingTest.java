@@ -0,0 +1,153 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.service.OrderArchiveService;
+import com.example.RecordService.service.OrderExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({OrderExportService.class, OrderArchiveService.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderExportStreamingTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM order_items_archive");
+        jdbcTemplate.update("DELETE FROM orders_archive");
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Order order = new Order("USER_1", "Client, " + i, "client@example.com", "9876543210",
+                    "123 \"Main\" St", "2026-03-10", 200.0);
+            order.setOrderDate(LocalDateTime.of(2026, 3, 1 + i, 10, 0));
+            order.setOrderItems(List.of(
+                    new OrderItem(order, "THEME_" + i, "Theme " + i, 100.0, 1, "theme", "BUSINESS_A", "Business"),
+                    new OrderItem(order, "PLATE_" + i, "Plate " + i, 50.0, 2, "plate", "BUSINESS_B", "Business")));
+            orders.add(order);
+        }
+        // Outside the export range
+        Order old = new Order("USER_1", "Old Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-01-10", 100.0);
+        old.setOrderDate(LocalDateTime.of(2026, 1, 5, 10, 0));
+        old.setOrderItems(List.of(new OrderItem(old, "THEME_X", "Theme X", 100.0, 1, "theme", "BUSINESS_A", "Business")));
+        orders.add(old);
+        orderRepository.saveAll(orders);
+    }
+
+    @Test
+    void testNdjsonExport_ShouldWriteOneLinePerOrderWithItems() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), "ndjson", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"customerName\":\"Client, 0\""));
+        assertTrue(lines[0].contains("THEME_0") && lines[0].contains("PLATE_0"));
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("THEME_X"));
+    }
+
+    @Test
+    void testCsvExport_ShouldWriteOneLinePerItemAndQuoteValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), "csv", out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1 + 6, lines.length);
+        assertTrue(lines[0].startsWith("order_id,order_date"));
+        assertTrue(lines[1].contains("\"Client, 0\""));
+        assertTrue(lines[1].contains("\"123 \"\"Main\"\" St\""));
+    }
+
+    @Test
+    void testExport_ShouldIncludeArchivedOrdersOfTheMonth() throws IOException {
+        // March 2026 is older than order.archive.after-days (180), so delivered orders of that month get archived
+        Order delivered = orderRepository.findAll().stream()
+                .filter(order -> order.getCustomerName().equals("Client, 1"))
+                .findFirst().orElseThrow();
+        delivered.setStatus(Order.OrderStatus.DELIVERED);
+        orderRepository.save(delivered);
+        orderArchiveService.archiveOldOrders();
+        assertFalse(orderRepository.existsById(delivered.getOrderId()));
+        assertTrue(orderArchiveService.findArchivedOrder(delivered.getOrderId()).isPresent());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportOrders(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 31), "ndjson", out);
+
+        // The archive is streamed first, then the active orders
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"customerName\":\"Client, 1\""));
+        assertTrue(lines[0].contains("\"status\":\"DELIVERED\""));
+        assertTrue(lines[0].contains("THEME_1") && lines[0].contains("PLATE_1"));
+        assertTrue(lines[1].contains("\"customerName\":\"Client, 0\""));
+        assertTrue(lines[2].contains("\"customerName\":\"Client, 2\""));
+    }
+
+    @Test
+    void testExport_ShouldStopReadingWhenClientDisconnects() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            Order order = new Order("USER_2", "Bulk Client", "client@example.com", "9876543210",
+                    "123 Main St", "2026-06-10", 100.0);
+            order.setOrderDate(LocalDateTime.of(2026, 6, 1, 0, 0).plusMinutes(i));
+            order.setOrderItems(List.of(new OrderItem(order, "THEME_" + i, "Theme " + i, 100.0, 1, "theme",
+                    "BUSINESS_A", "Business")));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+
+        AtomicInteger writes = new AtomicInteger();
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writes.incrementAndGet();
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class, () -> orderExportService.exportOrders(
+                LocalDate.of(2026, 6, 1), LocalDate.of(2026, 6, 30), "ndjson", disconnected));
+        // The first buffer flush failed and nothing else was attempted
+        assertEquals(1, writes.get());
+    }
+}
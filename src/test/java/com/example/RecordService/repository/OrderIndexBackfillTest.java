@@ -0,0 +1,77 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.BusinessDailyRollup;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.service.OrderArchiveService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Backfills of the order-derived tables read archived orders as well as active ones
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(OrderArchiveService.class)
+class OrderIndexBackfillTest {
+
+    private static final LocalDateTime ORDER_DATE = LocalDateTime.of(2025, 1, 5, 10, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private BusinessDailyRollupRepository businessDailyRollupRepository;
+
+    @Autowired
+    private BusinessItemDailyRollupRepository businessItemDailyRollupRepository;
+
+    @Autowired
+    private ClientPurchaseRepository clientPurchaseRepository;
+
+    @Test
+    void testBackfills_ShouldCountActiveAndArchivedOrders() {
+        Order active = new Order("USER_ACTIVE", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2025-01-10", 200.0);
+        active.setStatus(Order.OrderStatus.DELIVERED);
+        active.setOrderDate(ORDER_DATE);
+        active.setOrderItems(List.of(new OrderItem(active, "THEME_1", "Theme", 100.0, 2, "theme", "BUSINESS_A", "Business")));
+        orderRepository.save(active);
+        entityManager.flush();
+
+        jdbcTemplate.update("INSERT INTO orders_archive (order_id, user_id, customer_name, customer_email, customer_phone, " +
+                "delivery_address, delivery_date, total_amount, status, order_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                9001L, "USER_ARCHIVED", "Test Client", "client@example.com", "9876543210", "123 Main St", "2025-01-10",
+                300.0, "DELIVERED", ORDER_DATE);
+        jdbcTemplate.update("INSERT INTO order_items_archive (order_item_id, order_id, item_id, item_name, item_price, " +
+                "quantity, item_type, business_id, business_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                90010L, 9001L, "THEME_1", "Theme", 100.0, 3, "theme", "BUSINESS_A", "Business");
+
+        assertEquals(1, businessDailyRollupRepository.backfill());
+        assertEquals(1, businessItemDailyRollupRepository.backfill());
+        assertEquals(2, clientPurchaseRepository.backfill());
+
+        BusinessDailyRollup day = businessDailyRollupRepository.findByBusinessIdAndRollupDateBetweenOrderByRollupDateAsc(
+                "BUSINESS_A", LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 5)).get(0);
+        assertEquals(2, day.getOrderCount());
+        assertEquals(5, day.getItemsSold());
+        assertEquals(500.0, day.getRevenue());
+        assertTrue(clientPurchaseRepository.hasPurchased("USER_ACTIVE", "THEME_1", "theme"));
+        assertTrue(clientPurchaseRepository.hasPurchased("USER_ARCHIVED", "THEME_1", "theme"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class OrderKeysetPaginationTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final List<Long> expectedOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Order order = new Order("USER_1", "Test Client", "client@example.com", "9876543210",
+                    "123 Main St", "2026-12-01", 100.0);
+            // Orders 2-4 share one timestamp so the orderId tie-breaker matters
+            order.setOrderDate(i >= 2 && i <= 4 ? base.plusMinutes(2) : base.plusMinutes(i));
+            order.setOrderItems(List.of(new OrderItem(order, "THEME_" + i, "Theme " + i, 100.0, 1, "theme",
+                    i % 2 == 0 ? "BUSINESS_A" : "BUSINESS_B", "Business")));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+        entityManager.clear();
+
+        orders.sort((a, b) -> a.getOrderDate().equals(b.getOrderDate())
+                ? b.getOrderId().compareTo(a.getOrderId())
+                : b.getOrderDate().compareTo(a.getOrderDate()));
+        orders.forEach(order -> expectedOrderIds.add(order.getOrderId()));
+    }
+
+    @Test
+    void testKeysetPages_ShouldVisitEveryOrderOnceInOrder() {
+        List<Long> visited = new ArrayList<>();
+        List<Order> page = orderRepository.findFirstPageByUserId("USER_1", PageRequest.of(0, 3));
+        while (!page.isEmpty()) {
+            page.forEach(order -> visited.add(order.getOrderId()));
+            Order last = page.get(page.size() - 1);
+            page = orderRepository.findPageByUserIdAfter("USER_1", last.getOrderDate(), last.getOrderId(),
+                    PageRequest.of(0, 3));
+        }
+
+        assertEquals(expectedOrderIds, visited);
+    }
+
+    @Test
+    void testBusinessPages_ShouldOnlyReturnOrdersWithTheBusinessItems() {
+        List<Order> page = orderRepository.findFirstPageByBusinessId("BUSINESS_A", PageRequest.of(0, 10));
+
+        assertEquals(4, page.size());
+        List<OrderItem> items = orderItemRepository.findByOrderIds(page.stream().map(Order::getOrderId).toList());
+        assertEquals(4, items.size());
+        assertTrue(items.stream().allMatch(item -> item.getBusinessId().equals("BUSINESS_A")));
+    }
+}
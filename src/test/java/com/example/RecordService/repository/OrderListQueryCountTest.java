@@ -0,0 +1,183 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.dto.OrderPage;
+import com.example.RecordService.model.dto.OrderResponse;
+import com.example.RecordService.service.AvailabilityService;
+import com.example.RecordService.service.BookedQuantityService;
+import com.example.RecordService.service.ClientPurchaseService;
+import com.example.RecordService.service.InventoryService;
+import com.example.RecordService.service.OrderArchiveService;
+import com.example.RecordService.service.OrderEventPublisher;
+import com.example.RecordService.service.OrderService;
+import com.example.RecordService.service.OrderStatisticsService;
+import com.example.RecordService.service.OrderTransitionService;
+import com.example.RecordService.service.PlateService;
+import com.example.RecordService.service.SalesRollupService;
+import com.example.RecordService.service.StockReservationService;
+import com.example.RecordService.service.ThemeService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Asserts that order list endpoints run a fixed number of SQL statements (orders + items)
+ * no matter how many orders they return, i.e. no per-order lazy loading of items.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(OrderService.class)
+class OrderListQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private ThemeService themeService;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private PlateService plateService;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockitoBean
+    private OrderStatisticsService orderStatisticsService;
+
+    @MockitoBean
+    private SalesRollupService salesRollupService;
+
+    @MockitoBean
+    private ClientPurchaseService clientPurchaseService;
+
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockitoBean
+    private OrderTransitionService orderTransitionService;
+
+    @MockitoBean
+    private BookedQuantityService bookedQuantityService;
+
+    @Test
+    void testListEndpoints_ShouldUseTwoStatementsWhateverTheResultSize() {
+        for (int orderCount : new int[]{1, 10, 60}) {
+            String userId = "USER_" + orderCount;
+            String businessId = "BUSINESS_" + orderCount;
+            createOrders(userId, businessId, orderCount);
+
+            List<OrderResponse> byUser = measure(2, () -> orderService.getOrdersByUserId(userId));
+            assertEquals(orderCount, byUser.size());
+            assertTrue(byUser.stream().allMatch(order -> order.getOrderItems().size() == 2));
+
+            List<OrderResponse> byBusiness = measure(2, () -> orderService.getOrdersByBusinessId(businessId));
+            assertEquals(orderCount, byBusiness.size());
+
+            OrderPage page = measure(2, () -> orderService.getOrdersByUserIdPage(userId, null, 50));
+            assertEquals(Math.min(orderCount, 50), page.getOrders().size());
+            assertEquals(orderCount > 50, page.getNextCursor() != null);
+        }
+    }
+
+    @Test
+    void testUserPages_ShouldContinueIntoArchivedOrders() {
+        String userId = "USER_ARCHIVED";
+        createOrders(userId, "BUSINESS_ARCHIVED", 3);
+        // Read order dates back at the column's precision
+        entityManager.clear();
+        LocalDateTime archivedDate = LocalDateTime.now().minusDays(400);
+        List<Order> archived = List.of(archivedOrder(9002L, userId, archivedDate), archivedOrder(9001L, userId, archivedDate));
+        when(orderArchiveService.findArchivedOrdersByUserId(eq(userId), any(), any(), any())).thenAnswer(invocation -> {
+            LocalDateTime beforeDate = invocation.getArgument(1);
+            Long beforeId = invocation.getArgument(2);
+            Integer limit = invocation.getArgument(3);
+            return archived.stream()
+                    .filter(order -> beforeDate == null || order.getOrderDate().isBefore(beforeDate)
+                            || (order.getOrderDate().equals(beforeDate) && order.getOrderId() < beforeId))
+                    .limit(limit == null ? Long.MAX_VALUE : limit)
+                    .toList();
+        });
+
+        List<OrderResponse> visited = new ArrayList<>();
+        OrderPage page = orderService.getOrdersByUserIdPage(userId, null, 2);
+        visited.addAll(page.getOrders());
+        String cursor = page.getNextCursor();
+        page = measure(2, () -> orderService.getOrdersByUserIdPage(userId, cursor, 2));
+        visited.addAll(page.getOrders());
+        visited.addAll(orderService.getOrdersByUserIdPage(userId, page.getNextCursor(), 2).getOrders());
+
+        assertEquals(5, visited.size());
+        assertEquals(List.of(9002L, 9001L), visited.subList(3, 5).stream().map(OrderResponse::getOrderId).toList());
+        assertTrue(visited.stream().allMatch(order -> !order.getOrderItems().isEmpty()));
+        // The first page was full of recent orders, so only the later pages read the archive
+        verify(orderArchiveService, times(2)).findArchivedOrdersByUserId(eq(userId), any(), any(), anyInt());
+        assertEquals(visited.stream().map(OrderResponse::getOrderId).toList(),
+                orderService.getOrdersByUserId(userId).stream().map(OrderResponse::getOrderId).toList());
+    }
+
+    private <T> T measure(long expectedStatements, java.util.function.Supplier<T> call) {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expectedStatements, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private void createOrders(String userId, String businessId, int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(userId, "Test Client", "client@example.com", "9876543210",
+                    "123 Main St", "2026-12-01", 200.0);
+            order.setOrderItems(List.of(
+                    new OrderItem(order, "THEME_" + i, "Theme " + i, 100.0, 1, "theme", businessId, "Business"),
+                    new OrderItem(order, "PLATE_" + i, "Plate " + i, 100.0, 1, "plate", businessId, "Business")));
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+        entityManager.flush();
+    }
+
+    private static Order archivedOrder(Long orderId, String userId, LocalDateTime orderDate) {
+        Order order = new Order(userId, "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2025-01-10", 100.0);
+        order.setOrderId(orderId);
+        order.setOrderDate(orderDate);
+        order.setStatus(Order.OrderStatus.DELIVERED);
+        order.setOrderItems(List.of(new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "theme", "BUSINESS_A", "Business")));
+        return order;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.service.AvailabilityService;
+import com.example.RecordService.service.BookedQuantityService;
+import com.example.RecordService.service.ClientPurchaseService;
+import com.example.RecordService.service.InventoryService;
+import com.example.RecordService.service.OrderArchiveService;
+import com.example.RecordService.service.OrderEventPublisher;
+import com.example.RecordService.service.OrderService;
+import com.example.RecordService.service.OrderStatisticsService;
+import com.example.RecordService.service.OrderTransitionService;
+import com.example.RecordService.service.PlateService;
+import com.example.RecordService.service.SalesRollupService;
+import com.example.RecordService.service.StockReservationService;
+import com.example.RecordService.service.ThemeService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(OrderService.class)
+class OrderReservationExpiryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @MockitoBean
+    private ThemeService themeService;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private PlateService plateService;
+
+    @MockitoBean
+    private AvailabilityService availabilityService;
+
+    @MockitoBean
+    private StockReservationService stockReservationService;
+
+    @MockitoBean
+    private OrderEventPublisher orderEventPublisher;
+
+    @MockitoBean
+    private OrderStatisticsService orderStatisticsService;
+
+    @MockitoBean
+    private SalesRollupService salesRollupService;
+
+    @MockitoBean
+    private ClientPurchaseService clientPurchaseService;
+
+    @MockitoBean
+    private OrderArchiveService orderArchiveService;
+
+    @MockitoBean
+    private OrderTransitionService orderTransitionService;
+
+    @MockitoBean
+    private BookedQuantityService bookedQuantityService;
+
+    @Test
+    void testExpireReservations_ShouldCancelOnlyLapsedPendingOrdersAndReleaseTheirStock() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 1, 12, 0);
+        Order lapsed = createOrder(now.minusMinutes(1), Order.OrderStatus.PENDING, 2);
+        Order lapsedButConfirmed = createOrder(now.minusMinutes(5), Order.OrderStatus.CONFIRMED, 1);
+        Order notYetDue = createOrder(now.plusMinutes(30), Order.OrderStatus.PENDING, 4);
+        Order vendorCancelled = createOrder(null, Order.OrderStatus.CANCELLED, 3);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(lapsed.getOrderId()), orderRepository.findExpiredReservationIds(now, PageRequest.of(0, 10)));
+        List<Object[]> held = orderRepository.sumPendingReservations();
+        assertEquals(2L, ((Number) held.get(0)[0]).longValue());
+        assertEquals(6L, ((Number) held.get(0)[1]).longValue());
+
+        OrderService.ReservationExpiry expiry = orderService.expireReservations(now, 10);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(List.of(lapsed.getOrderId()), expiry.getOrderIds());
+        assertEquals(2, expiry.getReleasedUnits());
+        verify(stockReservationService).release(argThat(items -> items.size() == 1));
+        verify(orderEventPublisher).statusChanged(any(), eq(Order.OrderStatus.PENDING));
+
+        Order reloaded = orderRepository.findById(lapsed.getOrderId()).orElseThrow();
+        assertEquals(Order.OrderStatus.CANCELLED, reloaded.getStatus());
+        assertNull(reloaded.getReservationExpiresAt());
+        assertEquals(Order.OrderStatus.CONFIRMED, orderRepository.findById(lapsedButConfirmed.getOrderId()).orElseThrow().getStatus());
+        assertEquals(Order.OrderStatus.PENDING, orderRepository.findById(notYetDue.getOrderId()).orElseThrow().getStatus());
+        assertEquals(Order.OrderStatus.CANCELLED, orderRepository.findById(vendorCancelled.getOrderId()).orElseThrow().getStatus());
+
+        // Nothing left to expire
+        assertTrue(orderService.expireReservations(now, 10).getOrderIds().isEmpty());
+    }
+
+    @Test
+    void testCancel_ShouldFailWhenStockCannotBeRestored() {
+        Order order = createOrder(LocalDateTime.of(2026, 3, 1, 12, 0), Order.OrderStatus.PENDING, 1);
+        entityManager.flush();
+        entityManager.clear();
+        doThrow(new IllegalStateException("Stock store unavailable")).when(stockReservationService).release(anyList());
+
+        assertThrows(IllegalStateException.class,
+                () -> orderService.updateOrderStatus(order.getOrderId(), Order.OrderStatus.CANCELLED));
+    }
+
+    private Order createOrder(LocalDateTime expiresAt, Order.OrderStatus status, int quantity) {
+        Order order = new Order("USER_TTL", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 100.0 * quantity);
+        order.setStatus(status);
+        order.setReservationExpiresAt(expiresAt);
+        order.setOrderItems(new ArrayList<>(List.of(
+                new OrderItem(order, "THEME_TTL", "Theme", 100.0, quantity, "theme", "BUSINESS_TTL", "Business"))));
+        return orderRepository.save(order);
+    }
+}
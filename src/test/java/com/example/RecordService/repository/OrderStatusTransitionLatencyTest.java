@@ -0,0 +1,76 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.dto.StatusLatencyResponse;
+import com.example.RecordService.service.OrderTransitionService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(OrderTransitionService.class)
+class OrderStatusTransitionLatencyTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 3, 10, 12, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderTransitionService orderTransitionService;
+
+    @Test
+    void testLatencyPercentiles_ShouldMeasureEachBusinessFromItsOwnTransitions() {
+        // Confirmed after 1..10 minutes; order 1 also has a line from another business
+        for (int i = 1; i <= 10; i++) {
+            Order order = order((long) i, i == 1 ? List.of("BUSINESS_A", "BUSINESS_B") : List.of("BUSINESS_A"));
+            orderTransitionService.record(order, null, Order.OrderStatus.PENDING, "USER_1", START);
+            orderTransitionService.record(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED,
+                    "9876543210", START.plusMinutes(i));
+        }
+        // Pending only: not counted
+        orderTransitionService.record(order(11L, List.of("BUSINESS_A")), null, Order.OrderStatus.PENDING, "USER_1", START);
+        entityManager.flush();
+
+        StatusLatencyResponse latency = orderTransitionService.getLatencyPercentiles("BUSINESS_A",
+                Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 10));
+
+        assertEquals(10, latency.getOrderCount());
+        assertEquals(330.0, latency.getP50Seconds(), 0.001);
+        assertEquals(573.0, latency.getP95Seconds(), 0.001);
+        assertEquals(594.6, latency.getP99Seconds(), 0.001);
+        assertEquals(600.0, latency.getMaxSeconds(), 0.001);
+
+        StatusLatencyResponse other = orderTransitionService.getLatencyPercentiles("BUSINESS_B",
+                Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, LocalDate.of(2026, 3, 10), LocalDate.of(2026, 3, 10));
+        assertEquals(1, other.getOrderCount());
+        assertEquals(60.0, other.getP50Seconds(), 0.001);
+
+        StatusLatencyResponse outside = orderTransitionService.getLatencyPercentiles("BUSINESS_A",
+                Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED, LocalDate.of(2026, 3, 11), LocalDate.of(2026, 3, 12));
+        assertEquals(0, outside.getOrderCount());
+        assertNull(outside.getP50Seconds());
+    }
+
+    private static Order order(Long orderId, List<String> businessIds) {
+        Order order = new Order("USER_1", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 100.0);
+        order.setOrderId(orderId);
+        List<OrderItem> items = new ArrayList<>();
+        for (String businessId : businessIds) {
+            items.add(new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "theme", businessId, "Business"));
+        }
+        order.setOrderItems(items);
+        return order;
+    }
+}
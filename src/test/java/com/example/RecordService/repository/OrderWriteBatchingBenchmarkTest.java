@@ -0,0 +1,113 @@
+package com.example.RecordService.repository;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.entity.OrderStatusTransition;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures JDBC round trips for the entity inserts of the order write path (order, items, outbox event,
+ * one status transition per vendor) with and without insert batching, for 1, 10 and 50 item carts.
+ * Notifications are written later by the order event workers; the rollup and ledger upserts are one native
+ * statement per key either way, so neither is part of what batching changes here.
+ * Round trips are counted with Hibernate statistics (one prepared statement per batch or per row).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+class OrderWriteBatchingBenchmarkTest {
+
+    private static final int VENDORS_PER_CART = 3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private OrderStatusTransitionRepository orderStatusTransitionRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        // Warm up the pooled sequences so the measurements show steady-state round trips
+        writeOrder(50);
+    }
+
+    @Test
+    void testOrderWrite_ShouldUseConstantRoundTripsPerTableRegardlessOfCartSize() {
+        System.out.println("cart items | unbatched round trips | batched round trips");
+        for (int cartSize : new int[]{1, 10, 50}) {
+            long unbatched = measure(cartSize, 1);
+            long batched = measure(cartSize, 50);
+            System.out.printf("%10d | %21d | %19d%n", cartSize, unbatched, batched);
+
+            int vendors = Math.min(cartSize, VENDORS_PER_CART);
+            // Without batching every row is its own statement
+            assertTrue(unbatched >= 1 + cartSize + vendors + 1);
+            // With batching: one statement per table (orders, order_items, order_events, order_status_transitions)
+            // plus at most one pooled sequence refill per table
+            assertTrue(batched <= 8, "batched round trips for " + cartSize + " items: " + batched);
+        }
+    }
+
+    private long measure(int cartSize, int jdbcBatchSize) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+        statistics.clear();
+        writeOrder(cartSize);
+        long statements = statistics.getPrepareStatementCount();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(null);
+        return statements;
+    }
+
+    /**
+     * Mirrors the inserts of OrderService.createOrder: one cascaded save for the order and its items,
+     * one save for the outbox event (OrderEventPublisher) and one saveAll for the transitions (OrderTransitionService).
+     */
+    private void writeOrder(int cartSize) {
+        Order order = new Order("9876543210", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 100.0 * cartSize);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < cartSize; i++) {
+            items.add(new OrderItem(order, "PLATE_" + i, "Plate " + i, 100.0, 1, "plate",
+                    "BUSINESS_" + (i % VENDORS_PER_CART), "Business " + (i % VENDORS_PER_CART)));
+        }
+        order.setOrderItems(items);
+        Order saved = orderRepository.save(order);
+
+        orderEventRepository.save(new OrderEvent(saved.getOrderId(), OrderEvent.EventType.ORDER_CREATED, null,
+                saved.getStatus()));
+
+        List<OrderStatusTransition> transitions = new ArrayList<>();
+        items.stream().map(OrderItem::getBusinessId).distinct().sorted().forEach(businessId ->
+                transitions.add(new OrderStatusTransition(saved.getOrderId(), businessId, null, saved.getStatus(),
+                        saved.getOrderDate(), saved.getUserId())));
+        orderStatusTransitionRepository.saveAll(transitions);
+
+        entityManager.flush();
+        entityManager.clear();
+        assertNotNull(saved.getOrderId());
+    }
+}
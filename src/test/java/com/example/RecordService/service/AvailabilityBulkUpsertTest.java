@@ -0,0 +1,117 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import com.example.RecordService.model.Theme;
+import com.example.RecordService.model.dto.BulkAvailabilityRequest;
+import com.example.RecordService.model.dto.BulkAvailabilityResponse;
+import com.example.RecordService.repository.AvailabilityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityBulkUpsertTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 12, 1);
+    private static final LocalDate END = LocalDate.of(2026, 12, 3);
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private StockNotificationService stockNotificationService;
+
+    @Mock
+    private ThemeService themeService;
+
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testBulkUpsert_ShouldWriteOneBatchAndNotifyNewlyAvailableDatesOnce() {
+        // THEME_1 is already bookable on the 1st and sold out on the 2nd; THEME_2 has no entries
+        Availability open = new Availability("THEME_1", "theme", "BUSINESS_A", START, 3);
+        Availability soldOut = new Availability("THEME_1", "theme", "BUSINESS_A", START.plusDays(1), 0);
+        when(availabilityRepository.findByItemIdsAndDateRange(List.of("THEME_1", "THEME_2"), START, END))
+                .thenReturn(List.of(open, soldOut));
+        Theme theme = new Theme();
+        theme.setThemeName("Jungle");
+        when(themeService.getThemeById(anyString())).thenReturn(theme);
+        when(stockNotificationService.notifySubscribers(anyList())).thenReturn(2);
+
+        BulkAvailabilityRequest request = new BulkAvailabilityRequest();
+        request.setBusinessId("BUSINESS_A");
+        request.setItems(List.of(new BulkAvailabilityRequest.Item("THEME_1", "theme"),
+                new BulkAvailabilityRequest.Item("THEME_2", "theme"),
+                new BulkAvailabilityRequest.Item("THEME_1", "theme")));
+        request.setStartDate(START);
+        request.setEndDate(END);
+        request.setAvailableQuantity(5);
+
+        BulkAvailabilityResponse response = availabilityService.bulkUpsertAvailability(request);
+
+        assertEquals(4, response.getCreated());
+        assertEquals(2, response.getUpdated());
+        assertEquals(2, response.getNotifiedSubscribers());
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture());
+        assertEquals(6, rows.getValue().size());
+        verify(availabilityRepository, never()).save(any());
+        verify(availabilityCache).invalidateItem("THEME_1", "theme");
+        verify(availabilityCache).invalidateItem("THEME_2", "theme");
+
+        ArgumentCaptor<List<StockNotificationService.AvailableItem>> notified = ArgumentCaptor.forClass(List.class);
+        verify(stockNotificationService, times(1)).notifySubscribers(notified.capture());
+        assertEquals(2, notified.getValue().size());
+        verify(stockNotificationService, never()).notifySubscribers(anyString(), anyString(), anyString(), any());
+        verify(themeService, times(2)).getThemeById(anyString());
+    }
+
+    @Test
+    void testBulkUpsert_ShouldNotifyOnlyAfterCommitAndSurviveNotificationFailures() {
+        Theme theme = new Theme();
+        theme.setThemeName("Jungle");
+        when(themeService.getThemeById("THEME_1")).thenReturn(theme);
+        when(stockNotificationService.notifySubscribers(anyList())).thenThrow(new IllegalStateException("mail down"));
+
+        BulkAvailabilityRequest request = new BulkAvailabilityRequest();
+        request.setBusinessId("BUSINESS_A");
+        request.setItems(List.of(new BulkAvailabilityRequest.Item("THEME_1", "theme")));
+        request.setStartDate(START);
+        request.setEndDate(START);
+        request.setAvailableQuantity(5);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            BulkAvailabilityResponse response = availabilityService.bulkUpsertAvailability(request);
+            verify(stockNotificationService, never()).notifySubscribers(anyList());
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(stockNotificationService, times(1)).notifySubscribers(anyList());
+            assertEquals(1, response.getCreated());
+            assertEquals(0, response.getNotifiedSubscribers());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCacheTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AvailabilityCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 2);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        cache.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGet_ShouldCacheRowsAndAbsenceAndEvictLeastRecentlyUsed() {
+        assertEquals(5, read("THEME_1", 5).get().getAvailableQuantity());
+        assertEquals(5, read("THEME_1", 9).get().getAvailableQuantity());
+        assertTrue(read("THEME_2", null).isEmpty());
+        assertTrue(read("THEME_2", 4).isEmpty());
+        assertEquals(2, loads.get());
+
+        // THEME_1 was used least recently, so THEME_3 pushes it out
+        read("THEME_3", 1);
+        assertEquals(7, read("THEME_1", 7).get().getAvailableQuantity());
+        assertEquals(4, loads.get());
+        assertEquals(2.0, meterRegistry.counter("availability.cache.hits").count());
+        assertEquals(4.0, meterRegistry.counter("availability.cache.misses").count());
+    }
+
+    @Test
+    void testInvalidate_ShouldNotCacheUncommittedOrRacingReads() {
+        read("THEME_1", 5);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate("THEME_1", "theme", DAY);
+        // The writing transaction reads its own uncommitted row: served, but not cached
+        assertEquals(4, read("THEME_1", 4).get().getAvailableQuantity());
+        assertEquals(4, read("THEME_1", 4).get().getAvailableQuantity());
+        assertEquals(3, loads.get());
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // A read that races with a write does not cache what it loaded
+        Optional<Availability> raced = cache.get("THEME_1", "theme", DAY, () -> {
+            loads.incrementAndGet();
+            cache.invalidate("THEME_1", "theme", DAY);
+            return Optional.of(new Availability("THEME_1", "theme", "BUSINESS_A", DAY, 5));
+        });
+        assertEquals(5, raced.get().getAvailableQuantity());
+        assertEquals(2, read("THEME_1", 2).get().getAvailableQuantity());
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void testWriteThrough_ShouldCacheCommittedRowUnlessAnotherWriteIntervened() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(new Availability("THEME_1", "theme", "BUSINESS_A", DAY, 8));
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(8, read("THEME_1", 1).get().getAvailableQuantity());
+        assertEquals(0, loads.get());
+
+        // A write to another row does not keep this one out of the cache
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(new Availability("THEME_1", "theme", "BUSINESS_A", DAY, 7));
+        cache.invalidate("THEME_2", "theme", DAY);
+        commit();
+        assertEquals(7, read("THEME_1", 1).get().getAvailableQuantity());
+        assertEquals(0, loads.get());
+
+        // A write to the same row from another transaction before the commit does
+        TransactionSynchronizationManager.initSynchronization();
+        cache.writeThrough(new Availability("THEME_1", "theme", "BUSINESS_A", DAY, 6));
+        Thread writer = new Thread(() -> cache.invalidate("THEME_1", "theme", DAY));
+        writer.start();
+        writer.join();
+        commit();
+        assertEquals(5, read("THEME_1", 5).get().getAvailableQuantity());
+        assertEquals(1, loads.get());
+    }
+
+    private static void commit() {
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private Optional<Availability> read(String itemId, Integer quantity) {
+        return cache.get(itemId, "theme", DAY, () -> {
+            loads.incrementAndGet();
+            return quantity == null ? Optional.empty()
+                    : Optional.of(new Availability(itemId, "theme", "BUSINESS_A", DAY, quantity));
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import com.example.RecordService.entity.BookedQuantity;
+import com.example.RecordService.model.dto.AvailabilityCalendarResponse;
+import com.example.RecordService.repository.AvailabilityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCalendarTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 12, 1);
+    private static final LocalDate END = LocalDate.of(2026, 12, 3);
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private BookedQuantityService bookedQuantityService;
+
+    @Mock
+    private AvailabilityRuleService availabilityRuleService;
+
+    @InjectMocks
+    private AvailabilityService availabilityService;
+
+    @Test
+    void testGetBusinessCalendar_ShouldBuildMatrixFromTwoQueries() {
+        Availability closed = new Availability("PLATE_1", "plate", "BUSINESS_A", START.plusDays(2), 4);
+        closed.setIsAvailable(false);
+        Availability themeFirst = new Availability("THEME_1", "theme", "BUSINESS_A", START, 5);
+        themeFirst.setPriceOverride(120.0);
+        Availability themeLast = new Availability("THEME_1", "theme", "BUSINESS_A", END, 2);
+        when(availabilityRepository.findByBusinessIdAndDateRange("BUSINESS_A", START, END))
+                .thenReturn(List.of(closed, themeFirst, themeLast));
+        when(bookedQuantityService.getBookedQuantitiesForBusiness("BUSINESS_A", START, END))
+                .thenReturn(List.of(booked("THEME_1", "theme", START, 3), booked("THEME_1", "theme", END, 5)));
+
+        AvailabilityCalendarResponse calendar = availabilityService.getBusinessCalendar("BUSINESS_A", START, END);
+
+        assertEquals(List.of(START, START.plusDays(1), END), calendar.getDates());
+        assertEquals(List.of("PLATE_1", "THEME_1"), calendar.getItemIds());
+        assertEquals(List.of("plate", "theme"), calendar.getItemTypes());
+        assertEquals(Arrays.asList(null, null, 0), calendar.getAvailable().get(0));
+        assertEquals(Arrays.asList(2, null, 0), calendar.getAvailable().get(1));
+        assertEquals(Arrays.asList(3, null, 5), calendar.getBooked().get(1));
+        assertEquals(Arrays.asList(120.0, null, null), calendar.getPriceOverride().get(1));
+        verify(availabilityRepository, times(1)).findByBusinessIdAndDateRange("BUSINESS_A", START, END);
+        verifyNoMoreInteractions(availabilityRepository);
+    }
+
+    private static BookedQuantity booked(String itemId, String itemType, LocalDate date, long quantity) {
+        BookedQuantity booked = new BookedQuantity();
+        booked.setItemId(itemId);
+        booked.setItemType(itemType);
+        booked.setBookingDate(date);
+        booked.setBookedQuantity(quantity);
+        return booked;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Availability;
+import com.example.RecordService.entity.AvailabilityRule;
+import com.example.RecordService.model.dto.AvailabilityResponse;
+import com.example.RecordService.repository.AvailabilityRepository;
+import com.example.RecordService.repository.AvailabilityRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityRuleTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 12, 7);
+
+    @Mock
+    private AvailabilityRepository availabilityRepository;
+
+    @Mock
+    private AvailabilityRuleRepository availabilityRuleRepository;
+
+    @Mock
+    private BookedQuantityService bookedQuantityService;
+
+    @Mock
+    private AvailabilityCache availabilityCache;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private AvailabilityService availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityRuleService availabilityRuleService = new AvailabilityRuleService();
+        ReflectionTestUtils.setField(availabilityRuleService, "availabilityRuleRepository", availabilityRuleRepository);
+        ReflectionTestUtils.setField(availabilityRuleService, "availabilityCache", availabilityCache);
+        ReflectionTestUtils.setField(availabilityRuleService, "jdbcTemplate", jdbcTemplate);
+        availabilityService = new AvailabilityService();
+        ReflectionTestUtils.setField(availabilityService, "availabilityRepository", availabilityRepository);
+        ReflectionTestUtils.setField(availabilityService, "bookedQuantityService", bookedQuantityService);
+        ReflectionTestUtils.setField(availabilityService, "availabilityCache", availabilityCache);
+        ReflectionTestUtils.setField(availabilityService, "availabilityRuleService", availabilityRuleService);
+
+        AvailabilityRule weekdays = new AvailabilityRule("PLATE_1", "plate", "BUSINESS_A",
+                AvailabilityRuleService.toMask(EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY)), 10, MONDAY, null);
+        lenient().when(availabilityRuleRepository.findByItemIdAndItemType("PLATE_1", "plate"))
+                .thenReturn(Optional.of(weekdays));
+        lenient().when(availabilityCache.get(anyString(), anyString(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<Optional<Availability>>>getArgument(3).get());
+    }
+
+    @Test
+    void testGetAvailableQuantity_ShouldEvaluateRuleForDatesWithoutRow() {
+        when(bookedQuantityService.getBookedQuantity("PLATE_1", "plate", MONDAY)).thenReturn(3);
+
+        assertEquals(7, availabilityService.getAvailableQuantity("PLATE_1", "plate", MONDAY));
+        assertEquals(0, availabilityService.getAvailableQuantity("PLATE_1", "plate", MONDAY.plusDays(5)));
+        assertEquals(0, availabilityService.getAvailableQuantity("PLATE_1", "plate", MONDAY.minusDays(3)));
+        verify(availabilityRepository, never()).save(any());
+    }
+
+    @Test
+    void testGetAvailabilitiesInRange_ShouldLetConcreteRowsOverrideTheRule() {
+        Availability closedTuesday = new Availability("PLATE_1", "plate", "BUSINESS_A", MONDAY.plusDays(1), 10);
+        closedTuesday.setIsAvailable(false);
+        when(availabilityRepository.findByItemIdAndItemTypeAndDateRange("PLATE_1", "plate", MONDAY, MONDAY.plusDays(6)))
+                .thenReturn(new ArrayList<>(List.of(closedTuesday)));
+
+        List<AvailabilityResponse> range = availabilityService.getAvailabilitiesForItemInRange(
+                "PLATE_1", "plate", MONDAY, MONDAY.plusDays(6));
+
+        assertEquals(List.of(MONDAY, MONDAY.plusDays(1), MONDAY.plusDays(2), MONDAY.plusDays(3), MONDAY.plusDays(4)),
+                range.stream().map(AvailabilityResponse::getAvailabilityDate).collect(Collectors.toList()));
+        assertFalse(range.get(1).getIsAvailable());
+        assertTrue(range.get(2).getIsAvailable());
+        assertEquals(10, range.get(2).getAvailableQuantity());
+    }
+
+    @Test
+    void testDecrementAvailability_ShouldWriteTheRuleRowOnFirstBooking() {
+        when(availabilityRepository.decrementIfAvailable("PLATE_1", "plate", MONDAY, 2)).thenReturn(0, 1);
+
+        assertTrue(availabilityService.decrementAvailability("PLATE_1", "plate", MONDAY, 2));
+        assertFalse(availabilityService.decrementAvailability("PLATE_1", "plate", MONDAY.plusDays(5), 2));
+
+        verify(jdbcTemplate, times(1)).update(anyString(), eq("PLATE_1"), eq("plate"), eq("BUSINESS_A"),
+                eq(java.sql.Date.valueOf(MONDAY)), eq(10), isNull());
+    }
+}
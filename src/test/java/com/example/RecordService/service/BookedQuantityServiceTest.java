@@ -0,0 +1,102 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.BookedQuantity;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.BookedQuantityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookedQuantityServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 12, 1);
+
+    @Mock
+    private BookedQuantityRepository bookedQuantityRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BookedQuantityService bookedQuantityService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order("USER_1", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 500.0);
+        OrderItem first = new OrderItem(order, "THEME_1", "Theme", 100.0, 2, "THEME", "BUSINESS_A", "Business A");
+        first.setBookingDate(DAY);
+        OrderItem second = new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "theme", "BUSINESS_A", "Business A");
+        second.setBookingDate(DAY);
+        OrderItem undated = new OrderItem(order, "PLATE_1", "Plate", 100.0, 2, "plate", "BUSINESS_B", "Business B");
+        order.setOrderItems(List.of(first, second, undated));
+    }
+
+    @Test
+    void testApply_ConfirmBooksDatedLinesMergedPerItemAndDate() {
+        bookedQuantityService.apply(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+
+        verify(bookedQuantityRepository).upsert("THEME_1", "theme", DAY, 3);
+        verifyNoMoreInteractions(bookedQuantityRepository);
+    }
+
+    @Test
+    void testApply_DeliveryAndCancellationUnbookAndMovesWithinBookedWriteNothing() {
+        bookedQuantityService.apply(order, Order.OrderStatus.CONFIRMED, Order.OrderStatus.SHIPPED);
+        bookedQuantityService.apply(order, null, Order.OrderStatus.PENDING);
+        verifyNoInteractions(bookedQuantityRepository);
+
+        bookedQuantityService.apply(order, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+        verify(bookedQuantityRepository).upsert("THEME_1", "theme", DAY, -3);
+    }
+
+    @Test
+    void testGetBookedQuantity_ShouldReadLedgerRowByKey() {
+        BookedQuantity booked = new BookedQuantity();
+        booked.setBookedQuantity(4);
+        when(bookedQuantityRepository.findById(any(BookedQuantity.BookedKey.class))).thenReturn(Optional.empty());
+        when(bookedQuantityRepository.findById(new BookedQuantity.BookedKey("THEME_1", "theme", DAY)))
+                .thenReturn(Optional.of(booked));
+
+        assertEquals(4, bookedQuantityService.getBookedQuantity("THEME_1", "THEME", DAY));
+        assertEquals(0, bookedQuantityService.getBookedQuantity("THEME_1", "theme", DAY.plusDays(1)));
+    }
+
+    @Test
+    void testRepairDrift_ShouldRecheckCandidatesUnderRowLockAndAddTheDifference() {
+        when(bookedQuantityRepository.findDrift(DAY)).thenReturn(List.of(
+                new Object[]{"THEME_1", "theme", java.sql.Date.valueOf(DAY), 5L, 3L},
+                new Object[]{"PLATE_1", "plate", java.sql.Date.valueOf(DAY), 0L, 2L},
+                new Object[]{"THEME_2", "theme", java.sql.Date.valueOf(DAY), 1L, 0L}));
+        when(bookedQuantityRepository.findBookedQuantityForUpdate("THEME_1", "theme", DAY)).thenReturn(Optional.of(5L));
+        when(bookedQuantityRepository.sumBookedOrderQuantity("THEME_1", "theme", DAY)).thenReturn(3L);
+        when(bookedQuantityRepository.findBookedQuantityForUpdate("PLATE_1", "plate", DAY)).thenReturn(Optional.empty());
+        when(bookedQuantityRepository.sumBookedOrderQuantity("PLATE_1", "plate", DAY)).thenReturn(2L);
+        // The scan saw a status change in flight; it has committed by the re-check
+        when(bookedQuantityRepository.findBookedQuantityForUpdate("THEME_2", "theme", DAY)).thenReturn(Optional.of(1L));
+        when(bookedQuantityRepository.sumBookedOrderQuantity("THEME_2", "theme", DAY)).thenReturn(1L);
+
+        assertEquals(2, bookedQuantityService.repairDrift(DAY));
+
+        verify(bookedQuantityRepository).upsert("THEME_1", "theme", DAY, -2);
+        verify(bookedQuantityRepository).upsert("PLATE_1", "plate", DAY, 2);
+        verify(bookedQuantityRepository, never()).upsert(eq("THEME_2"), anyString(), any(), anyLong());
+        verify(transactionManager, times(3)).commit(any());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.ClientPurchaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientPurchaseServiceTest {
+
+    @Mock
+    private ClientPurchaseRepository clientPurchaseRepository;
+
+    @InjectMocks
+    private ClientPurchaseService clientPurchaseService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order("USER_1", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 300.0);
+        order.setOrderItems(List.of(
+                new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "THEME", "BUSINESS_A", "Business A"),
+                new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "theme", "BUSINESS_A", "Business A"),
+                new OrderItem(order, "PLATE_1", "Plate", 100.0, 1, "plate", "BUSINESS_B", "Business B")));
+    }
+
+    @Test
+    void testApply_DeliveredAddsEachItemOnce() {
+        clientPurchaseService.apply(order, Order.OrderStatus.SHIPPED, Order.OrderStatus.DELIVERED);
+
+        verify(clientPurchaseRepository).upsert("USER_1", "THEME_1", "theme", 1);
+        verify(clientPurchaseRepository).upsert("USER_1", "PLATE_1", "plate", 1);
+        verifyNoMoreInteractions(clientPurchaseRepository);
+    }
+
+    @Test
+    void testApply_LeavingDeliveredRemovesAndOtherMovesWriteNothing() {
+        clientPurchaseService.apply(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        verifyNoInteractions(clientPurchaseRepository);
+
+        clientPurchaseService.apply(order, Order.OrderStatus.DELIVERED, null);
+        verify(clientPurchaseRepository).upsert("USER_1", "THEME_1", "theme", -1);
+        verify(clientPurchaseRepository).upsert("USER_1", "PLATE_1", "plate", -1);
+    }
+
+    @Test
+    void testHasPurchased_ShouldLookUpLowerCaseType() {
+        when(clientPurchaseRepository.hasPurchased("USER_1", "THEME_1", "theme")).thenReturn(true);
+
+        assertTrue(clientPurchaseService.hasPurchased("USER_1", "THEME_1", "THEME"));
+        assertFalse(clientPurchaseService.hasPurchased("USER_1", null, "THEME"));
+    }
+}
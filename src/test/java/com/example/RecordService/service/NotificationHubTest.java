@@ -0,0 +1,147 @@
+package com.example.RecordService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationHubTest {
+
+    private static final String PHONE = "9876543210";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingEmitter emitter;
+    private NotificationHub notificationHub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        notificationHub = new NotificationHub() {
+            @Override
+            SseEmitter createEmitter() {
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(notificationHub, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(notificationHub, "bufferSize", 4);
+        ReflectionTestUtils.setField(notificationHub, "replaySize", 3);
+        ReflectionTestUtils.setField(notificationHub, "maxUsers", 100);
+        ReflectionTestUtils.setField(notificationHub, "maxConnectionsPerUser", 5);
+        ReflectionTestUtils.setField(notificationHub, "timeoutMs", 60000L);
+        ReflectionTestUtils.setField(notificationHub, "senderThreads", 1);
+        notificationHub.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationHub.shutdown();
+    }
+
+    @Test
+    void testSubscribe_ShouldReplayEventsAfterLastEventId() throws Exception {
+        RecordingEmitter live = subscribe(null, null);
+        for (int i = 1; i <= 3; i++) {
+            notificationHub.publish(PHONE, NotificationHub.NOTIFICATION, "n" + i);
+        }
+        await(() -> live.events.size() == 3);
+
+        RecordingEmitter resumed = subscribe(live.events.get(0), null);
+        await(() -> resumed.events.size() == 2);
+
+        assertEquals(live.events.subList(1, 3), resumed.events);
+        assertTrue(resumed.events.get(0).contains("data:n2"));
+    }
+
+    @Test
+    void testSubscribe_ShouldAskForResyncWhenMissedEventsWereEvicted() throws Exception {
+        RecordingEmitter live = subscribe(null, null);
+        for (int i = 1; i <= 5; i++) {
+            int sent = i;
+            notificationHub.publishUnread(PHONE, NotificationHub.CHAT, 1);
+            await(() -> live.events.size() == sent);
+        }
+
+        RecordingEmitter resumed = subscribe(live.events.get(0), null);
+        await(() -> resumed.events.size() == 1);
+
+        assertTrue(resumed.events.get(0).contains("event:" + NotificationHub.RESYNC));
+    }
+
+    @Test
+    void testPublish_ShouldDisconnectConsumerThatFallsBehind() throws Exception {
+        CountDownLatch stalled = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(null, stalled);
+        notificationHub.publish(PHONE, NotificationHub.NOTIFICATION, "first");
+        // The sender is now blocked on the first event; the queue holds four more
+        await(() -> slow.attempts == 1);
+        for (int i = 0; i < 5; i++) {
+            notificationHub.publish(PHONE, NotificationHub.NOTIFICATION, Map.of("n", i));
+        }
+
+        assertTrue(slow.completed);
+        assertEquals(1.0, meterRegistry.counter("notifications.stream.dropped").count());
+        stalled.countDown();
+    }
+
+    private RecordingEmitter subscribe(String lastEvent, CountDownLatch stalled) {
+        emitter = new RecordingEmitter(stalled);
+        Long lastEventId = lastEvent == null ? null : Long.parseLong(lastEvent.substring(3, lastEvent.indexOf('\n')));
+        assertSame(emitter, notificationHub.subscribe(PHONE, lastEventId));
+        return emitter;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out waiting for events");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Records sent events as their text form ("id:..\nevent:..\ndata:..") instead of writing a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch stalled;
+        volatile int attempts;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch stalled) {
+            this.stalled = stalled;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            attempts++;
+            if (stalled != null) {
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.ClientNotification;
+import com.example.RecordService.entity.Notification;
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.OrderEventRepository;
+import com.example.RecordService.repository.OrderRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventHandlerTest {
+
+    @Mock
+    private OrderEventRepository orderEventRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private ClientNotificationService clientNotificationService;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @InjectMocks
+    private OrderEventHandler orderEventHandler;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderEventHandler, "maxAttempts", 3);
+        order = new Order("9876543210", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 200.0);
+        order.setOrderId(7L);
+        order.setOrderItems(List.of(new OrderItem(order, "THEME_1", "Royal Tent", 200.0, 1, "theme",
+                "BUSINESS_1", "Test Business")));
+    }
+
+    private OrderEvent event(OrderEvent.EventType type, Order.OrderStatus previous, Order.OrderStatus next) {
+        OrderEvent event = new OrderEvent(7L, type, previous, next);
+        event.setEventId(1L);
+        event.setStatus(OrderEvent.EventStatus.PROCESSING);
+        event.setAttempts(1);
+        return event;
+    }
+
+    @Test
+    void testHandle_ShouldNotifyForCancellationAndMarkDone() {
+        OrderEvent event = event(OrderEvent.EventType.STATUS_CHANGED, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+        when(orderEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order));
+
+        orderEventHandler.handle(1L);
+
+        verify(notificationService).createOrderUpdateNotification(order, Notification.NotificationType.ORDER_CANCELLED);
+        verify(clientNotificationService).createOrderUpdateNotification(order, ClientNotification.NotificationType.ORDER_CANCELLED);
+        verify(stockReservationService).notifyRestocked(order.getOrderItems());
+        assertEquals(Order.OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(OrderEvent.EventStatus.DONE, event.getStatus());
+        assertNotNull(event.getProcessedAt());
+    }
+
+    @Test
+    void testHandle_ShouldQueueMailAsItsOwnEventInsteadOfSendingIt() {
+        ReflectionTestUtils.setField(orderEventHandler, "mailEnabled", true);
+        OrderEvent event = event(OrderEvent.EventType.STATUS_CHANGED, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        when(orderEventRepository.findById(1L)).thenReturn(Optional.of(event));
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order));
+        when(orderEventRepository.save(any(OrderEvent.class))).thenAnswer(invocation -> {
+            OrderEvent saved = invocation.getArgument(0);
+            if (saved.getEventId() == null) {
+                saved.setEventId(2L);
+            }
+            return saved;
+        });
+
+        assertEquals(2L, orderEventHandler.handle(1L));
+
+        ArgumentCaptor<OrderEvent> saved = ArgumentCaptor.forClass(OrderEvent.class);
+        verify(orderEventRepository, times(2)).save(saved.capture());
+        OrderEvent mail = saved.getAllValues().get(0);
+        assertEquals(OrderEvent.EventType.MAIL, mail.getEventType());
+        assertEquals(OrderEvent.EventStatus.PENDING, mail.getStatus());
+        assertEquals(Order.OrderStatus.CONFIRMED, mail.getNewStatus());
+        assertEquals(OrderEvent.EventStatus.DONE, event.getStatus());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void testHandle_MailFailureShouldOnlyFailTheMailEvent() {
+        ReflectionTestUtils.setField(orderEventHandler, "mailEnabled", true);
+        OrderEvent mail = event(OrderEvent.EventType.MAIL, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+        when(orderEventRepository.findById(1L)).thenReturn(Optional.of(mail));
+        when(orderRepository.findById(7L)).thenReturn(Optional.of(order));
+        doThrow(new MailSendException("smtp down")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        assertThrows(MailSendException.class, () -> orderEventHandler.handle(1L));
+
+        verifyNoInteractions(notificationService, clientNotificationService);
+        assertEquals(OrderEvent.EventStatus.PROCESSING, mail.getStatus());
+    }
+
+    @Test
+    void testMarkFailed_ShouldScheduleRetryWithBackoffThenGiveUp() {
+        OrderEvent event = event(OrderEvent.EventType.ORDER_CREATED, null, Order.OrderStatus.PENDING);
+        when(orderEventRepository.findById(1L)).thenReturn(Optional.of(event));
+
+        orderEventHandler.markFailed(1L, new RuntimeException("db down"));
+
+        assertEquals(OrderEvent.EventStatus.PENDING, event.getStatus());
+        assertEquals("db down", event.getLastError());
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(4)));
+
+        event.setAttempts(3);
+        orderEventHandler.markFailed(1L, new RuntimeException("db down"));
+
+        assertEquals(OrderEvent.EventStatus.FAILED, event.getStatus());
+    }
+
+    @Test
+    void testBackoff_ShouldDoubleAndCap() {
+        assertEquals(5, OrderEventHandler.backoffSeconds(1));
+        assertEquals(10, OrderEventHandler.backoffSeconds(2));
+        assertEquals(40, OrderEventHandler.backoffSeconds(4));
+        assertEquals(3600, OrderEventHandler.backoffSeconds(30));
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.OrderIdempotencyKey;
+import com.example.RecordService.model.dto.OrderRequest;
+import com.example.RecordService.model.dto.OrderResponse;
+import com.example.RecordService.repository.OrderIdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderIdempotencyKeyRepository orderIdempotencyKeyRepository;
+
+    @InjectMocks
+    private OrderIdempotencyService orderIdempotencyService;
+
+    private OrderRequest request;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orderIdempotencyService, "cacheSize", 100);
+        orderIdempotencyService.init();
+        request = new OrderRequest();
+        request.setUserId("USER_1");
+    }
+
+    private OrderResponse response(long orderId) {
+        OrderResponse response = new OrderResponse();
+        response.setOrderId(orderId);
+        return response;
+    }
+
+    @Test
+    void testCreateOrder_RetryReturnsOriginalOrderWithoutCreatingAgain() {
+        when(orderIdempotencyKeyRepository.findById("KEY_1")).thenReturn(Optional.empty());
+        when(orderService.createOrder(request, "KEY_1")).thenReturn(response(7L));
+        when(orderService.getOrderById(7L)).thenReturn(Optional.of(response(7L)));
+
+        assertEquals(7L, orderIdempotencyService.createOrder(request, "KEY_1").getOrderId());
+        assertEquals(7L, orderIdempotencyService.createOrder(request, "KEY_1").getOrderId());
+
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void testCreateOrder_ConcurrentDuplicatesWaitForTheFirst() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderIdempotencyKeyRepository.findById("KEY_2")).thenReturn(Optional.empty());
+        when(orderService.createOrder(request, "KEY_2")).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response(9L);
+        });
+        // Duplicates that arrive after the first one finished are served from the cache
+        lenient().when(orderService.getOrderById(9L)).thenReturn(Optional.of(response(9L)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OrderResponse>> results = new ArrayList<>();
+            results.add(executor.submit(() -> orderIdempotencyService.createOrder(request, "KEY_2")));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> orderIdempotencyService.createOrder(request, "KEY_2")));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            for (Future<OrderResponse> result : results) {
+                assertEquals(9L, result.get(5, TimeUnit.SECONDS).getOrderId());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(orderService, times(1)).createOrder(any(), any());
+    }
+
+    @Test
+    void testCreateOrder_KeyOfAnotherUserIsRejected() {
+        OrderIdempotencyKey stored = new OrderIdempotencyKey();
+        stored.setIdempotencyKey("KEY_3");
+        stored.setUserId("USER_2");
+        stored.setOrderId(11L);
+        when(orderIdempotencyKeyRepository.findById("KEY_3")).thenReturn(Optional.of(stored));
+
+        assertThrows(IllegalArgumentException.class, () -> orderIdempotencyService.createOrder(request, "KEY_3"));
+        verify(orderService, never()).createOrder(any(), any());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.RecordService.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIndexBackfillServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrderIndexBackfill orderIndexBackfill;
+
+    private final TransactionStatus transaction = new SimpleTransactionStatus();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+    }
+
+    @Test
+    void testBackfillIfEmpty_ShouldLockBeforeCheckingAndOnlyFillAnEmptyTable() {
+        AtomicInteger backfills = new AtomicInteger();
+
+        orderIndexBackfill.backfillIfEmpty("client_purchases", () -> true, () -> backfills.incrementAndGet() + " rows");
+        orderIndexBackfill.backfillIfEmpty("client_purchases", () -> false, () -> backfills.incrementAndGet() + " rows");
+
+        assertEquals(1, backfills.get());
+        InOrder inOrder = inOrder(jdbcTemplate, transactionManager);
+        inOrder.verify(jdbcTemplate).execute("LOCK TABLE client_purchases IN EXCLUSIVE MODE");
+        inOrder.verify(jdbcTemplate).execute("LOCK TABLE orders IN SHARE MODE");
+        inOrder.verify(transactionManager).commit(transaction);
+    }
+
+    @Test
+    void testBackfillIfEmpty_ShouldRollBackAndNotFailStartupWhenTheBackfillFails() {
+        orderIndexBackfill.backfillIfEmpty("booked_quantities", () -> true, () -> {
+            throw new IllegalStateException("orders_archive missing");
+        });
+
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+}
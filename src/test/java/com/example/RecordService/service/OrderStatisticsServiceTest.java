@@ -0,0 +1,72 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderEvent;
+import com.example.RecordService.model.dto.OrderStatusCounts;
+import com.example.RecordService.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatisticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @InjectMocks
+    private OrderStatisticsService orderStatisticsService;
+
+    private OrderLifecycleEvent event(OrderEvent.EventType type, Order.OrderStatus previous, Order.OrderStatus next) {
+        return new OrderLifecycleEvent(1L, 10L, type, previous, next, DAY.atTime(10, 0), List.of("BUSINESS_A"));
+    }
+
+    @Test
+    void testCounters_ShouldLoadOnceThenFollowCommittedChangesWithoutQueries() {
+        when(orderRepository.countGroupByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{Order.OrderStatus.PENDING, 3L},
+                new Object[]{Order.OrderStatus.DELIVERED, 2L}));
+        when(orderRepository.countGroupByDayAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{DAY, Order.OrderStatus.PENDING, 3L}));
+        when(orderRepository.countGroupByBusinessAndStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{"BUSINESS_A", Order.OrderStatus.PENDING, 1L}));
+        // One archived delivered order, counted alongside the active ones
+        when(orderArchiveService.countGroupByStatus()).thenReturn(List.<Object[]>of(
+                new Object[]{Order.OrderStatus.DELIVERED, 1L}));
+        orderStatisticsService.reconcile();
+
+        orderStatisticsService.onOrderEvent(event(OrderEvent.EventType.ORDER_CREATED, null, Order.OrderStatus.PENDING));
+        orderStatisticsService.onOrderEvent(event(OrderEvent.EventType.STATUS_CHANGED, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED));
+        orderStatisticsService.onOrderEvent(event(OrderEvent.EventType.ORDER_DELETED, Order.OrderStatus.DELIVERED, null));
+
+        OrderService.OrderStatistics statistics = orderStatisticsService.getOrderStatistics();
+        assertEquals(6, statistics.getTotalOrders());
+        assertEquals(3, statistics.getPendingOrders());
+        assertEquals(1, statistics.getConfirmedOrders());
+        assertEquals(2, statistics.getDeliveredOrders());
+
+        OrderStatusCounts business = orderStatisticsService.getBusinessStatistics("BUSINESS_A");
+        assertEquals(1, business.getTotal());
+        assertEquals(1L, business.getByStatus().get("CONFIRMED"));
+
+        Map<LocalDate, OrderStatusCounts> daily = orderStatisticsService.getDailyStatistics(DAY, DAY.plusDays(6));
+        assertEquals(1, daily.size());
+        assertEquals(3, daily.get(DAY).getTotal());
+
+        verify(orderRepository, times(1)).countGroupByStatus();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Order;
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.repository.BusinessDailyRollupRepository;
+import com.example.RecordService.repository.BusinessItemDailyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private BusinessDailyRollupRepository businessDailyRollupRepository;
+
+    @Mock
+    private BusinessItemDailyRollupRepository businessItemDailyRollupRepository;
+
+    @InjectMocks
+    private SalesRollupService salesRollupService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order("USER_1", "Test Client", "client@example.com", "9876543210",
+                "123 Main St", "2026-12-01", 500.0);
+        order.setOrderDate(DAY.atTime(10, 0));
+        order.setOrderItems(List.of(
+                new OrderItem(order, "THEME_1", "Theme", 100.0, 2, "theme", "BUSINESS_A", "Business A"),
+                new OrderItem(order, "THEME_1", "Theme", 100.0, 1, "theme", "BUSINESS_A", "Business A"),
+                new OrderItem(order, "PLATE_1", "Plate", 200.0, 1, "plate", "BUSINESS_B", "Business B")));
+    }
+
+    @Test
+    void testApply_ConfirmAddsOnePerBusinessAndMergesItemLines() {
+        salesRollupService.apply(order, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED);
+
+        verify(businessDailyRollupRepository).upsert("BUSINESS_A", DAY, 1, 3, 300.0, 0);
+        verify(businessDailyRollupRepository).upsert("BUSINESS_B", DAY, 1, 1, 200.0, 0);
+        verify(businessItemDailyRollupRepository).upsert("BUSINESS_A", DAY, "THEME_1", "theme", "Theme", 3, 300.0, 1);
+        verify(businessItemDailyRollupRepository).upsert("BUSINESS_B", DAY, "PLATE_1", "plate", "Plate", 1, 200.0, 1);
+    }
+
+    @Test
+    void testApply_CancelAfterConfirmSubtractsAndCountsCancellation() {
+        salesRollupService.apply(order, Order.OrderStatus.SHIPPED, Order.OrderStatus.CANCELLED);
+
+        verify(businessDailyRollupRepository).upsert("BUSINESS_A", DAY, -1, -3, -300.0, 1);
+        verify(businessItemDailyRollupRepository).upsert("BUSINESS_A", DAY, "THEME_1", "theme", "Theme", -3, -300.0, -1);
+    }
+
+    @Test
+    void testApply_MovesWithinCountedStatusesWriteNothing() {
+        salesRollupService.apply(order, Order.OrderStatus.CONFIRMED, Order.OrderStatus.DELIVERED);
+        salesRollupService.apply(order, null, Order.OrderStatus.PENDING);
+
+        verifyNoInteractions(businessDailyRollupRepository, businessItemDailyRollupRepository);
+    }
+
+    @Test
+    void testApply_CancelPendingOnlyCountsCancellation() {
+        salesRollupService.apply(order, Order.OrderStatus.PENDING, Order.OrderStatus.CANCELLED);
+
+        verify(businessDailyRollupRepository).upsert("BUSINESS_A", DAY, 0, 0, 0.0, 1);
+        verify(businessItemDailyRollupRepository, never()).upsert(any(), any(), any(), any(), any(), anyLong(), anyDouble(), anyLong());
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.OrderItem;
+import com.example.RecordService.model.Theme;
+import com.example.RecordService.repository.InventoryRepository;
+import com.example.RecordService.repository.PlateRepository;
+import com.example.RecordService.repository.ThemeRepository;
+import com.example.RecordService.repository.impl.ThemeRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    @Mock
+    private ThemeRepository themeRepository;
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private PlateRepository plateRepository;
+
+    @Mock
+    private AvailabilityService availabilityService;
+
+    @Mock
+    private StockNotificationService stockNotificationService;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    private OrderItem item(String itemId, String itemType, int quantity, LocalDate bookingDate) {
+        return new OrderItem(null, itemId, itemId + " name", 100.0, quantity, itemType,
+                "BUSINESS_1", "Test Business", bookingDate);
+    }
+
+    @Test
+    void testReserve_ShouldReserveEveryLine() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        when(themeRepository.decrementQuantityIfAvailable("THEME_1", 1)).thenReturn(true);
+        when(plateRepository.decrementQuantityIfAvailable("PLATE_1", 5)).thenReturn(1);
+        when(availabilityService.decrementAvailability("INV_1", "inventory", date, 2)).thenReturn(true);
+
+        stockReservationService.reserve(List.of(
+                item("THEME_1", "theme", 1, null),
+                item("PLATE_1", "plate", 5, null),
+                item("INV_1", "INVENTORY", 2, date)));
+
+        verify(inventoryRepository, never()).decrementQuantityIfAvailable(anyString(), anyInt());
+        verify(themeRepository, never()).incrementQuantity(anyString(), anyInt());
+        verify(plateRepository, never()).incrementQuantity(anyString(), anyInt());
+    }
+
+    @Test
+    void testReserve_ShouldRejectOrderAndReleaseEarlierLinesWhenOneLineFails() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        when(themeRepository.decrementQuantityIfAvailable("THEME_1", 1)).thenReturn(true);
+        when(availabilityService.decrementAvailability("PLATE_2", "plate", date, 4)).thenReturn(true);
+        when(plateRepository.decrementQuantityIfAvailable("PLATE_1", 5)).thenReturn(0);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                stockReservationService.reserve(List.of(
+                        item("THEME_1", "theme", 1, null),
+                        item("PLATE_2", "plate", 4, date),
+                        item("PLATE_1", "plate", 5, null),
+                        item("INV_1", "inventory", 2, null))));
+
+        assertTrue(exception.getMessage().contains("Insufficient stock"));
+        verify(themeRepository, times(1)).incrementQuantity("THEME_1", 1);
+        verify(availabilityService, times(1)).releaseAvailability("PLATE_2", "plate", date, 4);
+        verify(plateRepository, never()).incrementQuantity(anyString(), anyInt());
+        verify(inventoryRepository, never()).decrementQuantityIfAvailable(anyString(), anyInt());
+        verifyNoInteractions(stockNotificationService);
+    }
+
+    @Test
+    void testReserve_ShouldGiveBackInMemoryStockOnlyWhenTheTransactionRollsBack() {
+        when(themeRepository.decrementQuantityIfAvailable("THEME_1", 1)).thenReturn(true);
+        when(inventoryRepository.decrementQuantityIfAvailable("INV_1", 2)).thenReturn(true);
+        when(plateRepository.decrementQuantityIfAvailable("PLATE_1", 5)).thenReturn(1);
+        List<OrderItem> items = List.of(
+                item("THEME_1", "theme", 1, null),
+                item("INV_1", "inventory", 2, null),
+                item("PLATE_1", "plate", 5, null));
+
+        for (int status : new int[]{TransactionSynchronization.STATUS_COMMITTED, TransactionSynchronization.STATUS_ROLLED_BACK}) {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                stockReservationService.reserve(items);
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization -> synchronization.afterCompletion(status));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        // Plates are rolled back by the database
+        verify(themeRepository, times(1)).incrementQuantity("THEME_1", 1);
+        verify(inventoryRepository, times(1)).incrementQuantity("INV_1", 2);
+        verify(plateRepository, never()).incrementQuantity(anyString(), anyInt());
+    }
+
+    @Test
+    void testReserve_ShouldTakeEachItemOnceForAllItsLines() {
+        LocalDate date = LocalDate.now().plusDays(3);
+        when(plateRepository.decrementQuantityIfAvailable("PLATE_1", 30)).thenReturn(1);
+        when(availabilityService.decrementAvailability("PLATE_2", "plate", date, 4)).thenReturn(true);
+
+        stockReservationService.reserve(List.of(
+                item("PLATE_1", "plate", 10, null),
+                item("PLATE_2", "plate", 1, date),
+                item("PLATE_1", "PLATE", 20, null),
+                item("PLATE_2", "plate", 3, date)));
+
+        verify(plateRepository, times(1)).decrementQuantityIfAvailable(anyString(), anyInt());
+        verify(availabilityService, times(1)).decrementAvailability(anyString(), anyString(), any(), anyInt());
+    }
+
+    @Test
+    void testRelease_ShouldRestoreStockWithoutNotifying() {
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        stockReservationService.release(List.of(
+                item("THEME_1", "theme", 2, null),
+                item("PLATE_2", "plate", 4, date)));
+
+        verify(themeRepository, times(1)).incrementQuantity("THEME_1", 2);
+        verify(availabilityService, times(1)).releaseAvailability("PLATE_2", "plate", date, 4);
+        verifyNoInteractions(stockNotificationService);
+    }
+
+    @Test
+    void testRelease_ShouldMergeLinesOfTheSameItem() {
+        LocalDate date = LocalDate.now().plusDays(3);
+
+        stockReservationService.release(List.of(
+                item("THEME_1", "theme", 2, null),
+                item("THEME_1", "THEME", 3, null),
+                item("PLATE_2", "plate", 1, date),
+                item("PLATE_2", "plate", 1, date.plusDays(1))));
+
+        verify(themeRepository, times(1)).incrementQuantity("THEME_1", 5);
+        verify(availabilityService, times(1)).releaseAvailability("PLATE_2", "plate", date, 1);
+        verify(availabilityService, times(1)).releaseAvailability("PLATE_2", "plate", date.plusDays(1), 1);
+    }
+
+    @Test
+    void testNotifyRestocked_ShouldNotifySubscribersOnlyForItemsBackInStock() {
+        Theme theme = new Theme("BUSINESS_1", "Royal Tent", "desc", "tent", "1000-2000");
+        theme.setQuantity(2);
+        when(themeRepository.findByThemeId("THEME_1")).thenReturn(theme);
+        when(plateRepository.findQuantityByPlateId("PLATE_1")).thenReturn(0);
+
+        stockReservationService.notifyRestocked(List.of(
+                item("THEME_1", "theme", 2, null),
+                item("PLATE_1", "plate", 1, null)));
+
+        verify(stockNotificationService, times(1)).notifySubscribers("THEME_1", "THEME", "THEME_1 name");
+        verify(stockNotificationService, never()).notifySubscribers(eq("PLATE_1"), anyString(), anyString());
+    }
+
+    @Test
+    void testThemeDecrement_ShouldNeverOversellUnderConcurrentReservations() throws Exception {
+        ThemeRepositoryImpl repository = new ThemeRepositoryImpl();
+        Theme theme = new Theme("BUSINESS_1", "Last Unit Tent", "desc", "tent", "1000-2000");
+        theme.setQuantity(1);
+        String themeId = repository.save(theme).getThemeId();
+
+        int threads = 32;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        List<java.util.concurrent.Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                if (repository.decrementQuantityIfAvailable(themeId, 1)) {
+                    successes.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (java.util.concurrent.Future<?> future : futures) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, successes.get());
+        assertEquals(0, repository.findByThemeId(themeId).getQuantity());
+        repository.delete(themeId);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.RecordService.service;
+
+import com.example.RecordService.entity.Notification;
+import com.example.RecordService.repository.ChatMessageRepository;
+import com.example.RecordService.repository.ClientNotificationRepository;
+import com.example.RecordService.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCounterServiceTest {
+
+    private static final String VENDOR = "1234567890";
+    private static final String CLIENT = "9876543210";
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private ClientNotificationRepository clientNotificationRepository;
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private NotificationHub notificationHub;
+
+    @InjectMocks
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(unreadCounterService, "maxUsers", 100);
+        ReflectionTestUtils.setField(unreadCounterService, "idleMs", 3_600_000L);
+    }
+
+    @Test
+    void testGet_ShouldCountOnceThenFollowChanges() {
+        when(notificationRepository.countByVendorPhoneAndStatus(VENDOR, Notification.NotificationStatus.UNREAD)).thenReturn(3L);
+
+        assertEquals(3, unreadCounterService.get(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR));
+        unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR, 2);
+        unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR, -4);
+
+        assertEquals(1, unreadCounterService.get(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR));
+        verify(notificationRepository, times(1)).countByVendorPhoneAndStatus(VENDOR, Notification.NotificationStatus.UNREAD);
+        verify(notificationHub).publishUnread(VENDOR, NotificationHub.VENDOR_NOTIFICATIONS, -4);
+    }
+
+    @Test
+    void testAdd_ShouldLeaveUsersNotLoadedToTheFirstRead() {
+        unreadCounterService.add(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT, 1);
+        when(clientNotificationRepository.countByClientPhoneAndIsReadFalse(CLIENT)).thenReturn(5L);
+
+        assertEquals(5, unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT));
+    }
+
+    @Test
+    void testReconcile_ShouldRecountLoadedUsersWithGroupedQueries() {
+        when(chatMessageRepository.countUnreadMessagesForRecipient(CLIENT)).thenReturn(2L);
+        when(chatMessageRepository.countUnreadMessagesForRecipient(VENDOR)).thenReturn(0L);
+        assertEquals(2, unreadCounterService.get(UnreadCounterService.Kind.CHAT, CLIENT));
+        assertEquals(0, unreadCounterService.get(UnreadCounterService.Kind.CHAT, VENDOR));
+
+        // A vendor both chats as a client and receives messages as a vendor; a read on another node was missed
+        when(chatMessageRepository.countUnreadGroupByClientPhone()).thenReturn(List.<Object[]>of(
+                new Object[]{VENDOR, 1L}));
+        when(chatMessageRepository.countUnreadGroupByVendorPhone()).thenReturn(List.<Object[]>of(
+                new Object[]{VENDOR, 2L}));
+        unreadCounterService.reconcile();
+
+        assertEquals(0, unreadCounterService.get(UnreadCounterService.Kind.CHAT, CLIENT));
+        assertEquals(3, unreadCounterService.get(UnreadCounterService.Kind.CHAT, VENDOR));
+        verify(chatMessageRepository, times(2)).countUnreadMessagesForRecipient(anyString());
+        verifyNoInteractions(notificationRepository, clientNotificationRepository);
+    }
+
+    @Test
+    void testReconcile_ShouldLeaveCountersThatMovedDuringTheCount() {
+        when(notificationRepository.countByVendorPhoneAndStatus(VENDOR, Notification.NotificationStatus.UNREAD)).thenReturn(3L);
+        assertEquals(3, unreadCounterService.get(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR));
+
+        // A new notification commits and is applied while the grouped count runs
+        when(notificationRepository.countByStatusGroupByVendorPhone(Notification.NotificationStatus.UNREAD)).thenAnswer(invocation -> {
+            unreadCounterService.add(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR, 1);
+            return List.<Object[]>of(new Object[]{VENDOR, 4L});
+        });
+        unreadCounterService.reconcile();
+
+        assertEquals(4, unreadCounterService.get(UnreadCounterService.Kind.VENDOR_NOTIFICATIONS, VENDOR));
+    }
+
+    @Test
+    void testReconcile_ShouldDropIdleUsersToFreeSlots() {
+        ReflectionTestUtils.setField(unreadCounterService, "maxUsers", 1);
+        when(clientNotificationRepository.countByClientPhoneAndIsReadFalse(anyString())).thenReturn(1L);
+        unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, VENDOR);
+        unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT);
+        unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT);
+        verify(clientNotificationRepository, times(2)).countByClientPhoneAndIsReadFalse(CLIENT);
+
+        ReflectionTestUtils.setField(unreadCounterService, "idleMs", -60_000L);
+        unreadCounterService.reconcile();
+        unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT);
+        unreadCounterService.get(UnreadCounterService.Kind.CLIENT_NOTIFICATIONS, CLIENT);
+
+        // The table was full; once the idle user is dropped the client is held in memory
+        verify(clientNotificationRepository, times(3)).countByClientPhoneAndIsReadFalse(CLIENT);
+        verify(clientNotificationRepository, never()).countUnreadGroupByClientPhone();
+    }
+}